@@ -22,6 +22,7 @@ import amodeus.amodeus.analysis.element.AnalysisExport;
 import amodeus.amodeus.analysis.element.BinnedWaitingTimesImage;
 import amodeus.amodeus.analysis.element.DistanceDistributionOverDayImage;
 import amodeus.amodeus.analysis.element.DriveTimeHtml;
+import amodeus.amodeus.analysis.element.MergeableAnalysisElement;
 import amodeus.amodeus.analysis.element.OccupancyDistanceRatiosImage;
 import amodeus.amodeus.analysis.element.StatusDistributionImage;
 import amodeus.amodeus.analysis.element.TotalJourneyTimeHtml;
@@ -44,7 +45,6 @@ import amodeus.amodeus.analysis.report.TtlValIdent;
 import amodeus.amodeus.analysis.shared.NumberPassengerStatusDistribution;
 import amodeus.amodeus.analysis.shared.RideSharingDistributionCompositionStack;
 import amodeus.amodeus.net.MatsimAmodeusDatabase;
-import amodeus.amodeus.net.SimulationObject;
 import amodeus.amodeus.net.StorageSupplier;
 import amodeus.amodeus.net.StorageUtils;
 import amodeus.amodeus.options.ScenarioOptions;
@@ -93,6 +93,7 @@ public class Analysis {
     private final ColorDataIndexed colorDataIndexed;
     // private final StandardChartTheme chartTheme; // <- not used
     private final Set<String> allAmodeusTotalValueIdentifiers = TtlValIdent.getAllIdentifiers();
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
     /** Constructor of the Analysis Class can be called with any combination of null
      * and the respective parameter.
@@ -150,7 +151,7 @@ public class Analysis {
         // load simulation data
         StorageUtils storageUtils = new StorageUtils(outputDirectory);
         storageUtils.printStorageProperties();
-        storageSupplier = new StorageSupplier(storageUtils.getFirstAvailableIteration());
+        storageSupplier = storageUtils.getFirstAvailableStorageSupplier();
         size = storageSupplier.size();
         System.out.println("Found files: " + size);
         Set<Integer> vehicleIndices = storageSupplier.getSimulationObject(1).vehicles.stream().map(vc -> vc.vehicleIndex).collect(Collectors.toSet());
@@ -233,6 +234,12 @@ public class Analysis {
         totalValues.append(totalValueAppender);
     }
 
+    /** @param numberOfThreads that read the simulation objects and register them at the
+     *            {@link MergeableAnalysisElement}s, 1 for sequential registration, default is the number of processors */
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
     public AnalysisSummary getAnalysisSummary() {
         return analysisSummary;
     }
@@ -241,12 +248,7 @@ public class Analysis {
         /** iterate simulation objects */
         {
             Timing timing = Timing.started();
-            for (int index = 0; index < size; ++index) {
-                SimulationObject simulationObject = storageSupplier.getSimulationObject(index);
-                analysisElements.forEach(analysisElement -> analysisElement.register(simulationObject));
-                if (simulationObject.now % 10_000 == 0)
-                    System.out.println(String.format("%6.2f now=%d", timing.seconds(), simulationObject.now));
-            }
+            new RegistrationPipeline(storageSupplier, analysisElements, numberOfThreads).run();
             System.out.println(String.format("%6.2f register all", timing.seconds()));
         }
 
@@ -0,0 +1,147 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import amodeus.amodeus.analysis.element.AnalysisElement;
+import amodeus.amodeus.analysis.element.MergeableAnalysisElement;
+import amodeus.amodeus.net.SimulationObject;
+import amodeus.amodeus.net.StorageSupplier;
+import ch.ethz.idsc.tensor.io.Timing;
+
+/** registers the simulation objects of a {@link StorageSupplier} at the {@link AnalysisElement}s.
+ *
+ * The time steps are divided into chunks of contiguous time steps. A pool of threads reads and decodes
+ * the chunks ahead and registers them at partial instances of the {@link MergeableAnalysisElement}s.
+ * The calling thread takes the chunks in the order of the time steps, merges the partial instances
+ * and passes the simulation objects to the remaining {@link AnalysisElement}s. The number of chunks
+ * in progress is bounded such that the memory consumption does not depend on the length of the recording. */
+/* package */ class RegistrationPipeline {
+    private static final int CHUNK_SIZE = 32;
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private static class Partial<T extends MergeableAnalysisElement<T>> {
+        private final T element;
+        private final T partial;
+
+        Partial(T element) {
+            this.element = element;
+            partial = element.split();
+        }
+
+        void merge() {
+            element.merge(partial);
+        }
+    }
+
+    private static <T extends MergeableAnalysisElement<T>> Partial<T> partial(MergeableAnalysisElement<T> analysisElement) {
+        @SuppressWarnings("unchecked")
+        T element = (T) analysisElement;
+        return new Partial<>(element);
+    }
+
+    private static class Chunk {
+        private final List<Partial<?>> partials;
+        private final List<SimulationObject> simulationObjects;
+        private long now = -1;
+
+        Chunk(List<Partial<?>> partials, List<SimulationObject> simulationObjects) {
+            this.partials = partials;
+            this.simulationObjects = simulationObjects;
+        }
+    }
+
+    // ---
+    private final StorageSupplier storageSupplier;
+    private final List<MergeableAnalysisElement<?>> mergeable = new ArrayList<>();
+    private final List<AnalysisElement> sequential = new ArrayList<>();
+    private final int numberOfThreads;
+
+    /** @param storageSupplier
+     * @param analysisElements
+     * @param numberOfThreads of the pool, 1 for registration in the calling thread */
+    public RegistrationPipeline(StorageSupplier storageSupplier, List<AnalysisElement> analysisElements, int numberOfThreads) {
+        this.storageSupplier = Objects.requireNonNull(storageSupplier);
+        this.numberOfThreads = numberOfThreads;
+        for (AnalysisElement analysisElement : analysisElements)
+            if (1 < numberOfThreads && analysisElement instanceof MergeableAnalysisElement)
+                mergeable.add((MergeableAnalysisElement<?>) analysisElement);
+            else
+                sequential.add(analysisElement);
+    }
+
+    public void run() throws Exception {
+        Timing timing = Timing.started();
+        if (numberOfThreads <= 1) {
+            for (int index = 0; index < storageSupplier.size(); ++index) {
+                SimulationObject simulationObject = storageSupplier.getSimulationObject(index);
+                sequential.forEach(analysisElement -> analysisElement.register(simulationObject));
+                if (simulationObject.now % 10_000 == 0)
+                    System.out.println(String.format("%6.2f now=%d", timing.seconds(), simulationObject.now));
+            }
+            return;
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+            Thread thread = new Thread(runnable, getClass().getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<Chunk>> futures = new ArrayDeque<>();
+            int next = 0;
+            long reported = -1;
+            while (next < storageSupplier.size() || !futures.isEmpty()) {
+                while (next < storageSupplier.size() && futures.size() < numberOfThreads * CHUNKS_PER_THREAD) {
+                    int beg = next;
+                    int end = Math.min(beg + CHUNK_SIZE, storageSupplier.size());
+                    futures.add(executorService.submit(() -> chunk(beg, end)));
+                    next = end;
+                }
+                Chunk chunk = get(futures.poll());
+                chunk.partials.forEach(Partial::merge);
+                for (SimulationObject simulationObject : chunk.simulationObjects)
+                    sequential.forEach(analysisElement -> analysisElement.register(simulationObject));
+                if (reported < chunk.now / 10_000) {
+                    reported = chunk.now / 10_000;
+                    System.out.println(String.format("%6.2f now=%d", timing.seconds(), chunk.now));
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private Chunk chunk(int beg, int end) throws Exception {
+        List<Partial<?>> partials = new ArrayList<>(mergeable.size());
+        for (MergeableAnalysisElement<?> analysisElement : mergeable)
+            partials.add(partial(analysisElement));
+        Chunk chunk = new Chunk(partials, sequential.isEmpty() ? Collections.emptyList() : new ArrayList<>(end - beg));
+        for (int index = beg; index < end; ++index) {
+            SimulationObject simulationObject = storageSupplier.getSimulationObject(index);
+            for (Partial<?> partial : partials)
+                partial.partial.register(simulationObject);
+            if (!sequential.isEmpty())
+                chunk.simulationObjects.add(simulationObject);
+            chunk.now = simulationObject.now;
+        }
+        return chunk;
+    }
+
+    private static Chunk get(Future<Chunk> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+            throw cause instanceof Exception ? (Exception) cause : executionException;
+        }
+    }
+}
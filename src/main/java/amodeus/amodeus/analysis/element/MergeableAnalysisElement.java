@@ -0,0 +1,17 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis.element;
+
+/** {@link AnalysisElement} of which the registration may be divided into contiguous ranges of time steps
+ * that are registered in parallel. Each range is registered in a separate instance obtained by
+ * {@link #split()}, the instances are merged in the order of the time steps before {@link #consolidate()}
+ * is called. An {@link AnalysisElement} that does not implement this interface receives the
+ * simulation objects sequentially.
+ *
+ * @param <T> type of the implementation */
+public interface MergeableAnalysisElement<T extends MergeableAnalysisElement<T>> extends AnalysisElement {
+    /** @return new instance without registered simulation objects and with the same configuration */
+    T split();
+
+    /** @param partial with simulation objects of time steps that succeed the time steps registered so far */
+    void merge(T partial);
+}
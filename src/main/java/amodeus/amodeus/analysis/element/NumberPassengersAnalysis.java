@@ -24,7 +24,7 @@ import ch.ethz.idsc.tensor.alg.PadRight;
 import ch.ethz.idsc.tensor.pdf.BinCounts;
 import ch.ethz.idsc.tensor.red.Max;
 
-public class NumberPassengersAnalysis implements AnalysisElement, TotalValueAppender {
+public class NumberPassengersAnalysis implements MergeableAnalysisElement<NumberPassengersAnalysis>, TotalValueAppender {
 
     /** contains the times in [s] */
     private final Tensor time = Tensors.empty();
@@ -38,7 +38,11 @@ public class NumberPassengersAnalysis implements AnalysisElement, TotalValueAppe
     private final List<Integer> vehicleIndices;
 
     public NumberPassengersAnalysis(Set<Integer> vehicleIndices) {
-        this.vehicleIndices = new ArrayList<>(vehicleIndices);
+        this(new ArrayList<>(vehicleIndices));
+    }
+
+    private NumberPassengersAnalysis(List<Integer> vehicleIndices) {
+        this.vehicleIndices = vehicleIndices;
     }
 
     @Override
@@ -71,6 +75,18 @@ public class NumberPassengersAnalysis implements AnalysisElement, TotalValueAppe
         }
     }
 
+    @Override // from MergeableAnalysisElement
+    public NumberPassengersAnalysis split() {
+        return new NumberPassengersAnalysis(vehicleIndices);
+    }
+
+    @Override // from MergeableAnalysisElement
+    public void merge(NumberPassengersAnalysis partial) {
+        partial.time.stream().forEach(time::append);
+        partial.passengerDistribution.stream().forEach(passengerDistribution::append);
+        partial.sharedOthersMap.forEach((requestIndex, numberOtherPassengers) -> sharedOthersMap.merge(requestIndex, numberOtherPassengers, Math::max));
+    }
+
     @Override
     public void consolidate() {
         /** calculate standard dropoff time. */
@@ -11,7 +11,7 @@ import amodeus.amodeus.analysis.report.TotalValueIdentifier;
 import amodeus.amodeus.analysis.report.TtlValIdent;
 import amodeus.amodeus.net.SimulationObject;
 
-public class RequestRobotaxiInformationElement implements AnalysisElement, TotalValueAppender {
+public class RequestRobotaxiInformationElement implements MergeableAnalysisElement<RequestRobotaxiInformationElement>, TotalValueAppender {
     private final Set<Integer> requestIndices = new HashSet<>();
     private final Set<Integer> vehicleIndices = new HashSet<>();
 
@@ -21,6 +21,17 @@ public class RequestRobotaxiInformationElement implements AnalysisElement, Total
         simulationObject.vehicles.forEach(v -> vehicleIndices.add(v.vehicleIndex));
     }
 
+    @Override // from MergeableAnalysisElement
+    public RequestRobotaxiInformationElement split() {
+        return new RequestRobotaxiInformationElement();
+    }
+
+    @Override // from MergeableAnalysisElement
+    public void merge(RequestRobotaxiInformationElement partial) {
+        requestIndices.addAll(partial.requestIndices);
+        vehicleIndices.addAll(partial.vehicleIndices);
+    }
+
     public int vehicleSize() {
         return vehicleIndices.size();
     }
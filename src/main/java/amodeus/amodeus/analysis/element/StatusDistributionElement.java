@@ -16,7 +16,7 @@ import ch.ethz.idsc.tensor.Tensors;
 import ch.ethz.idsc.tensor.alg.Transpose;
 import ch.ethz.idsc.tensor.red.Mean;
 
-public class StatusDistributionElement implements AnalysisElement, TotalValueAppender {
+public class StatusDistributionElement implements MergeableAnalysisElement<StatusDistributionElement>, TotalValueAppender {
 
     public final Tensor time = Tensors.empty();
     public final Tensor statusTensor = Tensors.empty();
@@ -41,6 +41,18 @@ public class StatusDistributionElement implements AnalysisElement, TotalValueApp
         occupancyTensor.append(Tensors.vector(simulationObject.now, occupancyRatio.number().doubleValue()));
     }
 
+    @Override // from MergeableAnalysisElement
+    public StatusDistributionElement split() {
+        return new StatusDistributionElement();
+    }
+
+    @Override // from MergeableAnalysisElement
+    public void merge(StatusDistributionElement partial) {
+        partial.time.stream().forEach(time::append);
+        partial.statusTensor.stream().forEach(statusTensor::append);
+        partial.occupancyTensor.stream().forEach(occupancyTensor::append);
+    }
+
     @Override // from AnalysisElement
     public void consolidate() {
         avgOccupancy = (Scalar) Mean.of(Transpose.of(occupancyTensor).get(1));
@@ -4,9 +4,6 @@ package amodeus.amodeus.analysis.service;
 import java.io.File;
 import java.io.IOException;
 
-import org.matsim.amodeus.analysis.LinkFinder;
-import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisListener;
-import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisWriter;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.events.EventsUtils;
@@ -16,14 +13,19 @@ import org.matsim.core.events.MatsimEventsReader;
     ;
 
     public static void write(Network network, String movementsOutputPath, String activitiesOutputPath, String eventsPath) throws IOException {
-        LinkFinder linkFinder = new LinkFinder(network);
-        VehicleAnalysisListener listener = new VehicleAnalysisListener(linkFinder);
+        VehicleTraceTable vehicleTraceTable = read(network, eventsPath);
+        vehicleTraceTable.writeMovements(new File(movementsOutputPath));
+        vehicleTraceTable.writeActivities(new File(activitiesOutputPath));
+    }
 
+    /** @param network
+     * @param eventsPath
+     * @return movements and activities of the AMoDeus vehicles in the events file */
+    public static VehicleTraceTable read(Network network, String eventsPath) {
+        VehicleTraceTable vehicleTraceTable = new VehicleTraceTable(network);
         EventsManager eventsManager = EventsUtils.createEventsManager();
-        eventsManager.addHandler(listener);
+        eventsManager.addHandler(vehicleTraceTable);
         new MatsimEventsReader(eventsManager).readFile(eventsPath);
-
-        new VehicleAnalysisWriter(listener).writeMovements(new File(movementsOutputPath));
-        new VehicleAnalysisWriter(listener).writeActivities(new File(activitiesOutputPath));
+        return vehicleTraceTable;
     }
 }
@@ -0,0 +1,359 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis.service;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisListener;
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisWriter;
+import org.matsim.amodeus.components.generator.AmodeusIdClassifier;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.ActivityEndEvent;
+import org.matsim.api.core.v01.events.ActivityStartEvent;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.PersonArrivalEvent;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.events.PersonEntersVehicleEvent;
+import org.matsim.api.core.v01.events.PersonLeavesVehicleEvent;
+import org.matsim.api.core.v01.events.handler.ActivityEndEventHandler;
+import org.matsim.api.core.v01.events.handler.ActivityStartEventHandler;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonArrivalEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonDepartureEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonEntersVehicleEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonLeavesVehicleEventHandler;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.vehicles.Vehicle;
+
+/** {@link VehicleTraceTable} collects the movements and activities of the AMoDeus vehicles from the events
+ * with the same semantics as {@link VehicleAnalysisListener} and writes the same files as
+ * {@link VehicleAnalysisWriter}.
+ *
+ * The movements and activities are stored in columns of primitive arrays in the order in which they begin.
+ * Vehicles, links and activity types are referenced by int. The passengers of a vehicle are kept as the set of
+ * the indices of their person ids. */
+/* package */ class VehicleTraceTable implements PersonDepartureEventHandler, PersonArrivalEventHandler, ActivityStartEventHandler, ActivityEndEventHandler,
+        LinkEnterEventHandler, PersonEntersVehicleEventHandler, PersonLeavesVehicleEventHandler {
+    private static final int NONE = -1;
+
+    private final Link[] links;
+    private final AmodeusIdClassifier<Person> persons = new AmodeusIdClassifier<>();
+    private final AmodeusIdClassifier<Vehicle> vehicles = new AmodeusIdClassifier<>();
+
+    /** vehicles */
+    private int[] vehicleOfPerson = new int[0];
+    private int[] vehicleOfVehicle = new int[0];
+    private final List<Id<Vehicle>> vehicleIds = new ArrayList<>();
+    private final List<String> modes = new ArrayList<>();
+    private final IntColumn currentMovement = new IntColumn();
+    private final IntColumn currentActivity = new IntColumn();
+    private final List<Set<Integer>> passengers = new ArrayList<>();
+
+    /** movements */
+    private final IntColumn movementVehicle = new IntColumn();
+    private final IntColumn originLink = new IntColumn();
+    private final IntColumn destinationLink = new IntColumn();
+    private final DoubleColumn departureTime = new DoubleColumn();
+    private final DoubleColumn arrivalTime = new DoubleColumn();
+    private final DoubleColumn distance = new DoubleColumn();
+    private final IntColumn numberOfPassengers = new IntColumn();
+
+    /** activities */
+    private final IntColumn activityVehicle = new IntColumn();
+    private final IntColumn activityLink = new IntColumn();
+    private final DoubleColumn startTime = new DoubleColumn();
+    private final DoubleColumn endTime = new DoubleColumn();
+    private final IntColumn activityType = new IntColumn();
+    private final List<String> types = new ArrayList<>();
+    private final Map<String, Integer> typeIndices = new HashMap<>();
+
+    public VehicleTraceTable(Network network) {
+        int size = network.getLinks().keySet().stream().mapToInt(Id::index).max().orElse(NONE) + 1;
+        links = new Link[size];
+        for (Link link : network.getLinks().values())
+            links[link.getId().index()] = link;
+    }
+
+    private int link(Id<Link> linkId) {
+        int index = linkId.index();
+        if (links.length <= index || links[index] == null)
+            throw new IllegalStateException("Cannot find link: " + linkId);
+        return index;
+    }
+
+    private int vehicle(Id<Person> personId) {
+        int index = personId.index();
+        if (vehicleOfPerson.length <= index)
+            vehicleOfPerson = grow(vehicleOfPerson, index);
+        if (vehicleOfPerson[index] == NONE)
+            vehicleOfPerson[index] = vehicle(Id.createVehicleId(personId), personId);
+        return vehicleOfPerson[index];
+    }
+
+    private int vehicle(Id<Vehicle> vehicleId, Id<Person> personId) {
+        int index = vehicleId.index();
+        if (vehicleOfVehicle.length <= index)
+            vehicleOfVehicle = grow(vehicleOfVehicle, index);
+        if (vehicleOfVehicle[index] == NONE) {
+            vehicleOfVehicle[index] = vehicleIds.size();
+            vehicleIds.add(vehicleId);
+            modes.add(persons.getMode(personId));
+            currentMovement.add(NONE);
+            currentActivity.add(NONE);
+            passengers.add(new HashSet<>());
+        }
+        return vehicleOfVehicle[index];
+    }
+
+    private int vehicleOf(Id<Vehicle> vehicleId) {
+        int index = vehicleId.index();
+        return index < vehicleOfVehicle.length && vehicleOfVehicle[index] != NONE //
+                ? vehicleOfVehicle[index]
+                : vehicle(Id.createPersonId(vehicleId));
+    }
+
+    private static int[] grow(int[] array, int index) {
+        int length = array.length;
+        int[] copy = Arrays.copyOf(array, Math.max(index + 1, 2 * length));
+        Arrays.fill(copy, length, copy.length, NONE);
+        return copy;
+    }
+
+    private int type(String type) {
+        return typeIndices.computeIfAbsent(type, key -> {
+            types.add(key);
+            return types.size() - 1;
+        });
+    }
+
+    @Override
+    public void handleEvent(PersonDepartureEvent event) {
+        if (persons.isValid(event.getPersonId())) {
+            int vehicle = vehicle(event.getPersonId());
+            currentMovement.set(vehicle, movementVehicle.size());
+            movementVehicle.add(vehicle);
+            originLink.add(link(event.getLinkId()));
+            destinationLink.add(NONE);
+            departureTime.add(event.getTime());
+            arrivalTime.add(Double.NaN);
+            distance.add(0);
+            numberOfPassengers.add(0);
+        }
+    }
+
+    @Override
+    public void handleEvent(LinkEnterEvent event) {
+        if (vehicles.isValid(event.getVehicleId())) {
+            int movement = currentMovement.get(vehicleOf(event.getVehicleId()));
+            if (movement == NONE)
+                throw new IllegalStateException("Found link enter event without departure");
+            distance.set(movement, distance.get(movement) + links[link(event.getLinkId())].getLength());
+        }
+    }
+
+    @Override
+    public void handleEvent(PersonEntersVehicleEvent event) {
+        if (!persons.isValid(event.getPersonId()) && vehicles.isValid(event.getVehicleId())) {
+            int vehicle = vehicleOf(event.getVehicleId());
+            if (!passengers.get(vehicle).add(event.getPersonId().index()))
+                throw new IllegalStateException(String.format("Passenger '%s' is already in vehicle '%s'", event.getPersonId(), event.getVehicleId()));
+        }
+    }
+
+    @Override
+    public void handleEvent(PersonLeavesVehicleEvent event) {
+        if (!persons.isValid(event.getPersonId()) && vehicles.isValid(event.getVehicleId())) {
+            int vehicle = vehicleOf(event.getVehicleId());
+            if (!passengers.get(vehicle).remove(event.getPersonId().index()))
+                throw new IllegalStateException(String.format("Passenger '%s' is not in vehicle '%s'", event.getPersonId(), event.getVehicleId()));
+        }
+    }
+
+    @Override
+    public void handleEvent(PersonArrivalEvent event) {
+        if (persons.isValid(event.getPersonId())) {
+            int vehicle = vehicle(event.getPersonId());
+            int movement = currentMovement.get(vehicle);
+            if (movement == NONE)
+                throw new IllegalStateException("Found arrival without departure");
+            currentMovement.set(vehicle, NONE);
+            destinationLink.set(movement, link(event.getLinkId()));
+            arrivalTime.set(movement, event.getTime());
+            numberOfPassengers.set(movement, passengers.get(vehicle).size());
+        }
+    }
+
+    @Override
+    public void handleEvent(ActivityStartEvent event) {
+        if (persons.isValid(event.getPersonId())) {
+            int vehicle = vehicle(event.getPersonId());
+            currentActivity.set(vehicle, activityVehicle.size());
+            activityVehicle.add(vehicle);
+            activityLink.add(link(event.getLinkId()));
+            startTime.add(event.getTime());
+            endTime.add(Double.NaN);
+            activityType.add(type(event.getActType()));
+        }
+    }
+
+    @Override
+    public void handleEvent(ActivityEndEvent event) {
+        if (persons.isValid(event.getPersonId())) {
+            int vehicle = vehicle(event.getPersonId());
+            int activity = currentActivity.get(vehicle);
+            currentActivity.set(vehicle, NONE);
+            if (activity == NONE) {
+                activity = activityVehicle.size();
+                activityVehicle.add(vehicle);
+                activityLink.add(NONE);
+                startTime.add(Double.NaN);
+                endTime.add(Double.NaN);
+                activityType.add(NONE);
+            }
+            activityLink.set(activity, link(event.getLinkId()));
+            activityType.set(activity, type(event.getActType()));
+            endTime.set(activity, event.getTime());
+        }
+    }
+
+    @Override
+    public void reset(int iteration) {
+        vehicleOfPerson = new int[0];
+        vehicleOfVehicle = new int[0];
+        vehicleIds.clear();
+        modes.clear();
+        passengers.clear();
+        for (IntColumn intColumn : Arrays.asList(currentMovement, currentActivity, movementVehicle, originLink, destinationLink, //
+                numberOfPassengers, activityVehicle, activityLink, activityType))
+            intColumn.clear();
+        for (DoubleColumn doubleColumn : Arrays.asList(departureTime, arrivalTime, distance, startTime, endTime))
+            doubleColumn.clear();
+    }
+
+    public int getNumberOfMovements() {
+        return movementVehicle.size();
+    }
+
+    public int getNumberOfActivities() {
+        return activityVehicle.size();
+    }
+
+    /** @param file with the same content as {@link VehicleAnalysisWriter#writeMovements(File)} */
+    public void writeMovements(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file)))) {
+            writer.write(String.join(";", new String[] { //
+                    "operator_id", "vehicle_id", //
+                    "origin_link_id", "origin_x", "origin_y", //
+                    "destination_link_id", "destination_x", "destination_y", //
+                    "departure_time", "arrival_time", //
+                    "distance", "number_of_passengers" }) + "\n");
+            for (int movement = 0; movement < movementVehicle.size(); ++movement) {
+                int vehicle = movementVehicle.get(movement);
+                Link origin = links[originLink.get(movement)];
+                Link destination = destinationLink.get(movement) == NONE ? null : links[destinationLink.get(movement)];
+                writer.write(String.join(";", new String[] { //
+                        String.valueOf(modes.get(vehicle)), //
+                        String.valueOf(vehicleIds.get(vehicle)), //
+                        String.valueOf(origin.getId()), //
+                        String.valueOf(origin.getCoord().getX()), //
+                        String.valueOf(origin.getCoord().getY()), //
+                        destination == null ? "null" : String.valueOf(destination.getId()), //
+                        destination == null ? "NaN" : String.valueOf(destination.getCoord().getX()), //
+                        destination == null ? "NaN" : String.valueOf(destination.getCoord().getY()), //
+                        String.valueOf(departureTime.get(movement)), //
+                        String.valueOf(arrivalTime.get(movement)), //
+                        String.valueOf(distance.get(movement)), //
+                        String.valueOf(numberOfPassengers.get(movement)) }) + "\n");
+            }
+        }
+    }
+
+    /** @param file with the same content as {@link VehicleAnalysisWriter#writeActivities(File)} */
+    public void writeActivities(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file)))) {
+            writer.write(String.join(";", new String[] { //
+                    "operator_id", "vehicle_id", //
+                    "link_id", "x", "y", //
+                    "start_time", "end_time", //
+                    "type" }) + "\n");
+            for (int activity = 0; activity < activityVehicle.size(); ++activity) {
+                int vehicle = activityVehicle.get(activity);
+                Link link = links[activityLink.get(activity)];
+                writer.write(String.join(";", new String[] { //
+                        String.valueOf(modes.get(vehicle)), //
+                        String.valueOf(vehicleIds.get(vehicle)), //
+                        String.valueOf(link.getId()), //
+                        String.valueOf(link.getCoord().getX()), //
+                        String.valueOf(link.getCoord().getY()), //
+                        String.valueOf(startTime.get(activity)), //
+                        String.valueOf(endTime.get(activity)), //
+                        types.get(activityType.get(activity)) }) + "\n");
+            }
+        }
+    }
+
+    private static class IntColumn {
+        private int[] array = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, 2 * size);
+            array[size++] = value;
+        }
+
+        int get(int index) {
+            return array[index];
+        }
+
+        void set(int index, int value) {
+            array[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            array = new int[16];
+            size = 0;
+        }
+    }
+
+    private static class DoubleColumn {
+        private double[] array = new double[16];
+        private int size = 0;
+
+        void add(double value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, 2 * size);
+            array[size++] = value;
+        }
+
+        double get(int index) {
+            return array[index];
+        }
+
+        void set(int index, double value) {
+            array[index] = value;
+        }
+
+        void clear() {
+            array = new double[16];
+            size = 0;
+        }
+    }
+}
@@ -80,9 +80,9 @@ public class AdaptiveRealTimeRebalancingPolicy extends PartitionedDispatcher {
         virtualNodeDest = abstractVirtualNodeDest;
         vehicleDestMatcher = abstractVehicleDestMatcher;
         numRobotaxi = operatorConfig.getGeneratorConfig().getNumberOfVehicles();
-        lpMinFlow = new LPMinFlow(virtualNetwork);
-        lpMinFlow.initiateLP();
         DispatcherConfigWrapper dispatcherConfig = DispatcherConfigWrapper.wrap(operatorConfig.getDispatcherConfig());
+        lpMinFlow = new LPMinFlow(virtualNetwork, Boolean.parseBoolean(dispatcherConfig.getString("networkSimplex", "false")));
+        lpMinFlow.initiateLP();
         dispatchPeriod = dispatcherConfig.getDispatchPeriod(30);
         rebalancingPeriod = dispatcherConfig.getRebalancingPeriod(300);
         this.network = network;
@@ -187,6 +187,12 @@ public class AdaptiveRealTimeRebalancingPolicy extends PartitionedDispatcher {
                     getPassengerRequests(), distanceFunction, network);
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        bipartiteMatcher.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s RV=%s H=%s", //
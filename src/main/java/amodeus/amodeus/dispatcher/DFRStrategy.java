@@ -123,14 +123,15 @@ public class DFRStrategy extends PartitionedDispatcher {
             /** update data structures */
             ownedRoboTaxis.update(getRoboTaxis());
             Map<VirtualNode<Link>, Scalar> imbalance = getImbalances();
+            int timeStep = travelData.getTimeStep((int) round_now);
 
             /** compute new rebalancing contributions for all sets of virtual nodes */
             for (VirtualNode<Link> from : virtualNetwork.getVirtualNodes())
                 for (VirtualNode<Link> to : virtualNetwork.getVirtualNodes())
                     if (!from.equals(to)) {
                         /** feedforward part */
-                        Scalar reb = travelData.getAlphaRateAtTime((int) round_now).Get(from.getIndex(), to.getIndex()) //
-                                .multiply(RealScalar.of(rebalancingPeriod));
+                        Scalar reb = RealScalar.of(travelData.alpha(timeStep, from.getIndex(), to.getIndex()) //
+                                * rebalancingPeriod / travelData.getTimeIntervalLength());
                         boolean isNeighboring = neighboring.check(from, to);
 
                         /** dfr feedback part */
@@ -204,6 +205,12 @@ public class DFRStrategy extends PartitionedDispatcher {
                 .collect(Collectors.toMap(vNode -> vNode, vNode -> RealScalar.of(getVirtualNodeRequests().get(vNode).size() - ownedRoboTaxis.in(vNode).size())));
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        bipartiteMatchingUtils.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s H=%s", //
@@ -45,7 +45,6 @@ import ch.ethz.idsc.tensor.RealScalar;
 import ch.ethz.idsc.tensor.Tensor;
 import ch.ethz.idsc.tensor.Tensors;
 import ch.ethz.idsc.tensor.alg.Array;
-import ch.ethz.idsc.tensor.sca.Floor;
 
 /** Implementation of the feedforward time-varying rebalancing policy presented in
  * Spieser, Kevin, Samitha Samaranayake, and Emilio Frazzoli.
@@ -67,8 +66,7 @@ public class FeedforwardFluidicTimeVaryingRebalancingPolicy extends PartitionedD
     private int total_rebalanceCount = 0;
     private boolean started = false;
     private Tensor printVals = Tensors.empty();
-    private Tensor rebalancingRate;
-    private Tensor rebalanceCount;
+    private final double[][] rebalanceCount;
     private Tensor rebalanceCountInteger;
 
     public FeedforwardFluidicTimeVaryingRebalancingPolicy( //
@@ -85,7 +83,7 @@ public class FeedforwardFluidicTimeVaryingRebalancingPolicy extends PartitionedD
         this.travelData = travelData;
         nVNodes = virtualNetwork.getvNodesCount();
         nVLinks = virtualNetwork.getvLinksCount();
-        rebalanceCount = Array.zeros(nVNodes, nVNodes);
+        rebalanceCount = new double[nVNodes][nVNodes];
         rebalanceCountInteger = Array.zeros(nVNodes, nVNodes);
         DispatcherConfigWrapper dispatcherConfig = DispatcherConfigWrapper.wrap(operatorConfig.getDispatcherConfig());
         dispatchPeriod = dispatcherConfig.getDispatchPeriod(30);
@@ -119,12 +117,15 @@ public class FeedforwardFluidicTimeVaryingRebalancingPolicy extends PartitionedD
 
         /** Part I: permanently rebalance vehicles according to the rates output by the LP */
         if (round_now % rebalancingPeriod == 0 && travelData.coversTime(round_now)) {
-            rebalancingRate = travelData.getAlphaRateAtTime((int) round_now);
+            int timeStep = travelData.getTimeStep((int) round_now);
 
-            /** update rebalance count using current rate */
-            rebalanceCount = rebalanceCount.add(rebalancingRate.multiply(RealScalar.of(rebalancingPeriod)));
-            rebalanceCountInteger = Floor.of(rebalanceCount);
-            rebalanceCount = rebalanceCount.subtract(rebalanceCountInteger);
+            /** update rebalance count using current rate, the integer part is rebalanced now and the remainder is kept */
+            rebalanceCountInteger = Tensors.matrix((i, j) -> {
+                rebalanceCount[i][j] += travelData.alpha(timeStep, i, j) * rebalancingPeriod / travelData.getTimeIntervalLength();
+                int integer = (int) Math.floor(rebalanceCount[i][j]);
+                rebalanceCount[i][j] -= integer;
+                return RealScalar.of(integer);
+            }, nVNodes, nVNodes);
 
             /** ensure that not more vehicles are sent away than available */
             Map<VirtualNode<Link>, List<RoboTaxi>> availableVehicles = getVirtualNodeDivertableNotRebalancingRoboTaxis();
@@ -164,6 +165,12 @@ public class FeedforwardFluidicTimeVaryingRebalancingPolicy extends PartitionedD
                     getPassengerRequests(), distanceFunction, network);
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        bipartiteMatcher.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s RV=%s H=%s", //
@@ -63,6 +63,12 @@ public class GlobalBipartiteMatchingDispatcher extends RebalancingDispatcher {
                     getPassengerRequests(), distanceFunction, network);
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        bipartiteMatcher.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s H=%s", //
@@ -111,6 +111,12 @@ public class ModelFreeAdaptiveRepositioning extends RebalancingDispatcher {
         return lastRebLoc.getNewest(rebLocNum);
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        assignmentMatcher.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s H=%s", //
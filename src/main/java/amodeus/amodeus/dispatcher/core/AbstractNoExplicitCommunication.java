@@ -18,6 +18,7 @@ import amodeus.amodeus.cycling.CyclePreventer;
 import amodeus.amodeus.dispatcher.util.DrivebyRequestStopper;
 import amodeus.amodeus.dispatcher.util.TensorLocation;
 import amodeus.amodeus.dispatcher.util.TreeMaintainer;
+import amodeus.amodeus.dispatcher.util.WeberLinks;
 import amodeus.amodeus.dispatcher.util.WeberMaintainer;
 import amodeus.amodeus.net.MatsimAmodeusDatabase;
 import amodeus.amodeus.util.io.MultiFileTools;
@@ -27,6 +28,10 @@ import amodeus.amodeus.util.io.MultiFileTools;
 public abstract class AbstractNoExplicitCommunication extends RebalancingDispatcher {
     private final int dispatchPeriod;
     private final Network network;
+    /** 0 for exact {@link WeberMaintainer}s, otherwise the number of candidate links evaluated by them. Exact
+     * {@link WeberMaintainer}s keep a double[] over all links for every {@link RoboTaxi}, i.e., 8 bytes per link
+     * and {@link RoboTaxi}, hence weberCandidates should be set for large networks and fleets. */
+    private final int weberCandidates;
     private final CyclePreventer cyclePreventer = new CyclePreventer();
     protected final Map<RoboTaxi, WeberMaintainer> weberMaintainers = new HashMap<>();
     protected final TreeMaintainer<PassengerRequest> requestMaintainer;
@@ -37,6 +42,7 @@ public abstract class AbstractNoExplicitCommunication extends RebalancingDispatc
         super(config, operatorConfig, travelTime, router, eventsManager, db);
         DispatcherConfigWrapper dispatcherConfig = DispatcherConfigWrapper.wrap(operatorConfig.getDispatcherConfig());
         dispatchPeriod = dispatcherConfig.getDispatchPeriod(30);
+        weberCandidates = dispatcherConfig.getInteger("weberCandidates", 0);
         this.network = network;
         double[] networkBounds = NetworkUtils.getBoundingBox(network.getNodes().values());
         requestMaintainer = new TreeMaintainer<>(networkBounds, TensorLocation::of);
@@ -52,8 +58,10 @@ public abstract class AbstractNoExplicitCommunication extends RebalancingDispatc
         d.forEach(requestMaintainer::add);
 
         /** as soon as {@link RoboTaxi}s appear, initialize with present location */
-        if (weberMaintainers.isEmpty())
-            getRoboTaxis().forEach(rt -> weberMaintainers.put(rt, new WeberMaintainer(rt.getDivertableLocation(), network)));
+        if (weberMaintainers.isEmpty()) {
+            WeberLinks weberLinks = WeberLinks.of(network);
+            getRoboTaxis().forEach(rt -> weberMaintainers.put(rt, new WeberMaintainer(rt.getDivertableLocation(), weberLinks, weberCandidates)));
+        }
 
         /** if a {@link RoboTaxi} is on the same {@link Link} as a {@link AVRquest}, a pickup
          * is executed */
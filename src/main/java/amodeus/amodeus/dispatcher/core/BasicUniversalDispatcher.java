@@ -11,7 +11,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.matsim.amodeus.components.AmodeusGenerator;
 import org.matsim.amodeus.components.dispatcher.AVVehicleAssignmentEvent;
@@ -27,13 +26,12 @@ import org.matsim.core.config.Config;
 import org.matsim.core.router.util.TravelTime;
 
 import amodeus.amodeus.net.MatsimAmodeusDatabase;
-import amodeus.amodeus.net.SimulationDistribution;
 import amodeus.amodeus.net.SimulationObject;
 import amodeus.amodeus.net.SimulationObjectCompiler;
 import amodeus.amodeus.net.SimulationObjects;
-import amodeus.amodeus.net.StorageUtils;
 import amodeus.amodeus.util.math.GlobalAssert;
 import amodeus.amodeus.util.matsim.SafeConfig;
+import amodeus.amodeus.util.net.ObjectHandler;
 
 /** This class contains all functionality which is used by both unit capacity
  * dispatchers and shared {@link RoboTaxi} dispatchers. */
@@ -79,8 +77,7 @@ import amodeus.amodeus.util.matsim.SafeConfig;
     }
 
     protected final List<RoboTaxi> getRoboTaxiSubset(Set<RoboTaxiStatus> status) {
-        return getRoboTaxis().stream() //
-                .filter(rt -> status.contains(rt.getStatus())).collect(Collectors.toList());
+        return getRoboTaxisWithStatus(status);
     }
 
     /** @return {@link Collection} of {@link RoboTaxi}s which can be redirected during
@@ -88,9 +85,7 @@ import amodeus.amodeus.util.matsim.SafeConfig;
      *         it has a directive in the current ime step or it is on the last link of its
      *         directive. */
     protected final Collection<RoboTaxi> getDivertableRoboTaxis() {
-        return getRoboTaxis().stream() //
-                .filter(RoboTaxi::isDivertable) //
-                .collect(Collectors.toList());
+        return new ArrayList<>(getDivertableRoboTaxisView());
     }
 
     /** Adding a @param vehicle during setup of simulation handled by {@link AmodeusGenerator},
@@ -124,7 +119,7 @@ import amodeus.amodeus.util.matsim.SafeConfig;
     /** save simulation data into {@link SimulationObject} for later analysis and
      * visualization. */
     @Override
-    protected final void notifySimulationSubscribers(long round_now, StorageUtils storageUtils) {
+    protected final void notifySimulationSubscribers(long round_now, ObjectHandler publisher) {
         if (publishPeriod > 0 && round_now % publishPeriod == 0 && round_now > 1) {
             SimulationObjectCompiler simulationObjectCompiler = SimulationObjectCompiler.create( //
                     round_now, getInfoLine(), total_matchedRequests, db);
@@ -138,7 +133,7 @@ import amodeus.amodeus.util.matsim.SafeConfig;
              * {@link SimulationObject}s */
             SimulationObject simulationObject = simulationObjectCompiler.compile();
             if (SimulationObjects.hasVehicles(simulationObject))
-                SimulationDistribution.of(simulationObject, storageUtils);
+                publisher.handle(simulationObject);
 
             /** the temporary location traces are flushed at this point as they have
              * been communicated, saved. */
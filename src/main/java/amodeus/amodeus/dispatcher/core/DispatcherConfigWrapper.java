@@ -11,6 +11,7 @@ public class DispatcherConfigWrapper extends SafeConfig {
     private static final String DISPATCH_PERIOD = "dispatchPeriod";
     private static final String REBALANCING_PERIOD = "rebalancingPeriod";
     private static final String DISTANCE_HEURISTICS = "distanceHeuristics";
+    private static final String NUMBER_OF_THREADS = "numberOfThreads";
 
     public static DispatcherConfigWrapper wrap(ReflectiveConfigGroup reflectiveConfigGroup) {
         return new DispatcherConfigWrapper(reflectiveConfigGroup);
@@ -29,6 +30,12 @@ public class DispatcherConfigWrapper extends SafeConfig {
         return getInteger(REBALANCING_PERIOD, alt);
     }
 
+    /** @param alt
+     * @return number of threads the dispatcher may use for its computations */
+    public int getNumberOfThreads(int alt) {
+        return getInteger(NUMBER_OF_THREADS, alt);
+    }
+
     public int getCustomDataInteger(int alt, String dataName) {
         return getInteger(dataName, alt);
     }
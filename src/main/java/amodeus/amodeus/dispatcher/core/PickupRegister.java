@@ -0,0 +1,84 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+
+/** one-to-one assignment of {@link PassengerRequest}s to the {@link RoboTaxi}s that drive to pick them up.
+ * The register maintains the inverse map incrementally such that the lookup of a {@link RoboTaxi} is
+ * possible in constant time. */
+/* package */ class PickupRegister {
+    private final Map<PassengerRequest, RoboTaxi> map = new HashMap<>();
+    private final Map<RoboTaxi, PassengerRequest> inverse = new HashMap<>();
+
+    /** assigns roboTaxi to avRequest, a previous assignment of the roboTaxi and of the avRequest is removed
+     *
+     * @param avRequest
+     * @param roboTaxi */
+    public void put(PassengerRequest avRequest, RoboTaxi roboTaxi) {
+        PassengerRequest formerRequest = inverse.remove(roboTaxi);
+        if (Objects.nonNull(formerRequest))
+            map.remove(formerRequest);
+        RoboTaxi formerRoboTaxi = map.put(avRequest, roboTaxi);
+        if (Objects.nonNull(formerRoboTaxi))
+            inverse.remove(formerRoboTaxi);
+        inverse.put(roboTaxi, avRequest);
+    }
+
+    /** @param avRequest
+     * @return roboTaxi that was assigned to avRequest, or null */
+    public RoboTaxi remove(PassengerRequest avRequest) {
+        RoboTaxi roboTaxi = map.remove(avRequest);
+        if (Objects.nonNull(roboTaxi))
+            inverse.remove(roboTaxi);
+        return roboTaxi;
+    }
+
+    public boolean containsRequest(PassengerRequest avRequest) {
+        return map.containsKey(avRequest);
+    }
+
+    public boolean containsRoboTaxi(RoboTaxi roboTaxi) {
+        return inverse.containsKey(roboTaxi);
+    }
+
+    /** @return roboTaxi assigned to avRequest, or null */
+    public RoboTaxi getRoboTaxi(PassengerRequest avRequest) {
+        return map.get(avRequest);
+    }
+
+    /** @return request assigned to roboTaxi, or null */
+    public PassengerRequest getRequest(RoboTaxi roboTaxi) {
+        return inverse.get(roboTaxi);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /** @return unmodifiable view of the assigned requests */
+    public Set<PassengerRequest> requests() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    /** @return unmodifiable view of the assignment from requests to roboTaxis */
+    public Map<PassengerRequest, RoboTaxi> asMap() {
+        return Collections.unmodifiableMap(map);
+    }
+
+    /** @return unmodifiable view of the assignment from roboTaxis to requests */
+    public Map<RoboTaxi, PassengerRequest> inverse() {
+        return Collections.unmodifiableMap(inverse);
+    }
+
+    /** @return true if map and inverse describe the same one-to-one assignment */
+    public boolean isConsistent() {
+        return map.size() == inverse.size() && //
+                map.entrySet().stream().allMatch(entry -> inverse.get(entry.getValue()) == entry.getKey());
+    }
+}
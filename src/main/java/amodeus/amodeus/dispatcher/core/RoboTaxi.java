@@ -3,6 +3,7 @@ package amodeus.amodeus.dispatcher.core;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.apache.log4j.Logger;
 import org.matsim.amodeus.dvrp.schedule.AmodeusDriveTask;
@@ -53,6 +54,10 @@ public final class RoboTaxi {
      * extracted with the Utils functions in RoboTaxiUtils and SharedCourseLItsUtils */
     private SharedMenu menu = SharedMenu.empty();
     private boolean dropoffInProgress = false;
+    /** notified about changes of status, menu and directive */
+    private Consumer<RoboTaxi> changeListener = roboTaxi -> {
+        // ---
+    };
 
     /** Standard constructor
      * 
@@ -162,6 +167,13 @@ public final class RoboTaxi {
         // TODO @ChengQi which code handles shared taxi status?????
         GlobalAssert.that(!usageType.equals(RoboTaxiUsageType.SHARED));
         this.status = Objects.requireNonNull(status);
+        changeListener.accept(this);
+    }
+
+    /** @param changeListener notified about changes of status, menu and directive, to be used only by
+     *            {@link RoboTaxiIndex} */
+    /* package */ void setChangeListener(Consumer<RoboTaxi> changeListener) {
+        this.changeListener = Objects.requireNonNull(changeListener);
     }
 
     /** @return true if robotaxi is without a customer */
@@ -186,6 +198,7 @@ public final class RoboTaxi {
     /* package */ void assignDirective(DirectiveInterface abstractDirective) {
         GlobalAssert.that(isWithoutDirective());
         this.directive = abstractDirective;
+        changeListener.accept(this);
     }
 
     /** @return true if RoboTaxi is without an unexecuted directive, to be used only
@@ -231,6 +244,7 @@ public final class RoboTaxi {
     /* package */ void executeDirective() {
         directive.execute();
         directive = null;
+        changeListener.accept(this);
     }
 
     public RoboTaxiUsageType getUsageType() {
@@ -330,6 +344,7 @@ public final class RoboTaxi {
         }
         this.menu = menu;
         this.status = SharedRoboTaxiUtils.calculateStatusFromMenu(this);
+        changeListener.accept(this);
     }
 
     /* package */ void addPassengerRequestToMenu(PassengerRequest avRequest) {
@@ -0,0 +1,165 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.core;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+
+/** {@link RoboTaxiIndex} partitions the registered {@link RoboTaxi}s by {@link RoboTaxiStatus} and keeps track
+ * of the divertable {@link RoboTaxi}s. The {@link RoboTaxi}s report changes of status, menu and directive,
+ * the maintainer reports the start of a new task. Only {@link RoboTaxi}s that changed since the last query
+ * are evaluated with {@link RoboTaxi#isDivertable()}.
+ *
+ * The views iterate the {@link RoboTaxi}s in the order of registration, i.e. in the same order as the
+ * list of all {@link RoboTaxi}s. */
+/* package */ class RoboTaxiIndex {
+    private final List<RoboTaxi> roboTaxis = new ArrayList<>();
+    private final Map<RoboTaxi, Integer> positions = new HashMap<>();
+    private final Map<Id<DvrpVehicle>, RoboTaxi> vehicles = new HashMap<>();
+    private final List<RoboTaxiStatus> statii = new ArrayList<>();
+    private final Map<RoboTaxiStatus, BitSet> buckets = new EnumMap<>(RoboTaxiStatus.class);
+    private final BitSet divertable = new BitSet();
+    private final BitSet changed = new BitSet();
+
+    public RoboTaxiIndex() {
+        for (RoboTaxiStatus roboTaxiStatus : RoboTaxiStatus.values())
+            buckets.put(roboTaxiStatus, new BitSet());
+    }
+
+    public void add(RoboTaxi roboTaxi) {
+        int position = roboTaxis.size();
+        roboTaxis.add(roboTaxi);
+        positions.put(roboTaxi, position);
+        if (Objects.nonNull(roboTaxi.getId()))
+            vehicles.put(roboTaxi.getId(), roboTaxi);
+        statii.add(roboTaxi.getStatus());
+        buckets.get(roboTaxi.getStatus()).set(position);
+        changed.set(position);
+        roboTaxi.setChangeListener(this::update);
+    }
+
+    /** to be called when the status, the menu or the directive of the roboTaxi was modified
+     *
+     * @param roboTaxi */
+    public void update(RoboTaxi roboTaxi) {
+        int position = positions.get(roboTaxi);
+        RoboTaxiStatus roboTaxiStatus = roboTaxi.getStatus();
+        RoboTaxiStatus former = statii.set(position, roboTaxiStatus);
+        if (former != roboTaxiStatus) {
+            buckets.get(former).clear(position);
+            buckets.get(roboTaxiStatus).set(position);
+        }
+        changed.set(position);
+    }
+
+    /** to be called when the schedule of the vehicle started a new task
+     *
+     * @param id of vehicle */
+    public void update(Id<DvrpVehicle> id) {
+        RoboTaxi roboTaxi = vehicles.get(id);
+        if (Objects.nonNull(roboTaxi))
+            changed.set(positions.get(roboTaxi));
+    }
+
+    /** @param roboTaxiStatus
+     * @return live unmodifiable view of the {@link RoboTaxi}s with given status */
+    public Collection<RoboTaxi> withStatus(RoboTaxiStatus roboTaxiStatus) {
+        return new View(buckets.get(roboTaxiStatus));
+    }
+
+    /** @param set of statii
+     * @return {@link RoboTaxi}s with status in given set */
+    public List<RoboTaxi> withStatus(Set<RoboTaxiStatus> set) {
+        BitSet bitSet = new BitSet();
+        for (RoboTaxiStatus roboTaxiStatus : set)
+            bitSet.or(buckets.get(roboTaxiStatus));
+        return collect(bitSet);
+    }
+
+    /** @return number of {@link RoboTaxi}s with given status */
+    public int count(RoboTaxiStatus roboTaxiStatus) {
+        return buckets.get(roboTaxiStatus).cardinality();
+    }
+
+    /** @return live unmodifiable view of the divertable {@link RoboTaxi}s, the view reflects modifications
+     *         of {@link RoboTaxi}s only after the next call to {@link #divertable()} */
+    public Collection<RoboTaxi> divertable() {
+        for (int position = changed.nextSetBit(0); 0 <= position; position = changed.nextSetBit(position + 1))
+            divertable.set(position, roboTaxis.get(position).isDivertable());
+        changed.clear();
+        return new View(divertable);
+    }
+
+    /** @param roboTaxiStatus
+     * @return divertable {@link RoboTaxi}s with given status */
+    public List<RoboTaxi> divertable(RoboTaxiStatus roboTaxiStatus) {
+        divertable();
+        BitSet bitSet = (BitSet) divertable.clone();
+        bitSet.and(buckets.get(roboTaxiStatus));
+        return collect(bitSet);
+    }
+
+    private List<RoboTaxi> collect(BitSet bitSet) {
+        List<RoboTaxi> list = new ArrayList<>(bitSet.cardinality());
+        for (int position = bitSet.nextSetBit(0); 0 <= position; position = bitSet.nextSetBit(position + 1))
+            list.add(roboTaxis.get(position));
+        return list;
+    }
+
+    private class View extends AbstractCollection<RoboTaxi> {
+        private final BitSet bitSet;
+
+        View(BitSet bitSet) {
+            this.bitSet = bitSet;
+        }
+
+        @Override // from AbstractCollection
+        public Iterator<RoboTaxi> iterator() {
+            return new Iterator<RoboTaxi>() {
+                private int position = bitSet.nextSetBit(0);
+
+                @Override // from Iterator
+                public boolean hasNext() {
+                    return 0 <= position;
+                }
+
+                @Override // from Iterator
+                public RoboTaxi next() {
+                    if (position < 0)
+                        throw new NoSuchElementException();
+                    RoboTaxi roboTaxi = roboTaxis.get(position);
+                    position = bitSet.nextSetBit(position + 1);
+                    return roboTaxi;
+                }
+            };
+        }
+
+        @Override // from AbstractCollection
+        public boolean contains(Object object) {
+            Integer position = positions.get(object);
+            return Objects.nonNull(position) && bitSet.get(position);
+        }
+
+        @Override // from AbstractCollection
+        public int size() {
+            return bitSet.cardinality();
+        }
+
+        @Override // from AbstractCollection
+        public boolean isEmpty() {
+            return bitSet.isEmpty();
+        }
+    }
+}
@@ -1,11 +1,17 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.dispatcher.core;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.matsim.amodeus.components.AmodeusDispatcher;
 import org.matsim.amodeus.config.AmodeusModeConfig;
@@ -17,8 +23,16 @@ import org.matsim.contrib.dvrp.schedule.Schedule;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
 
+import amodeus.amodeus.net.AsyncSimulationPublisher;
+import amodeus.amodeus.net.AsyncSimulationPublisher.BackPressure;
+import amodeus.amodeus.net.SimulationDistribution;
+import amodeus.amodeus.net.SimulationObject;
+import amodeus.amodeus.net.SimulationObjectRecorder;
+import amodeus.amodeus.net.StorageSubscriber;
 import amodeus.amodeus.net.StorageUtils;
+import amodeus.amodeus.util.math.GlobalAssert;
 import amodeus.amodeus.util.matsim.SafeConfig;
+import amodeus.amodeus.util.net.ObjectHandler;
 
 /** The purpose of RoboTaxiMaintainer is to register {@link RoboTaxi} and provide the collection of
  * available vehicles to derived class.
@@ -29,16 +43,33 @@ import amodeus.amodeus.util.matsim.SafeConfig;
 /* package */ abstract class RoboTaxiMaintainer implements AmodeusDispatcher {
     protected final EventsManager eventsManager;
     private final List<RoboTaxi> roboTaxis = new ArrayList<>();
+    private final RoboTaxiIndex roboTaxiIndex = new RoboTaxiIndex();
     private Double private_now = null;
     public InfoLine infoLine = null;
-    private final StorageUtils storageUtils;
+    private final ObjectHandler storage;
+    private final ObjectHandler publisher;
+    /** consistency checks that are expensive for large fleets are only executed if enabled */
+    /* package */ final boolean fullConsistencyChecks;
 
     RoboTaxiMaintainer(EventsManager eventsManager, Config config, AmodeusModeConfig operatorConfig) {
         SafeConfig safeConfig = SafeConfig.wrap(operatorConfig.getDispatcherConfig());
         this.eventsManager = eventsManager;
         this.infoLine = new InfoLine(safeConfig.getInteger("infoLinePeriod", 10));
+        fullConsistencyChecks = Boolean.parseBoolean(safeConfig.getString("fullConsistencyChecks", "false"));
         String outputdirectory = config.controler().getOutputDirectory();
-        this.storageUtils = new StorageUtils(new File(outputdirectory));
+        StorageUtils storageUtils = new StorageUtils(new File(outputdirectory));
+        /** "files" stores every simulation object in a separate file, "recording" appends all
+         * simulation objects of an iteration to a single file */
+        storage = safeConfig.getString("storageFormat", "files").equals("recording") //
+                ? new SimulationObjectRecorder(storageUtils)
+                : new StorageSubscriber(storageUtils);
+        ObjectHandler distribution = object -> SimulationDistribution.of((SimulationObject) object, storage);
+        /** the simulation objects are published in a background thread unless the queue size is 0 */
+        int publishQueueSize = safeConfig.getInteger("publishQueueSize", 64);
+        publisher = 0 < publishQueueSize //
+                ? new AsyncSimulationPublisher(distribution, publishQueueSize, //
+                        BackPressure.valueOf(safeConfig.getString("publishBackPressure", BackPressure.BLOCK.name()).toUpperCase()))
+                : distribution;
     }
 
     /** @return time of current re-dispatching iteration step
@@ -55,10 +86,40 @@ import amodeus.amodeus.util.matsim.SafeConfig;
         return Collections.unmodifiableList(roboTaxis);
     }
 
+    /** @return false if the schedules of the {@link RoboTaxi}s have not started yet */
+    private boolean isStarted() {
+        return !getRoboTaxis().isEmpty();
+    }
+
+    /** @param roboTaxiStatus
+     * @return live unmodifiable view of the {@link RoboTaxi}s with given status in the order of {@link #getRoboTaxis()} */
+    protected final Collection<RoboTaxi> getRoboTaxisWithStatus(RoboTaxiStatus roboTaxiStatus) {
+        return isStarted() ? roboTaxiIndex.withStatus(roboTaxiStatus) : Collections.emptyList();
+    }
+
+    /** @param status
+     * @return {@link List} of {@link RoboTaxi}s with status in given set in the order of {@link #getRoboTaxis()} */
+    /* package */ final List<RoboTaxi> getRoboTaxisWithStatus(Set<RoboTaxiStatus> status) {
+        return isStarted() ? roboTaxiIndex.withStatus(status) : Collections.emptyList();
+    }
+
+    /** @return live unmodifiable view of the divertable {@link RoboTaxi}s in the order of {@link #getRoboTaxis()},
+     *         the view is updated at every call of this function */
+    protected final Collection<RoboTaxi> getDivertableRoboTaxisView() {
+        return isStarted() ? roboTaxiIndex.divertable() : Collections.emptyList();
+    }
+
+    /** @param roboTaxiStatus
+     * @return {@link List} of divertable {@link RoboTaxi}s with given status in the order of {@link #getRoboTaxis()} */
+    /* package */ final List<RoboTaxi> getDivertableRoboTaxisWithStatus(RoboTaxiStatus roboTaxiStatus) {
+        return isStarted() ? roboTaxiIndex.divertable(roboTaxiStatus) : Collections.emptyList();
+    }
+
     protected abstract void updateDivertableLocations();
 
     public final void addRoboTaxi(RoboTaxi roboTaxi, Event event) {
         roboTaxis.add(roboTaxi);
+        roboTaxiIndex.add(roboTaxi);
         eventsManager.processEvent(event);
     }
 
@@ -70,7 +131,7 @@ import amodeus.amodeus.util.matsim.SafeConfig;
     public final void onNextTimestep(double now) {
         private_now = now; // <- time available to derived class via getTimeNow()
         updateInfoLine();
-        notifySimulationSubscribers(Math.round(now), storageUtils);
+        notifySimulationSubscribers(Math.round(now), publisher);
         consistencyCheck();
         beforeStepTasks(); // <- if problems with RoboTaxi Status to Completed consider to set "simEndtimeInterpretation" to "null"
         // The Dropoff is before the pickup because:
@@ -101,8 +162,8 @@ import amodeus.amodeus.util.matsim.SafeConfig;
         return String.format("%s@%6d V=(%4ds,%4dd)", //
                 string.substring(0, 6), //
                 (long) getTimeNow(), //
-                roboTaxis.stream().filter(RoboTaxi::isInStayTask).count(), //
-                roboTaxis.stream().map(RoboTaxi::getStatus).filter(RoboTaxiStatus::isDriving).count());
+                roboTaxiIndex.count(RoboTaxiStatus.STAY), //
+                Arrays.stream(RoboTaxiStatus.values()).filter(RoboTaxiStatus::isDriving).mapToInt(roboTaxiIndex::count).sum());
     }
 
     private void beforeStepTasks() {
@@ -119,6 +180,12 @@ import amodeus.amodeus.util.matsim.SafeConfig;
     }
 
     private void consistencyCheck() {
+        if (fullConsistencyChecks && isStarted()) {
+            for (RoboTaxiStatus roboTaxiStatus : RoboTaxiStatus.values())
+                GlobalAssert.that(roboTaxiIndex.count(roboTaxiStatus) == roboTaxis.stream().filter(rt -> rt.getStatus().equals(roboTaxiStatus)).count());
+            GlobalAssert.that(new ArrayList<>(roboTaxiIndex.divertable()).equals( //
+                    roboTaxis.stream().filter(RoboTaxi::isDivertable).collect(Collectors.toList())));
+        }
         consistencySubCheck();
     }
 
@@ -149,15 +216,28 @@ import amodeus.amodeus.util.matsim.SafeConfig;
 
     /* package */ abstract void consistencySubCheck();
 
-    /* package */ abstract void notifySimulationSubscribers(long round_now, StorageUtils storageUtils);
+    /* package */ abstract void notifySimulationSubscribers(long round_now, ObjectHandler publisher);
 
     /* package */ abstract void redispatchInternal(double now);
 
     /* package */ abstract void executeRedirects();
 
     @Override
-    public final void onNextTaskStarted(DvrpVehicle task) {
-        // intentionally empty
+    public final void onNextTaskStarted(DvrpVehicle vehicle) {
+        /** the divertability depends on the current task */
+        roboTaxiIndex.update(vehicle.getId());
+    }
+
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        /** the publisher is closed first such that all simulation objects are stored */
+        for (ObjectHandler objectHandler : Arrays.asList(publisher, storage))
+            if (objectHandler instanceof Closeable)
+                try {
+                    ((Closeable) objectHandler).close();
+                } catch (IOException exception) {
+                    throw new RuntimeException(exception);
+                }
     }
 
     /** derived classes should override this function
@@ -40,7 +40,7 @@ import amodeus.amodeus.util.math.GlobalAssert;
  * {@link PassengerRequest}s alternative implementation of {@link AmodeusDispatcher};
  * supersedes {@link AbstractDispatcher}. */
 public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
-    private final Map<PassengerRequest, RoboTaxi> pickupRegister = new HashMap<>();
+    private final PickupRegister pickupRegister = new PickupRegister();
     private final Map<PassengerRequest, RoboTaxi> rqstDrvRegister = new HashMap<>();
     private final Map<PassengerRequest, RoboTaxi> periodFulfilledRequests = new HashMap<>();
     private final Set<PassengerRequest> periodAssignedRequests = new HashSet<>();
@@ -59,34 +59,33 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
     /** @return {@link PassengerRequest}s currently not assigned to a vehicle */
     protected synchronized final List<PassengerRequest> getUnassignedPassengerRequests() {
         return pendingRequests.stream() //
-                .filter(r -> !pickupRegister.containsKey(r)) //
+                .filter(r -> !pickupRegister.containsRequest(r)) //
                 .collect(Collectors.toList());
     }
 
     /** @return divertable {@link RoboTaxi}s which currently not on a pickup drive */
     protected final Collection<RoboTaxi> getDivertableUnassignedRoboTaxis() {
-        Collection<RoboTaxi> divertableUnassignedRoboTaxis = getDivertableRoboTaxis().stream() //
-                .filter(rt -> !pickupRegister.containsValue(rt)) //
+        Collection<RoboTaxi> divertableUnassignedRoboTaxis = getDivertableRoboTaxisView().stream() //
+                .filter(rt -> !pickupRegister.containsRoboTaxi(rt)) //
                 .collect(Collectors.toList());
-        GlobalAssert.that(divertableUnassignedRoboTaxis.stream().noneMatch(pickupRegister::containsValue));
-        GlobalAssert.that(divertableUnassignedRoboTaxis.stream().allMatch(RoboTaxi::isWithoutCustomer));
+        if (fullConsistencyChecks)
+            GlobalAssert.that(divertableUnassignedRoboTaxis.stream().allMatch(RoboTaxi::isWithoutCustomer));
         return divertableUnassignedRoboTaxis;
     }
 
     /** @return {@link Collection<RoboTaxi>}s which is in stay task (idling) */
     protected final Collection<RoboTaxi> getStayingTaxi() {
-        return getDivertableUnassignedRoboTaxis().stream() //
-                .filter(RoboTaxi::isInStayTask) //
+        return getDivertableRoboTaxisWithStatus(RoboTaxiStatus.STAY).stream() //
+                .filter(rt -> !pickupRegister.containsRoboTaxi(rt)) //
                 .collect(Collectors.toList());
     }
 
     /** @return immutable and inverted copy of pickupRegister, displays which
      *         vehicles are currently scheduled to pickup which request */
     protected final Map<RoboTaxi, PassengerRequest> getPickupRoboTaxis() {
-        Map<RoboTaxi, PassengerRequest> pickupPairs = pickupRegister.entrySet().stream() //
-                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
-
-        GlobalAssert.that(pickupPairs.keySet().stream().allMatch(rt -> rt.getStatus().equals(RoboTaxiStatus.DRIVETOCUSTOMER)));
+        Map<RoboTaxi, PassengerRequest> pickupPairs = new HashMap<>(pickupRegister.inverse());
+        if (fullConsistencyChecks)
+            GlobalAssert.that(pickupPairs.keySet().stream().allMatch(rt -> rt.getStatus().equals(RoboTaxiStatus.DRIVETOCUSTOMER)));
         return pickupPairs;
     }
 
@@ -103,18 +102,12 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
 
         /** for some dispatchers, reassignment is permanently invoked again, the
          * {@link RoboTaxi} should appear under only at the time step of assignment */
-        if (!pickupRegister.containsKey(avRequest))
+        if (!pickupRegister.containsRequest(avRequest))
             periodAssignedRequests.add(avRequest);
 
-        // 1) enter information into pickup table
-        if (pickupRegister.containsValue(roboTaxi)) {
-            PassengerRequest toRemove = pickupRegister.entrySet().stream()//
-                    .filter(e -> e.getValue().equals(roboTaxi)).findAny().get().getKey();
-            pickupRegister.remove(toRemove); // remove PassengerRequest/RoboTaxi pair served before by roboTaxi
-            pickupRegister.remove(avRequest); // remove PassengerRequest/RoboTaxi pair corresponding to avRequest
-        }
-        pickupRegister.put(avRequest, roboTaxi); // add new pair
-        GlobalAssert.that(pickupRegister.size() == pickupRegister.values().stream().distinct().count());
+        // 1) enter information into pickup table, the PassengerRequest/RoboTaxi pairs
+        // served before by roboTaxi and corresponding to avRequest are removed
+        pickupRegister.put(avRequest, roboTaxi);
 
         // 2) set vehicle diversion
         setRoboTaxiDiversion(roboTaxi, avRequest.getFromLink(), RoboTaxiStatus.DRIVETOCUSTOMER);
@@ -246,7 +239,7 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
     }
 
     protected final boolean isInPickupRegister(RoboTaxi robotaxi) {
-        return pickupRegister.containsValue(robotaxi);
+        return pickupRegister.containsRoboTaxi(robotaxi);
     }
 
     /* package */ final boolean removeFromPickupRegisters(PassengerRequest avRequest) {
@@ -259,14 +252,14 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
      *         euclideanNonCyclic, there a comparison to the old av assignment is
      *         needed */
     public final Optional<RoboTaxi> getPickupTaxi(PassengerRequest avRequest) {
-        return Optional.ofNullable(pickupRegister.get(avRequest));
+        return Optional.ofNullable(pickupRegister.getRoboTaxi(avRequest));
     }
 
     /** complete all matchings if a {@link RoboTaxi} has arrived at the fromLink of
      * an {@link PassengerRequest} */
     @Override
     final void executePickups() {
-        Map<PassengerRequest, RoboTaxi> pickupRegisterCopy = new HashMap<>(pickupRegister);
+        Map<PassengerRequest, RoboTaxi> pickupRegisterCopy = new HashMap<>(pickupRegister.asMap());
         for (Entry<PassengerRequest, RoboTaxi> entry : pickupRegisterCopy.entrySet()) {
             PassengerRequest avRequest = entry.getKey();
             GlobalAssert.that(pendingRequests.contains(avRequest));
@@ -304,7 +297,7 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
          * already */
         getRoboTaxis().stream()//
                 .filter(rt -> rt.getStatus().equals(RoboTaxiStatus.DRIVETOCUSTOMER)) //
-                .filter(rt -> !pickupRegister.containsValue(rt)) //
+                .filter(rt -> !pickupRegister.containsRoboTaxi(rt)) //
                 .filter(RoboTaxi::isWithoutCustomer) //
                 .filter(RoboTaxi::isWithoutDirective) //
                 .forEach(rt -> setRoboTaxiDiversion(rt, rt.getDivertableLocation(), RoboTaxiStatus.REBALANCEDRIVE));
@@ -317,11 +310,13 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
     protected final void consistencySubCheck() {
         GlobalAssert.that(pickupRegister.size() <= pendingRequests.size());
 
-        /** containment check pickupRegister and pendingRequests */
-        pickupRegister.keySet().forEach(r -> GlobalAssert.that(pendingRequests.contains(r)));
+        if (fullConsistencyChecks) {
+            /** containment check pickupRegister and pendingRequests */
+            pickupRegister.requests().forEach(r -> GlobalAssert.that(pendingRequests.contains(r)));
 
-        /** ensure no robotaxi is scheduled to pickup two requests */
-        GlobalAssert.that(pickupRegister.size() == pickupRegister.values().stream().distinct().count());
+            /** ensure no robotaxi is scheduled to pickup two requests */
+            GlobalAssert.that(pickupRegister.isConsistent());
+        }
     }
 
     @Override
@@ -330,7 +325,7 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
          * moment it appears until it is picked up, this period may contain several not
          * connected pickup periods (cancelled pickup attempts) */
         simulationObjectCompiler.insertRequests(pendingRequests, RequestStatus.REQUESTED);
-        simulationObjectCompiler.insertRequests(pickupRegister.keySet(), RequestStatus.PICKUPDRIVE);
+        simulationObjectCompiler.insertRequests(pickupRegister.requests(), RequestStatus.PICKUPDRIVE);
         simulationObjectCompiler.insertRequests(rqstDrvRegister.keySet(), RequestStatus.DRIVING);
 
         /** the request is only contained in these three maps durnig 1 time step, which
@@ -341,7 +336,7 @@ public abstract class UniversalDispatcher extends BasicUniversalDispatcher {
         simulationObjectCompiler.insertRequests(periodFulfilledRequests.keySet(), RequestStatus.DROPOFF);
 
         /** insert information of association of {@link RoboTaxi}s and {@link PassengerRequest}s */
-        simulationObjectCompiler.addRequestRoboTaxiAssoc(pickupRegister);
+        simulationObjectCompiler.addRequestRoboTaxiAssoc(pickupRegister.asMap());
         simulationObjectCompiler.addRequestRoboTaxiAssoc(rqstDrvRegister);
         simulationObjectCompiler.addRequestRoboTaxiAssoc(periodFulfilledRequests);
 
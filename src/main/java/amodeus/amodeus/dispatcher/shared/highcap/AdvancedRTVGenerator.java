@@ -1,18 +1,29 @@
 /* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.dispatcher.shared.highcap;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
+/** generates the edges between trips and vehicles of the RTV graph. The roboTaxis are independent of each other,
+ * with more than one thread they are processed concurrently in a {@link ForkJoinPool}. The results are merged
+ * in the order of the roboTaxis such that the output does not depend on the number of threads. Concurrent
+ * generation requires a {@link TravelTimeComputation} that is safe to be used by multiple threads. */
 /* package */ class AdvancedRTVGenerator {
     private static final double MAX_RANGE = 999999.8;
     // ---
@@ -20,17 +31,38 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
     private final int capacityOfTaxi;
     private final double pickupDurationPerStop;
     private final double dropoffDurationPerStop;
+    private final ForkJoinPool forkJoinPool;
 
     public AdvancedRTVGenerator(int capacityOfTaxi, double pickupDurationPerStop, double dropoffDurationPerStop) {
+        this(capacityOfTaxi, pickupDurationPerStop, dropoffDurationPerStop, 1);
+    }
+
+    /** @param capacityOfTaxi
+     * @param pickupDurationPerStop
+     * @param dropoffDurationPerStop
+     * @param numberOfThreads used to generate the RTV graph, 1 for sequential generation */
+    public AdvancedRTVGenerator(int capacityOfTaxi, double pickupDurationPerStop, double dropoffDurationPerStop, int numberOfThreads) {
         this.capacityOfTaxi = capacityOfTaxi;
         this.pickupDurationPerStop = pickupDurationPerStop;
         this.dropoffDurationPerStop = dropoffDurationPerStop;
+        forkJoinPool = 1 < numberOfThreads ? new ForkJoinPool(numberOfThreads) : null;
+    }
+
+    /** shuts down the threads of the generation, the instance is not used afterwards */
+    public void shutdown() {
+        if (Objects.nonNull(forkJoinPool))
+            forkJoinPool.shutdown();
     }
 
     public List<TripWithVehicle> generateRTV(List<RoboTaxi> roboTaxis, Set<PassengerRequest> newAddedRequests, Set<PassengerRequest> removedRequests, //
             double now, Map<PassengerRequest, RequestKeyInfo> requestKeyInfoMap, Set<Set<PassengerRequest>> rvEdges, //
             TravelTimeComputation ttc, List<TripWithVehicle> lastAssignment, double trafficAllowance) {
-        List<TripWithVehicle> grossListOfRTVEdges = new ArrayList<>();
+        // trips assigned to the roboTaxis in the last step, the deadlines of these requests are extended by the traffic allowance
+        Map<RoboTaxi, Set<PassengerRequest>> lastTrips = new HashMap<>();
+        for (TripWithVehicle tripWithVehicle : lastAssignment)
+            lastTrips.putIfAbsent(tripWithVehicle.getRoboTaxi(), tripWithVehicle.getTrip());
+
+        List<Callable<TaxiResult>> tasks = new ArrayList<>();
         for (RoboTaxi roboTaxi : roboTaxis) {
             // construct collection of single request to check
             Set<PassengerRequest> candidateRequests = new HashSet<>();
@@ -44,122 +76,184 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
             // then we add newly added requests and remove request that has been removed from validOpenRequestList
             candidateRequests.addAll(newAddedRequests);
             candidateRequests.removeAll(removedRequests);
-            feasibleOpenRequestFromLastStepMap.get(roboTaxi).clear(); // we will write in the new feasible request
-
-            Link taxiCurrentLink = roboTaxi.getDivertableLocation();// get roboTaxi current location
 
             // change the maxWaitTime of assigned request of this roboTaxi to the original value (there is uncertainty on the road)
-            // IMPORTANT!!! deadlines need to be changed back to the old value after we finish dealing with this roboTaxi
-            for (TripWithVehicle tripWithVehicle : lastAssignment)
-                if (tripWithVehicle.getRoboTaxi() == roboTaxi) {
-                    for (PassengerRequest avRequest : tripWithVehicle.getTrip())
-                        if (requestKeyInfoMap.containsKey(avRequest))
-                            requestKeyInfoMap.get(avRequest).addTrafficAllowance(trafficAllowance);
-                    break;
+            Set<PassengerRequest> lastTrip = lastTrips.get(roboTaxi);
+            Map<PassengerRequest, RequestKeyInfo> requestKeyInfos = Objects.isNull(lastTrip) //
+                    ? requestKeyInfoMap
+                    : new TrafficAllowanceView(requestKeyInfoMap, lastTrip, trafficAllowance);
+            tasks.add(() -> generateRTV(roboTaxi, candidateRequests, now, requestKeyInfos, rvEdges, ttc));
+        }
+
+        List<TaxiResult> taxiResults = new ArrayList<>();
+        if (Objects.isNull(forkJoinPool))
+            for (Callable<TaxiResult> task : tasks)
+                try {
+                    taxiResults.add(task.call());
+                } catch (Exception exception) {
+                    throw new RuntimeException(exception);
+                }
+        else
+            for (Future<TaxiResult> future : forkJoinPool.invokeAll(tasks))
+                try {
+                    taxiResults.add(future.get());
+                } catch (InterruptedException | ExecutionException exception) {
+                    throw new RuntimeException(exception);
                 }
 
-            // size 1 trips:
-            List<Set<PassengerRequest>> listOfsize1Trip = new ArrayList<>(); // this is useful for generating possible combination for size 2 trip
-            for (PassengerRequest avRequest : candidateRequests) {
-                double timeFromTaxiToRequest = ttc.of(taxiCurrentLink, //
-                        avRequest.getFromLink(), now, false); // do not store this travel time in Cache.
-                double arrivalTime = now + timeFromTaxiToRequest;
-                double deadlineForPickUp = requestKeyInfoMap.get(avRequest).getDeadlinePickUp(); // see note about modifiedSubmission Time above
-                if (arrivalTime < deadlineForPickUp) { // the request is not too far, we can proceed to route generation/validation
-                    Set<PassengerRequest> additionalRequest = new HashSet<>();
-                    additionalRequest.add(avRequest);
-                    List<StopInRoute> route = RouteGenerator.of(roboTaxi, additionalRequest, now, //
-                            requestKeyInfoMap, capacityOfTaxi, ttc, pickupDurationPerStop, dropoffDurationPerStop);
-                    double totalDelayForThisTrip = TotalDelayCalculator.of(route, requestKeyInfoMap, ttc);
+        // merge in the order of the roboTaxis
+        List<TripWithVehicle> grossListOfRTVEdges = new ArrayList<>();
+        for (int index = 0; index < roboTaxis.size(); ++index) {
+            RoboTaxi roboTaxi = roboTaxis.get(index);
+            TaxiResult taxiResult = taxiResults.get(index);
+            grossListOfRTVEdges.addAll(taxiResult.tripsWithVehicle);
+            feasibleOpenRequestFromLastStepMap.put(roboTaxi, taxiResult.feasibleRequests);
+            // remove some data from cache to release some memory
+            if (!roboTaxi.isInStayTask())
+                ttc.removeEntry(taxiResult.taxiCurrentLink); // if the taxi is moving (not staying), then this entry will not be useful anymore
+        }
+        return grossListOfRTVEdges;
+    }
+
+    private TaxiResult generateRTV(RoboTaxi roboTaxi, Set<PassengerRequest> candidateRequests, double now, //
+            Map<PassengerRequest, RequestKeyInfo> requestKeyInfos, Set<Set<PassengerRequest>> rvEdges, TravelTimeComputation ttc) {
+        List<TripWithVehicle> tripsWithVehicle = new ArrayList<>();
+        Set<PassengerRequest> feasibleRequests = new HashSet<>(); // we will write in the new feasible request
+        Link taxiCurrentLink = roboTaxi.getDivertableLocation();// get roboTaxi current location
+
+        // size 1 trips:
+        List<Set<PassengerRequest>> listOfsize1Trip = new ArrayList<>(); // this is useful for generating possible combination for size 2 trip
+        for (PassengerRequest avRequest : candidateRequests) {
+            double timeFromTaxiToRequest = ttc.of(taxiCurrentLink, //
+                    avRequest.getFromLink(), now, false); // do not store this travel time in Cache.
+            double arrivalTime = now + timeFromTaxiToRequest;
+            double deadlineForPickUp = requestKeyInfos.get(avRequest).getDeadlinePickUp(); // see note about modifiedSubmission Time above
+            if (arrivalTime < deadlineForPickUp) { // the request is not too far, we can proceed to route generation/validation
+                Set<PassengerRequest> additionalRequest = new HashSet<>();
+                additionalRequest.add(avRequest);
+                List<StopInRoute> route = RouteGenerator.of(roboTaxi, additionalRequest, now, //
+                        requestKeyInfos, capacityOfTaxi, ttc, pickupDurationPerStop, dropoffDurationPerStop);
+                double totalDelayForThisTrip = TotalDelayCalculator.of(route, requestKeyInfos, ttc);
 
+                if (isTripValid(totalDelayForThisTrip)) {
+                    // if the route is valid, put this trip into the requestDelayMap
+                    // (thisTrip=additionalRequest in size 1 case)
+                    // requestDelayMap.put(additionalRequest, totalDelayForThisTrip);
+                    TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, additionalRequest, route);
+                    if (thisTripWithVehicle.getRoute().isEmpty() && totalDelayForThisTrip != 0)
+                        System.err.println("something is wrong");
+                    tripsWithVehicle.add(thisTripWithVehicle);
+                    listOfsize1Trip.add(additionalRequest); // this is useful for generating possible combination for size 2 trip
+                    feasibleRequests.add(avRequest);
+                }
+            }
+        }
+
+        // size 2 trips:
+        List<Set<PassengerRequest>> listOfSize2Trips = new ArrayList<>();
+        for (int i = 0; i < listOfsize1Trip.size(); i++)
+            for (int j = i + 1; j < listOfsize1Trip.size(); j++) {
+                Set<PassengerRequest> thisTrip = new HashSet<>();
+                thisTrip.add(listOfsize1Trip.get(i).iterator().next());
+                thisTrip.add(listOfsize1Trip.get(j).iterator().next());
+                // check if this trip is in RV graph
+                if (rvEdges.contains(thisTrip)) {
+                    List<StopInRoute> route = RouteGenerator.of(roboTaxi, thisTrip, now, //
+                            requestKeyInfos, capacityOfTaxi, ttc, pickupDurationPerStop, dropoffDurationPerStop);
+                    double totalDelayForThisTrip = TotalDelayCalculator.of(route, requestKeyInfos, ttc);
                     if (isTripValid(totalDelayForThisTrip)) {
-                        // if the route is valid, put this trip into the requestDelayMap
-                        // (thisTrip=additionalRequest in size 1 case)
-                        // requestDelayMap.put(additionalRequest, totalDelayForThisTrip);
-                        TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, additionalRequest, route);
-                        if (thisTripWithVehicle.getRoute().isEmpty() && totalDelayForThisTrip != 0)
-                            System.err.println("something is wrong");
-                        grossListOfRTVEdges.add(thisTripWithVehicle);
-                        listOfsize1Trip.add(additionalRequest); // this is useful for generating possible combination for size 2 trip
-                        feasibleOpenRequestFromLastStepMap.get(roboTaxi).add(avRequest);
+                        TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, thisTrip, route);
+                        tripsWithVehicle.add(thisTripWithVehicle);
+                        listOfSize2Trips.add(thisTrip);
                     }
                 }
             }
 
-            // size 2 trips:
-            List<Set<PassengerRequest>> listOfSize2Trips = new ArrayList<>();
-            for (int i = 0; i < listOfsize1Trip.size(); i++)
-                for (int j = i + 1; j < listOfsize1Trip.size(); j++) {
+        // size 3 to maximum trip length
+        List<Set<PassengerRequest>> listOfTripsFromLastLoop = listOfSize2Trips;
+        List<Set<PassengerRequest>> listOfTripsFromThisLoop = new ArrayList<>();
+        int k = 3;
+        while (k <= capacityOfTaxi && !listOfTripsFromLastLoop.isEmpty()) {
+            // generate all combination of trips with size k
+            listOfTripsFromThisLoop.clear();
+            for (int i = 0; i < listOfTripsFromLastLoop.size(); i++) {
+                for (int j = i + 1; j < listOfTripsFromLastLoop.size(); j++) {
                     Set<PassengerRequest> thisTrip = new HashSet<>();
-                    thisTrip.add(listOfsize1Trip.get(i).iterator().next());
-                    thisTrip.add(listOfsize1Trip.get(j).iterator().next());
-                    // check if this trip is in RV graph
-                    if (rvEdges.contains(thisTrip)) {
-                        List<StopInRoute> route = RouteGenerator.of(roboTaxi, thisTrip, now, //
-                                requestKeyInfoMap, capacityOfTaxi, ttc, pickupDurationPerStop, dropoffDurationPerStop);
-                        double totalDelayForThisTrip = TotalDelayCalculator.of(route, requestKeyInfoMap, ttc);
-                        if (isTripValid(totalDelayForThisTrip)) {
-                            TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, thisTrip, route);
-                            grossListOfRTVEdges.add(thisTripWithVehicle);
-                            listOfSize2Trips.add(thisTrip);
-                        }
-                    }
-                }
+                    thisTrip.addAll(listOfTripsFromLastLoop.get(i));
+                    thisTrip.addAll(listOfTripsFromLastLoop.get(j));
 
-            // size 3 to maximum trip length
-            List<Set<PassengerRequest>> listOfTripsFromLastLoop = listOfSize2Trips;
-            List<Set<PassengerRequest>> listOfTripsFromThisLoop = new ArrayList<>();
-            int k = 3;
-            while (k <= capacityOfTaxi && !listOfTripsFromLastLoop.isEmpty()) {
-                // generate all combination of trips with size k
-                listOfTripsFromThisLoop.clear();
-                for (int i = 0; i < listOfTripsFromLastLoop.size(); i++) {
-                    for (int j = i + 1; j < listOfTripsFromLastLoop.size(); j++) {
-                        Set<PassengerRequest> thisTrip = new HashSet<>();
-                        thisTrip.addAll(listOfTripsFromLastLoop.get(i));
-                        thisTrip.addAll(listOfTripsFromLastLoop.get(j));
-
-                        // check if this trip is size k
-                        if (thisTrip.size() == k) {
-                            // check if all thisTrip's sub-trip is in the set of trips of size k-1
-                            if (EverySubtripIsValid.of(listOfTripsFromLastLoop, thisTrip)) {
-                                // if yes, then generate route and validate the route
-                                List<StopInRoute> route = RouteGenerator.of(roboTaxi, thisTrip, now, //
-                                        requestKeyInfoMap, capacityOfTaxi, //
-                                        ttc, pickupDurationPerStop, dropoffDurationPerStop);
-                                double totalDelayForThisTrip = //
-                                        TotalDelayCalculator.of(route, requestKeyInfoMap, ttc);
-                                if (isTripValid(totalDelayForThisTrip)) {
-                                    TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, thisTrip, route);
-                                    grossListOfRTVEdges.add(thisTripWithVehicle);
-                                    listOfTripsFromThisLoop.add(thisTrip);
-                                }
+                    // check if this trip is size k
+                    if (thisTrip.size() == k) {
+                        // check if all thisTrip's sub-trip is in the set of trips of size k-1
+                        if (EverySubtripIsValid.of(listOfTripsFromLastLoop, thisTrip)) {
+                            // if yes, then generate route and validate the route
+                            List<StopInRoute> route = RouteGenerator.of(roboTaxi, thisTrip, now, //
+                                    requestKeyInfos, capacityOfTaxi, //
+                                    ttc, pickupDurationPerStop, dropoffDurationPerStop);
+                            double totalDelayForThisTrip = //
+                                    TotalDelayCalculator.of(route, requestKeyInfos, ttc);
+                            if (isTripValid(totalDelayForThisTrip)) {
+                                TripWithVehicle thisTripWithVehicle = new TripWithVehicle(roboTaxi, totalDelayForThisTrip, thisTrip, route);
+                                tripsWithVehicle.add(thisTripWithVehicle);
+                                listOfTripsFromThisLoop.add(thisTrip);
                             }
                         }
                     }
                 }
-                k++;
-                listOfTripsFromLastLoop = listOfTripsFromThisLoop;
             }
-
-            // remove some data from cache to release some memory
-            if (!roboTaxi.isInStayTask())
-                ttc.removeEntry(taxiCurrentLink); // if the taxi is moving (not staying), then this entry will not be useful anymore
-
-            // remove traffic allowance we added before, so that next taxi will get the original value
-            for (TripWithVehicle tripWithVehicle : lastAssignment)
-                if (tripWithVehicle.getRoboTaxi() == roboTaxi) {
-                    for (PassengerRequest avRequest : tripWithVehicle.getTrip())
-                        if (requestKeyInfoMap.keySet().contains(avRequest))
-                            requestKeyInfoMap.get(avRequest).removeTrafficAllowance(trafficAllowance);
-                    break;
-                }
+            k++;
+            listOfTripsFromLastLoop = listOfTripsFromThisLoop;
         }
-        return grossListOfRTVEdges;
+
+        return new TaxiResult(tripsWithVehicle, feasibleRequests, taxiCurrentLink);
     }
 
     static boolean isTripValid(double totalDelayForThisTrip) {
         // return totalDelayForThisTrip !=null;
         return totalDelayForThisTrip < MAX_RANGE;
     }
+
+    private static class TaxiResult {
+        private final List<TripWithVehicle> tripsWithVehicle;
+        private final Set<PassengerRequest> feasibleRequests;
+        private final Link taxiCurrentLink;
+
+        TaxiResult(List<TripWithVehicle> tripsWithVehicle, Set<PassengerRequest> feasibleRequests, Link taxiCurrentLink) {
+            this.tripsWithVehicle = tripsWithVehicle;
+            this.feasibleRequests = feasibleRequests;
+            this.taxiCurrentLink = taxiCurrentLink;
+        }
+    }
+
+    /** read-only view of the request key infos in which the requests of the last trip of a roboTaxi have their
+     * deadlines extended by the traffic allowance, the shared {@link RequestKeyInfo}s are not modified */
+    private static class TrafficAllowanceView extends AbstractMap<PassengerRequest, RequestKeyInfo> {
+        private final Map<PassengerRequest, RequestKeyInfo> requestKeyInfoMap;
+        private final Map<PassengerRequest, RequestKeyInfo> extended = new HashMap<>();
+
+        TrafficAllowanceView(Map<PassengerRequest, RequestKeyInfo> requestKeyInfoMap, Set<PassengerRequest> lastTrip, double trafficAllowance) {
+            this.requestKeyInfoMap = requestKeyInfoMap;
+            for (PassengerRequest avRequest : lastTrip)
+                if (requestKeyInfoMap.containsKey(avRequest))
+                    extended.put(avRequest, requestKeyInfoMap.get(avRequest).withTrafficAllowance(trafficAllowance));
+        }
+
+        @Override
+        public RequestKeyInfo get(Object key) {
+            RequestKeyInfo requestKeyInfo = extended.get(key);
+            return Objects.isNull(requestKeyInfo) ? requestKeyInfoMap.get(key) : requestKeyInfo;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return requestKeyInfoMap.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<PassengerRequest, RequestKeyInfo>> entrySet() {
+            return requestKeyInfoMap.keySet().stream() //
+                    .map(avRequest -> new SimpleImmutableEntry<>(avRequest, get(avRequest))) //
+                    .collect(Collectors.toSet());
+        }
+    }
 }
@@ -1,27 +1,34 @@
 /* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.dispatcher.shared.highcap;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
+import org.gnu.glpk.GlpkCallback;
+import org.gnu.glpk.GlpkCallbackListener;
 import org.gnu.glpk.GlpkException;
 import org.gnu.glpk.SWIGTYPE_p_double;
 import org.gnu.glpk.SWIGTYPE_p_int;
 import org.gnu.glpk.glp_iocp;
 import org.gnu.glpk.glp_prob;
+import org.gnu.glpk.glp_smcp;
+import org.gnu.glpk.glp_tree;
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
-/* package */ class ILPConstruction {
+/* package */ class ILPConstruction implements GlpkCallbackListener {
 
     protected glp_prob lp;
-    protected SWIGTYPE_p_int ind; // used to get c arrays
-    protected static SWIGTYPE_p_double val;
+    /** values of the columns of a feasible solution derived from the last assignment, 1-based, or null */
+    private double[] warmStart = null;
 
     /** closing the LP in order to release allocated memory */
     public final void closeLP() {
@@ -29,6 +36,10 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
         GLPK.glp_delete_prob(lp);
     }
 
+    /** The constraint matrix is built from a sparse column view: the column of a {@link TripWithVehicle} has a single
+     * entry in the row of its {@link RoboTaxi} and one entry in the row of each of its {@link PassengerRequest}s, the
+     * column of the variable that ignores a request has a single entry in the row of that request. The matrix is loaded
+     * at once with glp_load_matrix. */
     public void defineLP(List<TripWithVehicle> grossListOfRTVEdges, List<PassengerRequest> openRequestList, //
             List<RoboTaxi> listOfRoboTaxiWithValidTrip, double costOfIgnoredReuqestNormal, double costOfIgnoredReuqestHigh, //
             Set<PassengerRequest> requestMatchedLastStep) {
@@ -38,8 +49,23 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
         int numOfRequest = openRequestList.size();
         int numOfVariables = numOfRTVEdges + numOfRequest;
         int numOfConstraints = numOfTaxiInILP + numOfRequest;
-        int numOfVariablesPlus1 = numOfVariables + 1;
 
+        // row 1 to row numOfTaxiInILP belong to the vehicles, the following rows to the requests
+        Map<RoboTaxi, Integer> taxiRow = new HashMap<>();
+        for (int i = 0; i < numOfTaxiInILP; i++)
+            taxiRow.put(listOfRoboTaxiWithValidTrip.get(i), i + 1);
+        Map<PassengerRequest, Integer> requestRow = new HashMap<>();
+        for (int i = 0; i < numOfRequest; i++)
+            requestRow.put(openRequestList.get(i), numOfTaxiInILP + i + 1);
+
+        // number of non-zero entries
+        int numOfEntries = numOfRequest;
+        for (TripWithVehicle tripWithVehicle : grossListOfRTVEdges)
+            numOfEntries += 1 + tripWithVehicle.getTrip().size();
+
+        SWIGTYPE_p_int ia = GLPK.new_intArray(numOfEntries + 1);
+        SWIGTYPE_p_int ja = GLPK.new_intArray(numOfEntries + 1);
+        SWIGTYPE_p_double ar = GLPK.new_doubleArray(numOfEntries + 1);
         try {
             // Create problem
             lp = GLPK.glp_create_prob();
@@ -57,44 +83,27 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
             /** constrain */
             // Create constraints (define rows)
             GLPK.glp_add_rows(lp, numOfConstraints);
-
-            // row 1 to row numOfTaxiInILP, no more than 1 trip per vehicle (inequality constraints (<=1))
+            // no more than 1 trip per vehicle (inequality constraints (<=1))
             // Note: the constraints of no more than 1 trip assigned to 1 request is included by the equality constraints below
-            for (int i = 1; i <= numOfTaxiInILP; i++) {
+            for (int i = 1; i <= numOfTaxiInILP; i++)
                 GLPK.glp_set_row_bnds(lp, i, GLPKConstants.GLP_UP, 0, 1);
-                ind = GLPK.new_intArray(numOfVariablesPlus1); // use number of optimization variables + 1
-                for (int j = 1; j < numOfVariablesPlus1; j++)
-                    GLPK.intArray_setitem(ind, j, j);
-                val = GLPK.new_doubleArray(numOfVariablesPlus1); // use number of optimization variables + 1
-                // writing coefficient of each variable in constraint
-                // active part
-                for (int j = 1; j <= numOfRTVEdges; j++)
-                    GLPK.doubleArray_setitem(val, j, grossListOfRTVEdges.get(j - 1).getRoboTaxi() == listOfRoboTaxiWithValidTrip.get(i - 1) ? 1. : 0.);
-                // inactive Part (all entries are 0)
-                for (int j = numOfRTVEdges + 1; j < numOfVariablesPlus1; j++)
-                    GLPK.doubleArray_setitem(val, j, 0.);
-                // store in constraint row i
-                GLPK.glp_set_mat_row(lp, i, numOfVariables, ind, val); // read function description (lp, row number, numOfVarialbes, ind, val)
-            }
-
-            // row numOfTaxiInILP+1 to row numOfConstraints, a request is either ignored or accepted (equality constraints (=1))
-            for (int i = numOfTaxiInILP + 1; i < numOfConstraints + 1; i++) {
+            // a request is either ignored or accepted (equality constraints (=1))
+            for (int i = numOfTaxiInILP + 1; i < numOfConstraints + 1; i++)
                 GLPK.glp_set_row_bnds(lp, i, GLPKConstants.GLP_FX, 1, 1);
-                ind = GLPK.new_intArray(numOfVariablesPlus1); // use number of optimization variables + 1
-                for (int j = 1; j < numOfVariablesPlus1; j++)
-                    GLPK.intArray_setitem(ind, j, j);
-                val = GLPK.new_doubleArray(numOfVariablesPlus1); // use number of optimization variables + 1
-                // writing coefficient of each variables in this constraint
-                // request is accepted part
-                for (int j = 1; j <= numOfRTVEdges; j++)
-                    // if request is contained in the trip, then the coefficient of that trip is 1
-                    GLPK.doubleArray_setitem(val, j, grossListOfRTVEdges.get(j - 1).getTrip().contains(openRequestList.get(i - numOfTaxiInILP - 1)) ? 1. : 0.);
-                // request is ignored part (an identity matrix)
-                for (int j = numOfRTVEdges + 1; j < numOfVariablesPlus1; j++)
-                    GLPK.doubleArray_setitem(val, j, j - numOfRTVEdges == i - numOfTaxiInILP ? 1. : 0.);
-                // store in constraint row i
-                GLPK.glp_set_mat_row(lp, i, numOfVariables, ind, val); // read function description (lp, row number, numOfVarialbes, ind, val)
+
+            int entry = 0;
+            for (int j = 1; j <= numOfRTVEdges; j++) {
+                TripWithVehicle tripWithVehicle = grossListOfRTVEdges.get(j - 1);
+                setEntry(ia, ja, ar, ++entry, taxiRow.get(tripWithVehicle.getRoboTaxi()), j);
+                // if request is contained in the trip, then the coefficient of that trip is 1
+                for (PassengerRequest avRequest : tripWithVehicle.getTrip())
+                    if (requestRow.containsKey(avRequest))
+                        setEntry(ia, ja, ar, ++entry, requestRow.get(avRequest), j);
             }
+            // request is ignored part (an identity matrix)
+            for (int i = 1; i <= numOfRequest; i++)
+                setEntry(ia, ja, ar, ++entry, numOfTaxiInILP + i, numOfRTVEdges + i);
+            GLPK.glp_load_matrix(lp, entry, ia, ja, ar);
 
             /** objective */
             // Define objective
@@ -106,20 +115,72 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
                 GLPK.glp_set_obj_coef(lp, i, grossListOfRTVEdges.get(i - 1).getTotalDelay());
 
             // request is ignored part
-            for (int i = numOfRTVEdges + 1; i < numOfVariablesPlus1; i++)
+            for (int i = numOfRTVEdges + 1; i < numOfVariables + 1; i++)
                 GLPK.glp_set_obj_coef(lp, i, requestMatchedLastStep.contains(openRequestList.get(i - numOfRTVEdges - 1)) ? costOfIgnoredReuqestHigh : costOfIgnoredReuqestNormal);
         } catch (GlpkException ex) {
             ex.printStackTrace();
+        } finally {
+            GLPK.delete_intArray(ia);
+            GLPK.delete_intArray(ja);
+            GLPK.delete_doubleArray(ar);
         }
     }
 
+    private static void setEntry(SWIGTYPE_p_int ia, SWIGTYPE_p_int ja, SWIGTYPE_p_double ar, int entry, int row, int column) {
+        GLPK.intArray_setitem(ia, entry, row);
+        GLPK.intArray_setitem(ja, entry, column);
+        GLPK.doubleArray_setitem(ar, entry, 1.);
+    }
+
+    /** derives a feasible initial solution from the assignment of the previous dispatch step: every {@link TripWithVehicle}
+     * of @param lastAssignment that is still in @param grossListOfRTVEdges is selected as long as its vehicle and requests
+     * are not used yet, all remaining requests of @param openRequestList are ignored. The solution is handed to the MIP
+     * solver as first incumbent. */
+    public void defineWarmStart(List<TripWithVehicle> grossListOfRTVEdges, List<PassengerRequest> openRequestList, //
+            List<TripWithVehicle> lastAssignment) {
+        Map<RoboTaxi, Set<PassengerRequest>> lastTrips = new HashMap<>();
+        for (TripWithVehicle tripWithVehicle : lastAssignment)
+            lastTrips.put(tripWithVehicle.getRoboTaxi(), tripWithVehicle.getTrip());
+        int numOfRTVEdges = grossListOfRTVEdges.size();
+        double[] warmStart = new double[numOfRTVEdges + openRequestList.size() + 1];
+        Set<RoboTaxi> usedTaxis = new HashSet<>();
+        Set<PassengerRequest> servedRequests = new HashSet<>();
+        for (int j = 1; j <= numOfRTVEdges; j++) {
+            TripWithVehicle tripWithVehicle = grossListOfRTVEdges.get(j - 1);
+            RoboTaxi roboTaxi = tripWithVehicle.getRoboTaxi();
+            if (tripWithVehicle.getTrip().equals(lastTrips.get(roboTaxi)) && !usedTaxis.contains(roboTaxi) //
+                    && tripWithVehicle.getTrip().stream().noneMatch(servedRequests::contains)) {
+                warmStart[j] = 1;
+                usedTaxis.add(roboTaxi);
+                servedRequests.addAll(tripWithVehicle.getTrip());
+            }
+        }
+        for (int i = 1; i <= openRequestList.size(); i++)
+            warmStart[numOfRTVEdges + i] = servedRequests.contains(openRequestList.get(i - 1)) ? 0 : 1;
+        this.warmStart = usedTaxis.isEmpty() ? null : warmStart;
+    }
+
     public void solveLP(boolean mute) {
         // System.out.println("solving LP: " + GLPK.glp_get_prob_name(lp));
 
         glp_iocp parm = new glp_iocp(); // different in MIP
         GLPK.glp_init_iocp(parm); // different in MIP
-        parm.setPresolve(GLPK.GLP_ON); // GLPK documentation at p. 59
-        int ret = GLPK.glp_intopt(lp, parm); // different in MIP -> other method for solving
+        if (warmStart == null)
+            parm.setPresolve(GLPK.GLP_ON); // GLPK documentation at p. 59
+        else {
+            /** the initial solution refers to the original problem, hence the MIP presolver is not used
+             * and the LP relaxation has to be solved beforehand */
+            glp_smcp smcp = new glp_smcp();
+            GLPK.glp_init_smcp(smcp);
+            GLPK.glp_simplex(lp, smcp);
+            GlpkCallback.addListener(this);
+        }
+        int ret;
+        try {
+            ret = GLPK.glp_intopt(lp, parm); // different in MIP -> other method for solving
+        } finally {
+            GlpkCallback.removeListener(this);
+        }
         int stat = GLPK.glp_mip_status(lp); // different in MIP
 
         try {
@@ -135,6 +196,18 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
         }
     }
 
+    @Override // from GlpkCallbackListener
+    public void callback(glp_tree tree) {
+        if (GLPK.glp_ios_reason(tree) == GLPKConstants.GLP_IHEUR && warmStart != null) {
+            SWIGTYPE_p_double x = GLPK.new_doubleArray(warmStart.length);
+            for (int i = 1; i < warmStart.length; i++)
+                GLPK.doubleArray_setitem(x, i, warmStart[i]);
+            GLPK.glp_ios_heur_sol(tree, x);
+            GLPK.delete_doubleArray(x);
+            warmStart = null; // the incumbent is provided once
+        }
+    }
+
     public List<Double> writeLPSolution() {
         System.out.println("\nThe solution is:\n");
 
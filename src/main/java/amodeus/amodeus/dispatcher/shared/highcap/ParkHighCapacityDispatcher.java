@@ -22,7 +22,6 @@ import org.matsim.contrib.dvrp.run.ModalProviders.InstanceGetter;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
 import org.matsim.core.router.FastAStarLandmarksFactory;
-import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.TravelTime;
 
 import amodeus.amodeus.dispatcher.core.DispatcherConfigWrapper;
@@ -107,10 +106,16 @@ import amodeus.amodeus.routing.EasyMinTimePathCalculator;
         links = new ArrayList<>(network.getLinks().values());
         Collections.shuffle(links, randGen);
 
+        /** the calculators are created by the threads of the RTV graph generation, and the factory caches the
+         * preprocessing of the network without synchronization */
         FastAStarLandmarksFactory factory = new FastAStarLandmarksFactory(Runtime.getRuntime().availableProcessors());
-        LeastCostPathCalculator lcpc = EasyMinTimePathCalculator.prepPathCalculator(network, factory);
-        ttc = new TravelTimeComputation(lcpc, sizeLimitOfCache);
-        rtvGG = new AdvancedRTVGenerator(capacityOfTaxi, pickupDurationPerStop, dropoffDurationPerStop);
+        int numberOfThreads = dispatcherConfig.getNumberOfThreads(1); // threads for the RTV graph generation
+        ttc = new TravelTimeComputation(() -> {
+            synchronized (factory) {
+                return EasyMinTimePathCalculator.prepPathCalculator(network, factory);
+            }
+        }, sizeLimitOfCache, numberOfThreads);
+        rtvGG = new AdvancedRTVGenerator(capacityOfTaxi, pickupDurationPerStop, dropoffDurationPerStop, numberOfThreads);
         rvGenerator = new AdvanceTVRVGenerator(pickupDurationPerStop, dropoffDurationPerStop);
         checkingUpdateMenuOrNot = new CheckingUpdateMenuOrNot();
 
@@ -171,7 +176,7 @@ import amodeus.amodeus.routing.EasyMinTimePathCalculator;
 
                 List<PassengerRequest> validOpenRequestList = new ArrayList<>(requestPool);
                 List<Double> iLPResultList = RunILP.of(grossListOfRTVEdges, validOpenRequestList, listOfRoboTaxiWithValidTrip, //
-                        costOfIgnoredReuqestNormal, costOfIgnoredReuqestHigh, requestMatchedLastStep);
+                        costOfIgnoredReuqestNormal, costOfIgnoredReuqestHigh, requestMatchedLastStep, lastAssignment);
                 for (int i = 0; i < grossListOfRTVEdges.size(); i++)
                     if (iLPResultList.get(i) == 1)
                         sharedTaxiAssignmentPlan.add(grossListOfRTVEdges.get(i));
@@ -253,6 +258,12 @@ import amodeus.amodeus.routing.EasyMinTimePathCalculator;
 
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        rtvGG.shutdown();
+    }
+
     public static class Factory implements AVDispatcherFactory {
         @Override
         public AmodeusDispatcher createDispatcher(InstanceGetter inject) {
@@ -12,14 +12,18 @@ public class RequestKeyInfo {
     private double deadlinePickUp;
     private double modifiableSubmissionTime;
     private double deadlineDropOff;
-    private boolean allowanceGiven;
 
     public RequestKeyInfo(PassengerRequest avRequest, double maxWaitTime, double maxDelay, TravelTimeComputation ttc) {
         modifiableSubmissionTime = avRequest.getSubmissionTime();
         deadlinePickUp = avRequest.getSubmissionTime() + maxWaitTime;
         deadlineDropOff = avRequest.getSubmissionTime() + ttc.of(avRequest.getFromLink(), avRequest.getToLink(), //
                 avRequest.getSubmissionTime(), true) + maxDelay;
-        allowanceGiven = false;
+    }
+
+    private RequestKeyInfo(double modifiableSubmissionTime, double deadlinePickUp, double deadlineDropOff) {
+        this.modifiableSubmissionTime = modifiableSubmissionTime;
+        this.deadlinePickUp = deadlinePickUp;
+        this.deadlineDropOff = deadlineDropOff;
     }
 
     public double getDeadlinePickUp() {
@@ -50,19 +54,11 @@ public class RequestKeyInfo {
             }
     }
 
-    public void addTrafficAllowance(double trafficAllowance) {
-        deadlinePickUp += trafficAllowance;
-        deadlineDropOff += trafficAllowance;
-        allowanceGiven = true;
-    }
-
-    public void removeTrafficAllowance(double trafficAllowance) { // this function is needed when we finish dealing with one roboTaxi, we need to change back
-                                                                  // the deadlines
-        if (allowanceGiven) {
-            deadlinePickUp -= trafficAllowance;
-            deadlineDropOff -= trafficAllowance;
-            allowanceGiven = false;
-        }
+    /** @param trafficAllowance
+     * @return copy of this with pickup and drop off deadlines extended by the traffic allowance, this is used
+     *         for the requests assigned to a roboTaxi in the last step (there is uncertainty on the road) */
+    public RequestKeyInfo withTrafficAllowance(double trafficAllowance) {
+        return new RequestKeyInfo(modifiableSubmissionTime, deadlinePickUp + trafficAllowance, deadlineDropOff + trafficAllowance);
     }
 
     public void modifySubmissionTime(double now, double maxWaitTime, PassengerRequest avRequest, Set<PassengerRequest> overduedRequests) {
@@ -13,12 +13,13 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
     public static List<Double> of(List<TripWithVehicle> grossListOfRTVEdges, List<PassengerRequest> openRequestList, //
             List<RoboTaxi> listOfRoboTaxiWithValidTrip, double costOfIgnoredReuqestNormal, //
-            double costOfIgnoredReuqestHigh, Set<PassengerRequest> requestMatchedLastStep) {
+            double costOfIgnoredReuqestHigh, Set<PassengerRequest> requestMatchedLastStep, List<TripWithVehicle> lastAssignment) {
 
         ILPConstruction iLPCode = new ILPConstruction();
 
         iLPCode.defineLP(grossListOfRTVEdges, openRequestList, listOfRoboTaxiWithValidTrip, //
                 costOfIgnoredReuqestNormal, costOfIgnoredReuqestHigh, requestMatchedLastStep);
+        iLPCode.defineWarmStart(grossListOfRTVEdges, openRequestList, lastAssignment);
         // iLPCode.writeLPEquations();
         iLPCode.solveLP(true);
         List<Double> outputList = iLPCode.writeLPSolution();
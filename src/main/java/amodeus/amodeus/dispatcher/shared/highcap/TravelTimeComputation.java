@@ -1,8 +1,12 @@
 /* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.dispatcher.shared.highcap;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.core.router.util.LeastCostPathCalculator;
@@ -10,44 +14,80 @@ import org.matsim.core.router.util.LeastCostPathCalculator.Path;
 
 import amodeus.amodeus.util.math.LruCache;
 
+/** cache of travel times between links. The cache is split into stripes by the from link, each stripe is a
+ * {@link LruCache} guarded by its own lock. The shortest paths are computed outside of the locks with one
+ * {@link LeastCostPathCalculator} per thread such that the class may be used concurrently if the calculators
+ * are obtained from a {@link Supplier} that creates a new instance on every call. */
 public class TravelTimeComputation {
 
-    private final LeastCostPathCalculator leastCostPathCalculator;
-    private final Map<Link, Map<Link, Double>> travelTimeDataMap;
+    private final ThreadLocal<LeastCostPathCalculator> leastCostPathCalculator;
+    private final List<Map<Link, Map<Link, Double>>> stripes = new ArrayList<>();
 
+    /** @param leastCostPathCalculator
+     * @param sizeLimit of the cache
+     *
+     * the instance must only be used by a single thread */
     public TravelTimeComputation(LeastCostPathCalculator leastCostPathCalculator, int sizeLimit) {
-        this.leastCostPathCalculator = leastCostPathCalculator;
-        travelTimeDataMap = LruCache.create(sizeLimit);
+        this(() -> leastCostPathCalculator, sizeLimit, 1);
+    }
+
+    /** @param supplier of a new {@link LeastCostPathCalculator} for every thread that uses the instance
+     * @param sizeLimit of the cache
+     * @param numberOfStripes of the cache, each stripe holds at most sizeLimit / numberOfStripes from links */
+    public TravelTimeComputation(Supplier<LeastCostPathCalculator> supplier, int sizeLimit, int numberOfStripes) {
+        leastCostPathCalculator = ThreadLocal.withInitial(supplier);
+        for (int index = 0; index < numberOfStripes; ++index)
+            stripes.add(LruCache.create(Math.max(1, sizeLimit / numberOfStripes)));
+    }
+
+    private Map<Link, Map<Link, Double>> stripeOf(Link fromLink) {
+        return stripes.get(Math.floorMod(fromLink.getId().index(), stripes.size()));
     }
 
     // map data structure
     public double of(Link fromLink, Link toLink, double now, boolean storeInCache) {
-        travelTimeDataMap.computeIfAbsent(fromLink, l -> new HashMap<>());
-
-        if (travelTimeDataMap.get(fromLink).containsKey(toLink))
-            return travelTimeDataMap.get(fromLink).get(toLink);
+        Map<Link, Map<Link, Double>> stripe = stripeOf(fromLink);
+        synchronized (stripe) {
+            Double travelTime = stripe.computeIfAbsent(fromLink, l -> new HashMap<>()).get(toLink);
+            if (Objects.nonNull(travelTime))
+                return travelTime;
+        }
 
         // if it reaches here, we need to calculate the travel time
-        Path shortest = leastCostPathCalculator.calcLeastCostPath(fromLink.getFromNode(), toLink.getToNode(), now, null, null);
+        Path shortest = leastCostPathCalculator.get().calcLeastCostPath(fromLink.getFromNode(), toLink.getToNode(), now, null, null);
         if (storeInCache)
-            travelTimeDataMap.get(fromLink).put(toLink, shortest.travelTime);
+            storeInCache(fromLink, toLink, shortest.travelTime);
 
         return shortest.travelTime;
     }
 
     void clearDataMap() {
-        travelTimeDataMap.clear();
+        for (Map<Link, Map<Link, Double>> stripe : stripes)
+            synchronized (stripe) {
+                stripe.clear();
+            }
     }
 
     void storeInCache(Link fromLink, Link toLink, double travelTime) {
-        travelTimeDataMap.get(fromLink).put(toLink, travelTime);
+        Map<Link, Map<Link, Double>> stripe = stripeOf(fromLink);
+        synchronized (stripe) {
+            stripe.computeIfAbsent(fromLink, l -> new HashMap<>()).put(toLink, travelTime);
+        }
     }
 
     public void removeEntry(Link fromLink) {
-        travelTimeDataMap.remove(fromLink);
+        Map<Link, Map<Link, Double>> stripe = stripeOf(fromLink);
+        synchronized (stripe) {
+            stripe.remove(fromLink);
+        }
     }
 
     int getMapSize() {
-        return travelTimeDataMap.size();
+        int size = 0;
+        for (Map<Link, Map<Link, Double>> stripe : stripes)
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        return size;
     }
 }
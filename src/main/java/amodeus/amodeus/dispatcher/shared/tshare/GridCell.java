@@ -2,7 +2,9 @@
 package amodeus.amodeus.dispatcher.shared.tshare;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.TreeMap;
@@ -10,7 +12,6 @@ import java.util.TreeMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.core.utils.collections.QuadTree;
 
-import amodeus.amodeus.routing.CachedNetworkTimeDistance;
 import amodeus.amodeus.routing.NetworkTimeDistInterface;
 import amodeus.amodeus.util.math.GlobalAssert;
 import amodeus.amodeus.util.math.SI;
@@ -45,27 +46,29 @@ import ch.ethz.idsc.tensor.sca.Sign;
      * which are @param minDist and @param minTime, respectively. A {@link QuadTree} @param linkTree to compute
      * the nearest {@link Link}s */
     public GridCell(VirtualNode<Link> virtualNode, VirtualNetwork<Link> virtualNetwork, //
-            CachedNetworkTimeDistance minDist, NetworkTimeDistInterface minTime, QuadTree<Link> linkTree) {
+            NetworkTimeDistInterface minDist, NetworkTimeDistInterface minTime, QuadTree<Link> linkTree) {
         this.virtualNode = virtualNode;
         computeMaps(virtualNetwork, linkTree, minDist, minTime);
     }
 
     private void computeMaps(VirtualNetwork<Link> virtualNetwork, QuadTree<Link> links, //
-            CachedNetworkTimeDistance minDist, NetworkTimeDistInterface minTime) {
+            NetworkTimeDistInterface minDist, NetworkTimeDistInterface minTime) {
         /** the from link is the link closes to the center of the {@link VirtualNode} */
         Link gridCellCenterLink = links.getClosest(//
                 virtualNode.getCoord().Get(0).number().doubleValue(), //
                 virtualNode.getCoord().Get(1).number().doubleValue());
-        /** calculate distances and travel times to other nodes */
-        for (VirtualNode<Link> otherGridCell : virtualNetwork.getVirtualNodes()) {
-            Link otherCenterLink = links.getClosest(//
+        /** calculate distances and travel times to other nodes, one row query each */
+        Map<VirtualNode<Link>, Link> otherCenterLinks = new LinkedHashMap<>();
+        for (VirtualNode<Link> otherGridCell : virtualNetwork.getVirtualNodes())
+            otherCenterLinks.put(otherGridCell, links.getClosest(//
                     otherGridCell.getCoord().Get(0).number().doubleValue(), //
-                    otherGridCell.getCoord().Get(1).number().doubleValue());
-            Scalar time = minTime.travelTime(gridCellCenterLink, otherCenterLink, 0.0);
-            Scalar distance = minDist.distance(gridCellCenterLink, otherCenterLink, 0.0);
-            temporalSortedMap.put(time, otherGridCell);
-            distanceSortedMap.put(distance, otherGridCell);
-        }
+                    otherGridCell.getCoord().Get(1).number().doubleValue()));
+        Map<Link, Scalar> times = minTime.travelTimes(gridCellCenterLink, otherCenterLinks.values(), 0.0);
+        Map<Link, Scalar> distances = minDist.distances(gridCellCenterLink, otherCenterLinks.values(), 0.0);
+        otherCenterLinks.forEach((otherGridCell, otherCenterLink) -> {
+            temporalSortedMap.put(times.get(otherCenterLink), otherGridCell);
+            distanceSortedMap.put(distances.get(otherCenterLink), otherGridCell);
+        });
 
         /** fill map with n nodes less than time */
         nodesWithinLessThan.put(Quantity.of(-0.0000001, SI.SECOND), new ArrayList<>());
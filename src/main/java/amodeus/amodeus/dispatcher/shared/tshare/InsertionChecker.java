@@ -2,10 +2,15 @@
 package amodeus.amodeus.dispatcher.shared.tshare;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
@@ -41,6 +46,33 @@ import ch.ethz.idsc.tensor.Scalar;
  * ... */
 /* package */ class InsertionChecker {
 
+    /** @return {@link InsertionChecker}s for the insertion of @param request in the order of the
+     *         {@link RoboTaxi}s @param roboTaxis, evaluated concurrently in @param forkJoinPool or
+     *         sequentially if the pool is null. The checkers only read the menus of the {@link RoboTaxi}s,
+     *         the {@link CachedNetworkTimeDistance}s have to allow concurrent queries if a pool is given. */
+    public static List<InsertionChecker> of(ForkJoinPool forkJoinPool, CachedNetworkTimeDistance distance, //
+            NetworkTimeDistInterface travelTimeCached, Collection<RoboTaxi> roboTaxis, PassengerRequest request, //
+            Scalar pickupDelayMax, Scalar drpoffDelayMax, double timeNow) {
+        List<Callable<InsertionChecker>> tasks = new ArrayList<>(roboTaxis.size());
+        for (RoboTaxi roboTaxi : roboTaxis)
+            tasks.add(() -> new InsertionChecker(distance, travelTimeCached, roboTaxi, request, pickupDelayMax, drpoffDelayMax, timeNow));
+        List<InsertionChecker> checkers = new ArrayList<>(tasks.size());
+        try {
+            if (Objects.isNull(forkJoinPool) || tasks.size() < 2)
+                for (Callable<InsertionChecker> task : tasks)
+                    checkers.add(task.call());
+            else
+                for (Future<InsertionChecker> future : forkJoinPool.invokeAll(tasks))
+                    checkers.add(future.get());
+        } catch (ExecutionException exception) {
+            throw new RuntimeException(exception.getCause());
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+        return checkers;
+    }
+
+    // ---
     private final RoboTaxi roboTaxi;
     private final PassengerRequest request;
     private List<SharedCourse> optimalMenu = null;
@@ -9,6 +9,7 @@ import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.matsim.amodeus.components.AmodeusDispatcher;
@@ -36,6 +37,7 @@ import amodeus.amodeus.net.MatsimAmodeusDatabase;
 import amodeus.amodeus.routing.CachedNetworkTimeDistance;
 import amodeus.amodeus.routing.EasyMinDistPathCalculator;
 import amodeus.amodeus.routing.EasyMinTimePathCalculator;
+import amodeus.amodeus.routing.MultiTargetTimeDistance;
 import amodeus.amodeus.routing.TimeDistanceProperty;
 import amodeus.amodeus.util.geo.FastQuadTree;
 import amodeus.amodeus.util.math.SI;
@@ -56,7 +58,12 @@ import ch.ethz.idsc.tensor.qty.Quantity;
  * already being transported by a taxi. In order to operate the policy with taxis with capacity N, in this
  * version the time windows of all requests already in a taxi are checked before the insertion of a
  * new request is allowed.
- * - To limit computation time, a maximum length of the planned {@link SharedMenu} was introduced. */
+ * - To limit computation time, a maximum length of the planned {@link SharedMenu} was introduced.
+ *
+ * The insertion feasibility checks of the candidate {@link RoboTaxi}s of a request are independent and are
+ * evaluated concurrently if the parameter numberOfThreads is larger than 1. The requests are still processed
+ * one after the other and the best insertion is selected in the order of the candidates, such that the result
+ * does not depend on the number of threads. */
 public class TShareDispatcher extends SharedPartitionedDispatcher {
 
     /** general */
@@ -71,6 +78,8 @@ public class TShareDispatcher extends SharedPartitionedDispatcher {
     private final DualSideSearch dualSideSearch;
     private final CachedNetworkTimeDistance distanceCashed;
     private final CachedNetworkTimeDistance travelTimeCalculator;
+    /** null for sequential insertion feasibility checks */
+    private final ForkJoinPool forkJoinPool;
 
     protected TShareDispatcher(Network network, Config config, AmodeusModeConfig operatorConfig, //
             TravelTime travelTime, AmodeusRouter router, EventsManager eventsManager, //
@@ -80,12 +89,23 @@ public class TShareDispatcher extends SharedPartitionedDispatcher {
         dispatchPeriod = dispatcherConfig.getDispatchPeriod(30);
         DistanceHeuristics distanceHeuristics = dispatcherConfig.getDistanceHeuristics(DistanceHeuristics.EUCLIDEAN);
         System.out.println("Using DistanceHeuristics: " + distanceHeuristics.name());
-        distanceCashed = new CachedNetworkTimeDistance(
-                EasyMinDistPathCalculator.prepPathCalculator(network, new FastAStarLandmarksFactory(Runtime.getRuntime().availableProcessors())), //
-                180000.0, TimeDistanceProperty.INSTANCE);
-        travelTimeCalculator = new CachedNetworkTimeDistance(
-                EasyMinTimePathCalculator.prepPathCalculator(network, new FastAStarLandmarksFactory(Runtime.getRuntime().availableProcessors())), //
-                180000.0, TimeDistanceProperty.INSTANCE);
+        /** the landmarks of a factory are specific to the travel disutility, hence one factory for each. The
+         * calculators are created by the threads of the insertion feasibility checks, and the factories cache the
+         * preprocessing of the network without synchronization */
+        FastAStarLandmarksFactory distFactory = new FastAStarLandmarksFactory(Runtime.getRuntime().availableProcessors());
+        FastAStarLandmarksFactory timeFactory = new FastAStarLandmarksFactory(Runtime.getRuntime().availableProcessors());
+        distanceCashed = new CachedNetworkTimeDistance(() -> {
+            synchronized (distFactory) {
+                return EasyMinDistPathCalculator.prepPathCalculator(network, distFactory);
+            }
+        }, 180000.0, TimeDistanceProperty.INSTANCE);
+        travelTimeCalculator = new CachedNetworkTimeDistance(() -> {
+            synchronized (timeFactory) {
+                return EasyMinTimePathCalculator.prepPathCalculator(network, timeFactory);
+            }
+        }, 180000.0, TimeDistanceProperty.INSTANCE);
+        int numberOfThreads = dispatcherConfig.getNumberOfThreads(1); // threads for the insertion feasibility checks
+        forkJoinPool = 1 < numberOfThreads ? new ForkJoinPool(numberOfThreads) : null;
         bipartiteMatchingUtils = new TShareBipartiteMatchingUtils();
 
         /** T-Share specific */
@@ -95,9 +115,11 @@ public class TShareDispatcher extends SharedPartitionedDispatcher {
 
         /** initialize grid with T-cells */
         QuadTree<Link> linkTree = FastQuadTree.of(network);
+        MultiTargetTimeDistance minDist = EasyMinDistPathCalculator.prepMultiTarget(network);
+        MultiTargetTimeDistance minTime = EasyMinTimePathCalculator.prepMultiTarget(network);
         for (VirtualNode<Link> virtualNode : virtualNetwork.getVirtualNodes()) {
             System.out.println("preparing grid cell: " + virtualNode.getIndex());
-            gridCells.put(virtualNode, new GridCell(virtualNode, virtualNetwork, distanceCashed, travelTimeCalculator, linkTree));
+            gridCells.put(virtualNode, new GridCell(virtualNode, virtualNetwork, minDist, minTime, linkTree));
         }
         dualSideSearch = new DualSideSearch(gridCells, virtualNetwork);
         System.out.println("According to the reference, a rectangular {@link VirtualNetwork} should be used.");
@@ -156,13 +178,10 @@ public class TShareDispatcher extends SharedPartitionedDispatcher {
                 /** insertion feasibility check, compute possible insertions into schedules
                  * of all {@link RoboTaxi}s, find the insertion with smallest additional distance */
                 NavigableMap<Scalar, InsertionChecker> insertions = new TreeMap<>();
-                for (RoboTaxi taxi : potentialTaxis) {
-                    InsertionChecker checker = //
-                            new InsertionChecker(distanceCashed, travelTimeCalculator, taxi, avr, //
-                                    pickupDelayMax, drpoffDelayMax, now);
+                for (InsertionChecker checker : InsertionChecker.of(forkJoinPool, distanceCashed, travelTimeCalculator, //
+                        potentialTaxis, avr, pickupDelayMax, drpoffDelayMax, now))
                     if (Objects.nonNull(checker.getAddDistance()))
                         insertions.put(checker.getAddDistance(), checker);
-                }
 
                 /** plan update: insert the request into the plan of the {@link RoboTaxi} */
                 if (Objects.nonNull(insertions.firstEntry()))
@@ -171,6 +190,13 @@ public class TShareDispatcher extends SharedPartitionedDispatcher {
         }
     }
 
+    @Override // from AmodeusDispatcher
+    public void onSimulationEnd() {
+        super.onSimulationEnd();
+        if (Objects.nonNull(forkJoinPool))
+            forkJoinPool.shutdown();
+    }
+
     @Override
     protected String getInfoLine() {
         return String.format("%s H=%s", //
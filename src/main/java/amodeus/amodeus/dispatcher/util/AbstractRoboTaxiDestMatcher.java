@@ -30,6 +30,11 @@ public abstract class AbstractRoboTaxiDestMatcher {
         return protected_matchLink(roboTaxis, links);
     }
 
+    /** releases the resources of the matcher, e.g., threads, called once the matcher is no longer used */
+    public void shutdown() {
+        // ---
+    }
+
     protected abstract Map<RoboTaxi, PassengerRequest> protected_match(Collection<RoboTaxi> roboTaxis, Collection<PassengerRequest> avRequests);
 
     protected abstract Map<RoboTaxi, Link> protected_matchLink(Collection<RoboTaxi> roboTaxis, Collection<Link> links);
@@ -17,4 +17,9 @@ public interface BipartiteMatcher {
             Collection<RoboTaxi> roboTaxis, /** <- typically universalDispatcher.getDivertableRoboTaxis() */
             Collection<PassengerRequest> requests, /** <- typically universalDispatcher.getPassengerRequests() */
             DistanceFunction distanceFunction, Network network);
+
+    /** releases the resources of the matcher, e.g., threads, called once the matcher is no longer used */
+    default void shutdown() {
+        // ---
+    }
 }
@@ -15,15 +15,28 @@ import amodeus.amodeus.util.matsim.SafeConfig;
 public class ConfigurableBipartiteMatcher extends BipartiteMatcherInternal {
 
     private final AbstractRoboTaxiDestMatcher globalBipartiteMatcher;
-    private final Boolean hungarian;
+    /** true if the solution is post-processed by the {@link CyclicSolutionPreventer} */
+    private final Boolean preventCycles;
 
-    /** Allows to instantiate a configurable bipartite matching algorithm via the av.xml file, there are two options:
+    /** Allows to instantiate a configurable bipartite matching algorithm via the av.xml file, there are three options:
      * - 1 (default option): the Hungarian method is used, this is chosen if no specification is given in av.xml or the specification
      * 
      * <dispatcher strategy="GlobalBipartiteMatchingDispatcher">
      * <param name="matchingAlgorithm" value="HUNGARIAN" />
+     * <param name="hungarianWarmStart" value="true" /> (optional, default false, starts from the previous solution)
+     * <param name="numberOfThreads" value="4" /> (optional, default 1, threads for the construction of the cost matrix)
+     * <param name="matchingCandidates" value="20" /> (optional, default 0 for all pairs, number of closest requests of
+     * each vehicle and closest vehicles of each request for which the cost is evaluated)
      * 
-     * -2: solution of the assignment problem via Integer Linear Program, for this option the av.xml file should look as follows
+     * -2: the auction algorithm on a sparse cost matrix, vehicles and requests for which only pairs with the sentinel
+     * cost remain are not matched, for this option the av.xml file should look as follows
+     * <dispatcher strategy="GlobalBipartiteMatchingDispatcher">
+     * <param name="matchingAlgorithm" value="AUCTION" />
+     * <param name="auctionWarmStart" value="true" /> (optional, default false, starts from the previous prices)
+     * <param name="numberOfThreads" value="4" /> (optional, default 1)
+     * <param name="matchingCandidates" value="20" /> (optional, default 0 for all pairs)
+     * 
+     * -3: solution of the assignment problem via Integer Linear Program, for this option the av.xml file should look as follows
      * <dispatcher strategy="GlobalBipartiteMatchingDispatcher">
      * <param name="matchingAlgorithm" value="ILP" />
      * <param name="matchingWeight" value="[1.0,1.0,1.0]" />
@@ -35,15 +48,21 @@ public class ConfigurableBipartiteMatcher extends BipartiteMatcherInternal {
         String matchingAlg = safeConfig.getString("matchingAlgorithm", "HUNGARIAN");
         switch (matchingAlg) {
         case "HUNGARIAN":
-            hungarian = true;
-            globalBipartiteMatcher = new GlobalBipartiteMatching(cost);
+            preventCycles = true;
+            globalBipartiteMatcher = new GlobalBipartiteMatching(cost, Boolean.parseBoolean(safeConfig.getString("hungarianWarmStart", "false")), //
+                    safeConfig.getInteger("numberOfThreads", 1), safeConfig.getInteger("matchingCandidates", 0));
+            break;
+        case "AUCTION":
+            preventCycles = true;
+            globalBipartiteMatcher = new GlobalBipartiteMatchingAuction(cost, Boolean.parseBoolean(safeConfig.getString("auctionWarmStart", "false")), //
+                    safeConfig.getInteger("numberOfThreads", 1), safeConfig.getInteger("matchingCandidates", 0));
             break;
         case "ILP":
-            hungarian = false;
+            preventCycles = false;
             globalBipartiteMatcher = new GlobalBipartiteMatchingILP(cost, safeConfig);
             break;
         default:
-            // hungarian = null;
+            // preventCycles = null;
             // globalBipartiteMatcher = null;
             throw new RuntimeException("An invalid option for the matching algorithm was chosen. " + matchingAlg);
         }
@@ -54,12 +73,12 @@ public class ConfigurableBipartiteMatcher extends BipartiteMatcherInternal {
             Collection<RoboTaxi> roboTaxis, /** <- typically universalDispatcher.getDivertableRoboTaxis() */
             Collection<PassengerRequest> requests, /** <- typically universalDispatcher.getPassengerRequests() */
             DistanceFunction distanceFunction, Network network) {
-        if (hungarian)
-            return hungarianMatch(universalDispatcher, roboTaxis, requests, distanceFunction, network);
+        if (preventCycles)
+            return cyclePreventingMatch(universalDispatcher, roboTaxis, requests, distanceFunction, network);
         return integerLinearProgramMatch(universalDispatcher, roboTaxis, requests, distanceFunction, network);
     }
 
-    private Map<RoboTaxi, PassengerRequest> hungarianMatch(UniversalDispatcher universalDispatcher, //
+    private Map<RoboTaxi, PassengerRequest> cyclePreventingMatch(UniversalDispatcher universalDispatcher, //
             Collection<RoboTaxi> roboTaxis, /** <- typically universalDispatcher.getDivertableRoboTaxis() */
             Collection<PassengerRequest> requests, /** <- typically universalDispatcher.getPassengerRequests() */
             DistanceFunction distanceFunction, Network network) {
@@ -82,4 +101,9 @@ public class ConfigurableBipartiteMatcher extends BipartiteMatcherInternal {
          * old distance */
     }
 
+    @Override // from BipartiteMatcher
+    public void shutdown() {
+        globalBipartiteMatcher.shutdown();
+    }
+
 }
@@ -18,4 +18,10 @@ public class DistanceCost implements GlobalBipartiteCost {
         return distanceFunction.getDistance(roboTaxi, link);
     }
 
+    /** the distances from a {@link RoboTaxi} are the distances from its divertable location */
+    @Override
+    public double[] row(RoboTaxi roboTaxi, Link[] links) {
+        return distanceFunction.getDistances(roboTaxi.getDivertableLocation(), links);
+    }
+
 }
@@ -12,4 +12,15 @@ public interface GlobalBipartiteCost {
      *         and a {@link Link} @param link, e.g., the Euclidean distance */
     double between(RoboTaxi roboTaxi, Link link);
 
+    /** The default implementation evaluates the pairs one at a time.
+     * 
+     * @return the costs between the {@link RoboTaxi} @param roboTaxi and each of the @param links
+     *         in the same order, equal to {@link #between(RoboTaxi, Link)} */
+    default double[] row(RoboTaxi roboTaxi, Link[] links) {
+        double[] costs = new double[links.length];
+        for (int index = 0; index < links.length; ++index)
+            costs[index] = between(roboTaxi, links[index]);
+        return costs;
+    }
+
 }
@@ -0,0 +1,234 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.utils.collections.QuadTree;
+
+import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.util.auction.SparseCostMatrix;
+
+/** Constructs the cost matrix of a bipartite matching between {@link RoboTaxi}s and objects located at {@link Link}s.
+ *
+ * Every row of the matrix is evaluated with a single call of {@link GlobalBipartiteCost#row(RoboTaxi, Link[])},
+ * such that network based costs are computed with one search per {@link RoboTaxi}. The rows are computed in
+ * parallel if more than one thread is configured, in which case the {@link GlobalBipartiteCost} has to be thread-safe.
+ *
+ * If a number of candidates is configured, the cost is only evaluated for the pairs of a {@link RoboTaxi} and
+ * one of the candidates closest to it in Euclidean distance, and of an object and one of the candidates
+ * closest to it. All other entries are set to a sentinel cost that exceeds every evaluated cost by a factor
+ * of {@link #SENTINEL_FACTOR}, such that these pairs are only matched if there is no alternative. The
+ * {@link SparseCostMatrix} contains only the evaluated entries. */
+public class GlobalBipartiteCostMatrix {
+    /* package */ static final double SENTINEL_FACTOR = 10.0;
+    /** [m] smallest radius of the search for candidates */
+    private static final double MIN_RADIUS = 1.0;
+
+    /** cost of the entry (i, j) of a cost matrix */
+    @FunctionalInterface
+    /* package */ interface EntryCost {
+        double between(int i, int j);
+    }
+
+    /** costs of the entries (i, cols[0]), (i, cols[1]), ... of a cost matrix */
+    @FunctionalInterface
+    private interface RowCost {
+        double[] between(int i, int[] cols);
+    }
+
+    // ---
+    private final GlobalBipartiteCost globalBipartiteCost;
+    /** null for the sequential construction of the rows */
+    private final ForkJoinPool forkJoinPool;
+    /** 0 for the evaluation of all entries */
+    private final int candidates;
+
+    /** @param globalBipartiteCost evaluated for all pairs in a single thread */
+    public GlobalBipartiteCostMatrix(GlobalBipartiteCost globalBipartiteCost) {
+        this(globalBipartiteCost, 1, 0);
+    }
+
+    /** @param globalBipartiteCost has to be thread-safe if numberOfThreads is larger than 1
+     * @param numberOfThreads for the construction of the rows
+     * @param candidates 0 to evaluate all pairs, otherwise the number of closest candidates of each {@link RoboTaxi}
+     *            and of each object for which the cost is evaluated */
+    public GlobalBipartiteCostMatrix(GlobalBipartiteCost globalBipartiteCost, int numberOfThreads, int candidates) {
+        this.globalBipartiteCost = Objects.requireNonNull(globalBipartiteCost);
+        forkJoinPool = 1 < numberOfThreads ? new ForkJoinPool(numberOfThreads) : null;
+        this.candidates = Math.max(candidates, 0);
+    }
+
+    /** shuts down the threads for the construction of the rows, the instance is not used afterwards */
+    public void shutdown() {
+        if (Objects.nonNull(forkJoinPool))
+            forkJoinPool.shutdown();
+    }
+
+    /** @param roboTaxis associated to the rows
+     * @param linkObjects associated to the columns
+     * @param linkOfT
+     * @return cost matrix with entry [i][j] for the i-th {@link RoboTaxi} and the j-th object */
+    public <T> double[][] of(List<RoboTaxi> roboTaxis, List<T> linkObjects, Function<T, Link> linkOfT) {
+        Link[] links = linkObjects.stream().map(linkOfT).toArray(Link[]::new);
+        Coord[] rowCoords = roboTaxis.stream().map(roboTaxi -> roboTaxi.getDivertableLocation().getCoord()).toArray(Coord[]::new);
+        Coord[] colCoords = Arrays.stream(links).map(Link::getCoord).toArray(Coord[]::new);
+        return costMatrixByRows(rowCoords, colCoords, rowCost(roboTaxis, links), forkJoinPool, candidates);
+    }
+
+    /** @return costs of the i-th {@link RoboTaxi} and the objects at the given columns in a single call */
+    private RowCost rowCost(List<RoboTaxi> roboTaxis, Link[] links) {
+        return (i, cols) -> globalBipartiteCost.row(roboTaxis.get(i), Arrays.stream(cols).mapToObj(j -> links[j]).toArray(Link[]::new));
+    }
+
+    private static RowCost rowCost(EntryCost entryCost) {
+        return (i, cols) -> Arrays.stream(cols).mapToDouble(j -> entryCost.between(i, j)).toArray();
+    }
+
+    /** @param rowCoords
+     * @param colCoords
+     * @param entryCost
+     * @param forkJoinPool null for the sequential construction of the rows
+     * @param candidates 0 to evaluate all entries
+     * @return cost matrix of dimensions rowCoords.length x colCoords.length */
+    /* package */ static double[][] costMatrix(Coord[] rowCoords, Coord[] colCoords, EntryCost entryCost, ForkJoinPool forkJoinPool, int candidates) {
+        return costMatrixByRows(rowCoords, colCoords, rowCost(entryCost), forkJoinPool, candidates);
+    }
+
+    private static double[][] costMatrixByRows(Coord[] rowCoords, Coord[] colCoords, RowCost rowCost, ForkJoinPool forkJoinPool, int candidates) {
+        final int n = rowCoords.length;
+        final int m = colCoords.length;
+        if (candidates <= 0 || n == 0 || m == 0 || m <= candidates && n <= candidates) {
+            final double[][] costMatrix = new double[n][];
+            final int[] cols = IntStream.range(0, m).toArray();
+            forEach(n, forkJoinPool, i -> costMatrix[i] = rowCost.between(i, cols));
+            return costMatrix;
+        }
+
+        return sparseCostMatrixByRows(rowCoords, colCoords, rowCost, forkJoinPool, candidates).toDense();
+    }
+
+    /** @param roboTaxis associated to the rows
+     * @param linkObjects associated to the columns
+     * @param linkOfT
+     * @return sparse cost matrix with the evaluated entries for the i-th {@link RoboTaxi} and the j-th object, all entries
+     *         are evaluated if no number of candidates is configured */
+    public <T> SparseCostMatrix sparse(List<RoboTaxi> roboTaxis, List<T> linkObjects, Function<T, Link> linkOfT) {
+        Link[] links = linkObjects.stream().map(linkOfT).toArray(Link[]::new);
+        Coord[] rowCoords = roboTaxis.stream().map(roboTaxi -> roboTaxi.getDivertableLocation().getCoord()).toArray(Coord[]::new);
+        Coord[] colCoords = Arrays.stream(links).map(Link::getCoord).toArray(Coord[]::new);
+        return sparseCostMatrixByRows(rowCoords, colCoords, rowCost(roboTaxis, links), forkJoinPool, candidates);
+    }
+
+    /** @param rowCoords
+     * @param colCoords
+     * @param entryCost
+     * @param forkJoinPool null for the sequential construction of the rows
+     * @param candidates 0 to evaluate all entries
+     * @return sparse cost matrix of the evaluated entries with finite cost */
+    /* package */ static SparseCostMatrix sparseCostMatrix(Coord[] rowCoords, Coord[] colCoords, EntryCost entryCost, ForkJoinPool forkJoinPool, int candidates) {
+        return sparseCostMatrixByRows(rowCoords, colCoords, rowCost(entryCost), forkJoinPool, candidates);
+    }
+
+    private static SparseCostMatrix sparseCostMatrixByRows(Coord[] rowCoords, Coord[] colCoords, RowCost rowCost, ForkJoinPool forkJoinPool, int candidates) {
+        final int n = rowCoords.length;
+        final int m = colCoords.length;
+        int[][] colsOfRow = new int[n][];
+        if (candidates <= 0 || n == 0 || m == 0 || m <= candidates && n <= candidates)
+            Arrays.setAll(colsOfRow, i -> IntStream.range(0, m).toArray());
+        else {
+            /** candidate columns of each row and candidate rows of each column */
+            QuadTree<Integer> rowTree = quadTree(rowCoords, rowCoords, colCoords);
+            QuadTree<Integer> colTree = quadTree(colCoords, rowCoords, colCoords);
+            int[][] rowCandidates = new int[n][];
+            int[][] colCandidates = new int[m][];
+            forEach(n, forkJoinPool, i -> rowCandidates[i] = closest(colTree, colCoords, rowCoords[i], candidates));
+            forEach(m, forkJoinPool, j -> colCandidates[j] = closest(rowTree, rowCoords, colCoords[j], candidates));
+            List<List<Integer>> candidatesOfRow = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i)
+                candidatesOfRow.add(new ArrayList<>());
+            for (int j = 0; j < m; ++j)
+                for (int i : colCandidates[j])
+                    candidatesOfRow.get(i).add(j);
+            forEach(n, forkJoinPool, i -> colsOfRow[i] = IntStream.concat(Arrays.stream(rowCandidates[i]), //
+                    candidatesOfRow.get(i).stream().mapToInt(Integer::intValue)).sorted().distinct().toArray());
+        }
+
+        double[][] costs = new double[n][];
+        forEach(n, forkJoinPool, i -> costs[i] = rowCost.between(i, colsOfRow[i]));
+        int[] rowStart = new int[n + 1];
+        for (int i = 0; i < n; ++i)
+            rowStart[i + 1] = rowStart[i] + (int) Arrays.stream(costs[i]).filter(Double::isFinite).count();
+        int[] colIndex = new int[rowStart[n]];
+        double[] cost = new double[rowStart[n]];
+        int position = 0;
+        for (int i = 0; i < n; ++i)
+            for (int index = 0; index < colsOfRow[i].length; ++index)
+                if (Double.isFinite(costs[i][index])) {
+                    colIndex[position] = colsOfRow[i][index];
+                    cost[position++] = costs[i][index];
+                }
+        double max = Arrays.stream(cost).max().orElse(0.0);
+        return new SparseCostMatrix(m, rowStart, colIndex, cost, SENTINEL_FACTOR * Math.max(max, 1.0));
+    }
+
+    private static void forEach(int count, ForkJoinPool forkJoinPool, IntConsumer intConsumer) {
+        if (Objects.isNull(forkJoinPool) || count < 2)
+            IntStream.range(0, count).forEach(intConsumer);
+        else
+            forkJoinPool.submit(() -> IntStream.range(0, count).parallel().forEach(intConsumer)).join();
+    }
+
+    /** @return tree of the indices of coords, with bounds that contain all coordinates of rowCoords and colCoords */
+    private static QuadTree<Integer> quadTree(Coord[] coords, Coord[] rowCoords, Coord[] colCoords) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Coord[] array : new Coord[][] { rowCoords, colCoords })
+            for (Coord coord : array) {
+                minX = Math.min(minX, coord.getX());
+                minY = Math.min(minY, coord.getY());
+                maxX = Math.max(maxX, coord.getX());
+                maxY = Math.max(maxY, coord.getY());
+            }
+        QuadTree<Integer> quadTree = new QuadTree<>(minX, minY, maxX, maxY);
+        for (int index = 0; index < coords.length; ++index)
+            quadTree.put(coords[index].getX(), coords[index].getY(), index);
+        return quadTree;
+    }
+
+    /** @return indices of the count values of quadTree closest to coord, ties are broken by the index */
+    private static int[] closest(QuadTree<Integer> quadTree, Coord[] coords, Coord coord, int count) {
+        double x = coord.getX();
+        double y = coord.getY();
+        double diagonal = Math.hypot(quadTree.getMaxEasting() - quadTree.getMinEasting(), quadTree.getMaxNorthing() - quadTree.getMinNorthing());
+        /** initial radius of a disk that contains count values if they are distributed uniformly */
+        double area = (quadTree.getMaxEasting() - quadTree.getMinEasting()) * (quadTree.getMaxNorthing() - quadTree.getMinNorthing());
+        double radius = Math.max(Math.sqrt(area * count / (Math.PI * quadTree.size())), MIN_RADIUS);
+        Collection<Integer> disk = quadTree.getDisk(x, y, radius);
+        while (disk.size() < count && radius <= diagonal) {
+            radius *= 2;
+            disk = quadTree.getDisk(x, y, radius);
+        }
+        return disk.stream() //
+                .sorted(Comparator.<Integer>comparingDouble(index -> distance(coords[index], x, y)).thenComparing(Comparator.naturalOrder())) //
+                .limit(count).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double distance(Coord coord, double x, double y) {
+        double dx = coord.getX() - x;
+        double dy = coord.getY() - y;
+        return dx * dx + dy * dy;
+    }
+}
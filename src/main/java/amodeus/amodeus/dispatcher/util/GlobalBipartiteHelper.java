@@ -3,8 +3,10 @@ package amodeus.amodeus.dispatcher.util;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -12,7 +14,11 @@ import java.util.stream.Collectors;
 import org.matsim.api.core.v01.network.Link;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.util.auction.AuctionAlgorithm;
+import amodeus.amodeus.util.auction.AuctionWarmstartState;
+import amodeus.amodeus.util.auction.SparseCostMatrix;
 import amodeus.amodeus.util.hungarian.HungarianAlgorithmWrap;
+import amodeus.amodeus.util.hungarian.WarmstartState;
 import amodeus.amodeus.util.math.GlobalAssert;
 
 /* package */ enum GlobalBipartiteHelper {
@@ -20,6 +26,13 @@ import amodeus.amodeus.util.math.GlobalAssert;
 
     public static <T> Map<RoboTaxi, T> genericMatch(Collection<RoboTaxi> roboTaxis, Collection<T> linkObjects, //
             Function<T, Link> linkOfT, GlobalBipartiteCost globalBipartiteCost) {
+        return genericMatch(roboTaxis, linkObjects, linkOfT, new GlobalBipartiteCostMatrix(globalBipartiteCost), null);
+    }
+
+    /** @param globalBipartiteCostMatrix constructs the cost matrix of the {@link RoboTaxi}s and the objects
+     * @param warmstartState of the calling matcher, or null if the Hungarian algorithm is started without prior solution */
+    public static <T> Map<RoboTaxi, T> genericMatch(Collection<RoboTaxi> roboTaxis, Collection<T> linkObjects, //
+            Function<T, Link> linkOfT, GlobalBipartiteCostMatrix globalBipartiteCostMatrix, WarmstartState<RoboTaxi, T> warmstartState) {
         /** storage in {@link List} as {@link Collection} does not guarantee order */
         final List<RoboTaxi> orderedRoboTaxis = new ArrayList<>(roboTaxis);
         final List<T> ordered_linkObjects = new ArrayList<>(linkObjects);
@@ -27,20 +40,15 @@ import amodeus.amodeus.util.math.GlobalAssert;
         /** setup cost matrix */
         final int n = orderedRoboTaxis.size(); // workers
         final int m = ordered_linkObjects.size(); // jobs
-        final double[][] costMatrix = new double[n][m];
 
         /** cost of assigning vehicle i to dest j, i.e. distance from vehicle i to destination j */
-        int i = 0;
-        for (RoboTaxi roboTaxi : orderedRoboTaxis) {
-            int j = 0;
-            for (T t : ordered_linkObjects)
-                costMatrix[i][j++] = globalBipartiteCost.between(roboTaxi, linkOfT.apply(t));
-            ++i;
-        }
+        final double[][] costMatrix = globalBipartiteCostMatrix.of(orderedRoboTaxis, ordered_linkObjects, linkOfT);
 
         /** vehicle at position i is assigned to destination matchinghungarianAlgorithm[j],
          * int[] matchinghungarianAlgorithm = new HungarianAlgorithm(distancematrix).execute(); O(n^3) */
-        int[] matchinghungarianAlgorithm = HungarianAlgorithmWrap.matching(costMatrix);
+        int[] matchinghungarianAlgorithm = Objects.isNull(warmstartState) //
+                ? HungarianAlgorithmWrap.matching(costMatrix)
+                : HungarianAlgorithmWrap.matching(costMatrix, orderedRoboTaxis, ordered_linkObjects, warmstartState);
 
         /** do the assignment according to the Hungarian algorithm (only for the matched elements) */
         AtomicInteger ai = new AtomicInteger();
@@ -50,4 +58,25 @@ import amodeus.amodeus.util.math.GlobalAssert;
         return map;
     }
 
+    /** @param globalBipartiteCostMatrix constructs the sparse cost matrix of the {@link RoboTaxi}s and the objects
+     * @param auctionWarmstartState of the calling matcher, or null if the auction is started with zero prices
+     * @return map that contains only the matched {@link RoboTaxi}s, pairs that are not contained in the sparse
+     *         cost matrix are never matched */
+    public static <T> Map<RoboTaxi, T> auctionMatch(Collection<RoboTaxi> roboTaxis, Collection<T> linkObjects, //
+            Function<T, Link> linkOfT, GlobalBipartiteCostMatrix globalBipartiteCostMatrix, AuctionWarmstartState<RoboTaxi, T> auctionWarmstartState) {
+        final List<RoboTaxi> orderedRoboTaxis = new ArrayList<>(roboTaxis);
+        final List<T> ordered_linkObjects = new ArrayList<>(linkObjects);
+        final SparseCostMatrix sparseCostMatrix = globalBipartiteCostMatrix.sparse(orderedRoboTaxis, ordered_linkObjects, linkOfT);
+
+        int[] matchingAuction = Objects.isNull(auctionWarmstartState) //
+                ? new AuctionAlgorithm(sparseCostMatrix).execute()
+                : auctionWarmstartState.matching(sparseCostMatrix, orderedRoboTaxis, ordered_linkObjects);
+
+        final Map<RoboTaxi, T> map = new HashMap<>();
+        for (int i = 0; i < matchingAuction.length; ++i)
+            if (0 <= matchingAuction[i])
+                map.put(orderedRoboTaxis.get(i), ordered_linkObjects.get(matchingAuction[i]));
+        GlobalAssert.that(map.size() <= Math.min(orderedRoboTaxis.size(), ordered_linkObjects.size()));
+        return map;
+    }
 }
@@ -9,6 +9,7 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.util.hungarian.WarmstartState;
 
 /** Use to solve a {@link RoboTaxi} to {@link PassengerRequest} assignment problem via
  * global (all to all) bipartite matching. Solved using
@@ -16,12 +17,35 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
 public class GlobalBipartiteMatching extends AbstractRoboTaxiDestMatcher {
 
     protected final GlobalBipartiteCost globalBipartiteCost;
+    private final GlobalBipartiteCostMatrix globalBipartiteCostMatrix;
+    /** solutions of the previous matchings, null if the Hungarian algorithm is not warm started */
+    private final WarmstartState<RoboTaxi, PassengerRequest> requestWarmstartState;
+    private final WarmstartState<RoboTaxi, Link> linkWarmstartState;
 
     /** Set the matching cost.
      * 
      * @param globalBipartiteCost - implementation of the GlobalBipartiteCost functional interface */
     public GlobalBipartiteMatching(GlobalBipartiteCost globalBipartiteCost) {
+        this(globalBipartiteCost, false);
+    }
+
+    /** @param globalBipartiteCost - implementation of the GlobalBipartiteCost functional interface
+     * @param warmStart - if true, the Hungarian algorithm starts from the solution of the previous call of this instance */
+    public GlobalBipartiteMatching(GlobalBipartiteCost globalBipartiteCost, boolean warmStart) {
+        this(globalBipartiteCost, warmStart, 1, 0);
+    }
+
+    /** @param globalBipartiteCost - implementation of the GlobalBipartiteCost functional interface, has to be thread-safe
+     *            if numberOfThreads is larger than 1
+     * @param warmStart - if true, the Hungarian algorithm starts from the solution of the previous call of this instance
+     * @param numberOfThreads - for the construction of the cost matrix
+     * @param candidates - 0 to evaluate the cost of all pairs, otherwise the number of closest candidates of each
+     *            {@link RoboTaxi} and of each destination for which the cost is evaluated, see {@link GlobalBipartiteCostMatrix} */
+    public GlobalBipartiteMatching(GlobalBipartiteCost globalBipartiteCost, boolean warmStart, int numberOfThreads, int candidates) {
         this.globalBipartiteCost = Objects.requireNonNull(globalBipartiteCost);
+        globalBipartiteCostMatrix = new GlobalBipartiteCostMatrix(globalBipartiteCost, numberOfThreads, candidates);
+        requestWarmstartState = warmStart ? new WarmstartState<>() : null;
+        linkWarmstartState = warmStart ? new WarmstartState<>() : null;
     }
 
     /** Match RoboTaxis to PassengerRequests
@@ -31,7 +55,7 @@ public class GlobalBipartiteMatching extends AbstractRoboTaxiDestMatcher {
      * @return */
     @Override
     protected Map<RoboTaxi, PassengerRequest> protected_match(Collection<RoboTaxi> roboTaxis, Collection<PassengerRequest> requests) {
-        return GlobalBipartiteHelper.genericMatch(roboTaxis, requests, PassengerRequest::getFromLink, globalBipartiteCost);
+        return GlobalBipartiteHelper.genericMatch(roboTaxis, requests, PassengerRequest::getFromLink, globalBipartiteCostMatrix, requestWarmstartState);
     }
 
     /** Match Robotaxis to links.
@@ -41,7 +65,12 @@ public class GlobalBipartiteMatching extends AbstractRoboTaxiDestMatcher {
      * @return */
     @Override
     protected Map<RoboTaxi, Link> protected_matchLink(Collection<RoboTaxi> roboTaxis, Collection<Link> links) {
-        return GlobalBipartiteHelper.genericMatch(roboTaxis, links, link -> link, globalBipartiteCost);
+        return GlobalBipartiteHelper.genericMatch(roboTaxis, links, link -> link, globalBipartiteCostMatrix, linkWarmstartState);
+    }
+
+    @Override // from AbstractRoboTaxiDestMatcher
+    public void shutdown() {
+        globalBipartiteCostMatrix.shutdown();
     }
 
 }
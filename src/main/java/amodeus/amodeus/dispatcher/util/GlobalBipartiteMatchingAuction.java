@@ -0,0 +1,51 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+
+import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.util.auction.AuctionAlgorithm;
+import amodeus.amodeus.util.auction.AuctionWarmstartState;
+
+/** Use to solve a {@link RoboTaxi} to {@link PassengerRequest} assignment problem via
+ * global bipartite matching on the sparse cost matrix of {@link GlobalBipartiteCostMatrix}. Solved using
+ * the {@link AuctionAlgorithm}, {@link RoboTaxi}s and destinations without a reasonable partner remain unmatched. */
+public class GlobalBipartiteMatchingAuction extends AbstractRoboTaxiDestMatcher {
+
+    private final GlobalBipartiteCostMatrix globalBipartiteCostMatrix;
+    /** prices of the previous matchings, null if the auction is not warm started */
+    private final AuctionWarmstartState<RoboTaxi, PassengerRequest> requestWarmstartState;
+    private final AuctionWarmstartState<RoboTaxi, Link> linkWarmstartState;
+
+    /** @param globalBipartiteCost - implementation of the GlobalBipartiteCost functional interface, has to be thread-safe
+     *            if numberOfThreads is larger than 1
+     * @param warmStart - if true, the auction starts from the prices of the previous call of this instance
+     * @param numberOfThreads - for the construction of the cost matrix
+     * @param candidates - 0 to evaluate the cost of all pairs, otherwise the number of closest candidates of each
+     *            {@link RoboTaxi} and of each destination for which the cost is evaluated, see {@link GlobalBipartiteCostMatrix} */
+    public GlobalBipartiteMatchingAuction(GlobalBipartiteCost globalBipartiteCost, boolean warmStart, int numberOfThreads, int candidates) {
+        globalBipartiteCostMatrix = new GlobalBipartiteCostMatrix(globalBipartiteCost, numberOfThreads, candidates);
+        requestWarmstartState = warmStart ? new AuctionWarmstartState<>() : null;
+        linkWarmstartState = warmStart ? new AuctionWarmstartState<>() : null;
+    }
+
+    @Override
+    protected Map<RoboTaxi, PassengerRequest> protected_match(Collection<RoboTaxi> roboTaxis, Collection<PassengerRequest> requests) {
+        return GlobalBipartiteHelper.auctionMatch(roboTaxis, requests, PassengerRequest::getFromLink, globalBipartiteCostMatrix, requestWarmstartState);
+    }
+
+    @Override
+    protected Map<RoboTaxi, Link> protected_matchLink(Collection<RoboTaxi> roboTaxis, Collection<Link> links) {
+        return GlobalBipartiteHelper.auctionMatch(roboTaxis, links, link -> link, globalBipartiteCostMatrix, linkWarmstartState);
+    }
+
+    @Override // from AbstractRoboTaxiDestMatcher
+    public void shutdown() {
+        globalBipartiteCostMatrix.shutdown();
+    }
+
+}
@@ -0,0 +1,130 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+
+/** The {@link Link}s of a {@link Network} with their coordinates in primitive arrays and a uniform grid
+ * over the coordinates in compressed rows: the links in cell c are at positions cellStart[c] ... cellStart[c + 1] - 1
+ * of cellLinks. The instance is immutable and is shared by all {@link WeberMaintainer}s of a dispatcher. */
+public class WeberLinks {
+    /** average number of links per cell */
+    private static final int LINKS_PER_CELL = 8;
+
+    /** @param network
+     * @return links of network in the order of {@link Network#getLinks()} */
+    public static WeberLinks of(Network network) {
+        return new WeberLinks(network.getLinks().values().toArray(new Link[network.getLinks().size()]));
+    }
+
+    // ---
+    final Link[] links;
+    final double[] x;
+    final double[] y;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cellsX;
+    private final int cellsY;
+    private final int[] cellStart;
+    private final int[] cellLinks;
+
+    private WeberLinks(Link[] links) {
+        this.links = links;
+        x = new double[links.length];
+        y = new double[links.length];
+        for (int index = 0; index < links.length; ++index) {
+            Coord coord = links[index].getCoord();
+            x[index] = coord.getX();
+            y[index] = coord.getY();
+        }
+        minX = Arrays.stream(x).min().orElse(0);
+        minY = Arrays.stream(y).min().orElse(0);
+        double width = Arrays.stream(x).max().orElse(0) - minX;
+        double height = Arrays.stream(y).max().orElse(0) - minY;
+        double size = Math.sqrt(width * height * LINKS_PER_CELL / Math.max(1, links.length));
+        /** degenerate networks on a line */
+        size = Math.max(size, Math.max(width, height) * LINKS_PER_CELL / Math.max(1, links.length));
+        cellSize = 0 < size ? size : 1.0;
+        cellsX = (int) Math.floor(width / cellSize) + 1;
+        cellsY = (int) Math.floor(height / cellSize) + 1;
+        cellStart = new int[cellsX * cellsY + 1];
+        int[] cells = new int[links.length];
+        for (int index = 0; index < links.length; ++index) {
+            cells[index] = cellX(x[index]) * cellsY + cellY(y[index]);
+            ++cellStart[cells[index] + 1];
+        }
+        for (int cell = 0; cell < cellsX * cellsY; ++cell)
+            cellStart[cell + 1] += cellStart[cell];
+        cellLinks = new int[links.length];
+        int[] position = Arrays.copyOf(cellStart, cellsX * cellsY);
+        for (int index = 0; index < links.length; ++index)
+            cellLinks[position[cells[index]]++] = index;
+    }
+
+    public int size() {
+        return links.length;
+    }
+
+    /** @param px
+     * @param py
+     * @param count
+     * @return indices of the count links closest to (px, py), in ascending order. The search starts with the smallest
+     *         square of cells around (px, py) that contains at least count links and is extended until it contains all
+     *         links that are closer than the count-th closest link found in that square. */
+    int[] nearest(double px, double py, int count) {
+        int cx = cellX(px);
+        int cy = cellY(py);
+        int rings = Math.max(Math.max(cx, cellsX - 1 - cx), Math.max(cy, cellsY - 1 - cy));
+        int ring = 0;
+        while (ring < rings && count(cx - ring, cx + ring, cy - ring, cy + ring) < count)
+            ++ring;
+        Integer[] square = square(cx, cy, ring, px, py);
+        if (0 < count && 0 < square.length && ring < rings) {
+            /** links outside of the square of r rings of cells around (px, py) are at least r * cellSize away */
+            int last = square[Math.min(count, square.length) - 1];
+            double distance = Math.hypot(x[last] - px, y[last] - py);
+            int extended = Math.min(rings, (int) Math.ceil(distance / cellSize));
+            if (ring < extended)
+                square = square(cx, cy, extended, px, py);
+        }
+        return Arrays.stream(square).limit(count).mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /** @return indices of the links in the square of ring cells around cell (cx, cy), sorted by the distance to (px, py) */
+    private Integer[] square(int cx, int cy, int ring, double px, double py) {
+        int x0 = Math.max(cx - ring, 0);
+        int x1 = Math.min(cx + ring, cellsX - 1);
+        int y0 = Math.max(cy - ring, 0);
+        int y1 = Math.min(cy + ring, cellsY - 1);
+        Integer[] square = new Integer[count(x0, x1, y0, y1)];
+        int size = 0;
+        for (int i = x0; i <= x1; ++i)
+            for (int j = y0; j <= y1; ++j) {
+                int cell = i * cellsY + j;
+                for (int position = cellStart[cell]; position < cellStart[cell + 1]; ++position)
+                    square[size++] = cellLinks[position];
+            }
+        Arrays.sort(square, Comparator.comparingDouble(index -> Math.hypot(x[index] - px, y[index] - py)));
+        return square;
+    }
+
+    private int count(int x0, int x1, int y0, int y1) {
+        int count = 0;
+        for (int i = Math.max(x0, 0); i <= Math.min(x1, cellsX - 1); ++i)
+            count += cellStart[i * cellsY + Math.min(y1, cellsY - 1) + 1] - cellStart[i * cellsY + Math.max(y0, 0)];
+        return count;
+    }
+
+    private int cellX(double px) {
+        return Math.min(Math.max((int) Math.floor((px - minX) / cellSize), 0), cellsX - 1);
+    }
+
+    private int cellY(double py) {
+        return Math.min(Math.max((int) Math.floor((py - minY) / cellSize), 0), cellsY - 1);
+    }
+}
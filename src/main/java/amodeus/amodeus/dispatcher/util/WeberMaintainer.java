@@ -5,15 +5,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
@@ -23,19 +25,56 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
 /** Maintains a set of Links that minimize the Weber function value to
  * the past Links. The (discrete) Weber function is defined as the sum of of
- * Euclidean distances of the set. */
+ * Euclidean distances of the set.
+ *
+ * By default, the values of the Weber function of all links are maintained in an array that is updated
+ * with a single pass over the links for every new past link. The array takes 8 bytes per link for every
+ * instance, e.g., about 800 MB for 1000 instances on a network with 100k links. Alternatively, only a number of candidate
+ * links are evaluated: the links around the current minimizer and around the geometric median of the past
+ * links, which is approximated with the Weiszfeld iteration. The candidate search requires memory only for
+ * the past links but does not guarantee to find the discrete minimizers. */
 public class WeberMaintainer {
-    private final Network network;
-    private final List<Link> pastLinks;
-    private Set<Link> minimizers;
+    private static final int WEISZFELD_ITERATIONS = 100;
+    /** [m], much smaller than the distance between links, as the median is only used to find candidate links */
+    private static final double WEISZFELD_TOLERANCE = 1.0;
+    /** [m] */
+    private static final double COINCIDENCE = 1e-6;
+
+    private final WeberLinks weberLinks;
+    /** 0 for the exact minimizers, otherwise the number of candidate links nearest to each location */
+    private final int candidates;
+    private double[] pastX = new double[16];
+    private double[] pastY = new double[16];
+    private int pastCount = 0;
+    private List<Link> minimizers;
     private Set<PassengerRequest> reqs = new HashSet<>();
+    /** values of the Weber function of all links, allocated with the first update */
+    private double[] weber = null;
+    /** number of past links that are included in weber */
+    private int applied = 0;
+    /** approximation of the geometric median of the past links */
+    private double medianX;
+    private double medianY;
 
     /** @param {@link Link} to initialize
      * @param network with {@link Link}s */
     public WeberMaintainer(Link link, Network network) {
-        this.network = network;
-        pastLinks = new ArrayList<>(Collections.singletonList(link));
-        minimizers = new HashSet<>(pastLinks);
+        this(link, WeberLinks.of(network), 0);
+    }
+
+    /** @param {@link Link} to initialize
+     * @param weberLinks of the network, may be shared among instances
+     * @param candidates 0 to maintain the exact minimizers, which requires a double[] with the Weber values of all
+     *            links of the network per instance, or the number of candidate links nearest to the current
+     *            minimizer and around the geometric median that are evaluated, which requires memory only for
+     *            the past links. Large networks with many instances should use candidates. */
+    public WeberMaintainer(Link link, WeberLinks weberLinks, int candidates) {
+        this.weberLinks = weberLinks;
+        this.candidates = candidates;
+        add(link);
+        minimizers = Collections.singletonList(link);
+        medianX = pastX[0];
+        medianY = pastY[0];
     }
 
     public void update(PassengerRequest avr) {
@@ -51,28 +90,119 @@ public class WeberMaintainer {
 
     /** @return any {@link Link} in the collection of minimizers */
     public Link getAnyMinimizer() {
-        return minimizers.iterator().next();
+        return minimizers.get(0);
+    }
+
+    /** @return approximation of the geometric median of the past links, only updated if candidates are evaluated */
+    /* package */ Coord getMedian() {
+        return new Coord(medianX, medianY);
     }
 
     /** @param link {@link Link} is added to the past links */
     private void update(Link link) {
-        pastLinks.add(link);
-        findMin();
+        add(link);
+        if (candidates <= 0)
+            findMin();
+        else
+            findMinCandidates();
+    }
+
+    private void add(Link link) {
+        if (pastCount == pastX.length) {
+            pastX = Arrays.copyOf(pastX, pastCount * 2);
+            pastY = Arrays.copyOf(pastY, pastCount * 2);
+        }
+        pastX[pastCount] = link.getCoord().getX();
+        pastY[pastCount] = link.getCoord().getY();
+        ++pastCount;
     }
 
-    /** currently implemented as brute force that checks all the {@link Link}s.
-     * Future extensions might include better heuristic, e.g. disk around past links
-     * in the {@link Network} */
+    /** adds the distances to the new past links to the values of the Weber function of all links */
     private void findMin() {
-        /** calculate values of discrete Weber function for all links */
-        Map<Double, Set<Link>> distMap = network.getLinks().values().stream().collect(Collectors.groupingBy(this::weber, Collectors.toSet()));
+        double[] x = weberLinks.x;
+        double[] y = weberLinks.y;
+        if (Objects.isNull(weber))
+            weber = new double[x.length];
+        for (; applied < pastCount; ++applied) {
+            double px = pastX[applied];
+            double py = pastY[applied];
+            for (int index = 0; index < weber.length; ++index) {
+                double dx = x[index] - px;
+                double dy = y[index] - py;
+                weber[index] += Math.sqrt(dx * dx + dy * dy);
+            }
+        }
+        /** get the closest links */
+        double min = Double.POSITIVE_INFINITY;
+        for (double value : weber)
+            min = Math.min(min, value);
+        List<Link> list = new ArrayList<>();
+        for (int index = 0; index < weber.length; ++index)
+            if (weber[index] == min)
+                list.add(weberLinks.links[index]);
+        minimizers = list;
+    }
+
+    /** evaluates the Weber function for the candidate links around the current minimizer and
+     * around the geometric median */
+    private void findMinCandidates() {
+        weiszfeld();
+        Coord coord = minimizers.get(0).getCoord();
+        int[] indices = IntStream.concat( //
+                Arrays.stream(weberLinks.nearest(coord.getX(), coord.getY(), candidates)), //
+                Arrays.stream(weberLinks.nearest(medianX, medianY, candidates))).sorted().distinct().toArray();
+        double min = Double.POSITIVE_INFINITY;
+        List<Link> list = new ArrayList<>();
+        for (int index : indices) {
+            double value = weber(weberLinks.x[index], weberLinks.y[index]);
+            if (value < min) {
+                min = value;
+                list.clear();
+            }
+            if (value == min)
+                list.add(weberLinks.links[index]);
+        }
+        if (!list.isEmpty())
+            minimizers = list;
+    }
 
-        /** get Set of closest links */
-        minimizers = distMap.entrySet().stream().min(Comparator.comparingDouble(Entry::getKey)).get().getValue();
+    /** Weiszfeld iteration for the geometric median of the past links, starting at the previous approximation */
+    private void weiszfeld() {
+        for (int iteration = 0; iteration < WEISZFELD_ITERATIONS; ++iteration) {
+            double sumX = 0;
+            double sumY = 0;
+            double sumW = 0;
+            for (int index = 0; index < pastCount; ++index) {
+                double dx = pastX[index] - medianX;
+                double dy = pastY[index] - medianY;
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                /** the iteration is undefined at the past links, which are skipped */
+                if (distance < COINCIDENCE)
+                    continue;
+                sumX += pastX[index] / distance;
+                sumY += pastY[index] / distance;
+                sumW += 1 / distance;
+            }
+            if (sumW == 0)
+                return;
+            double nextX = sumX / sumW;
+            double nextY = sumY / sumW;
+            double step = Math.hypot(nextX - medianX, nextY - medianY);
+            medianX = nextX;
+            medianY = nextY;
+            if (step < WEISZFELD_TOLERANCE)
+                return;
+        }
     }
 
-    private Double weber(Link link) {
-        return pastLinks.stream().map(Link::getCoord).mapToDouble(coord -> CoordUtils.calcEuclideanDistance(link.getCoord(), coord)).sum();
+    private double weber(double x, double y) {
+        double sum = 0;
+        for (int index = 0; index < pastCount; ++index) {
+            double dx = x - pastX[index];
+            double dy = y - pastY[index];
+            sum += Math.sqrt(dx * dx + dy * dy);
+        }
+        return sum;
     }
 
     public static void saveWeberLocations(Map<RoboTaxi, WeberMaintainer> maintainers, //
@@ -0,0 +1,65 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** {@link BinnedLSDataTravelTime} precomputes the travel times of all links of a network in time bins of
+ * fixed length such that a lookup of the router is a single array access. The travel time in a bin is the
+ * one of {@link LSDataTravelTime} at the start of the bin, bins before the first recording of a link use the
+ * free speed. The results are identical to {@link LSDataTravelTime} if all recorded times are multiples
+ * of the bin length.
+ *
+ * Times after the latest recording fall into the last bin, links that are not part of the network are
+ * looked up in the {@link LinkSpeedDataTable}. The travel times are stored with float precision. */
+public class BinnedLSDataTravelTime implements TravelTime {
+    private final LinkSpeedDataTable lsData;
+    private final int binSize;
+    private final int bins;
+    /** travel times in link-major order, i.e. link index * bins + bin */
+    private final float[] travelTimes;
+
+    /** @param network
+     * @param lsData
+     * @param binSize in [s], typically the time resolution of lsData */
+    public BinnedLSDataTravelTime(Network network, LinkSpeedDataTable lsData, int binSize) {
+        GlobalAssert.that(0 < binSize);
+        this.lsData = Objects.requireNonNull(lsData);
+        this.binSize = binSize;
+        bins = Math.max(0, lsData.getLatestTime()) / binSize + 1;
+        int links = network.getLinks().keySet().stream().mapToInt(id -> id.index()).max().orElse(-1) + 1;
+        travelTimes = new float[links * bins];
+        Arrays.fill(travelTimes, Float.NaN);
+        for (Link link : network.getLinks().values()) {
+            int offset = link.getId().index() * bins;
+            for (int bin = 0; bin < bins; ++bin)
+                travelTimes[offset + bin] = (float) travelTime(link, bin * binSize);
+        }
+    }
+
+    private double travelTime(Link link, int time) {
+        double speed = lsData.getSpeedFloor(link, time);
+        if (Double.isNaN(speed))
+            speed = link.getFreespeed();
+        return link.getLength() / speed;
+    }
+
+    @Override
+    public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+        int index = link.getId().index() * bins + Math.min(Math.max(0, (int) time / binSize), bins - 1);
+        if (index < travelTimes.length) {
+            float travelTime = travelTimes[index];
+            if (!Float.isNaN(travelTime))
+                return travelTime;
+        }
+        return travelTime(link, (int) time);
+    }
+}
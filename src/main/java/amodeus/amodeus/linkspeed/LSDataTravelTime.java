@@ -9,20 +9,24 @@ import org.matsim.core.router.util.TravelTime;
 import org.matsim.vehicles.Vehicle;
 
 public class LSDataTravelTime implements TravelTime {
-    private final LinkSpeedDataContainer lsData;
+    private final LinkSpeedDataTable lsData;
 
     // TODO @clruch see if can be converted into 1 class together with
     // amodeus.amodeus.linkspeed.AmodeusLinkSpeedCalculator
+    /** @param lsData is converted to a {@link LinkSpeedDataTable}, later modifications of lsData are not reflected */
     public LSDataTravelTime(LinkSpeedDataContainer lsData) {
+        this(LinkSpeedDataTable.of(Objects.requireNonNull(lsData)));
+    }
+
+    public LSDataTravelTime(LinkSpeedDataTable lsData) {
         this.lsData = Objects.requireNonNull(lsData);
     }
 
     @Override
     public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
-        double speed = link.getFreespeed();
-        LinkSpeedTimeSeries timeSeries = lsData.get(link);
-        if (Objects.nonNull(timeSeries))
-            speed = timeSeries.getSpeedsFloor((int) time);
+        double speed = lsData.getSpeedFloor(link, (int) time);
+        if (Double.isNaN(speed))
+            speed = link.getFreespeed();
         return link.getLength() / speed;
     }
 }
@@ -0,0 +1,25 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.io.File;
+import java.io.IOException;
+
+/** converts a {@link LinkSpeedDataContainer} serialized with {@link LinkSpeedUtils#writeLinkSpeedData(File, LinkSpeedDataContainer)}
+ * to the binary format of {@link LinkSpeedDataTable}
+ * 
+ * usage: LinkSpeedDataConverter linkSpeedData linkSpeedData.bin */
+public enum LinkSpeedDataConverter {
+    ;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: " + LinkSpeedDataConverter.class.getSimpleName() + " <serialized input> <binary output>");
+            System.exit(1);
+        }
+        File inputFile = new File(args[0]);
+        File outputFile = new File(args[1]);
+        long time = System.currentTimeMillis();
+        LinkSpeedUtils.convertLinkSpeedData(inputFile, outputFile);
+        System.out.println(String.format("converted %d bytes to %d bytes in %d ms", inputFile.length(), outputFile.length(), System.currentTimeMillis() - time));
+    }
+}
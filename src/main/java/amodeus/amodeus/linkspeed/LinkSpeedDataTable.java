@@ -0,0 +1,165 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+/** {@link LinkSpeedDataTable} is an immutable, compact representation of a {@link LinkSpeedDataContainer}
+ * in compressed rows: the recordings of the link with index l are at the positions
+ * offsets[l] ... offsets[l + 1] - 1 of the arrays of times, in ascending order, and of speeds.
+ * The speeds are stored with float precision.
+ *
+ * The table is either backed by arrays or by a memory-mapped file, see {@link LinkSpeedUtils}.
+ *
+ * Binary format, big endian: magic number, version, number of link indices L, number of recordings R,
+ * offsets int[L + 1], times int[R], speeds float[R]. As in {@link LinkSpeedDataContainer}, the links are
+ * identified by {@link Id#index()}. */
+public class LinkSpeedDataTable {
+    /** "LSDT" */
+    public static final int MAGIC = 0x4C534454;
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    /** @param lsData
+     * @return table with the recordings of lsData */
+    public static LinkSpeedDataTable of(LinkSpeedDataContainer lsData) {
+        SortedMap<Integer, LinkSpeedTimeSeries> linkMap = lsData.getLinkMap();
+        int links = linkMap.isEmpty() ? 0 : linkMap.lastKey() + 1;
+        int records = linkMap.values().stream().mapToInt(timeSeries -> timeSeries.getRecordedTimes().size()).sum();
+        int[] offsets = new int[links + 1];
+        int[] times = new int[records];
+        float[] speeds = new float[records];
+        int position = 0;
+        int link = 0;
+        for (Map.Entry<Integer, LinkSpeedTimeSeries> entry : linkMap.entrySet()) {
+            while (link <= entry.getKey())
+                offsets[link++] = position;
+            LinkSpeedTimeSeries timeSeries = entry.getValue();
+            for (Integer time : timeSeries.getRecordedTimes()) {
+                times[position] = time;
+                speeds[position] = timeSeries.getSpeedsAt(time).floatValue();
+                ++position;
+            }
+        }
+        while (link <= links)
+            offsets[link++] = position;
+        return new LinkSpeedDataTable(IntBuffer.wrap(offsets), IntBuffer.wrap(times), FloatBuffer.wrap(speeds));
+    }
+
+    /** @param byteBuffer in the binary format starting at position 0, for instance a memory-mapped file
+     * @return table backed by byteBuffer
+     * @throws IOException if the content of byteBuffer is not in the binary format */
+    public static LinkSpeedDataTable of(ByteBuffer byteBuffer) throws IOException {
+        if (byteBuffer.limit() < HEADER_BYTES || byteBuffer.getInt(0) != MAGIC)
+            throw new IOException("not a link speed data table");
+        int version = byteBuffer.getInt(Integer.BYTES);
+        if (version != VERSION)
+            throw new IOException("unsupported link speed data table version " + version);
+        int links = byteBuffer.getInt(2 * Integer.BYTES);
+        int records = byteBuffer.getInt(3 * Integer.BYTES);
+        if (byteBuffer.limit() != HEADER_BYTES + (links + 1 + 2L * records) * Integer.BYTES)
+            throw new IOException("link speed data table is truncated");
+        int offsetsPosition = HEADER_BYTES;
+        int timesPosition = offsetsPosition + (links + 1) * Integer.BYTES;
+        int speedsPosition = timesPosition + records * Integer.BYTES;
+        return new LinkSpeedDataTable( //
+                slice(byteBuffer, offsetsPosition, timesPosition).asIntBuffer(), //
+                slice(byteBuffer, timesPosition, speedsPosition).asIntBuffer(), //
+                slice(byteBuffer, speedsPosition, byteBuffer.limit()).asFloatBuffer());
+    }
+
+    private static ByteBuffer slice(ByteBuffer byteBuffer, int from, int to) {
+        ByteBuffer duplicate = byteBuffer.duplicate();
+        duplicate.position(from).limit(to);
+        return duplicate.slice();
+    }
+
+    // ---
+    private final IntBuffer offsets;
+    private final IntBuffer times;
+    private final FloatBuffer speeds;
+
+    private LinkSpeedDataTable(IntBuffer offsets, IntBuffer times, FloatBuffer speeds) {
+        this.offsets = offsets;
+        this.times = times;
+        this.speeds = speeds;
+    }
+
+    /** @return speed at the maximum recorded time smaller or equal than time, or {@link Double#NaN} if there is
+     *         no such recording on link */
+    public double getSpeedFloor(Link link, int time) {
+        return getSpeedFloor(link.getId(), time);
+    }
+
+    /** @return speed at the maximum recorded time smaller or equal than time, or {@link Double#NaN} if there is
+     *         no such recording on the link with linkId */
+    public double getSpeedFloor(Id<Link> linkId, int time) {
+        int link = linkId.index();
+        if (offsets.limit() - 1 <= link)
+            return Double.NaN;
+        int lo = offsets.get(link);
+        int hi = offsets.get(link + 1) - 1;
+        /** binary search for the last recording with a time smaller or equal than time */
+        int floor = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times.get(mid) <= time) {
+                floor = mid;
+                lo = mid + 1;
+            } else
+                hi = mid - 1;
+        }
+        return floor < 0 ? Double.NaN : speeds.get(floor);
+    }
+
+    /** @return maximum recorded time on any link, or -1 if there are no recordings */
+    public int getLatestTime() {
+        int latest = -1;
+        for (int link = 0; link < offsets.limit() - 1; ++link)
+            if (offsets.get(link) < offsets.get(link + 1))
+                latest = Math.max(latest, times.get(offsets.get(link + 1) - 1));
+        return latest;
+    }
+
+    /** @return number of recordings */
+    public int size() {
+        return times.limit();
+    }
+
+    /** @return {@link LinkSpeedDataContainer} with the same recordings */
+    public LinkSpeedDataContainer toContainer() {
+        LinkSpeedDataContainer lsData = new LinkSpeedDataContainer();
+        for (int link = 0; link < offsets.limit() - 1; ++link)
+            for (int position = offsets.get(link); position < offsets.get(link + 1); ++position)
+                lsData.addData(link, times.get(position), speeds.get(position));
+        return lsData;
+    }
+
+    /** writes the table in the binary format
+     *
+     * @param outputStream
+     * @throws IOException */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeInt(VERSION);
+        dataOutputStream.writeInt(offsets.limit() - 1);
+        dataOutputStream.writeInt(times.limit());
+        for (int index = 0; index < offsets.limit(); ++index)
+            dataOutputStream.writeInt(offsets.get(index));
+        for (int index = 0; index < times.limit(); ++index)
+            dataOutputStream.writeInt(times.get(index));
+        for (int index = 0; index < speeds.limit(); ++index)
+            dataOutputStream.writeFloat(speeds.get(index));
+        dataOutputStream.flush();
+    }
+}
@@ -1,8 +1,15 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.linkspeed;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.zip.DataFormatException;
 
 import ch.ethz.idsc.tensor.io.Export;
@@ -35,4 +42,46 @@ public enum LinkSpeedUtils {
         Export.object(file, lsData);
         System.out.println("LinkSpeedData exported to: " + file.getAbsolutePath());
     }
+
+    /** Writes the {@link LinkSpeedDataTable} @param linkSpeedDataTable in the binary format to the location @param file
+     * 
+     * @throws IOException if the operation fails */
+    public static void writeLinkSpeedTable(File file, LinkSpeedDataTable linkSpeedDataTable) throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+            linkSpeedDataTable.write(outputStream);
+        }
+        System.out.println("LinkSpeedDataTable exported to: " + file.getAbsolutePath());
+    }
+
+    /** @return {@link LinkSpeedDataTable} in {@link File} @param inputFile, a file in the binary format is memory-mapped,
+     *         a file with a serialized {@link LinkSpeedDataContainer} is converted
+     * 
+     * @throws IOException if the operation fails */
+    public static LinkSpeedDataTable loadLinkSpeedTable(File inputFile) throws IOException {
+        if (isLinkSpeedTable(inputFile))
+            try (FileChannel fileChannel = FileChannel.open(inputFile.toPath(), StandardOpenOption.READ)) {
+                /** the mapping remains valid after the channel is closed */
+                return LinkSpeedDataTable.of(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+            }
+        LinkSpeedDataContainer lsData = loadLinkSpeedData(inputFile);
+        if (lsData == null)
+            throw new IOException("cannot read link speed data from " + inputFile.getAbsolutePath());
+        return LinkSpeedDataTable.of(lsData);
+    }
+
+    /** Converts the serialized {@link LinkSpeedDataContainer} in @param inputFile to the binary format of
+     * {@link LinkSpeedDataTable} in @param outputFile
+     * 
+     * @throws IOException if the operation fails */
+    public static void convertLinkSpeedData(File inputFile, File outputFile) throws IOException {
+        writeLinkSpeedTable(outputFile, loadLinkSpeedTable(inputFile));
+    }
+
+    private static boolean isLinkSpeedTable(File file) throws IOException {
+        if (file.length() < Integer.BYTES)
+            return false;
+        try (DataInputStream dataInputStream = new DataInputStream(new FileInputStream(file))) {
+            return dataInputStream.readInt() == LinkSpeedDataTable.MAGIC;
+        }
+    }
 }
@@ -46,14 +46,32 @@ public class TaxiTravelTimeRouter implements AmodeusRouter {
         // // FIXME @sebhoerl get from Inject as above...
         File workingDir = MultiFileTools.getDefaultWorkingDirectory();
         File linkSpeedDataFile = new File(workingDir, "linkSpeedData");
-        LinkSpeedDataContainer lsData = LinkSpeedUtils.loadLinkSpeedData(linkSpeedDataFile);
+        /** loaded once and shared by all routers created by this factory */
+        private final LinkSpeedDataTable lsData;
+        /** length of the time bins of {@link BinnedLSDataTravelTime} in [s], or 0 to look up the recordings directly */
+        private final int binSize;
+
+        public Factory() {
+            this(0);
+        }
+
+        public Factory(int binSize) {
+            this.binSize = binSize;
+            try {
+                lsData = LinkSpeedUtils.loadLinkSpeedTable(linkSpeedDataFile);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
 
         @Override
         public AmodeusRouter createRouter(InstanceGetter inject) {
             GlobalConfigGroup config = inject.get(GlobalConfigGroup.class);
             Network network = inject.getModal(Network.class);
 
-            TravelTime travelTime = new LSDataTravelTime(lsData);
+            TravelTime travelTime = 0 < binSize //
+                    ? new BinnedLSDataTravelTime(network, lsData, binSize)
+                    : new LSDataTravelTime(lsData);
 
             return new TaxiTravelTimeRouter(DefaultParallelLeastCostPathCalculator.create(config.getNumberOfThreads(), //
                     new DijkstraFactory(), network, new OnlyTimeDependentTravelDisutility(travelTime), travelTime));
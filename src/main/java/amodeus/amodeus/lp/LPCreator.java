@@ -23,6 +23,14 @@ public enum LPCreator {
             return new LPTimeInvariant(virtualNetwork, lambdaAbsolute, numberOfVehicles, endTime);
         }
     },
+    /** {@link #TIMEINVARIANT} solved by the {@link NetworkSimplex} instead of GLPK */
+    TIMEINVARIANT_NETWORKSIMPLEX {
+        @Override
+        public LPSolver create(VirtualNetwork<Link> virtualNetwork, Network network, LPOptions lpOptions, //
+                Tensor lambdaAbsolute, int numberOfVehicles, int endTime) {
+            return new LPTimeInvariant(virtualNetwork, lambdaAbsolute, numberOfVehicles, endTime, true);
+        }
+    },
     TIMEVARIANT {
         @Override
         public LPSolver create(VirtualNetwork<Link> virtualNetwork, Network network, LPOptions lpOptions, //
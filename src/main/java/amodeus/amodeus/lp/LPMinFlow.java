@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
@@ -26,7 +27,11 @@ import ch.ethz.idsc.tensor.sca.Sign;
 
 /** This LP solver is used for the AdaptiveRealTimeRebalancingPolicy
  * 
- * https://github.com/idsc-frazzoli/amodeus/files/2290644/lpminflow-impl.pdf */
+ * https://github.com/idsc-frazzoli/amodeus/files/2290644/lpminflow-impl.pdf
+ * 
+ * The problem is either solved as LP in GLPK or as min cost flow problem by the {@link NetworkSimplex}, in which
+ * an additional sink node absorbs the surplus of the virtual nodes at zero cost. The latter starts from the solution
+ * of the previous rebalancing period. */
 public class LPMinFlow {
     /** map with variableIDs in problem set up and linkIDs of virtualNetwork */
     private final Map<List<Integer>, Integer> alphaIDvarID = new HashMap<>();
@@ -35,17 +40,31 @@ public class LPMinFlow {
     private final int nvNodes;
     private final int rowTotal;
     private final int columnTotal;
+    private final boolean networkSimplex;
     // ---
     private glp_prob lp;
     private Tensor gamma_ij;
     private Tensor alphaAbsolute_ij;
     private int columnId;
     private int rowId;
+    private MinCostFlowSolver minCostFlowSolver;
+    /** virtual nodes of the arcs of the min cost flow problem */
+    private int[] arcFrom;
+    private int[] arcTo;
 
     /** @param virtualNetwork
      *            the virtual network (not necessarily complete graph) on which the optimization is computed. */
     public LPMinFlow(VirtualNetwork<Link> virtualNetwork) {
+        this(virtualNetwork, false);
+    }
+
+    /** @param virtualNetwork
+     *            the virtual network (not necessarily complete graph) on which the optimization is computed.
+     * @param networkSimplex
+     *            true to solve the problem with the {@link NetworkSimplex} instead of GLPK */
+    public LPMinFlow(VirtualNetwork<Link> virtualNetwork, boolean networkSimplex) {
         this.virtualNetwork = virtualNetwork;
+        this.networkSimplex = networkSimplex;
         nvNodes = virtualNetwork.getvNodesCount();
         columnTotal = virtualNetwork.getvLinksCount();
         rowTotal = virtualNetwork.getvNodesCount();
@@ -58,6 +77,10 @@ public class LPMinFlow {
 
     /** initiate the linear program */
     public void initiateLP() {
+        if (networkSimplex) {
+            initiateMinCostFlow();
+            return;
+        }
         try {
             lp = GLPK.glp_create_prob();
             GLPK.glp_set_prob_name(lp, "Rebalancing Problem");
@@ -103,6 +126,10 @@ public class LPMinFlow {
         minFlow = LPUtils.getRounded(minFlow);
         // the problem is only feasible when the sum of minFlow is less or equal zero
         GlobalAssert.that(Sign.isNegativeOrZero(Total.of(minFlow).Get()));
+        if (Objects.nonNull(minCostFlowSolver)) {
+            solveMinCostFlow(minFlow);
+            return;
+        }
         for (int i = 0; i < nvNodes; ++i)
             GLPK.glp_set_row_bnds(lp, i + 1, GLPK.GLP_LO, minFlow.Get(i).number().doubleValue(), 0.0); // Lower bound: second number irrelevant
 
@@ -128,7 +155,44 @@ public class LPMinFlow {
     /** closing the LP in order to release allocated memory */
     public void closeLP() {
         // release storage allocated for LP
-        GLPK.glp_delete_prob(lp);
+        if (Objects.nonNull(lp))
+            GLPK.glp_delete_prob(lp);
+    }
+
+    private void initiateMinCostFlow() {
+        int arcTotal = columnTotal + nvNodes;
+        arcFrom = new int[arcTotal];
+        arcTo = new int[arcTotal];
+        long[] capacity = new long[arcTotal];
+        double[] cost = new double[arcTotal];
+        Arrays.fill(capacity, NetworkSimplex.INFINITE);
+        int arc = 0;
+        for (VirtualLink<Link> link : virtualNetwork.getVirtualLinks()) {
+            arcFrom[arc] = link.getFrom().getIndex();
+            arcTo[arc] = link.getTo().getIndex();
+            cost[arc] = gamma_ij.Get(arcFrom[arc], arcTo[arc]).number().doubleValue();
+            ++arc;
+        }
+        // surplus of virtual node i to the sink
+        for (int i = 0; i < nvNodes; ++i) {
+            arcFrom[arc] = i;
+            arcTo[arc] = nvNodes;
+            ++arc;
+        }
+        minCostFlowSolver = new NetworkSimplex(nvNodes + 1, arcFrom, arcTo, capacity, cost);
+    }
+
+    /** the constraint inflow - outflow >= minFlow of virtual node i is satisfied with equality for the supply -minFlow
+     * and the flow to the sink */
+    private void solveMinCostFlow(Tensor minFlow) {
+        long[] supply = new long[nvNodes + 1];
+        for (int i = 0; i < nvNodes; ++i) {
+            supply[i] = -minFlow.Get(i).number().longValue();
+            supply[nvNodes] -= supply[i];
+        }
+        long[] flow = minCostFlowSolver.solve(supply);
+        for (int arc = 0; arc < columnTotal; ++arc)
+            alphaAbsolute_ij.set(RealScalar.of(flow[arc]), arcFrom[arc], arcTo[arc]);
     }
 
     private void initColumnAlpha_ij() {
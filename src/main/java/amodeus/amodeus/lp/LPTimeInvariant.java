@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.gnu.glpk.GLPK;
 import org.gnu.glpk.GLPKConstants;
@@ -35,7 +36,10 @@ import ch.ethz.idsc.tensor.alg.Dimensions;
  * 
  * https://github.com/idsc-frazzoli/amodeus/files/2290529/lptimeinvariant-impl.pdf
  * 
- * Should be used together with {@link FeedforwardFluidicRebalancingPolicy} */
+ * Should be used together with {@link FeedforwardFluidicRebalancingPolicy}
+ * 
+ * The problems of the time steps are either solved as LPs in GLPK or as min cost flow problems by the
+ * {@link NetworkSimplex}, which starts from the solution of the previous time step. */
 public class LPTimeInvariant implements LPSolver {
     /** map with variableIDs in problem set up and linkIDs of virtualNetwork */
     private final Map<List<Integer>, Integer> alphaIDvarID = new HashMap<>();
@@ -46,6 +50,7 @@ public class LPTimeInvariant implements LPSolver {
     private final int timeSteps;
     private final int timeIntervalLength;
     private final int numberVehicles;
+    private final boolean networkSimplex;
     // ---
     private glp_prob lp;
     private Tensor lambdaAbsolute_ij;
@@ -55,10 +60,20 @@ public class LPTimeInvariant implements LPSolver {
     private Tensor alphaRate_ij;
     private int columnId;
     private int rowId;
+    private MinCostFlowSolver minCostFlowSolver;
 
     /** @param virtualNetwork
      *            the virtual network (complete directed graph) on which the optimization is computed. */
     public LPTimeInvariant(VirtualNetwork<Link> virtualNetwork, Tensor lambdaAbsolute_ij, int numberOfVehicles, int endTime) {
+        this(virtualNetwork, lambdaAbsolute_ij, numberOfVehicles, endTime, false);
+    }
+
+    /** @param virtualNetwork
+     *            the virtual network (complete directed graph) on which the optimization is computed.
+     * @param networkSimplex
+     *            true to solve the problems with the {@link NetworkSimplex} instead of GLPK */
+    public LPTimeInvariant(VirtualNetwork<Link> virtualNetwork, Tensor lambdaAbsolute_ij, int numberOfVehicles, int endTime, boolean networkSimplex) {
+        this.networkSimplex = networkSimplex;
         numberVehicles = numberOfVehicles;
         nvNodes = virtualNetwork.getvNodesCount();
         gamma_ij = LPUtils.getEuclideanTravelTimeBetweenVSCenters(virtualNetwork, LPUtils.AVERAGE_VEL);
@@ -79,16 +94,21 @@ public class LPTimeInvariant implements LPSolver {
     @Override
     public void initiateLP() {
         alphaAbsolute_ij = Array.zeros(timeSteps, rowTotal, rowTotal);
+        if (networkSimplex)
+            initiateMinCostFlow();
     }
 
     @Override
     public void solveLP(boolean mute) {
         System.out.println("solving time-invariant LP");
 
-        for (int k = 0; k < timeSteps; ++k) {
-            initiateSubLP(k);
-            solveSubLP(mute, k);
-        }
+        for (int k = 0; k < timeSteps; ++k)
+            if (Objects.nonNull(minCostFlowSolver))
+                solveMinCostFlow(k);
+            else {
+                initiateSubLP(k);
+                solveSubLP(mute, k);
+            }
     }
 
     private void initiateSubLP(int timeIndex) {
@@ -163,6 +183,47 @@ public class LPTimeInvariant implements LPSolver {
         GLPK.glp_delete_prob(lp);
     }
 
+    private void initiateMinCostFlow() {
+        int[] source = new int[columnTotal];
+        int[] target = new int[columnTotal];
+        long[] capacity = new long[columnTotal];
+        double[] cost = new double[columnTotal];
+        Arrays.fill(capacity, NetworkSimplex.INFINITE);
+        int arc = 0;
+        for (int i = 0; i < nvNodes; ++i)
+            for (int j = 0; j < nvNodes; ++j) {
+                if (j == i)
+                    continue;
+                source[arc] = i;
+                target[arc] = j;
+                cost[arc] = gamma_ij.Get(i, j).number().doubleValue();
+                ++arc;
+            }
+        minCostFlowSolver = new NetworkSimplex(nvNodes, source, target, capacity, cost);
+    }
+
+    /** the supply of virtual node i is the bound of deltaV_i, the arcs are ordered as the columns alpha_ij */
+    private void solveMinCostFlow(int timeIndex) {
+        long[] supply = new long[nvNodes];
+        for (int i = 0; i < nvNodes; i++)
+            for (int j = 0; j < nvNodes; j++) {
+                if (i == j)
+                    continue;
+                supply[i] += lambdaAbsolute_ij.Get(timeIndex, j, i).number().longValue() - lambdaAbsolute_ij.Get(timeIndex, i, j).number().longValue();
+            }
+        long[] flow = minCostFlowSolver.solve(supply);
+        Tensor alphaAbsolute = Array.zeros(nvNodes, nvNodes);
+        int arc = 0;
+        for (int i = 0; i < nvNodes; i++)
+            for (int j = 0; j < nvNodes; j++) {
+                if (i == j)
+                    continue;
+                alphaAbsolute.set(RealScalar.of(flow[arc++]), i, j);
+            }
+        alphaAbsolute_ij.set(v -> alphaAbsolute, timeIndex);
+        alphaRate_ij = alphaAbsolute_ij.divide(RealScalar.of(timeIntervalLength));
+    }
+
     private void initColumnAlpha_ij() {
         // optimization variable alpha_ij[k]
         for (int i = 0; i < nvNodes; ++i)
@@ -0,0 +1,19 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.lp;
+
+/** Solver of a minimum cost flow problem on a fixed network of nodes 0, 1, ..., n - 1 and arcs with
+ * capacity and cost per unit of flow:
+ * 
+ * min sum_e cost_e * flow_e
+ * s.t.
+ * (c1) 0 <= flow_e <= capacity_e
+ * (c2) sum_(e leaving v) flow_e - sum_(e entering v) flow_e = supply_v
+ * 
+ * The problem has a totally unimodular constraint matrix, the flow is integral for integral supplies
+ * and capacities. */
+public interface MinCostFlowSolver {
+    /** @param supply of every node, positive for sources and negative for sinks, the sum has to be zero
+     * @return flow of every arc
+     * @throws RuntimeException if there is no feasible flow */
+    long[] solve(long[] supply);
+}
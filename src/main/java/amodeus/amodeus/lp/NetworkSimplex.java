@@ -0,0 +1,333 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.lp;
+
+import java.util.Arrays;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** Primal network simplex for the {@link MinCostFlowSolver} problem in pure Java on primitive arrays.
+ * 
+ * The spanning tree basis is rooted at an artificial node that is connected to every node by an
+ * uncapacitated artificial arc of large cost. The basis is kept strongly feasible, which prevents cycling
+ * in degenerate pivots, and the entering arc is chosen by block search pricing.
+ * 
+ * Consecutive calls of {@link #solve(long[])} on the same instance start from the previous basis if the
+ * flows that it implies for the new supplies are feasible, e.g. in consecutive rebalancing periods with few
+ * changes, otherwise from the artificial basis. The instance is not thread-safe. */
+public class NetworkSimplex implements MinCostFlowSolver {
+    /** capacity of uncapacitated arcs */
+    public static final long INFINITE = Long.MAX_VALUE;
+    private static final int STATE_UPPER = -1;
+    private static final int STATE_TREE = 0;
+    private static final int STATE_LOWER = 1;
+    /** tolerance of the reduced costs relative to the cost of the artificial arcs */
+    private static final double RELATIVE_EPSILON = 1e-12;
+
+    private final int nodes;
+    private final int arcs;
+    /** artificial root node */
+    private final int root;
+    /** arcs followed by the artificial arc of every node, whose direction depends on the supply */
+    private final int[] source;
+    private final int[] target;
+    private final long[] capacity;
+    private final double[] cost;
+    private final double epsilon;
+    private final int blockSize;
+    // ---
+    private final long[] flow;
+    private final int[] state;
+    /** potentials such that the tree arcs have zero reduced cost */
+    private final double[] potential;
+    private final int[] parent;
+    private final int[] predArc;
+    /** true if the arc to the parent is directed from the node to the parent */
+    private final boolean[] upward;
+    private final int[] depth;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] prevSibling;
+    private final int[] stack;
+    private boolean initialized = false;
+    private int nextArc = 0;
+
+    /** @param nodes number of nodes
+     * @param source of the arcs
+     * @param target of the arcs
+     * @param capacity of the arcs, non-negative, {@link #INFINITE} for uncapacitated arcs
+     * @param cost of the arcs per unit of flow, finite */
+    public NetworkSimplex(int nodes, int[] source, int[] target, long[] capacity, double[] cost) {
+        this.nodes = nodes;
+        arcs = source.length;
+        GlobalAssert.that(target.length == arcs && capacity.length == arcs && cost.length == arcs);
+        root = nodes;
+        int total = arcs + nodes;
+        this.source = Arrays.copyOf(source, total);
+        this.target = Arrays.copyOf(target, total);
+        this.capacity = Arrays.copyOf(capacity, total);
+        this.cost = Arrays.copyOf(cost, total);
+        double maxCost = 0;
+        for (int e = 0; e < arcs; ++e) {
+            GlobalAssert.that(0 <= source[e] && source[e] < nodes && 0 <= target[e] && target[e] < nodes);
+            GlobalAssert.that(0 <= capacity[e] && Double.isFinite(cost[e]));
+            maxCost = Math.max(maxCost, Math.abs(cost[e]));
+        }
+        /** exceeds the cost of every path without artificial arcs */
+        double artificialCost = (nodes + 1) * (maxCost + 1);
+        for (int v = 0; v < nodes; ++v) {
+            this.capacity[arcs + v] = INFINITE;
+            this.cost[arcs + v] = artificialCost;
+        }
+        epsilon = RELATIVE_EPSILON * artificialCost;
+        blockSize = Math.max((int) Math.sqrt(total), 10);
+
+        flow = new long[total];
+        state = new int[total];
+        potential = new double[nodes + 1];
+        parent = new int[nodes + 1];
+        predArc = new int[nodes + 1];
+        upward = new boolean[nodes + 1];
+        depth = new int[nodes + 1];
+        firstChild = new int[nodes + 1];
+        nextSibling = new int[nodes + 1];
+        prevSibling = new int[nodes + 1];
+        stack = new int[nodes + 1];
+    }
+
+    @Override // from MinCostFlowSolver
+    public long[] solve(long[] supply) {
+        GlobalAssert.that(supply.length == nodes);
+        GlobalAssert.that(Arrays.stream(supply).sum() == 0);
+        if (!initialized || !warmStart(supply))
+            coldStart(supply);
+        initialized = true;
+        int in;
+        while (0 <= (in = findEnteringArc()))
+            pivot(in);
+        for (int v = 0; v < nodes; ++v)
+            if (flow[arcs + v] != 0)
+                throw new RuntimeException("min cost flow problem is infeasible");
+        return Arrays.copyOf(flow, arcs);
+    }
+
+    /** @return cost of the flow of the last solution */
+    public double getCost() {
+        double sum = 0;
+        for (int e = 0; e < arcs; ++e)
+            sum += cost[e] * flow[e];
+        return sum;
+    }
+
+    /** basis of artificial arcs that carry the supplies from and to the root */
+    private void coldStart(long[] supply) {
+        Arrays.fill(flow, 0, arcs, 0);
+        Arrays.fill(state, 0, arcs, STATE_LOWER);
+        Arrays.fill(firstChild, -1);
+        parent[root] = -1;
+        predArc[root] = -1;
+        depth[root] = 0;
+        potential[root] = 0;
+        for (int v = 0; v < nodes; ++v) {
+            int e = arcs + v;
+            upward[v] = 0 <= supply[v];
+            source[e] = upward[v] ? v : root;
+            target[e] = upward[v] ? root : v;
+            flow[e] = Math.abs(supply[v]);
+            state[e] = STATE_TREE;
+            parent[v] = root;
+            predArc[v] = e;
+            depth[v] = 1;
+            potential[v] = upward[v] ? -cost[e] : cost[e];
+            addChild(root, v);
+        }
+        nextArc = 0;
+    }
+
+    /** @return true if the flows of the previous basis are strongly feasible for the given supplies, the artificial
+     *         arcs are reversed if necessary */
+    private boolean warmStart(long[] supply) {
+        long[] excess = Arrays.copyOf(supply, nodes + 1);
+        for (int e = 0; e < flow.length; ++e)
+            if (state[e] != STATE_TREE) {
+                flow[e] = state[e] == STATE_UPPER ? capacity[e] : 0;
+                excess[source[e]] -= flow[e];
+                excess[target[e]] += flow[e];
+            }
+        /** the tree arcs carry the excess of the subtrees, from the leaves to the root */
+        int[] order = preorder(root);
+        for (int index = order.length - 1; 0 < index; --index) {
+            int v = order[index];
+            int e = predArc[v];
+            if (arcs <= e && upward[v] != 0 <= excess[v]) {
+                /** the artificial arc is reversed and the potentials of the subtree are shifted accordingly */
+                upward[v] = 0 <= excess[v];
+                source[e] = upward[v] ? v : root;
+                target[e] = upward[v] ? root : v;
+                shift(v, (upward[v] ? -cost[e] : cost[e]) - potential[v]);
+            }
+            flow[e] = upward[v] ? excess[v] : -excess[v];
+            excess[parent[v]] += excess[v];
+            if (flow[e] < 0 || capacity[e] < flow[e] || (upward[v] ? flow[e] == capacity[e] : flow[e] == 0))
+                return false;
+        }
+        return true;
+    }
+
+    /** @return index of an arc that violates the optimality conditions, or -1 if the basis is optimal */
+    private int findEnteringArc() {
+        int total = flow.length;
+        double min = 0;
+        int minArc = -1;
+        int count = blockSize;
+        for (int k = 0; k < total; ++k) {
+            int e = nextArc;
+            nextArc = nextArc + 1 == total ? 0 : nextArc + 1;
+            if (state[e] != STATE_TREE) {
+                double violation = state[e] * (cost[e] + potential[source[e]] - potential[target[e]]);
+                if (violation < min) {
+                    min = violation;
+                    minArc = e;
+                }
+            }
+            if (--count == 0) {
+                if (min < -epsilon)
+                    return minArc;
+                count = blockSize;
+            }
+        }
+        return min < -epsilon ? minArc : -1;
+    }
+
+    private void pivot(int in) {
+        int first = state[in] == STATE_LOWER ? source[in] : target[in];
+        int second = state[in] == STATE_LOWER ? target[in] : source[in];
+        int join = join(first, second);
+        /** flow is sent from first to second via the entering arc and back to first via the tree,
+         * the leaving arc is the last blocking arc of the cycle starting at join */
+        long delta = capacity[in];
+        int uOut = -1;
+        int result = 0;
+        for (int u = first; u != join; u = parent[u]) {
+            long d = upward[u] ? flow[predArc[u]] : residual(predArc[u]);
+            if (d < delta) {
+                delta = d;
+                uOut = u;
+                result = 1;
+            }
+        }
+        for (int u = second; u != join; u = parent[u]) {
+            long d = upward[u] ? residual(predArc[u]) : flow[predArc[u]];
+            if (d <= delta) {
+                delta = d;
+                uOut = u;
+                result = 2;
+            }
+        }
+        GlobalAssert.that(delta < INFINITE);
+
+        if (0 < delta) {
+            long value = state[in] * delta;
+            flow[in] += value;
+            for (int u = source[in]; u != join; u = parent[u])
+                flow[predArc[u]] += upward[u] ? -value : value;
+            for (int u = target[in]; u != join; u = parent[u])
+                flow[predArc[u]] += upward[u] ? value : -value;
+        }
+        if (result == 0) {
+            /** the entering arc is saturated or emptied and the tree remains unchanged */
+            state[in] = -state[in];
+            return;
+        }
+        int out = predArc[uOut];
+        state[out] = flow[out] == 0 ? STATE_LOWER : STATE_UPPER;
+        state[in] = STATE_TREE;
+        int uIn = result == 1 ? first : second;
+        int vIn = result == 1 ? second : first;
+        rehang(in, uIn, vIn, uOut);
+    }
+
+    /** replaces the tree arc of uOut by the arc in, the path from uIn to uOut is reversed */
+    private void rehang(int in, int uIn, int vIn, int uOut) {
+        int u = uIn;
+        int newParent = vIn;
+        int newPred = in;
+        boolean newUpward = source[in] == uIn;
+        while (true) {
+            int oldParent = parent[u];
+            int oldPred = predArc[u];
+            boolean oldUpward = upward[u];
+            removeChild(oldParent, u);
+            parent[u] = newParent;
+            predArc[u] = newPred;
+            upward[u] = newUpward;
+            addChild(newParent, u);
+            if (u == uOut)
+                break;
+            newParent = u;
+            newPred = oldPred;
+            newUpward = !oldUpward;
+            u = oldParent;
+        }
+        /** the potentials of the subtree of uIn are shifted such that the arc in has zero reduced cost */
+        shift(uIn, (upward[uIn] ? potential[vIn] - cost[in] : potential[vIn] + cost[in]) - potential[uIn]);
+    }
+
+    /** adds sigma to the potentials of the subtree of v and updates the depths */
+    private void shift(int v, double sigma) {
+        int size = 0;
+        stack[size++] = v;
+        while (0 < size) {
+            int u = stack[--size];
+            potential[u] += sigma;
+            depth[u] = depth[parent[u]] + 1;
+            for (int child = firstChild[u]; child != -1; child = nextSibling[child])
+                stack[size++] = child;
+        }
+    }
+
+    /** @return lowest common ancestor of the nodes a and b in the tree */
+    private int join(int a, int b) {
+        while (a != b)
+            if (depth[b] <= depth[a])
+                a = parent[a];
+            else
+                b = parent[b];
+        return a;
+    }
+
+    private long residual(int e) {
+        return capacity[e] == INFINITE ? INFINITE : capacity[e] - flow[e];
+    }
+
+    /** @return nodes of the subtree of v, every node precedes its children */
+    private int[] preorder(int v) {
+        int[] order = new int[nodes + 1];
+        int count = 0;
+        int size = 0;
+        stack[size++] = v;
+        while (0 < size) {
+            int u = stack[--size];
+            order[count++] = u;
+            for (int child = firstChild[u]; child != -1; child = nextSibling[child])
+                stack[size++] = child;
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    private void addChild(int v, int child) {
+        prevSibling[child] = -1;
+        nextSibling[child] = firstChild[v];
+        if (firstChild[v] != -1)
+            prevSibling[firstChild[v]] = child;
+        firstChild[v] = child;
+    }
+
+    private void removeChild(int v, int child) {
+        if (prevSibling[child] == -1)
+            firstChild[v] = nextSibling[child];
+        else
+            nextSibling[prevSibling[child]] = nextSibling[child];
+        if (nextSibling[child] != -1)
+            prevSibling[nextSibling[child]] = prevSibling[child];
+    }
+}
@@ -35,7 +35,10 @@ import amodeus.amodeus.util.math.GlobalAssert;
  *
  * @param <T> slots, e.g., roads or parking lots. The problem has a
  *            totally unimodular costraint matrix and can thus be solved without
- *            integrality constraints (c4) */
+ *            integrality constraints (c4)
+ * 
+ *            Instead of GLPK, the problem can be solved as min cost flow problem by the {@link NetworkSimplex}, in
+ *            which the available destinations are connected to a sink node with arcs of capacity availDest. */
 public class RedistributionProblemSolver<T> {
 
     private final Function<T, String> getName;
@@ -52,6 +55,14 @@ public class RedistributionProblemSolver<T> {
 
     public RedistributionProblemSolver(Map<T, Integer> unitsToMove, Map<T, Integer> availableDestinations, //
             BiFunction<T, T, Double> costFunction, Function<T, String> getName, boolean print, String exportLocation) {
+        this(unitsToMove, availableDestinations, costFunction, getName, print, exportLocation, false);
+    }
+
+    /** @param networkSimplex true to solve the problem with the {@link NetworkSimplex} instead of GLPK, in which case
+     *            nothing is exported */
+    public RedistributionProblemSolver(Map<T, Integer> unitsToMove, Map<T, Integer> availableDestinations, //
+            BiFunction<T, T, Double> costFunction, Function<T, String> getName, boolean print, String exportLocation, //
+            boolean networkSimplex) {
         /** copying input arguments */
         this.getName = getName;
         this.unitsToMove = unitsToMove;
@@ -74,6 +85,12 @@ public class RedistributionProblemSolver<T> {
         // an optimal solution is not defined.
         GlobalAssert.that(totalUnits <= totalSpots);
 
+        if (networkSimplex) {
+            solveMinCostFlow(costFunction);
+            System.out.println("time to solve flow:        " + (System.currentTimeMillis() - time));
+            return;
+        }
+
         /** definition of LP */
         lp = defineLP(costFunction);
         Long time2 = System.currentTimeMillis();
@@ -200,6 +217,47 @@ public class RedistributionProblemSolver<T> {
         return lp;
     }
 
+    /** origins are the nodes 0, 1, ..., followed by the destinations and the sink */
+    private void solveMinCostFlow(BiFunction<T, T, Double> costFunction) {
+        int sink = totalOrigins + totalDestins;
+        int arcTotal = totalOrigins * totalDestins + totalDestins;
+        int[] source = new int[arcTotal];
+        int[] target = new int[arcTotal];
+        long[] capacity = new long[arcTotal];
+        double[] cost = new double[arcTotal];
+        long[] supply = new long[sink + 1];
+        int arc = 0;
+        for (int i = 0; i < totalOrigins; ++i) {
+            T origin = originsList.get(i);
+            supply[i] = unitsToMove.get(origin);
+            supply[sink] -= supply[i];
+            for (int j = 0; j < totalDestins; ++j) {
+                source[arc] = i;
+                target[arc] = totalOrigins + j;
+                capacity[arc] = NetworkSimplex.INFINITE;
+                cost[arc] = costFunction.apply(origin, destinationList.get(j));
+                ++arc;
+            }
+        }
+        for (int j = 0; j < totalDestins; ++j) {
+            source[arc] = totalOrigins + j;
+            target[arc] = sink;
+            capacity[arc] = availDest.get(destinationList.get(j));
+            ++arc;
+        }
+        long[] flow = new NetworkSimplex(sink + 1, source, target, capacity, cost).solve(supply);
+        arc = 0;
+        for (T origin : originsList) {
+            solution.put(origin, new HashMap<>());
+            dblSolut.put(origin, new HashMap<>());
+            for (T dest : destinationList) {
+                solution.get(origin).put(dest, (int) flow[arc]);
+                dblSolut.get(origin).put(dest, (double) flow[arc]);
+                ++arc;
+            }
+        }
+    }
+
     protected void solveLP(boolean print) {
         glp_smcp parm = new glp_smcp();
         GLPK.glp_init_smcp(parm);
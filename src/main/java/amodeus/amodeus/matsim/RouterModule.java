@@ -4,6 +4,7 @@ package amodeus.amodeus.matsim;
 import org.matsim.amodeus.framework.AmodeusUtils;
 import org.matsim.core.controler.AbstractModule;
 
+import amodeus.amodeus.routing.ContractionHierarchyRouter;
 import amodeus.amodeus.routing.DefaultAStarLMRouter;
 
 public class RouterModule extends AbstractModule {
@@ -18,5 +19,7 @@ public class RouterModule extends AbstractModule {
          * AVUtils.bindRouterFactory(binder(), MyOwnRouter.class.getSimpleName()).to(MyOwnRouter.Factory.class); */
         bind(DefaultAStarLMRouter.Factory.class);
         AmodeusUtils.bindRouterFactory(binder(), DefaultAStarLMRouter.class.getSimpleName()).to(DefaultAStarLMRouter.Factory.class);
+        bind(ContractionHierarchyRouter.Factory.class);
+        AmodeusUtils.bindRouterFactory(binder(), ContractionHierarchyRouter.class.getSimpleName()).to(ContractionHierarchyRouter.Factory.class);
     }
 }
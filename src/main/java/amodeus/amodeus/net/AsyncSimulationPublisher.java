@@ -0,0 +1,182 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import amodeus.amodeus.util.net.ObjectHandler;
+
+/** {@link AsyncSimulationPublisher} passes the {@link SimulationObject}s to a delegate {@link ObjectHandler}
+ * in a background thread, such that sorting, storage and the communication with the viewer do not take place
+ * during the time step of the simulation. The objects are handed over in a bounded queue, the behavior when
+ * the queue is full is given by {@link BackPressure}.
+ *
+ * The simulation objects must not be modified after they were passed to {@link #handle(Object)}.
+ * An exception thrown by the delegate is rethrown at the next call to {@link #handle(Object)} or {@link #close()}. */
+public class AsyncSimulationPublisher implements ObjectHandler, Closeable {
+    public enum BackPressure {
+        /** the simulation waits until there is space in the queue, no object is lost */
+        BLOCK, //
+        /** the oldest object in the queue is discarded */
+        DROP_OLDEST, //
+        /** if the queue is more than half full only every second object is published,
+         * if the queue is full the new object is discarded */
+        SAMPLE, //
+        ;
+    }
+
+    private static class Entry {
+        private final Object object;
+        private final long nanos = System.nanoTime();
+
+        Entry(Object object) {
+            this.object = object;
+        }
+    }
+
+    private static final Entry END = new Entry(null);
+    // ---
+    private final ObjectHandler objectHandler;
+    private final BackPressure backPressure;
+    private final int capacity;
+    private final BlockingQueue<Entry> queue;
+    private final Thread thread;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong latencySum = new AtomicLong();
+    private final AtomicLong latencyMax = new AtomicLong();
+    private volatile RuntimeException failure = null;
+    private int maxQueueDepth = 0;
+    private long sampleCount = 0;
+    private boolean isClosed = false;
+
+    /** @param objectHandler delegate that is called in the background thread
+     * @param capacity of the queue
+     * @param backPressure */
+    public AsyncSimulationPublisher(ObjectHandler objectHandler, int capacity, BackPressure backPressure) {
+        this.objectHandler = Objects.requireNonNull(objectHandler);
+        this.backPressure = Objects.requireNonNull(backPressure);
+        this.capacity = capacity;
+        queue = new ArrayBlockingQueue<>(capacity);
+        thread = new Thread(this::run, getClass().getSimpleName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Entry entry = queue.take();
+                if (entry == END)
+                    return;
+                if (Objects.isNull(failure))
+                    try {
+                        objectHandler.handle(entry.object);
+                        long latency = System.nanoTime() - entry.nanos;
+                        latencySum.addAndGet(latency);
+                        latencyMax.accumulateAndGet(latency, Math::max);
+                        published.incrementAndGet();
+                    } catch (RuntimeException runtimeException) {
+                        failure = runtimeException;
+                    }
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override // from ObjectHandler
+    public void handle(Object object) {
+        checkFailure();
+        if (isClosed)
+            throw new IllegalStateException("publisher is closed");
+        Entry entry = new Entry(object);
+        switch (backPressure) {
+        case BLOCK:
+            put(entry);
+            break;
+        case DROP_OLDEST:
+            while (!queue.offer(entry))
+                if (Objects.nonNull(queue.poll()))
+                    dropped.incrementAndGet();
+            break;
+        case SAMPLE:
+            if ((capacity < 2 * queue.size() && (++sampleCount & 1) == 1) || !queue.offer(entry))
+                dropped.incrementAndGet();
+            break;
+        }
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+    }
+
+    private void put(Entry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(interruptedException);
+        }
+    }
+
+    private void checkFailure() {
+        RuntimeException runtimeException = failure;
+        if (Objects.nonNull(runtimeException))
+            throw runtimeException;
+    }
+
+    /** publishes the objects remaining in the queue and stops the background thread */
+    @Override // from Closeable
+    public void close() {
+        if (isClosed)
+            return;
+        isClosed = true;
+        put(END);
+        try {
+            thread.join();
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(interruptedException);
+        }
+        System.out.println(getClass().getSimpleName() + " " + this);
+        checkFailure();
+    }
+
+    /** @return number of objects in the queue */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /** @return maximum number of objects in the queue after an object was passed */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /** @return number of objects passed to the delegate */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /** @return number of objects discarded due to back pressure */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** @return mean time in seconds from the call of {@link #handle(Object)} until the delegate returned */
+    public double getMeanLatency() {
+        long count = published.get();
+        return 0 < count ? latencySum.get() * 1e-9 / count : 0;
+    }
+
+    /** @return maximum time in seconds from the call of {@link #handle(Object)} until the delegate returned */
+    public double getMaxLatency() {
+        return latencyMax.get() * 1e-9;
+    }
+
+    @Override // from Object
+    public String toString() {
+        return String.format("published=%d dropped=%d depth=%d maxDepth=%d meanLatency=%.3fs maxLatency=%.3fs", //
+                getPublished(), getDropped(), getQueueDepth(), getMaxQueueDepth(), getMeanLatency(), getMaxLatency());
+    }
+}
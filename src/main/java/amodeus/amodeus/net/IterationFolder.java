@@ -11,7 +11,7 @@ public class IterationFolder {
      * /media/datahaki/data/ethz/2017_03_09_Sioux_HU/output/simobj/it.02 */
     public IterationFolder(File itDir, StorageUtils storageUtils) {
         this.itDir = itDir;
-        storageSupplier = new StorageSupplier(storageUtils.getFrom(itDir));
+        storageSupplier = storageUtils.getStorageSupplier(itDir);
     }
 
     public StorageSupplier storageSupplier() {
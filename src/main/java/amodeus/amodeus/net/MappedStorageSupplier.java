@@ -0,0 +1,169 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** {@link StorageSupplier} for a recording written by {@link SimulationObjectRecorder}. The records are
+ * memory-mapped such that a simulation object is decoded directly from the file at random access. The file
+ * is mapped in segments of at most 1 GB that contain only complete records.
+ *
+ * If the index is missing, for instance because the simulation was aborted, the records are scanned
+ * and incomplete records at the end of the file are ignored. */
+public class MappedStorageSupplier extends StorageSupplier {
+    private static final long SEGMENT_LIMIT = 1L << 30;
+
+    /** @param file recording
+     * @return index at the end of the recording, or null if the index is missing */
+    private static Index index(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            if (Long.BYTES + Integer.BYTES <= length) {
+                randomAccessFile.seek(length - Long.BYTES - Integer.BYTES);
+                long indexOffset = randomAccessFile.readLong();
+                if (randomAccessFile.readInt() == SimulationObjectRecorder.MAGIC_INDEX && 0 <= indexOffset && indexOffset < length) {
+                    randomAccessFile.seek(indexOffset);
+                    int size = randomAccessFile.readInt();
+                    Index index = new Index(size, indexOffset);
+                    for (int count = 0; count < size; ++count)
+                        index.add(randomAccessFile.readLong(), randomAccessFile.readLong());
+                    return index;
+                }
+            }
+            System.err.println("index of recording missing, scanning " + file);
+            return null;
+        }
+    }
+
+    private static Index scan(File file, long dataOffset) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            Index index = new Index(1024, length);
+            long offset = dataOffset;
+            while (offset + Integer.BYTES + Integer.BYTES + Long.BYTES <= length) {
+                randomAccessFile.seek(offset);
+                int recordLength = randomAccessFile.readInt();
+                if (recordLength < 0 || length < offset + Integer.BYTES + recordLength)
+                    break;
+                randomAccessFile.readInt(); // iteration
+                index.add(randomAccessFile.readLong(), offset);
+                offset += Integer.BYTES + recordLength;
+            }
+            index.dataEnd = offset;
+            return index;
+        }
+    }
+
+    // ---
+    private final SimulationObjectCodec.Decoder decoder;
+    private final long[] offsets;
+    private final long dataEnd;
+    private final int[] segmentOfRecord;
+    private final long[] segmentBegin;
+    private final MappedByteBuffer[] segments;
+
+    /** @param file written by {@link SimulationObjectRecorder}
+     * @throws IOException if the file is not a valid recording */
+    public MappedStorageSupplier(File file) throws IOException {
+        this(file, header(file));
+    }
+
+    private MappedStorageSupplier(File file, Header header) throws IOException {
+        this(file, header.decoder, header.index != null ? header.index : scan(file, header.dataOffset));
+    }
+
+    private MappedStorageSupplier(File file, SimulationObjectCodec.Decoder decoder, Index index) throws IOException {
+        super(index.size, index.firstTimes());
+        this.decoder = decoder;
+        offsets = Arrays.copyOf(index.offsets, index.size);
+        dataEnd = index.dataEnd;
+        segmentOfRecord = new int[offsets.length];
+        List<Long> begins = new ArrayList<>();
+        for (int record = 0; record < offsets.length; ++record) {
+            if (begins.isEmpty() || SEGMENT_LIMIT < end(record) - begins.get(begins.size() - 1))
+                begins.add(offsets[record]);
+            segmentOfRecord[record] = begins.size() - 1;
+        }
+        segmentBegin = begins.stream().mapToLong(Long::longValue).toArray();
+        segments = new MappedByteBuffer[segmentBegin.length];
+        try (FileChannel fileChannel = FileChannel.open(file.toPath())) {
+            for (int segment = 0; segment < segments.length; ++segment) {
+                long segmentEnd = segment + 1 < segments.length ? segmentBegin[segment + 1] : dataEnd;
+                segments[segment] = fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentBegin[segment], segmentEnd - segmentBegin[segment]);
+            }
+        }
+    }
+
+    private long end(int record) {
+        return record + 1 < offsets.length ? offsets[record + 1] : dataEnd;
+    }
+
+    private static Header header(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            if (randomAccessFile.readInt() != SimulationObjectRecorder.MAGIC)
+                throw new IOException("not a recording of simulation objects: " + file);
+            SimulationObjectCodec.Decoder decoder = SimulationObjectCodec.readHeader(randomAccessFile);
+            return new Header(decoder, randomAccessFile.getFilePointer(), index(file));
+        }
+    }
+
+    @Override // from StorageSupplier
+    public SimulationObject getSimulationObject(int index) throws Exception {
+        int segment = segmentOfRecord[index];
+        /** the duplicate has its own position such that concurrent reads are possible */
+        ByteBuffer byteBuffer = segments[segment].duplicate();
+        byteBuffer.position(Math.toIntExact(offsets[index] - segmentBegin[segment]));
+        int length = byteBuffer.getInt();
+        byteBuffer.limit(byteBuffer.position() + length);
+        return decoder.decode(byteBuffer);
+    }
+
+    private static class Header {
+        private final SimulationObjectCodec.Decoder decoder;
+        private final long dataOffset;
+        private final Index index;
+
+        Header(SimulationObjectCodec.Decoder decoder, long dataOffset, Index index) {
+            this.decoder = decoder;
+            this.dataOffset = dataOffset;
+            this.index = index;
+        }
+    }
+
+    private static class Index {
+        private long[] times;
+        private long[] offsets;
+        private int size = 0;
+        private long dataEnd;
+
+        Index(int capacity, long dataEnd) {
+            times = new long[Math.max(1, capacity)];
+            offsets = new long[times.length];
+            this.dataEnd = dataEnd;
+        }
+
+        void add(long time, long offset) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size << 1);
+                offsets = Arrays.copyOf(offsets, size << 1);
+            }
+            times[size] = time;
+            offsets[size] = offset;
+            ++size;
+        }
+
+        List<Long> firstTimes() {
+            List<Long> list = new ArrayList<>();
+            for (int index = 0; index < Math.min(2, size); ++index)
+                list.add(times[index]);
+            return list;
+        }
+    }
+}
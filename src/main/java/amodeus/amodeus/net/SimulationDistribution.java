@@ -7,10 +7,12 @@ public enum SimulationDistribution {
     ;
     // ---
 
-    public static void of(SimulationObject simulationObject, StorageUtils storageUtils) {
+    /** @param simulationObject
+     * @param storage for instance {@link StorageSubscriber} or {@link SimulationObjectRecorder} */
+    public static void of(SimulationObject simulationObject, ObjectHandler storage) {
         SimulationObjects.sortVehiclesAccordingToIndex(simulationObject);
 
-        new StorageSubscriber(storageUtils).handle(simulationObject);
+        storage.handle(simulationObject);
 
         if (SimulationServer.INSTANCE.getWaitForClients()) { // <- server is
                                                              // running &&
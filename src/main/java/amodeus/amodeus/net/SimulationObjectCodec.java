@@ -0,0 +1,196 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import amodeus.amodeus.dispatcher.core.RequestStatus;
+import amodeus.amodeus.dispatcher.core.RoboTaxiStatus;
+
+/** compact binary encoding of {@link SimulationObject}s used by {@link SimulationObjectRecorder}.
+ * The statii are encoded by the ordinal of the enum, the names of the enum constants are part of the
+ * header of the recording such that a recording remains readable if constants are added or reordered.
+ * The field {@link SimulationObject#serializable} is stored with Java serialization.
+ *
+ * record layout (version 1):
+ * iteration, now, infoLine, total_matchedRequests,
+ * number of requests, for each request: index, from link, submission time, to link, status bits, vehicle,
+ * number of vehicles or -1, for each vehicle: index, link trace, statii, destination link,
+ * length of serialized object or -1, serialized object */
+/* package */ enum SimulationObjectCodec {
+    ;
+    public static final int VERSION = 1;
+    private static final int NULL = -1;
+
+    /** @param dataOutput to which the names of the statii are written */
+    public static void writeHeader(DataOutput dataOutput) throws IOException {
+        dataOutput.writeInt(VERSION);
+        dataOutput.writeInt(RoboTaxiStatus.values().length);
+        for (RoboTaxiStatus roboTaxiStatus : RoboTaxiStatus.values())
+            dataOutput.writeUTF(roboTaxiStatus.name());
+        dataOutput.writeInt(RequestStatus.values().length);
+        for (RequestStatus requestStatus : RequestStatus.values())
+            dataOutput.writeUTF(requestStatus.name());
+    }
+
+    /** @param dataInput
+     * @return decoder for the records of the recording with given header
+     * @throws IOException if the version is not supported or a status is unknown */
+    public static Decoder readHeader(DataInput dataInput) throws IOException {
+        int version = dataInput.readInt();
+        if (version != VERSION)
+            throw new IOException("unsupported version " + version);
+        RoboTaxiStatus[] roboTaxiStatii = new RoboTaxiStatus[dataInput.readInt()];
+        for (int index = 0; index < roboTaxiStatii.length; ++index)
+            roboTaxiStatii[index] = constant(RoboTaxiStatus.class, dataInput.readUTF());
+        RequestStatus[] requestStatii = new RequestStatus[dataInput.readInt()];
+        for (int index = 0; index < requestStatii.length; ++index)
+            requestStatii[index] = constant(RequestStatus.class, dataInput.readUTF());
+        return new Decoder(roboTaxiStatii, requestStatii);
+    }
+
+    private static <T extends Enum<T>> T constant(Class<T> cls, String name) throws IOException {
+        try {
+            return Enum.valueOf(cls, name);
+        } catch (IllegalArgumentException exception) {
+            throw new IOException("unknown " + cls.getSimpleName() + " " + name);
+        }
+    }
+
+    public static void encode(SimulationObject simulationObject, DataOutput dataOutput) throws IOException {
+        dataOutput.writeInt(simulationObject.iteration);
+        dataOutput.writeLong(simulationObject.now);
+        byte[] infoLine = simulationObject.infoLine.getBytes(StandardCharsets.UTF_8);
+        dataOutput.writeInt(infoLine.length);
+        dataOutput.write(infoLine);
+        dataOutput.writeInt(simulationObject.total_matchedRequests);
+
+        dataOutput.writeInt(simulationObject.requests.size());
+        for (RequestContainer requestContainer : simulationObject.requests) {
+            dataOutput.writeInt(requestContainer.requestIndex);
+            dataOutput.writeInt(requestContainer.fromLinkIndex);
+            dataOutput.writeDouble(requestContainer.submissionTime);
+            dataOutput.writeInt(requestContainer.toLinkIndex);
+            long bits = 0;
+            if (requestContainer.requestStatus == null)
+                bits = NULL;
+            else
+                for (RequestStatus requestStatus : requestContainer.requestStatus)
+                    bits |= 1L << requestStatus.ordinal();
+            dataOutput.writeLong(bits);
+            dataOutput.writeInt(requestContainer.associatedVehicle);
+        }
+
+        if (simulationObject.vehicles == null)
+            dataOutput.writeInt(NULL);
+        else {
+            dataOutput.writeInt(simulationObject.vehicles.size());
+            for (VehicleContainer vehicleContainer : simulationObject.vehicles) {
+                dataOutput.writeInt(vehicleContainer.vehicleIndex);
+                dataOutput.writeInt(vehicleContainer.linkTrace.length);
+                for (int linkIndex : vehicleContainer.linkTrace)
+                    dataOutput.writeInt(linkIndex);
+                dataOutput.writeInt(vehicleContainer.statii.length);
+                for (RoboTaxiStatus roboTaxiStatus : vehicleContainer.statii)
+                    dataOutput.writeByte(roboTaxiStatus == null ? NULL : roboTaxiStatus.ordinal());
+                dataOutput.writeInt(vehicleContainer.destinationLinkIndex);
+            }
+        }
+
+        if (simulationObject.serializable == null)
+            dataOutput.writeInt(NULL);
+        else {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+                objectOutputStream.writeObject(simulationObject.serializable);
+            }
+            dataOutput.writeInt(byteArrayOutputStream.size());
+            dataOutput.write(byteArrayOutputStream.toByteArray());
+        }
+    }
+
+    /** decodes records with the statii of the header of a recording, instances are immutable */
+    public static class Decoder {
+        private final RoboTaxiStatus[] roboTaxiStatii;
+        private final RequestStatus[] requestStatii;
+
+        private Decoder(RoboTaxiStatus[] roboTaxiStatii, RequestStatus[] requestStatii) {
+            this.roboTaxiStatii = roboTaxiStatii;
+            this.requestStatii = requestStatii;
+        }
+
+        /** @param byteBuffer positioned at the beginning of a record
+         * @return simulation object */
+        public SimulationObject decode(ByteBuffer byteBuffer) throws IOException, ClassNotFoundException {
+            SimulationObject simulationObject = new SimulationObject();
+            simulationObject.iteration = byteBuffer.getInt();
+            simulationObject.now = byteBuffer.getLong();
+            byte[] infoLine = new byte[byteBuffer.getInt()];
+            byteBuffer.get(infoLine);
+            simulationObject.infoLine = new String(infoLine, StandardCharsets.UTF_8);
+            simulationObject.total_matchedRequests = byteBuffer.getInt();
+
+            int numRequests = byteBuffer.getInt();
+            simulationObject.requests = new ArrayList<>(numRequests);
+            for (int count = 0; count < numRequests; ++count) {
+                RequestContainer requestContainer = new RequestContainer();
+                requestContainer.requestIndex = byteBuffer.getInt();
+                requestContainer.fromLinkIndex = byteBuffer.getInt();
+                requestContainer.submissionTime = byteBuffer.getDouble();
+                requestContainer.toLinkIndex = byteBuffer.getInt();
+                long bits = byteBuffer.getLong();
+                if (bits != NULL) {
+                    Set<RequestStatus> set = EnumSet.noneOf(RequestStatus.class);
+                    for (int ordinal = 0; ordinal < requestStatii.length; ++ordinal)
+                        if ((bits & (1L << ordinal)) != 0)
+                            set.add(requestStatii[ordinal]);
+                    requestContainer.requestStatus = set;
+                }
+                requestContainer.associatedVehicle = byteBuffer.getInt();
+                simulationObject.requests.add(requestContainer);
+            }
+
+            int numVehicles = byteBuffer.getInt();
+            if (numVehicles != NULL) {
+                List<VehicleContainer> vehicles = new ArrayList<>(numVehicles);
+                for (int count = 0; count < numVehicles; ++count) {
+                    VehicleContainer vehicleContainer = new VehicleContainer();
+                    vehicleContainer.vehicleIndex = byteBuffer.getInt();
+                    vehicleContainer.linkTrace = new int[byteBuffer.getInt()];
+                    for (int index = 0; index < vehicleContainer.linkTrace.length; ++index)
+                        vehicleContainer.linkTrace[index] = byteBuffer.getInt();
+                    vehicleContainer.statii = new RoboTaxiStatus[byteBuffer.getInt()];
+                    for (int index = 0; index < vehicleContainer.statii.length; ++index) {
+                        byte ordinal = byteBuffer.get();
+                        vehicleContainer.statii[index] = ordinal == NULL ? null : roboTaxiStatii[ordinal];
+                    }
+                    vehicleContainer.destinationLinkIndex = byteBuffer.getInt();
+                    vehicles.add(vehicleContainer);
+                }
+                simulationObject.vehicles = vehicles;
+            }
+
+            int length = byteBuffer.getInt();
+            if (length != NULL) {
+                byte[] bytes = new byte[length];
+                byteBuffer.get(bytes);
+                try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    simulationObject.serializable = (Serializable) objectInputStream.readObject();
+                }
+            }
+            return simulationObject;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+import amodeus.amodeus.util.net.ObjectHandler;
+
+/** alternative to {@link StorageSubscriber} that appends the {@link SimulationObject}s of an iteration
+ * to a single file instead of writing one file per object. The records are encoded with
+ * {@link SimulationObjectCodec} and written in chunks. When the recorder is closed, or when the first
+ * object of the next iteration arrives, an index with time and offset of every record is appended.
+ * The file is read by {@link MappedStorageSupplier}.
+ *
+ * layout: magic number, header of {@link SimulationObjectCodec}, records as length and payload,
+ * number of records, time and offset of every record, offset of the index, magic number of the index */
+public class SimulationObjectRecorder implements ObjectHandler, Closeable {
+    /* package */ static final int MAGIC = 0x414D534F; // "AMSO"
+    /* package */ static final int MAGIC_INDEX = 0x414D5349; // "AMSI"
+    /** records are collected in memory and written to the file once a chunk exceeds this size */
+    private static final int CHUNK_SIZE = 1 << 20;
+    // ---
+    private final StorageUtils storageUtils;
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE + (CHUNK_SIZE >> 2));
+    private final DataOutputStream chunkOutput = new DataOutputStream(chunk);
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream recordOutput = new DataOutputStream(record);
+    private OutputStream outputStream = null;
+    private File file;
+    private int iteration;
+    private long position;
+    private int size;
+    private long[] times = new long[1024];
+    private long[] offsets = new long[1024];
+
+    public SimulationObjectRecorder(StorageUtils storageUtils) {
+        this.storageUtils = Objects.requireNonNull(storageUtils);
+    }
+
+    @Override // from ObjectHandler
+    public void handle(Object object) {
+        SimulationObject simulationObject = (SimulationObject) object;
+        try {
+            if (Objects.nonNull(outputStream) && iteration != simulationObject.iteration)
+                close();
+            if (Objects.isNull(outputStream))
+                open(simulationObject.iteration);
+            append(simulationObject);
+        } catch (IOException exception) {
+            exception.printStackTrace();
+            throw new RuntimeException(Objects.toString(file));
+        }
+    }
+
+    private void open(int iteration) throws IOException {
+        this.iteration = iteration;
+        file = storageUtils.getRecordingFileOf(iteration);
+        outputStream = new FileOutputStream(file);
+        chunkOutput.writeInt(MAGIC);
+        SimulationObjectCodec.writeHeader(chunkOutput);
+        position = chunk.size();
+        size = 0;
+    }
+
+    private void append(SimulationObject simulationObject) throws IOException {
+        record.reset();
+        SimulationObjectCodec.encode(simulationObject, recordOutput);
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size << 1);
+            offsets = Arrays.copyOf(offsets, size << 1);
+        }
+        times[size] = simulationObject.now;
+        offsets[size] = position;
+        ++size;
+        chunkOutput.writeInt(record.size());
+        record.writeTo(chunkOutput);
+        position += Integer.BYTES + record.size();
+        if (CHUNK_SIZE <= chunk.size())
+            flushChunk();
+    }
+
+    private void flushChunk() throws IOException {
+        chunk.writeTo(outputStream);
+        chunk.reset();
+    }
+
+    /** appends the index and closes the file of the current iteration */
+    @Override // from Closeable
+    public void close() throws IOException {
+        if (Objects.isNull(outputStream))
+            return;
+        try {
+            long indexOffset = position;
+            chunkOutput.writeInt(size);
+            for (int index = 0; index < size; ++index) {
+                chunkOutput.writeLong(times[index]);
+                chunkOutput.writeLong(offsets[index]);
+            }
+            chunkOutput.writeLong(indexOffset);
+            chunkOutput.writeInt(MAGIC_INDEX);
+            flushChunk();
+        } finally {
+            chunk.reset();
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package amodeus.amodeus.net;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.stream.Collectors;
@@ -14,14 +15,30 @@ public class StorageSupplier {
     @SuppressWarnings("unused")
     private final NavigableMap<Integer, File> navigableMap;
     private final List<File> ordered;
+    private final int size;
     private final int intervalEstimate;
 
     public StorageSupplier(NavigableMap<Integer, File> navigableMap) {
         this.navigableMap = navigableMap;
         ordered = new ArrayList<>(navigableMap.values());
-        List<Integer> list = navigableMap.keySet().stream().limit(2).collect(Collectors.toList());
+        size = ordered.size();
+        intervalEstimate = intervalEstimate(navigableMap.keySet().stream().limit(2).collect(Collectors.toList()));
+    }
+
+    /** constructor for suppliers that do not read from individual files
+     * 
+     * @param size number of simulation objects
+     * @param times of the first simulation objects, at least two for an estimate of the interval */
+    protected StorageSupplier(int size, List<? extends Number> times) {
+        navigableMap = Collections.emptyNavigableMap();
+        ordered = Collections.emptyList();
+        this.size = size;
+        intervalEstimate = intervalEstimate(times);
+    }
+
+    private static int intervalEstimate(List<? extends Number> list) {
         // typically the list == [10, 20] and therefore the 20 - 10 == 10
-        intervalEstimate = 2 <= list.size() ? list.get(1) - list.get(0) : 10;
+        return 2 <= list.size() ? list.get(1).intValue() - list.get(0).intValue() : 10;
     }
 
     /** @param index
@@ -33,7 +50,7 @@ public class StorageSupplier {
     }
 
     public final int size() {
-        return ordered.size();
+        return size;
     }
 
     public final int getIntervalEstimate() {
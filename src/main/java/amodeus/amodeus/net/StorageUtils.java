@@ -2,6 +2,7 @@
 package amodeus.amodeus.net;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,6 +17,7 @@ public class StorageUtils {
     /** the output folder is created by MATSim */
     private static final File DEFAULT_OUTPUT_DIRECTORY = new File("output");
     private static final String SIMOBJ = "simobj";
+    private static final String RECORDING = "recording.bin";
     // ---
     private final File output;
     private final File directory;
@@ -75,6 +77,20 @@ public class StorageUtils {
         return getFrom(lastIter);
     }
 
+    /** @return {@link StorageSupplier} for the last available iteration */
+    public StorageSupplier getFirstAvailableStorageSupplier() {
+        File[] files = directory.isDirectory() //
+                ? Stream.of(directory.listFiles()).sorted().toArray(File[]::new)
+                : new File[] {};
+        if (files.length == 0) {
+            System.out.println("no files found");
+            return new StorageSupplier(Collections.emptyNavigableMap());
+        }
+        File lastIter = files[files.length - 1];
+        System.out.println("loading last Iter = " + lastIter);
+        return getStorageSupplier(lastIter);
+    }
+
     /** function only called from {@link StorageSubscriber} when data is recorded
      * during simulation
      * 
@@ -84,9 +100,7 @@ public class StorageUtils {
     /* package */ File getFileForStorageOf(SimulationObject simulationObject) {
         GlobalAssert.that(output.exists());
 
-        directory.mkdir();
-        File iter = new File(directory, String.format("it.%02d", simulationObject.iteration));
-        iter.mkdir();
+        File iter = getIterationDirectory(simulationObject.iteration);
         long floor = (simulationObject.now / 1000) * 1000;
         File folder = new File(iter, String.format("%07d", floor));
         folder.mkdir();
@@ -94,6 +108,38 @@ public class StorageUtils {
         return new File(folder, String.format("%07d.bin", simulationObject.now));
     }
 
+    /** function only called from {@link SimulationObjectRecorder} when data is recorded
+     * during simulation
+     * 
+     * @param iteration
+     * @return file to record all simulation objects of given iteration */
+    /* package */ File getRecordingFileOf(int iteration) {
+        GlobalAssert.that(output.exists());
+        return new File(getIterationDirectory(iteration), RECORDING);
+    }
+
+    private File getIterationDirectory(int iteration) {
+        directory.mkdir();
+        File iter = new File(directory, String.format("it.%02d", iteration));
+        iter.mkdir();
+        return iter;
+    }
+
+    /** @param itDir
+     *            {@link File} with iteration folder
+     * @return {@link StorageSupplier} for the recording in the iteration folder if present,
+     *         otherwise for the files with the individual simulation objects */
+    public StorageSupplier getStorageSupplier(File itDir) {
+        File recording = new File(itDir, RECORDING);
+        if (recording.isFile())
+            try {
+                return new MappedStorageSupplier(recording);
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        return new StorageSupplier(getFrom(itDir));
+    }
+
     /** @param itDir
      *            {@link File} with iteration folder
      * @return {@link NavigableMap} with time as {@link Integer} and
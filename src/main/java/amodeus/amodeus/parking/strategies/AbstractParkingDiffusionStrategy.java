@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.matsim.api.core.v01.network.Link;
 
@@ -19,17 +20,24 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
          * the function destinationCompute */
         update(stayingRobotaxis, rebalancingRobotaxis, now);
 
-        Map<Link, Set<RoboTaxi>> stayTaxis = StaticHelper.getOccupiedLinks(stayingRobotaxis);
         /** If there are too many vehicles on the link, send a sufficient number of them away
          * to random neighbors */
-
         Map<RoboTaxi, Link> directives = new HashMap<>();
-        stayTaxis.forEach((link, taxis) -> {
+        getTaxisToGo(stayingRobotaxis).values().forEach(taxis -> //
+        taxis.forEach(rt -> directives.put(rt, destinationCompute(rt))));
+        return directives;
+    }
+
+    /** @return {@link Map} on {@link Link} keys with the {@link Set}s of {@link RoboTaxi}s that must leave
+     *         in order not to violate parking constraints, selected from @param stayingRobotaxis */
+    protected Map<Link, Set<RoboTaxi>> getTaxisToGo(Collection<RoboTaxi> stayingRobotaxis) {
+        Map<Link, Set<RoboTaxi>> taxisToGo = new HashMap<>();
+        StaticHelper.getOccupiedLinks(stayingRobotaxis).forEach((link, taxis) -> {
             long capacity = parkingCapacity.getSpatialCapacity(link.getId());
             if (taxis.size() > capacity)
-                taxis.stream().limit(taxis.size() - capacity).forEach(rt -> directives.put(rt, destinationCompute(rt)));
+                taxisToGo.put(link, taxis.stream().limit(taxis.size() - capacity).collect(Collectors.toSet()));
         });
-        return directives;
+        return taxisToGo;
     }
 
     protected abstract Link destinationCompute(RoboTaxi roboTaxi);
@@ -2,21 +2,35 @@
 package amodeus.amodeus.parking.strategies;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.parking.capacities.ParkingCapacity;
+import amodeus.amodeus.routing.DistanceFunction;
 
 /* package */ class ParkingDirectedDiffusion extends AbstractParkingDiffusionStrategy {
 
     private final Random random;
+    private ParkingOccupancy<RoboTaxi> parkingOccupancy = null;
     private DirectedDiffusionHelper helper = null;
 
     public ParkingDirectedDiffusion(Random random) {
         this.random = random;
     }
 
+    @Override
+    public void setRuntimeParameters(ParkingCapacity parkingCapacity, Network network, //
+            DistanceFunction distanceFunction) {
+        super.setRuntimeParameters(parkingCapacity, network, distanceFunction);
+        parkingOccupancy = new ParkingOccupancy<>(parkingCapacity, network, RoboTaxi::getDivertableLocation, RoboTaxi::getCurrentDriveDestination);
+        helper = new DirectedDiffusionHelper(parkingOccupancy, random);
+    }
+
     @Override
     protected Link destinationCompute(RoboTaxi roboTaxi) {
         return helper.getDestinationLink(roboTaxi);
@@ -24,7 +38,12 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
     @Override
     protected void update(Collection<RoboTaxi> stayTaxis, Collection<RoboTaxi> rebTaxis, long now) {
-        helper = new DirectedDiffusionHelper(parkingCapacity, stayTaxis, rebTaxis, random);
+        parkingOccupancy.update(stayTaxis, rebTaxis);
+    }
+
+    @Override
+    protected Map<Link, Set<RoboTaxi>> getTaxisToGo(Collection<RoboTaxi> stayingRobotaxis) {
+        return parkingOccupancy.getTaxisToGo(stayingRobotaxis);
     }
 
 }
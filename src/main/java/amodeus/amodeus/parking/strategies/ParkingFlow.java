@@ -18,26 +18,25 @@ import amodeus.amodeus.routing.DistanceFunction;
 import amodeus.amodeus.util.math.GlobalAssert;
 
 /* package */ class ParkingFlow extends AbstractParkingStrategy {
-    private ParkingFlowHelper parkingLPHelper;
+    private ParkingOccupancy<RoboTaxi> parkingOccupancy;
 
     @Override
     public void setRuntimeParameters(ParkingCapacity parkingCapacity, Network network, //
             DistanceFunction distanceFunction) {
         super.setRuntimeParameters(parkingCapacity, network, distanceFunction);
-        this.parkingLPHelper = new ParkingFlowHelper(parkingCapacity, network);
+        this.parkingOccupancy = new ParkingOccupancy<>(parkingCapacity, network, RoboTaxi::getDivertableLocation, RoboTaxi::getCurrentDriveDestination);
     }
 
     @Override
     public Map<RoboTaxi, Link> keepFree(Collection<RoboTaxi> stayingRobotaxis, //
             Collection<RoboTaxi> rebalancingRobotaxis, long now) {
         Objects.requireNonNull(distanceFunction);
-        Objects.requireNonNull(parkingLPHelper);
-        Map<Link, Set<RoboTaxi>> linkStayTaxi = StaticHelper.getOccupiedLinks(stayingRobotaxis);
-        Map<Link, Set<RoboTaxi>> taxisToGo = parkingLPHelper.getTaxisToGo(linkStayTaxi);
+        Objects.requireNonNull(parkingOccupancy);
+        parkingOccupancy.update(stayingRobotaxis, rebalancingRobotaxis);
+        Map<Link, Set<RoboTaxi>> taxisToGo = parkingOccupancy.getTaxisToGo(stayingRobotaxis);
         /** if there are ongoing parking violations, resolve, otherwise skip */
         if (!taxisToGo.isEmpty()) {
-            Map<Link, Integer> freeSpacesToGo = parkingLPHelper.getFreeSpacesToGo(linkStayTaxi, //
-                    StaticHelper.getDestinationCount(rebalancingRobotaxis));
+            Map<Link, Integer> freeSpacesToGo = parkingOccupancy.getFreeSpaces();
             /** skip any action if no free spaces */
             if (!freeSpacesToGo.isEmpty()) {
                 /** at this point the parking repositioning problem is solved */
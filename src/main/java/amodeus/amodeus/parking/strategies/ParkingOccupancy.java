@@ -0,0 +1,157 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.parking.strategies;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+
+import amodeus.amodeus.parking.capacities.ParkingCapacity;
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** Occupancy of the parking spaces by staying {@link T}s and by rebalancing {@link T}s that drive to a
+ * {@link Link}, with the counts stored by the index of the {@link Link} id. The index is updated with the
+ * {@link T}s that started or ended to stay or rebalance since the last update, and keeps the {@link Link}s
+ * with overfull parking spaces as well as the {@link Link}s with free parking spaces.
+ * Instances are not thread-safe.
+ *
+ * @param <T> type of vehicles, e.g. RoboTaxi */
+/* package */ class ParkingOccupancy<T> {
+    private final Function<T, Link> stayLocation;
+    private final Function<T, Link> rebalanceDestination;
+    /** capacity, staying and rebalancing vehicles by the index of the link id */
+    private final long[] capacity;
+    private final int[] stayCount;
+    private final int[] rebalanceCount;
+    /** link of every vehicle at the last update */
+    private Map<T, Link> stayLinks = new HashMap<>();
+    private Map<T, Link> rebalanceLinks = new HashMap<>();
+    /** links with more staying vehicles than capacity */
+    private final Set<Link> overfullLinks = new HashSet<>();
+    /** links with free spaces */
+    private final Map<Link, Long> freeLinks = new HashMap<>();
+
+    /** @param parkingCapacity
+     * @param network
+     * @param stayLocation of a staying vehicle, e.g. RoboTaxi::getDivertableLocation
+     * @param rebalanceDestination of a rebalancing vehicle, e.g. RoboTaxi::getCurrentDriveDestination */
+    public ParkingOccupancy(ParkingCapacity parkingCapacity, Network network, //
+            Function<T, Link> stayLocation, Function<T, Link> rebalanceDestination) {
+        this.stayLocation = stayLocation;
+        this.rebalanceDestination = rebalanceDestination;
+        int size = 1 + network.getLinks().values().stream().mapToInt(link -> link.getId().index()).max().orElse(-1);
+        capacity = new long[size];
+        stayCount = new int[size];
+        rebalanceCount = new int[size];
+        for (Link link : network.getLinks().values()) {
+            capacity[link.getId().index()] = parkingCapacity.getSpatialCapacity(link.getId());
+            refresh(link);
+        }
+    }
+
+    /** updates the counts with the differences of the currently staying and rebalancing vehicles to the
+     * vehicles of the last update, only the {@link Link}s of vehicles that changed are touched
+     *
+     * @param stayingVehicles
+     * @param rebalancingVehicles */
+    public void update(Collection<T> stayingVehicles, Collection<T> rebalancingVehicles) {
+        stayLinks = update(stayLinks, stayingVehicles, stayLocation, stayCount);
+        rebalanceLinks = update(rebalanceLinks, rebalancingVehicles, rebalanceDestination, rebalanceCount);
+    }
+
+    private Map<T, Link> update(Map<T, Link> previous, Collection<T> vehicles, Function<T, Link> location, int[] count) {
+        Map<T, Link> current = new HashMap<>();
+        for (T vehicle : vehicles) {
+            Link link = location.apply(vehicle);
+            current.put(vehicle, link);
+            Link before = previous.remove(vehicle);
+            if (before != link) {
+                if (Objects.nonNull(before))
+                    change(before, count, -1);
+                change(link, count, +1);
+            }
+        }
+        /** the remaining vehicles ended to stay or rebalance */
+        previous.values().forEach(link -> change(link, count, -1));
+        return current;
+    }
+
+    private void change(Link link, int[] count, int delta) {
+        int index = link.getId().index();
+        GlobalAssert.that(index < count.length);
+        count[index] += delta;
+        GlobalAssert.that(0 <= count[index]);
+        refresh(link);
+    }
+
+    private void refresh(Link link) {
+        int index = link.getId().index();
+        if (capacity[index] < stayCount[index])
+            overfullLinks.add(link);
+        else
+            overfullLinks.remove(link);
+        long freeSpaces = getFreeSpaces(link);
+        if (0 < freeSpaces)
+            freeLinks.put(link, freeSpaces);
+        else
+            freeLinks.remove(link);
+    }
+
+    /** the staying vehicle @param vehicle is counted as rebalancing to @param destination until the next update */
+    public void moveTo(T vehicle, Link destination) {
+        Link link = stayLinks.remove(vehicle);
+        if (Objects.nonNull(link))
+            change(link, stayCount, -1);
+        link = rebalanceLinks.put(vehicle, destination);
+        if (Objects.nonNull(link))
+            change(link, rebalanceCount, -1);
+        change(destination, rebalanceCount, +1);
+    }
+
+    /** @return number of free spaces on @param link given the staying and rebalancing vehicles */
+    public long getFreeSpaces(Link link) {
+        int index = link.getId().index();
+        return Math.max(0, capacity[index] - stayCount[index] - rebalanceCount[index]);
+    }
+
+    /** @return {@link Map} with all {@link Link}s that have free spaces and their number of free spaces */
+    public Map<Link, Integer> getFreeSpaces() {
+        Map<Link, Integer> freeSpaces = new HashMap<>();
+        freeLinks.forEach((link, spaces) -> freeSpaces.put(link, (int) Math.min(spaces, Integer.MAX_VALUE)));
+        return freeSpaces;
+    }
+
+    /** @return {@link Map} on {@link Link} keys with the {@link Set}s of vehicles that must leave in order not to
+     *         violate parking constraints, selected from the currently staying vehicles @param stayingVehicles */
+    public Map<Link, Set<T>> getTaxisToGo(Collection<T> stayingVehicles) {
+        Map<Link, Set<T>> taxisToGo = new HashMap<>();
+        if (overfullLinks.isEmpty())
+            return taxisToGo;
+        Map<Link, Long> shouldLeave = new HashMap<>();
+        for (Link link : overfullLinks) {
+            int index = link.getId().index();
+            shouldLeave.put(link, stayCount[index] - capacity[index]);
+        }
+        Iterator<T> iterator = stayingVehicles.iterator();
+        while (!shouldLeave.isEmpty() && iterator.hasNext()) {
+            T vehicle = iterator.next();
+            Link link = stayLinks.get(vehicle);
+            Long remaining = shouldLeave.get(link);
+            if (Objects.nonNull(remaining)) {
+                taxisToGo.computeIfAbsent(link, l -> new HashSet<>()).add(vehicle);
+                if (remaining == 1)
+                    shouldLeave.remove(link);
+                else
+                    shouldLeave.put(link, remaining - 1);
+            }
+        }
+        return taxisToGo;
+    }
+}
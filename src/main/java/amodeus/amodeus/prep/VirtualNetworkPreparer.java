@@ -32,7 +32,7 @@ public enum VirtualNetworkPreparer implements VirtualNetworkCreator {
         GlobalAssert.that(vnDir.isDirectory());
 
         try {
-            VirtualNetworkIO.toByte(new File(vnDir, scenarioOptions.getVirtualNetworkName()), virtualNetwork);
+            VirtualNetworkIO.toBinary(new File(vnDir, scenarioOptions.getVirtualNetworkName()), virtualNetwork);
             System.out.println("saved virtual network byte format to : " + new File(vnDir, scenarioOptions.getVirtualNetworkDirectoryName()));
 
             virtualNetwork.printVirtualNetworkInfo();
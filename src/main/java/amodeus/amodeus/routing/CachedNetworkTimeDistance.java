@@ -1,40 +1,96 @@
 /* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.routing;
 
+import java.util.function.Supplier;
+
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 
+import amodeus.amodeus.util.math.Magnitude;
+import amodeus.amodeus.util.math.SI;
 import ch.ethz.idsc.tensor.Scalar;
 import ch.ethz.idsc.tensor.Tensor;
+import ch.ethz.idsc.tensor.qty.Quantity;
 
 public class CachedNetworkTimeDistance implements NetworkTimeDistInterface {
+    private static final int TIME = 0;
+    private static final int DISTANCE = 1;
 
-    private final CachedNetworkPropertyComputation<Tensor> cachedNetworkPropertyComputation;
+    // ---
+    private final ThreadLocal<LeastCostPathCalculator> calculator;
+    private final NetworkPropertyInterface<Tensor> pathInterface;
+    private final LinkPairCache cache;
 
     /** A {@link CachedNetworkTimeDistance} stores all the calculated travel times
      * which were calculated no longer ago than @param maxLag. The underlying logic is that in this manner
      * the expensive routing computation has to be done fewer times for identical pairs
      * of {@link Link}s.For the routing, different {@link LeastCostPathCalculator}s can be used,
-     * e.g., to minimize traveltime or network distance. If the boolean @param cachePath is set to
-     * true, then the computed Pathes are stored as well (memory intensive!) */
+     * e.g., to minimize traveltime or network distance. The travel time and distance computed by
+     * @param pathInterface are stored as primitive values in a {@link LinkPairCache}.
+     *
+     * the instance must only be used by a single thread */
     public CachedNetworkTimeDistance(LeastCostPathCalculator calculator, double maxLag, NetworkPropertyInterface<Tensor> pathInterface) {
-        this.cachedNetworkPropertyComputation = new CachedNetworkPropertyComputation<>(calculator, maxLag, pathInterface);
+        this(() -> calculator, maxLag, pathInterface);
+    }
+
+    /** @param supplier of a new {@link LeastCostPathCalculator} for every thread that uses the instance
+     * @param maxLag
+     * @param pathInterface
+     *
+     * The cache is guarded by a lock, the paths are computed outside of the lock with the calculator of the
+     * calling thread, such that the instance may be used concurrently. */
+    public CachedNetworkTimeDistance(Supplier<LeastCostPathCalculator> supplier, double maxLag, NetworkPropertyInterface<Tensor> pathInterface) {
+        this.calculator = ThreadLocal.withInitial(supplier);
+        this.pathInterface = pathInterface;
+        this.cache = new LinkPairCache(2, maxLag);
     }
 
     public boolean checkTime(double now) {
-        return cachedNetworkPropertyComputation.checkTime(now);
+        synchronized (cache) {
+            return cache.checkTime(now);
+        }
+    }
+
+    /** removes cached values that were computed more than maxLag before @param now,
+     * invoked implicitly by the queries but may be called once at the beginning of a time step */
+    public void update(double now) {
+        synchronized (cache) {
+            cache.update(now);
+        }
     }
 
     @Override // from NetworkTimeDistInterface
     public Scalar travelTime(Link from, Link to, double now) {
-        Tensor timeDist = cachedNetworkPropertyComputation.fromTo(from, to, now);
-        return timeDist.Get(0);
+        return Quantity.of(fromTo(from, to, now, TIME), SI.SECOND);
     }
 
     @Override // from NetworkTimeDistInterface
     public Scalar distance(Link from, Link to, double now) {
-        Tensor timeDist = cachedNetworkPropertyComputation.fromTo(from, to, now);
-        return timeDist.Get(1);
+        return Quantity.of(fromTo(from, to, now, DISTANCE), SI.METER);
+    }
+
+    private double fromTo(Link from, Link to, double now, int component) {
+        synchronized (cache) {
+            cache.update(now);
+            int slot = cache.find(from, to);
+            if (0 <= slot)
+                return cache.value(slot, component);
+        }
+        Tensor timeDist = pathInterface.fromTo(from, to, calculator.get(), now);
+        double time = Magnitude.SECOND.toDouble(timeDist.Get(TIME));
+        double distance = Magnitude.METER.toDouble(timeDist.Get(DISTANCE));
+        synchronized (cache) {
+            /** another thread may have inserted the same pair in the meantime, with identical values */
+            int slot = cache.insert(from, to);
+            cache.set(slot, TIME, time);
+            cache.set(slot, DISTANCE, distance);
+        }
+        return component == TIME ? time : distance;
     }
 
+    /** @return cache with hit, miss and eviction counters, which has to be synchronized on when the
+     *         instance is used concurrently */
+    public LinkPairCache getCache() {
+        return cache;
+    }
 }
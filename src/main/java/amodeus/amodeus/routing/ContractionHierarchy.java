@@ -0,0 +1,136 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.matsim.api.core.v01.network.Link;
+
+/** A {@link ContractionHierarchy} is the result of the contraction of a {@link NetworkGraph} for a fixed
+ * metric. It contains the original edges and the shortcuts, split into upward edges that lead to nodes
+ * contracted later and downward edges that are searched in reverse direction from the target. The structure
+ * is immutable, queries are executed by {@link ContractionHierarchyPathCalculator}.
+ *
+ * The order of contraction is metric-independent and can be stored with {@link ContractionHierarchyIO}.
+ * {@link #customize(ToDoubleFunction)} is a full re-contraction of all nodes in the same order for the new
+ * metric, it only skips the ordering step and is not a cheap update of the edge weights. */
+public class ContractionHierarchy {
+    /** @param graph
+     * @param weight of a {@link Link}, e.g., the travel disutility at a given time
+     * @return hierarchy with node order computed by the edge difference heuristic */
+    public static ContractionHierarchy create(NetworkGraph graph, ToDoubleFunction<Link> weight) {
+        return new ContractionHierarchyBuilder(graph, weight).contract();
+    }
+
+    /** @param graph
+     * @param order of contraction of the nodes of the graph
+     * @param weight of a {@link Link}
+     * @return hierarchy for given order */
+    public static ContractionHierarchy create(NetworkGraph graph, int[] order, ToDoubleFunction<Link> weight) {
+        return new ContractionHierarchyBuilder(graph, weight).contract(order);
+    }
+
+    // ---
+    private final NetworkGraph graph;
+    private final int[] order;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeLowerA;
+    private final int[] edgeLowerB;
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    /* package */ ContractionHierarchy(NetworkGraph graph, int[] order, //
+            int[] edgeFrom, int[] edgeTo, double[] edgeWeight, int[] edgeLowerA, int[] edgeLowerB, //
+            int[] upOffsets, int[] upEdges, int[] downOffsets, int[] downEdges) {
+        this.graph = graph;
+        this.order = order;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeWeight = edgeWeight;
+        this.edgeLowerA = edgeLowerA;
+        this.edgeLowerB = edgeLowerB;
+        this.upOffsets = upOffsets;
+        this.upEdges = upEdges;
+        this.downOffsets = downOffsets;
+        this.downEdges = downEdges;
+    }
+
+    /** contracts all nodes again in the order of this hierarchy
+     * 
+     * @param weight of a {@link Link}
+     * @return hierarchy for the new metric with the node order of this hierarchy */
+    public ContractionHierarchy customize(ToDoubleFunction<Link> weight) {
+        return create(graph, order, weight);
+    }
+
+    public NetworkGraph graph() {
+        return graph;
+    }
+
+    /** @return copy of the order in which the nodes were contracted */
+    public int[] order() {
+        return order.clone();
+    }
+
+    /** @return number of edges including shortcuts */
+    public int numEdges() {
+        return edgeFrom.length;
+    }
+
+    /** @param edge
+     * @param links to which the original {@link Link}s of the edge are appended in the order of travel */
+    /* package */ void unpack(int edge, List<Link> links) {
+        List<Integer> stack = new ArrayList<>();
+        stack.add(edge);
+        while (!stack.isEmpty()) {
+            int current = stack.remove(stack.size() - 1);
+            if (edgeLowerA[current] < 0)
+                links.add(graph.link(edgeLowerB[current]));
+            else {
+                stack.add(edgeLowerB[current]);
+                stack.add(edgeLowerA[current]);
+            }
+        }
+    }
+
+    /* package */ int edgeFrom(int edge) {
+        return edgeFrom[edge];
+    }
+
+    /* package */ int edgeTo(int edge) {
+        return edgeTo[edge];
+    }
+
+    /* package */ double edgeWeight(int edge) {
+        return edgeWeight[edge];
+    }
+
+    /* package */ int upBegin(int node) {
+        return upOffsets[node];
+    }
+
+    /* package */ int upEnd(int node) {
+        return upOffsets[node + 1];
+    }
+
+    /* package */ int upEdge(int index) {
+        return upEdges[index];
+    }
+
+    /* package */ int downBegin(int node) {
+        return downOffsets[node];
+    }
+
+    /* package */ int downEnd(int node) {
+        return downOffsets[node + 1];
+    }
+
+    /* package */ int downEdge(int index) {
+        return downEdges[index];
+    }
+}
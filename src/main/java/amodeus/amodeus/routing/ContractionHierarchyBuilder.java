@@ -0,0 +1,318 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+import org.matsim.api.core.v01.network.Link;
+
+/** contracts the nodes of a {@link NetworkGraph} one by one and inserts shortcut edges wherever a
+ * shortest path leads through a contracted node. The order of contraction is either computed with the
+ * edge difference heuristic and lazy updates, or given, e.g., from a previous run with a different metric.
+ * Witness searches are bounded in the number of settled nodes, which may lead to superfluous shortcuts
+ * but never to wrong distances. */
+/* package */ class ContractionHierarchyBuilder {
+    private static final int MAX_SETTLED = 500;
+
+    private final NetworkGraph graph;
+    private final int numNodes;
+    // --- edges, original edges have lowerA == -1 and lowerB the position of the link in the graph
+    private int numEdges = 0;
+    private int[] edgeFrom = new int[1024];
+    private int[] edgeTo = new int[1024];
+    private int[] edgeLowerA = new int[1024];
+    private int[] edgeLowerB = new int[1024];
+    private double[] edgeWeight = new double[1024];
+    // --- adjacency of the remaining graph
+    private final int[][] outEdges;
+    private final int[] outSize;
+    private final int[][] inEdges;
+    private final int[] inSize;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbors;
+    // --- witness search
+    private final double[] dist;
+    private final int[] reached;
+    private int epoch = 0;
+    private double[] heapKey = new double[64];
+    private int[] heapNode = new int[64];
+    private int heapSize = 0;
+
+    public ContractionHierarchyBuilder(NetworkGraph graph, ToDoubleFunction<Link> weight) {
+        this.graph = graph;
+        numNodes = graph.numNodes();
+        outEdges = new int[numNodes][];
+        outSize = new int[numNodes];
+        inEdges = new int[numNodes][];
+        inSize = new int[numNodes];
+        contracted = new boolean[numNodes];
+        contractedNeighbors = new int[numNodes];
+        dist = new double[numNodes];
+        reached = new int[numNodes];
+        for (int node = 0; node < numNodes; ++node) {
+            outEdges[node] = new int[4];
+            inEdges[node] = new int[4];
+        }
+        for (int node = 0; node < numNodes; ++node)
+            for (int position = graph.outBegin(node); position < graph.outEnd(node); ++position) {
+                int next = graph.toNode(position);
+                if (node != next)
+                    addOrImprove(node, next, weight.applyAsDouble(graph.link(position)), -1, position);
+            }
+    }
+
+    /** contracts all nodes in an order determined by the edge difference heuristic
+     *
+     * @return hierarchy */
+    public ContractionHierarchy contract() {
+        double[] keys = new double[numNodes];
+        int[] nodes = new int[numNodes];
+        int size = 0;
+        for (int node = 0; node < numNodes; ++node) {
+            keys[size] = priority(node);
+            nodes[size] = node;
+            size = siftUp(keys, nodes, size);
+        }
+        int[] order = new int[numNodes];
+        int count = 0;
+        while (0 < size) {
+            int node = nodes[0];
+            double key = keys[0];
+            size = removeTop(keys, nodes, size);
+            double priority = priority(node);
+            if (priority > key && 0 < size && priority > keys[0]) {
+                /** lazy update: the node is reinserted with its current priority */
+                keys[size] = priority;
+                nodes[size] = node;
+                size = siftUp(keys, nodes, size);
+                continue;
+            }
+            contract(node);
+            order[count++] = node;
+        }
+        return build(order);
+    }
+
+    /** @param order of contraction, for instance from {@link ContractionHierarchy#order()}
+     * @return hierarchy */
+    public ContractionHierarchy contract(int[] order) {
+        if (order.length != numNodes)
+            throw new IllegalArgumentException("order of " + order.length + " nodes for graph with " + numNodes + " nodes");
+        for (int node : order)
+            contract(node);
+        return build(order);
+    }
+
+    private double priority(int node) {
+        int removed = 0;
+        for (int index = 0; index < inSize[node]; ++index)
+            if (!contracted[edgeFrom[inEdges[node][index]]])
+                ++removed;
+        for (int index = 0; index < outSize[node]; ++index)
+            if (!contracted[edgeTo[outEdges[node][index]]])
+                ++removed;
+        return shortcuts(node, true) - removed + contractedNeighbors[node];
+    }
+
+    private void contract(int node) {
+        shortcuts(node, false);
+        contracted[node] = true;
+        for (int index = 0; index < inSize[node]; ++index)
+            ++contractedNeighbors[edgeFrom[inEdges[node][index]]];
+        for (int index = 0; index < outSize[node]; ++index)
+            ++contractedNeighbors[edgeTo[outEdges[node][index]]];
+    }
+
+    /** @param node
+     * @param simulate if true no shortcuts are added
+     * @return number of shortcuts required to contract node */
+    private int shortcuts(int node, boolean simulate) {
+        int shortcuts = 0;
+        for (int in = 0; in < inSize[node]; ++in) {
+            int edgeIn = inEdges[node][in];
+            int from = edgeFrom[edgeIn];
+            if (contracted[from])
+                continue;
+            double maxWeight = -1;
+            for (int out = 0; out < outSize[node]; ++out) {
+                int edgeOut = outEdges[node][out];
+                int to = edgeTo[edgeOut];
+                if (!contracted[to] && to != from)
+                    maxWeight = Math.max(maxWeight, edgeWeight[edgeIn] + edgeWeight[edgeOut]);
+            }
+            if (maxWeight < 0)
+                continue;
+            witnessSearch(from, node, maxWeight);
+            for (int out = 0; out < outSize[node]; ++out) {
+                int edgeOut = outEdges[node][out];
+                int to = edgeTo[edgeOut];
+                if (contracted[to] || to == from)
+                    continue;
+                double weight = edgeWeight[edgeIn] + edgeWeight[edgeOut];
+                if (reached[to] == epoch && dist[to] <= weight)
+                    continue;
+                ++shortcuts;
+                if (!simulate)
+                    addOrImprove(from, to, weight, edgeIn, edgeOut);
+            }
+        }
+        return shortcuts;
+    }
+
+    /** bounded Dijkstra search from source in the remaining graph that avoids the node via */
+    private void witnessSearch(int source, int via, double maxWeight) {
+        ++epoch;
+        heapSize = 0;
+        dist[source] = 0;
+        reached[source] = epoch;
+        push(0, source);
+        int settled = 0;
+        while (0 < heapSize && settled < MAX_SETTLED) {
+            double key = heapKey[0];
+            int node = pop();
+            if (dist[node] < key)
+                continue;
+            if (maxWeight < key)
+                break;
+            ++settled;
+            for (int index = 0; index < outSize[node]; ++index) {
+                int edge = outEdges[node][index];
+                int next = edgeTo[edge];
+                if (next == via || contracted[next])
+                    continue;
+                double weight = key + edgeWeight[edge];
+                if (reached[next] != epoch || weight < dist[next]) {
+                    reached[next] = epoch;
+                    dist[next] = weight;
+                    push(weight, next);
+                }
+            }
+        }
+    }
+
+    /** inserts the edge or lowers the weight of an existing edge between the same nodes,
+     * an existing edge between two uncontracted nodes is not yet part of any shortcut and may be modified */
+    private void addOrImprove(int from, int to, double weight, int lowerA, int lowerB) {
+        for (int index = 0; index < outSize[from]; ++index) {
+            int edge = outEdges[from][index];
+            if (edgeTo[edge] == to) {
+                if (weight < edgeWeight[edge]) {
+                    edgeWeight[edge] = weight;
+                    edgeLowerA[edge] = lowerA;
+                    edgeLowerB[edge] = lowerB;
+                }
+                return;
+            }
+        }
+        if (numEdges == edgeFrom.length) {
+            int length = numEdges << 1;
+            edgeFrom = Arrays.copyOf(edgeFrom, length);
+            edgeTo = Arrays.copyOf(edgeTo, length);
+            edgeLowerA = Arrays.copyOf(edgeLowerA, length);
+            edgeLowerB = Arrays.copyOf(edgeLowerB, length);
+            edgeWeight = Arrays.copyOf(edgeWeight, length);
+        }
+        int edge = numEdges++;
+        edgeFrom[edge] = from;
+        edgeTo[edge] = to;
+        edgeWeight[edge] = weight;
+        edgeLowerA[edge] = lowerA;
+        edgeLowerB[edge] = lowerB;
+        if (outSize[from] == outEdges[from].length)
+            outEdges[from] = Arrays.copyOf(outEdges[from], outSize[from] << 1);
+        outEdges[from][outSize[from]++] = edge;
+        if (inSize[to] == inEdges[to].length)
+            inEdges[to] = Arrays.copyOf(inEdges[to], inSize[to] << 1);
+        inEdges[to][inSize[to]++] = edge;
+    }
+
+    private ContractionHierarchy build(int[] order) {
+        int[] rank = new int[numNodes];
+        for (int index = 0; index < numNodes; ++index)
+            rank[order[index]] = index;
+        /** upward edges are searched from the source, downward edges in reverse direction from the target */
+        int[] upOffsets = new int[numNodes + 1];
+        int[] downOffsets = new int[numNodes + 1];
+        for (int edge = 0; edge < numEdges; ++edge)
+            if (rank[edgeFrom[edge]] < rank[edgeTo[edge]])
+                ++upOffsets[edgeFrom[edge] + 1];
+            else
+                ++downOffsets[edgeTo[edge] + 1];
+        for (int node = 0; node < numNodes; ++node) {
+            upOffsets[node + 1] += upOffsets[node];
+            downOffsets[node + 1] += downOffsets[node];
+        }
+        int[] upEdges = new int[upOffsets[numNodes]];
+        int[] downEdges = new int[downOffsets[numNodes]];
+        int[] upFill = Arrays.copyOf(upOffsets, numNodes);
+        int[] downFill = Arrays.copyOf(downOffsets, numNodes);
+        for (int edge = 0; edge < numEdges; ++edge)
+            if (rank[edgeFrom[edge]] < rank[edgeTo[edge]])
+                upEdges[upFill[edgeFrom[edge]]++] = edge;
+            else
+                downEdges[downFill[edgeTo[edge]]++] = edge;
+        return new ContractionHierarchy(graph, order.clone(), //
+                Arrays.copyOf(edgeFrom, numEdges), Arrays.copyOf(edgeTo, numEdges), Arrays.copyOf(edgeWeight, numEdges), //
+                Arrays.copyOf(edgeLowerA, numEdges), Arrays.copyOf(edgeLowerB, numEdges), //
+                upOffsets, upEdges, downOffsets, downEdges);
+    }
+
+    private void push(double key, int node) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize << 1);
+            heapNode = Arrays.copyOf(heapNode, heapSize << 1);
+        }
+        heapKey[heapSize] = key;
+        heapNode[heapSize] = node;
+        heapSize = siftUp(heapKey, heapNode, heapSize);
+    }
+
+    private int pop() {
+        int node = heapNode[0];
+        heapSize = removeTop(heapKey, heapNode, heapSize);
+        return node;
+    }
+
+    /** restores the heap property after an element was placed at position size
+     *
+     * @return new size of heap */
+    private static int siftUp(double[] keys, int[] nodes, int size) {
+        double key = keys[size];
+        int node = nodes[size];
+        int index = size;
+        while (0 < index) {
+            int parent = (index - 1) >> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[index] = keys[parent];
+            nodes[index] = nodes[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        nodes[index] = node;
+        return size + 1;
+    }
+
+    /** @return new size of heap after removal of the top element */
+    private static int removeTop(double[] keys, int[] nodes, int size) {
+        --size;
+        double key = keys[size];
+        int node = nodes[size];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (size <= child)
+                break;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                ++child;
+            if (key <= keys[child])
+                break;
+            keys[index] = keys[child];
+            nodes[index] = nodes[child];
+            index = child;
+        }
+        keys[index] = key;
+        nodes[index] = node;
+        return size;
+    }
+}
@@ -0,0 +1,69 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Node;
+
+/** stores the node order of a {@link ContractionHierarchy}, which is the expensive and metric-independent part of the
+ * preprocessing, next to the network. The nodes are identified by their ids such that the file remains valid if the
+ * network is loaded again. A hierarchy for the current metric is obtained with {@link ContractionHierarchy#create(NetworkGraph, int[], java.util.function.ToDoubleFunction)}.
+ *
+ * format: magic number, version, number of nodes, node ids in order of contraction */
+public enum ContractionHierarchyIO {
+    ;
+    private static final int MAGIC = 0x414D4348; // "AMCH"
+    private static final int VERSION = 1;
+
+    /** @param file to save at
+     * @param contractionHierarchy
+     * @throws IOException */
+    public static void toFile(File file, ContractionHierarchy contractionHierarchy) throws IOException {
+        NetworkGraph graph = contractionHierarchy.graph();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeInt(VERSION);
+            dataOutputStream.writeInt(graph.numNodes());
+            for (int node : contractionHierarchy.order())
+                dataOutputStream.writeUTF(graph.node(node).getId().toString());
+        }
+    }
+
+    /** @param file
+     * @param graph of the network for which the order was computed
+     * @return order of contraction as node indices of graph
+     * @throws IOException if the file is corrupt or does not match the graph */
+    public static int[] orderFromFile(File file, NetworkGraph graph) throws IOException {
+        try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dataInputStream.readInt() != MAGIC)
+                throw new IOException("not a contraction hierarchy file: " + file);
+            int version = dataInputStream.readInt();
+            if (version != VERSION)
+                throw new IOException("unsupported version " + version + " of " + file);
+            int numNodes = dataInputStream.readInt();
+            if (numNodes != graph.numNodes())
+                throw new IOException(file + " has " + numNodes + " nodes, network has " + graph.numNodes());
+            int[] order = new int[numNodes];
+            boolean[] seen = new boolean[numNodes];
+            for (int index = 0; index < numNodes; ++index) {
+                Id<Node> id = Id.createNodeId(dataInputStream.readUTF());
+                if (!graph.contains(id))
+                    throw new IOException("node " + id + " of " + file + " not in network");
+                int node = graph.indexOf(id);
+                if (seen[node])
+                    throw new IOException("node " + id + " repeated in " + file);
+                seen[node] = true;
+                order[index] = node;
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+/** bidirectional upward search in a {@link ContractionHierarchy}. The hierarchy is selected by the departure
+ * time, the travel time and cost of the resulting {@link Path} are evaluated along the unpacked path with the
+ * time-dependent {@link TravelTime} and {@link TravelDisutility}. As for the MATSim routers, null is returned
+ * if there is no path.
+ *
+ * The search state is reused between queries, an instance must not be shared between threads. */
+public class ContractionHierarchyPathCalculator implements LeastCostPathCalculator {
+    private final DoubleFunction<ContractionHierarchy> hierarchies;
+    private final TravelDisutility travelDisutility;
+    private final TravelTime travelTime;
+    private final Search forward;
+    private final Search backward;
+
+    /** @param hierarchies function from departure time to {@link ContractionHierarchy}, all for the same {@link NetworkGraph}
+     * @param numNodes of the {@link NetworkGraph}
+     * @param travelDisutility
+     * @param travelTime */
+    public ContractionHierarchyPathCalculator(DoubleFunction<ContractionHierarchy> hierarchies, int numNodes, //
+            TravelDisutility travelDisutility, TravelTime travelTime) {
+        this.hierarchies = hierarchies;
+        this.travelDisutility = travelDisutility;
+        this.travelTime = travelTime;
+        forward = new Search(numNodes);
+        backward = new Search(numNodes);
+    }
+
+    @Override // from LeastCostPathCalculator
+    public Path calcLeastCostPath(Node fromNode, Node toNode, double starttime, Person person, Vehicle vehicle) {
+        ContractionHierarchy hierarchy = hierarchies.apply(starttime);
+        NetworkGraph graph = hierarchy.graph();
+        int source = graph.indexOf(fromNode);
+        int target = graph.indexOf(toNode);
+        if (source == target)
+            return new Path(Collections.singletonList(fromNode), Collections.emptyList(), 0.0, 0.0);
+        forward.reset(source);
+        backward.reset(target);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while (true) {
+            double minForward = forward.minKey();
+            double minBackward = backward.minKey();
+            if (best <= Math.min(minForward, minBackward))
+                break;
+            boolean isForward = minForward <= minBackward;
+            Search search = isForward ? forward : backward;
+            Search other = isForward ? backward : forward;
+            int node = search.pop();
+            if (node < 0)
+                continue;
+            if (other.isReached(node) && search.dist[node] + other.dist[node] < best) {
+                best = search.dist[node] + other.dist[node];
+                meet = node;
+            }
+            int begin = isForward ? hierarchy.upBegin(node) : hierarchy.downBegin(node);
+            int end = isForward ? hierarchy.upEnd(node) : hierarchy.downEnd(node);
+            for (int index = begin; index < end; ++index) {
+                int edge = isForward ? hierarchy.upEdge(index) : hierarchy.downEdge(index);
+                int next = isForward ? hierarchy.edgeTo(edge) : hierarchy.edgeFrom(edge);
+                search.relax(next, search.dist[node] + hierarchy.edgeWeight(edge), edge);
+            }
+        }
+        if (meet < 0)
+            return null;
+        /** collect edges from source to meeting node and from meeting node to target */
+        List<Integer> edges = new ArrayList<>();
+        for (int node = meet; node != source; node = hierarchy.edgeFrom(forward.pred[node]))
+            edges.add(forward.pred[node]);
+        Collections.reverse(edges);
+        for (int node = meet; node != target; node = hierarchy.edgeTo(backward.pred[node]))
+            edges.add(backward.pred[node]);
+        List<Link> links = new ArrayList<>();
+        for (int edge : edges)
+            hierarchy.unpack(edge, links);
+        return evaluate(fromNode, links, starttime, person, vehicle);
+    }
+
+    private Path evaluate(Node fromNode, List<Link> links, double starttime, Person person, Vehicle vehicle) {
+        List<Node> nodes = new ArrayList<>(links.size() + 1);
+        nodes.add(fromNode);
+        double time = starttime;
+        double cost = 0.0;
+        for (Link link : links) {
+            cost += travelDisutility.getLinkTravelDisutility(link, time, person, vehicle);
+            time += travelTime.getLinkTravelTime(link, time, person, vehicle);
+            nodes.add(link.getToNode());
+        }
+        return new Path(nodes, links, time - starttime, cost);
+    }
+
+    /** state of a unidirectional Dijkstra search with lazy deletion */
+    private static class Search {
+        private final double[] dist;
+        private final int[] pred;
+        private final int[] reached;
+        private int epoch = 0;
+        private double[] heapKey = new double[64];
+        private int[] heapNode = new int[64];
+        private int heapSize = 0;
+
+        Search(int numNodes) {
+            dist = new double[numNodes];
+            pred = new int[numNodes];
+            reached = new int[numNodes];
+        }
+
+        void reset(int source) {
+            ++epoch;
+            heapSize = 0;
+            reached[source] = epoch;
+            dist[source] = 0;
+            pred[source] = -1;
+            push(0, source);
+        }
+
+        boolean isReached(int node) {
+            return reached[node] == epoch;
+        }
+
+        double minKey() {
+            return 0 < heapSize ? heapKey[0] : Double.POSITIVE_INFINITY;
+        }
+
+        void relax(int node, double weight, int edge) {
+            if (!isReached(node) || weight < dist[node]) {
+                reached[node] = epoch;
+                dist[node] = weight;
+                pred[node] = edge;
+                push(weight, node);
+            }
+        }
+
+        /** @return node with minimal key or -1 if the entry was outdated */
+        int pop() {
+            double top = heapKey[0];
+            int result = heapNode[0];
+            double key = heapKey[--heapSize];
+            int node = heapNode[heapSize];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (heapSize <= child)
+                    break;
+                if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child])
+                    ++child;
+                if (key <= heapKey[child])
+                    break;
+                heapKey[index] = heapKey[child];
+                heapNode[index] = heapNode[child];
+                index = child;
+            }
+            heapKey[index] = key;
+            heapNode[index] = node;
+            return dist[result] < top ? -1 : result;
+        }
+
+        private void push(double key, int node) {
+            if (heapSize == heapKey.length) {
+                heapKey = Arrays.copyOf(heapKey, heapSize << 1);
+                heapNode = Arrays.copyOf(heapNode, heapSize << 1);
+            }
+            int index = heapSize++;
+            while (0 < index) {
+                int parent = (index - 1) >> 1;
+                if (heapKey[parent] <= key)
+                    break;
+                heapKey[index] = heapKey[parent];
+                heapNode[index] = heapNode[parent];
+                index = parent;
+            }
+            heapKey[index] = key;
+            heapNode[index] = node;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.matsim.amodeus.components.AmodeusRouter;
+import org.matsim.amodeus.config.AmodeusModeConfig;
+import org.matsim.amodeus.plpc.DefaultParallelLeastCostPathCalculator;
+import org.matsim.amodeus.plpc.ParallelLeastCostPathCalculator;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.dvrp.run.ModalProviders.InstanceGetter;
+import org.matsim.core.config.groups.GlobalConfigGroup;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+import amodeus.amodeus.util.io.MultiFileTools;
+import amodeus.amodeus.util.matsim.SafeConfig;
+
+/** The ContractionHierarchyRouter answers queries with a bidirectional search in a {@link ContractionHierarchy}.
+ * The day is divided into time slices, for each slice the hierarchy is customized with the travel disutility at the
+ * center of the slice. All slices share the node order, which is computed once and optionally stored in a file next
+ * to the network. At the beginning of every iteration the slices are customized again such that changes of the
+ * {@link TravelTime} between iterations are taken into account.
+ *
+ * Parameters in the router config group:
+ * hierarchyFile: file with the node order, loaded if it exists, otherwise written after preprocessing
+ * sliceDuration: duration of a time slice in seconds, 0 for a single hierarchy customized at time 0
+ * endTime: end of the last time slice in seconds */
+public class ContractionHierarchyRouter implements AmodeusRouter, IterationStartsListener {
+    private final NetworkGraph graph;
+    private final TravelDisutility travelDisutility;
+    private final double sliceDuration;
+    private final int numSlices;
+    private final ParallelLeastCostPathCalculator delegate;
+    private int[] order;
+    private volatile ContractionHierarchy[] slices;
+    private boolean isCustomized;
+
+    /** @param graph of the network
+     * @param travelTime
+     * @param order of contraction or null if the order is to be computed
+     * @param sliceDuration in seconds, 0 for a single time slice
+     * @param endTime of the last time slice
+     * @param numberOfThreads */
+    public ContractionHierarchyRouter(NetworkGraph graph, TravelTime travelTime, int[] order, double sliceDuration, double endTime, int numberOfThreads) {
+        this.graph = graph;
+        travelDisutility = new OnlyTimeDependentTravelDisutilityFixed(travelTime);
+        this.sliceDuration = sliceDuration;
+        numSlices = 0 < sliceDuration ? Math.max(1, (int) Math.ceil(endTime / sliceDuration)) : 1;
+        this.order = order;
+        customize();
+        List<LeastCostPathCalculator> calculators = new ArrayList<>();
+        for (int count = 0; count < numberOfThreads; ++count)
+            calculators.add(new ContractionHierarchyPathCalculator(this::slice, graph.numNodes(), travelDisutility, travelTime));
+        delegate = new DefaultParallelLeastCostPathCalculator(calculators);
+    }
+
+    /** contracts the network for the current travel disutility in every time slice */
+    public void customize() {
+        ContractionHierarchy[] slices = new ContractionHierarchy[numSlices];
+        for (int slice = 0; slice < numSlices; ++slice) {
+            double time = 0 < sliceDuration ? (slice + 0.5) * sliceDuration : 0.0;
+            if (order == null) {
+                slices[slice] = ContractionHierarchy.create(graph, link -> travelDisutility.getLinkTravelDisutility(link, time, null, null));
+                order = slices[slice].order();
+            } else
+                slices[slice] = ContractionHierarchy.create(graph, order, link -> travelDisutility.getLinkTravelDisutility(link, time, null, null));
+        }
+        this.slices = slices;
+        isCustomized = true;
+    }
+
+    private ContractionHierarchy slice(double time) {
+        ContractionHierarchy[] slices = this.slices;
+        int slice = 0 < sliceDuration ? (int) (time / sliceDuration) : 0;
+        return slices[Math.max(0, Math.min(slices.length - 1, slice))];
+    }
+
+    /** @return hierarchy of the first time slice */
+    public ContractionHierarchy getContractionHierarchy() {
+        return slices[0];
+    }
+
+    @Override // from IterationStartsListener
+    public void notifyIterationStarts(IterationStartsEvent event) {
+        /** the hierarchy is not customized again if it was just built */
+        if (!isCustomized)
+            customize();
+        isCustomized = false;
+    }
+
+    @Override
+    public Future<Path> calcLeastCostPath(Node fromNode, Node toNode, double starttime, Person person, Vehicle vehicle) {
+        return delegate.calcLeastCostPath(fromNode, toNode, starttime, person, vehicle);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    public static class Factory implements AmodeusRouter.Factory {
+        @Override
+        public AmodeusRouter createRouter(InstanceGetter inject) {
+            TravelTime travelTime = inject.getModal(TravelTime.class);
+            GlobalConfigGroup config = inject.get(GlobalConfigGroup.class);
+            Network network = inject.getModal(Network.class);
+            SafeConfig safeConfig = SafeConfig.wrap(inject.getModal(AmodeusModeConfig.class).getRouterConfig());
+            String hierarchyFileName = safeConfig.getString("hierarchyFile", "");
+            double sliceDuration = safeConfig.getDouble("sliceDuration", 0.0);
+            double endTime = safeConfig.getDouble("endTime", 30 * 3600.0);
+
+            File hierarchyFile = hierarchyFileName.isEmpty() ? null //
+                    : new File(MultiFileTools.getDefaultWorkingDirectory(), hierarchyFileName);
+            int[] order = null;
+            NetworkGraph graph = new NetworkGraph(network);
+            if (hierarchyFile != null && hierarchyFile.isFile())
+                try {
+                    order = ContractionHierarchyIO.orderFromFile(hierarchyFile, graph);
+                } catch (IOException exception) {
+                    System.err.println("contraction hierarchy is computed again: " + exception.getMessage());
+                }
+
+            ContractionHierarchyRouter router = new ContractionHierarchyRouter(graph, travelTime, order, sliceDuration, endTime, config.getNumberOfThreads());
+            if (hierarchyFile != null && order == null)
+                try {
+                    ContractionHierarchyIO.toFile(hierarchyFile, router.getContractionHierarchy());
+                } catch (IOException exception) {
+                    throw new RuntimeException(exception);
+                }
+            inject.get(MatsimServices.class).addControlerListener(router);
+            return router;
+        }
+    }
+}
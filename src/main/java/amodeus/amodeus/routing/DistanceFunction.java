@@ -20,4 +20,16 @@ public interface DistanceFunction {
     /** @return distance between the {@link Link} @param from and the {@link Link}
      * @param to */
     double getDistance(Link from, Link to);
+
+    /** The default implementation queries the pairs one at a time, network based implementations
+     * answer the whole row with a single search.
+     * 
+     * @return distances from the {@link Link} @param from to each of the @param links in the same order,
+     *         equal to {@link #getDistance(Link, Link)} */
+    default double[] getDistances(Link from, Link[] links) {
+        double[] distances = new double[links.length];
+        for (int index = 0; index < links.length; ++index)
+            distances[index] = getDistance(from, links[index]);
+        return distances;
+    }
 }
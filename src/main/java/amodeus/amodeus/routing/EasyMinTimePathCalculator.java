@@ -13,24 +13,31 @@ import org.matsim.vehicles.Vehicle;
 public enum EasyMinTimePathCalculator {
     ;
 
+    private static final TravelDisutility TRAVEL_DISUTILITY = new TravelDisutility() {
+        @Override
+        public double getLinkTravelDisutility(Link link, double time, Person person, Vehicle vehicle) {
+            return getLinkMinimumTravelDisutility(link);
+        }
+
+        @Override
+        public double getLinkMinimumTravelDisutility(Link link) {
+            return link.getLength() / link.getFreespeed();
+        }
+    };
+    private static final TravelTime TRAVEL_TIME = new TravelTime() {
+        @Override
+        public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+            return link.getLength() / link.getFreespeed();
+        }
+    };
+
     public static LeastCostPathCalculator prepPathCalculator(Network network, LeastCostPathCalculatorFactory calcFactory) {
-        TravelDisutility travelDisutility = new TravelDisutility() {
-            @Override
-            public double getLinkTravelDisutility(Link link, double time, Person person, Vehicle vehicle) {
-                return getLinkMinimumTravelDisutility(link);
-            }
+        return calcFactory.createPathCalculator(network, TRAVEL_DISUTILITY, TRAVEL_TIME);
+    }
 
-            @Override
-            public double getLinkMinimumTravelDisutility(Link link) {
-                return link.getLength() / link.getFreespeed();
-            }
-        };
-        TravelTime travelTime = new TravelTime() {
-            @Override
-            public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
-                return link.getLength() / link.getFreespeed();
-            }
-        };
-        return calcFactory.createPathCalculator(network, travelDisutility, travelTime);
+    /** @return {@link MultiTargetTimeDistance} in the @param network whose paths minimize the travel time */
+    public static MultiTargetTimeDistance prepMultiTarget(Network network) {
+        return new MultiTargetTimeDistance(network, TRAVEL_DISUTILITY, TRAVEL_TIME);
     }
+
 }
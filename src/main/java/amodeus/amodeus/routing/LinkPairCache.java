@@ -0,0 +1,152 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.Arrays;
+
+import org.matsim.api.core.v01.network.Link;
+
+/** A {@link LinkPairCache} stores a fixed number of double values for pairs of {@link Link}s keyed
+ * on the {@link Link} indices. Entries that were inserted more than maxLag ago are evicted. Entries
+ * are grouped by their insertion time into buckets which are kept in a ring buffer, eviction
+ * removes whole buckets and happens once per time step instead of once per lookup.
+ *
+ * The class is not thread-safe. */
+public class LinkPairCache {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LinkPairTable table;
+    private final double maxLag;
+    /** ring buffer of time buckets */
+    private double[] bucketTimes = new double[16];
+    private long[][] bucketKeys = new long[16][];
+    private int[] bucketSizes = new int[16];
+    private int head = 0;
+    private int count = 0;
+    // ---
+    private double now = 0.0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /** @param width number of double values stored per pair of {@link Link}s
+     * @param maxLag time after which an entry is evicted */
+    public LinkPairCache(int width, double maxLag) {
+        table = new LinkPairTable(width, INITIAL_CAPACITY);
+        this.maxLag = maxLag;
+    }
+
+    /** removes all entries that were inserted more than maxLag before @param now,
+     * calling the function repeatedly with the same time is cheap */
+    public void update(double now) {
+        if (this.now == now)
+            return;
+        this.now = now;
+        while (0 < count && bucketTimes[head] < now - maxLag) {
+            long[] keys = bucketKeys[head];
+            for (int index = 0; index < bucketSizes[head]; ++index)
+                if (table.remove(keys[index]))
+                    ++evictions;
+            bucketSizes[head] = 0;
+            head = (head + 1) % bucketTimes.length;
+            --count;
+        }
+    }
+
+    /** @param from
+     * @param to
+     * @return slot of the cached values for the given pair or -1 if the pair is not cached,
+     *         the slot is valid until the next call to {@link #insert(Link, Link)} or {@link #update(double)} */
+    public int find(Link from, Link to) {
+        int slot = table.slotOf(key(from, to));
+        if (slot < 0)
+            ++misses;
+        else
+            ++hits;
+        return slot;
+    }
+
+    /** @param from
+     * @param to
+     * @return slot of the values for the given pair, to be filled with {@link #set(int, int, double)},
+     *         the insertion time of the pair is the time of the last call to {@link #update(double)} */
+    public int insert(Link from, Link to) {
+        long key = key(from, to);
+        int size = table.size();
+        int slot = table.insert(key);
+        if (size < table.size())
+            addToBucket(key);
+        return slot;
+    }
+
+    public double value(int slot, int component) {
+        return table.value(slot, component);
+    }
+
+    public void set(int slot, int component, double value) {
+        table.set(slot, component, value);
+    }
+
+    private void addToBucket(long key) {
+        int tail = (head + count - 1 + bucketTimes.length) % bucketTimes.length;
+        if (count == 0 || bucketTimes[tail] != now) {
+            if (count == bucketTimes.length)
+                growRing();
+            tail = (head + count) % bucketTimes.length;
+            bucketTimes[tail] = now;
+            bucketSizes[tail] = 0;
+            if (bucketKeys[tail] == null)
+                bucketKeys[tail] = new long[64];
+            ++count;
+        }
+        if (bucketSizes[tail] == bucketKeys[tail].length)
+            bucketKeys[tail] = Arrays.copyOf(bucketKeys[tail], bucketKeys[tail].length << 1);
+        bucketKeys[tail][bucketSizes[tail]++] = key;
+    }
+
+    private void growRing() {
+        int length = bucketTimes.length;
+        double[] times = new double[length << 1];
+        long[][] keys = new long[length << 1][];
+        int[] sizes = new int[length << 1];
+        for (int index = 0; index < count; ++index) {
+            int source = (head + index) % length;
+            times[index] = bucketTimes[source];
+            keys[index] = bucketKeys[source];
+            sizes[index] = bucketSizes[source];
+        }
+        bucketTimes = times;
+        bucketKeys = keys;
+        bucketSizes = sizes;
+        head = 0;
+    }
+
+    private static long key(Link from, Link to) {
+        return LinkPairTable.key(from.getId().index(), to.getId().index());
+    }
+
+    public boolean checkTime(double now) {
+        return this.now == now;
+    }
+
+    /** @return number of pairs currently cached */
+    public int size() {
+        return table.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size=%d hits=%d misses=%d evictions=%d", size(), hits, misses, evictions);
+    }
+}
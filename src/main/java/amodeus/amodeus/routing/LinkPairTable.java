@@ -0,0 +1,136 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.Arrays;
+
+/** open-addressing hash table that maps a pair of link indices, packed into a single long,
+ * to a fixed number of double values. Collisions are resolved by linear probing, removals
+ * use backward-shift deletion so that no tombstones accumulate. */
+/* package */ class LinkPairTable {
+    private static final long EMPTY = -1L;
+    private static final int MIN_CAPACITY = 16;
+
+    /** @param fromIndex non-negative index of origin link
+     * @param toIndex non-negative index of destination link
+     * @return key that uniquely identifies the pair */
+    public static long key(int fromIndex, int toIndex) {
+        return ((long) fromIndex << 32) | (toIndex & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // ---
+    private final int width;
+    private long[] keys;
+    private double[] values;
+    private int mask;
+    private int size = 0;
+
+    /** @param width number of double values stored per key
+     * @param initialCapacity */
+    public LinkPairTable(int width, int initialCapacity) {
+        if (width < 1)
+            throw new IllegalArgumentException("width=" + width);
+        this.width = width;
+        allocate(Integer.highestOneBit(Math.max(MIN_CAPACITY, initialCapacity - 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new double[capacity * width];
+        mask = capacity - 1;
+    }
+
+    /** @return slot of given key or -1 if key is not contained in table, the slot is valid until the next call to
+     *         {@link #insert(long)} or {@link #remove(long)} */
+    public int slotOf(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            long stored = keys[slot];
+            if (stored == key)
+                return slot;
+            if (stored == EMPTY)
+                return -1;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public double value(int slot, int component) {
+        return values[slot * width + component];
+    }
+
+    public void set(int slot, int component, double value) {
+        values[slot * width + component] = value;
+    }
+
+    /** @param key
+     * @return slot of the given key, the key is added to the table if not contained already */
+    public int insert(long key) {
+        if (key == EMPTY)
+            throw new IllegalArgumentException("key=" + key);
+        if (2 * (size + 1) > keys.length)
+            rehash(keys.length << 1);
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return slot;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        ++size;
+        return slot;
+    }
+
+    /** @param key
+     * @return true if the key was contained in the table */
+    public boolean remove(long key) {
+        int gap = slotOf(key);
+        if (gap < 0)
+            return false;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = hash(keys[next]) & mask;
+            /** entry at next may move into the gap if the gap lies between its ideal slot and next */
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                System.arraycopy(values, next * width, values, gap * width, width);
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        --size;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+        for (int index = 0; index < oldKeys.length; ++index)
+            if (oldKeys[index] != EMPTY) {
+                int slot = hash(oldKeys[index]) & mask;
+                while (keys[slot] != EMPTY)
+                    slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[index];
+                System.arraycopy(oldValues, index * width, values, slot * width, width);
+            }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int width() {
+        return width;
+    }
+}
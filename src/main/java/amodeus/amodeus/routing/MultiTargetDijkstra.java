@@ -0,0 +1,142 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.Arrays;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+
+/** Dijkstra search from a single source node that terminates as soon as all target nodes are settled.
+ * The costs, arrival times and path lengths of all settled nodes are available after the search.
+ * Link travel times and disutilities are evaluated at the time of arrival at the from node of the link,
+ * identical to the time-dependent MATSim Dijkstra.
+ *
+ * The search state is reused between queries, an instance must not be shared between threads. */
+/* package */ class MultiTargetDijkstra {
+    private final NetworkGraph graph;
+    private final TravelDisutility travelDisutility;
+    private final TravelTime travelTime;
+    // ---
+    private final double[] cost;
+    private final double[] time;
+    private final double[] length;
+    private final int[] reached;
+    private final int[] settled;
+    private final int[] target;
+    private int epoch = 0;
+    // --- binary heap with lazy deletion
+    private double[] heapKey = new double[64];
+    private int[] heapNode = new int[64];
+    private int heapSize = 0;
+
+    public MultiTargetDijkstra(NetworkGraph graph, TravelDisutility travelDisutility, TravelTime travelTime) {
+        this.graph = graph;
+        this.travelDisutility = travelDisutility;
+        this.travelTime = travelTime;
+        int numNodes = graph.numNodes();
+        cost = new double[numNodes];
+        time = new double[numNodes];
+        length = new double[numNodes];
+        reached = new int[numNodes];
+        settled = new int[numNodes];
+        target = new int[numNodes];
+    }
+
+    /** @param source node index
+     * @param startTime departure time at source node
+     * @param targets node indices, the search stops once all of them are settled */
+    public void search(int source, double startTime, int[] targets) {
+        ++epoch;
+        heapSize = 0;
+        int remaining = 0;
+        for (int node : targets)
+            if (target[node] != epoch) {
+                target[node] = epoch;
+                ++remaining;
+            }
+        cost[source] = 0;
+        time[source] = startTime;
+        length[source] = 0;
+        reached[source] = epoch;
+        push(0, source);
+        while (0 < heapSize && 0 < remaining) {
+            int node = pop();
+            if (settled[node] == epoch)
+                continue;
+            settled[node] = epoch;
+            if (target[node] == epoch)
+                --remaining;
+            for (int index = graph.outBegin(node); index < graph.outEnd(node); ++index) {
+                int next = graph.toNode(index);
+                if (settled[next] == epoch)
+                    continue;
+                Link link = graph.link(index);
+                double departure = time[node];
+                double nextCost = cost[node] + travelDisutility.getLinkTravelDisutility(link, departure, null, null);
+                if (reached[next] != epoch || nextCost < cost[next]) {
+                    reached[next] = epoch;
+                    cost[next] = nextCost;
+                    time[next] = departure + travelTime.getLinkTravelTime(link, departure, null, null);
+                    length[next] = length[node] + link.getLength();
+                    push(nextCost, next);
+                }
+            }
+        }
+    }
+
+    /** @return true if node was settled in the last search */
+    public boolean isSettled(int node) {
+        return settled[node] == epoch;
+    }
+
+    /** @return arrival time at node in the last search, {@link Double#POSITIVE_INFINITY} if the node was not settled */
+    public double arrivalTime(int node) {
+        return isSettled(node) ? time[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /** @return path length to node in the last search, {@link Double#POSITIVE_INFINITY} if the node was not settled */
+    public double length(int node) {
+        return isSettled(node) ? length[node] : Double.POSITIVE_INFINITY;
+    }
+
+    private void push(double key, int node) {
+        if (heapSize == heapKey.length) {
+            heapKey = Arrays.copyOf(heapKey, heapSize << 1);
+            heapNode = Arrays.copyOf(heapNode, heapSize << 1);
+        }
+        int index = heapSize++;
+        while (0 < index) {
+            int parent = (index - 1) >> 1;
+            if (heapKey[parent] <= key)
+                break;
+            heapKey[index] = heapKey[parent];
+            heapNode[index] = heapNode[parent];
+            index = parent;
+        }
+        heapKey[index] = key;
+        heapNode[index] = node;
+    }
+
+    private int pop() {
+        int result = heapNode[0];
+        double key = heapKey[--heapSize];
+        int node = heapNode[heapSize];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (heapSize <= child)
+                break;
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child])
+                ++child;
+            if (key <= heapKey[child])
+                break;
+            heapKey[index] = heapKey[child];
+            heapNode[index] = heapNode[child];
+            index = child;
+        }
+        heapKey[index] = key;
+        heapNode[index] = node;
+        return result;
+    }
+}
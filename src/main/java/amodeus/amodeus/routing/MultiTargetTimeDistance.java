@@ -0,0 +1,85 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+
+import amodeus.amodeus.util.math.SI;
+import ch.ethz.idsc.tensor.Scalar;
+import ch.ethz.idsc.tensor.qty.Quantity;
+import ch.ethz.idsc.tensor.qty.Unit;
+
+/** A {@link MultiTargetTimeDistance} answers the travel times and distances from one {@link Link} to
+ * a collection of {@link Link}s with a single Dijkstra search that stops once all targets are settled.
+ * The paths minimize the {@link TravelDisutility} and, as for the {@link PathProperty}, lead from the
+ * from node of the origin {@link Link} to the to node of the destination {@link Link}.
+ * 
+ * The class is not thread-safe. */
+public class MultiTargetTimeDistance implements NetworkTimeDistInterface {
+    protected final NetworkGraph graph;
+    protected final TravelDisutility travelDisutility;
+    protected final TravelTime travelTime;
+    private final MultiTargetDijkstra dijkstra;
+
+    public MultiTargetTimeDistance(Network network, TravelDisutility travelDisutility, TravelTime travelTime) {
+        this(new NetworkGraph(network), travelDisutility, travelTime);
+    }
+
+    public MultiTargetTimeDistance(NetworkGraph graph, TravelDisutility travelDisutility, TravelTime travelTime) {
+        this.graph = graph;
+        this.travelDisutility = travelDisutility;
+        this.travelTime = travelTime;
+        dijkstra = createDijkstra();
+    }
+
+    /* package */ final MultiTargetDijkstra createDijkstra() {
+        return new MultiTargetDijkstra(graph, travelDisutility, travelTime);
+    }
+
+    @Override // from NetworkTimeDistInterface
+    public Scalar travelTime(Link from, Link to, double now) {
+        return travelTimes(from, Collections.singleton(to), now).get(to);
+    }
+
+    @Override // from NetworkTimeDistInterface
+    public Scalar distance(Link from, Link to, double now) {
+        return distances(from, Collections.singleton(to), now).get(to);
+    }
+
+    @Override // from NetworkTimeDistInterface
+    public Map<Link, Scalar> travelTimes(Link from, Collection<Link> targets, double now) {
+        return travelTimes(dijkstra, from, targets, now);
+    }
+
+    @Override // from NetworkTimeDistInterface
+    public Map<Link, Scalar> distances(Link from, Collection<Link> targets, double now) {
+        return distances(dijkstra, from, targets, now);
+    }
+
+    /* package */ final Map<Link, Scalar> travelTimes(MultiTargetDijkstra dijkstra, Link from, Collection<Link> targets, double now) {
+        return row(dijkstra, from, targets, now, node -> dijkstra.arrivalTime(node) - now, SI.SECOND);
+    }
+
+    /* package */ final Map<Link, Scalar> distances(MultiTargetDijkstra dijkstra, Link from, Collection<Link> targets, double now) {
+        return row(dijkstra, from, targets, now, dijkstra::length, SI.METER);
+    }
+
+    private Map<Link, Scalar> row(MultiTargetDijkstra dijkstra, Link from, Collection<Link> targets, double now, //
+            IntToDoubleFunction value, Unit unit) {
+        int[] targetNodes = targets.stream().mapToInt(link -> graph.indexOf(link.getToNode())).toArray();
+        dijkstra.search(graph.indexOf(from.getFromNode()), now, targetNodes);
+        Map<Link, Scalar> map = new HashMap<>();
+        int index = 0;
+        for (Link to : targets)
+            map.put(to, Quantity.of(value.applyAsDouble(targetNodes[index++]), unit));
+        return map;
+    }
+}
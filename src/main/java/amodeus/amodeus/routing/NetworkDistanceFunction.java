@@ -1,6 +1,9 @@
 /* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.routing;
 
+import java.util.Arrays;
+import java.util.function.Supplier;
+
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.dvrp.passenger.PassengerRequest;
@@ -8,12 +11,21 @@ import org.matsim.core.router.util.LeastCostPathCalculator;
 
 import amodeus.amodeus.dispatcher.core.RoboTaxi;
 
+/** the distances may be queried concurrently, every thread uses its own {@link LeastCostPathCalculator}
+ * and its own {@link MultiTargetDijkstra} for the rows of {@link #getDistances(Link, Link[])} */
 /* package */ abstract class NetworkDistanceFunction implements DistanceFunction {
 
-    private final LeastCostPathCalculator leastCostPathCalculator;
+    private final ThreadLocal<LeastCostPathCalculator> leastCostPathCalculator;
+    private final NetworkGraph graph;
+    private final ThreadLocal<MultiTargetDijkstra> multiTargetDijkstra;
 
-    public NetworkDistanceFunction(LeastCostPathCalculator pathCalc) {
-        this.leastCostPathCalculator = pathCalc;
+    /** @param supplier of a new {@link LeastCostPathCalculator} for every thread
+     * @param multiTargetTimeDistance that minimizes the same disutility as the {@link LeastCostPathCalculator}s */
+    public NetworkDistanceFunction(Supplier<LeastCostPathCalculator> supplier, MultiTargetTimeDistance multiTargetTimeDistance) {
+        leastCostPathCalculator = ThreadLocal.withInitial(supplier);
+        leastCostPathCalculator.get(); // preprocessing of the network at construction
+        graph = multiTargetTimeDistance.graph;
+        multiTargetDijkstra = ThreadLocal.withInitial(multiTargetTimeDistance::createDijkstra);
     }
 
     @Override
@@ -37,6 +49,16 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
         return distNetwork(from, to);
     }
 
+    /** @return distances from the from node of @param from to the from nodes of the @param links,
+     *         computed with a single search */
+    @Override
+    public final double[] getDistances(Link from, Link[] links) {
+        int[] targets = Arrays.stream(links).mapToInt(link -> graph.indexOf(link.getFromNode())).toArray();
+        MultiTargetDijkstra dijkstra = multiTargetDijkstra.get();
+        dijkstra.search(graph.indexOf(from.getFromNode()), 0.0, targets);
+        return Arrays.stream(targets).mapToDouble(dijkstra::length).toArray();
+    }
+
     public final double getTravelTime(Link from, Link to) {
         return getTravelTime(from.getFromNode(), to.getFromNode()); // should this be to.getFromNode or to.getToNode?
     }
@@ -54,6 +76,6 @@ import amodeus.amodeus.dispatcher.core.RoboTaxi;
     private LeastCostPathCalculator.Path execPathCalculator(Node from, Node to) {
         // depending on implementation of traveldisutility and traveltime, starttime,
         // person and vehicle are needed
-        return PathProperty.fromTo(from, to, leastCostPathCalculator, 0.0);
+        return PathProperty.fromTo(from, to, leastCostPathCalculator.get(), 0.0);
     }
 }
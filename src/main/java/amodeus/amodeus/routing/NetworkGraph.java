@@ -0,0 +1,87 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+
+/** compact, array-based adjacency representation of a {@link Network}: the nodes are numbered
+ * consecutively and the outgoing {@link Link}s of every node are stored contiguously. The
+ * graph is immutable and may be shared between threads. */
+public class NetworkGraph {
+    private final Map<Id<Node>, Integer> nodeIndices = new HashMap<>();
+    private final Node[] nodes;
+    private final int[] outOffsets;
+    private final Link[] links;
+    private final int[] toNodes;
+
+    public NetworkGraph(Network network) {
+        nodes = network.getNodes().values().toArray(new Node[0]);
+        for (int index = 0; index < nodes.length; ++index)
+            nodeIndices.put(nodes[index].getId(), index);
+        outOffsets = new int[nodes.length + 1];
+        for (int index = 0; index < nodes.length; ++index)
+            outOffsets[index + 1] = outOffsets[index] + nodes[index].getOutLinks().size();
+        links = new Link[outOffsets[nodes.length]];
+        toNodes = new int[links.length];
+        for (int index = 0; index < nodes.length; ++index) {
+            int position = outOffsets[index];
+            for (Link link : nodes[index].getOutLinks().values()) {
+                links[position] = link;
+                toNodes[position] = nodeIndices.get(link.getToNode().getId());
+                ++position;
+            }
+        }
+    }
+
+    /** @return index of given {@link Node} in the graph */
+    public int indexOf(Node node) {
+        return indexOf(node.getId());
+    }
+
+    /** @return index of {@link Node} with given id in the graph */
+    public int indexOf(Id<Node> nodeId) {
+        return Objects.requireNonNull(nodeIndices.get(nodeId), () -> "node not in graph: " + nodeId);
+    }
+
+    public boolean contains(Id<Node> nodeId) {
+        return nodeIndices.containsKey(nodeId);
+    }
+
+    public Node node(int index) {
+        return nodes[index];
+    }
+
+    public int numNodes() {
+        return nodes.length;
+    }
+
+    public int numLinks() {
+        return links.length;
+    }
+
+    /** @return first position of the outgoing links of the node with given index */
+    public int outBegin(int node) {
+        return outOffsets[node];
+    }
+
+    /** @return position after the last outgoing link of the node with given index */
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    /** @return {@link Link} at given position */
+    public Link link(int position) {
+        return links[position];
+    }
+
+    /** @return index of the to node of the {@link Link} at given position */
+    public int toNode(int position) {
+        return toNodes[position];
+    }
+}
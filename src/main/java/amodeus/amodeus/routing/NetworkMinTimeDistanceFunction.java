@@ -8,6 +8,11 @@ import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 public class NetworkMinTimeDistanceFunction extends NetworkDistanceFunction {
 
     public NetworkMinTimeDistanceFunction(Network network, LeastCostPathCalculatorFactory calcFactory) {
-        super(EasyMinTimePathCalculator.prepPathCalculator(network, calcFactory));
+        super(() -> {
+            /** the factories cache the preprocessing of the network without synchronization */
+            synchronized (calcFactory) {
+                return EasyMinTimePathCalculator.prepPathCalculator(network, calcFactory);
+            }
+        }, EasyMinTimePathCalculator.prepMultiTarget(network));
     }
 }
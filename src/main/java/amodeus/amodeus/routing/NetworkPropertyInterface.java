@@ -4,7 +4,7 @@ package amodeus.amodeus.routing;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 
-/** A {@link NetworkPropertyInterface} is used in the {@link CachedNetworkPropertyComputation}
+/** A {@link NetworkPropertyInterface} is used in the {@link CachedNetworkTimeDistance}
  * to compute a property @param <T> of the network defined on a pair of {@link Link}s and a
  * time. The computation is done via a {@link LeastCostPathCalculator}. */
 /* package */ interface NetworkPropertyInterface<T> {
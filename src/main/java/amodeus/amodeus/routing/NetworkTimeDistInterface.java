@@ -1,6 +1,11 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.routing;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.matsim.api.core.v01.network.Link;
 
 import ch.ethz.idsc.tensor.Scalar;
@@ -20,4 +25,39 @@ public interface NetworkTimeDistInterface {
      * @return */
     Scalar distance(Link from, Link to, double now);
 
+    /** The default implementation queries the pairs one at a time, implementations such as
+     * {@link MultiTargetTimeDistance} answer the whole row with a single search.
+     * 
+     * @param from
+     * @param targets
+     * @param now
+     * @return {@link Map} from each of the @param targets to the travel time from @param from */
+    default Map<Link, Scalar> travelTimes(Link from, Collection<Link> targets, double now) {
+        Map<Link, Scalar> map = new HashMap<>();
+        for (Link to : targets)
+            map.put(to, travelTime(from, to, now));
+        return map;
+    }
+
+    /** @param from
+     * @param targets
+     * @param now
+     * @return {@link Map} from each of the @param targets to the distance from @param from */
+    default Map<Link, Scalar> distances(Link from, Collection<Link> targets, double now) {
+        Map<Link, Scalar> map = new HashMap<>();
+        for (Link to : targets)
+            map.put(to, distance(from, to, now));
+        return map;
+    }
+
+    /** @param origins
+     * @param targets
+     * @param now
+     * @return travel times from all @param origins to all @param targets, rows are indexed by the origins */
+    default Map<Link, Map<Link, Scalar>> travelTimes(Collection<Link> origins, Collection<Link> targets, double now) {
+        Map<Link, Map<Link, Scalar>> map = new LinkedHashMap<>();
+        for (Link from : origins)
+            map.computeIfAbsent(from, link -> travelTimes(link, targets, now));
+        return map;
+    }
 }
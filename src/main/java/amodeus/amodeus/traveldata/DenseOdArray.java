@@ -0,0 +1,36 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.traveldata;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** {@link DenseOdArray} stores all values in a single array in row-major (k,i,j) order */
+/* package */ class DenseOdArray implements OdArray {
+    private final double[] values;
+    private final int timeSteps;
+    private final int nodes;
+
+    /** @param values in row-major (k,i,j) order, not copied
+     * @param timeSteps
+     * @param nodes */
+    public DenseOdArray(double[] values, int timeSteps, int nodes) {
+        GlobalAssert.that(values.length == timeSteps * nodes * nodes);
+        this.values = values;
+        this.timeSteps = timeSteps;
+        this.nodes = nodes;
+    }
+
+    @Override // from OdArray
+    public int timeSteps() {
+        return timeSteps;
+    }
+
+    @Override // from OdArray
+    public int nodes() {
+        return nodes;
+    }
+
+    @Override // from OdArray
+    public double get(int k, int i, int j) {
+        return values[(k * nodes + i) * nodes + j];
+    }
+}
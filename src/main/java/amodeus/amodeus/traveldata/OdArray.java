@@ -0,0 +1,57 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.traveldata;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+import ch.ethz.idsc.tensor.Scalar;
+import ch.ethz.idsc.tensor.Tensor;
+import ch.ethz.idsc.tensor.Tensors;
+import ch.ethz.idsc.tensor.alg.Dimensions;
+
+/** {@link OdArray} stores a tensor (k,i,j) of dimension (timeSteps, nodes, nodes) of primitive values,
+ * e.g. the number of requests from virtual node i to j in time interval k. */
+/* package */ interface OdArray {
+    /** @param tensor of dimension (timeSteps, nodes, nodes)
+     * @return {@link SparseOdArray} if it requires less memory than {@link DenseOdArray}, else {@link DenseOdArray} */
+    static OdArray of(Tensor tensor) {
+        List<Integer> dimensions = Dimensions.of(tensor);
+        GlobalAssert.that(dimensions.size() == 3 && dimensions.get(1).equals(dimensions.get(2)));
+        int timeSteps = dimensions.get(0);
+        int nodes = dimensions.get(1);
+        double[] values = tensor.flatten(-1).map(Scalar.class::cast).mapToDouble(scalar -> scalar.number().doubleValue()).toArray();
+        return SparseOdArray.isPreferable(values, timeSteps, nodes) //
+                ? new SparseOdArray(values, timeSteps, nodes)
+                : new DenseOdArray(values, timeSteps, nodes);
+    }
+
+    /** @return number of time steps */
+    int timeSteps();
+
+    /** @return number of nodes */
+    int nodes();
+
+    /** @param k time step
+     * @param i from node
+     * @param j to node
+     * @return value at (k,i,j) */
+    double get(int k, int i, int j);
+
+    /** @param k time step
+     * @param factor
+     * @return new matrix (i,j) of the values at time step k multiplied with factor */
+    default Tensor slice(int k, double factor) {
+        double[][] matrix = new double[nodes()][nodes()];
+        for (int i = 0; i < nodes(); ++i)
+            for (int j = 0; j < nodes(); ++j)
+                matrix[i][j] = get(k, i, j) * factor;
+        return Tensors.matrixDouble(matrix);
+    }
+
+    /** @param factor
+     * @return new tensor (k,i,j) of all values multiplied with factor */
+    default Tensor toTensor(double factor) {
+        return Tensor.of(IntStream.range(0, timeSteps()).mapToObj(k -> slice(k, factor)));
+    }
+}
@@ -0,0 +1,89 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.traveldata;
+
+import java.util.Arrays;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+import ch.ethz.idsc.tensor.Tensor;
+import ch.ethz.idsc.tensor.Tensors;
+
+/** {@link SparseOdArray} stores only the non-zero values in compressed rows: the row (k,i) holds the
+ * destinations columns[rowStart[k * nodes + i]] ... columns[rowStart[k * nodes + i + 1] - 1] in ascending
+ * order together with the corresponding values.
+ *
+ * Suited for virtual networks with many nodes in which most origin-destination pairs are zero. */
+/* package */ class SparseOdArray implements OdArray {
+    /** @return true if the non-zero values of given dense array require less memory in the sparse form */
+    public static boolean isPreferable(double[] values, int timeSteps, int nodes) {
+        long nonZeros = Arrays.stream(values).filter(value -> value != 0).count();
+        long sparseBytes = 4L * (timeSteps * nodes + 1) + 12L * nonZeros;
+        long denseBytes = 8L * values.length;
+        return sparseBytes < denseBytes;
+    }
+
+    // ---
+    private final int[] rowStart;
+    private final int[] columns;
+    private final double[] values;
+    private final int timeSteps;
+    private final int nodes;
+
+    /** @param dense values in row-major (k,i,j) order
+     * @param timeSteps
+     * @param nodes */
+    public SparseOdArray(double[] dense, int timeSteps, int nodes) {
+        GlobalAssert.that(dense.length == timeSteps * nodes * nodes);
+        this.timeSteps = timeSteps;
+        this.nodes = nodes;
+        int nonZeros = (int) Arrays.stream(dense).filter(value -> value != 0).count();
+        rowStart = new int[timeSteps * nodes + 1];
+        columns = new int[nonZeros];
+        values = new double[nonZeros];
+        int count = 0;
+        for (int row = 0; row < timeSteps * nodes; ++row) {
+            rowStart[row] = count;
+            for (int j = 0; j < nodes; ++j) {
+                double value = dense[row * nodes + j];
+                if (value != 0) {
+                    columns[count] = j;
+                    values[count] = value;
+                    ++count;
+                }
+            }
+        }
+        rowStart[timeSteps * nodes] = count;
+    }
+
+    @Override // from OdArray
+    public int timeSteps() {
+        return timeSteps;
+    }
+
+    @Override // from OdArray
+    public int nodes() {
+        return nodes;
+    }
+
+    @Override // from OdArray
+    public double get(int k, int i, int j) {
+        int row = k * nodes + i;
+        int position = Arrays.binarySearch(columns, rowStart[row], rowStart[row + 1], j);
+        return 0 <= position ? values[position] : 0;
+    }
+
+    @Override // from OdArray
+    public Tensor slice(int k, double factor) {
+        double[][] matrix = new double[nodes][nodes];
+        for (int i = 0; i < nodes; ++i) {
+            int row = k * nodes + i;
+            for (int position = rowStart[row]; position < rowStart[row + 1]; ++position)
+                matrix[i][columns[position]] = values[position] * factor;
+        }
+        return Tensors.matrixDouble(matrix);
+    }
+
+    /** @return number of stored values */
+    public int nonZeros() {
+        return values.length;
+    }
+}
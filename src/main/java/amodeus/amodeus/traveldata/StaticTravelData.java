@@ -1,19 +1,19 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.traveldata;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 import amodeus.amodeus.prep.VirtualNetworkPreparer;
 import amodeus.amodeus.util.math.GlobalAssert;
 import ch.ethz.idsc.tensor.RealScalar;
-import ch.ethz.idsc.tensor.Scalar;
 import ch.ethz.idsc.tensor.Tensor;
 import ch.ethz.idsc.tensor.alg.Dimensions;
-import ch.ethz.idsc.tensor.sca.Chop;
 import ch.ethz.idsc.tensor.sca.Clip;
 import ch.ethz.idsc.tensor.sca.Clips;
-import ch.ethz.idsc.tensor.sca.Round;
-import ch.ethz.idsc.tensor.sca.Sign;
 
 /** Contains the request informations, the rebalancing information from an LPsolver,
  * the initial vehicle distribution requirements and the number of customer drives.
@@ -21,26 +21,46 @@ import ch.ethz.idsc.tensor.sca.Sign;
  * In order to use TravelData, it has to be created in the Preparer by {@link VirtualNetworkPreparer},
  * then it can be injected in the Server by {@link VirtualNetworkModule}.
  * 
- * TravelData is also used in tests. */
+ * TravelData is also used in tests.
+ * 
+ * The tensors are stored as primitive arrays, see {@link OdArray}, and accessed without boxing with
+ * {@link #lambda(int, int, int)}, {@link #alpha(int, int, int)} and {@link #f(int, int, int)}. The {@link Tensor}
+ * getters build a new tensor on every call, dispatchers that query the rates periodically should use the primitive
+ * accessors instead. The serialized
+ * form is the one of the former tensor fields, such that existing travel data files remain readable. */
 public class StaticTravelData implements TravelData, Serializable {
-    private final Clip timeClip;
-    /** tensor (k,i,j) of dimension (numberofTimeSteps, numberVirtualNodes, numberVirtualNodes) that contains
+    /** identical to the serialVersionUID of the former version with tensor fields */
+    private static final long serialVersionUID = -6768575550215634798L;
+    private static final ObjectStreamField[] serialPersistentFields = { //
+            new ObjectStreamField("endTime", int.class), //
+            new ObjectStreamField("timeIntervalLength", int.class), //
+            new ObjectStreamField("timeSteps", int.class), //
+            new ObjectStreamField("virtualNetworkID", long.class), //
+            new ObjectStreamField("alphaAbsolute", Tensor.class), //
+            new ObjectStreamField("fAbsolute", Tensor.class), //
+            new ObjectStreamField("lambdaAbsolute", Tensor.class), //
+            new ObjectStreamField("lpName", String.class), //
+            new ObjectStreamField("timeClip", Clip.class), //
+            new ObjectStreamField("v0", Tensor.class) };
+
+    private Clip timeClip;
+    /** (k,i,j) of dimension (numberofTimeSteps, numberVirtualNodes, numberVirtualNodes) that contains
      * the number of requests that come up in timeStep k from VS i to j */
-    private final Tensor lambdaAbsolute;
-    private final Tensor alphaAbsolute;
-    private final Tensor v0;
-    private final Tensor fAbsolute;
-    private final String lpName;
-    private final int timeSteps;
-    private final int timeIntervalLength; // used as lookup
-    private final int endTime; // in [s]
-    private final long virtualNetworkID; // used for consistency check
+    private transient OdArray lambdaAbsolute;
+    private transient OdArray alphaAbsolute;
+    private Tensor v0;
+    private transient OdArray fAbsolute;
+    private String lpName;
+    private int timeSteps;
+    private int timeIntervalLength; // used as lookup
+    private int endTime; // in [s]
+    private long virtualNetworkID; // used for consistency check
 
     public StaticTravelData(long virtualNetworkID, Tensor lambdaAbsolute, Tensor alphaAbsolute, Tensor fAbsolute, Tensor v0, String lpName, int endTime) {
         this.virtualNetworkID = virtualNetworkID;
-        this.lambdaAbsolute = lambdaAbsolute;
-        this.alphaAbsolute = alphaAbsolute;
-        this.fAbsolute = fAbsolute;
+        this.lambdaAbsolute = OdArray.of(lambdaAbsolute);
+        this.alphaAbsolute = OdArray.of(alphaAbsolute);
+        this.fAbsolute = OdArray.of(fAbsolute);
         this.v0 = v0;
         this.timeSteps = lambdaAbsolute.length();
         this.timeIntervalLength = endTime / timeSteps;
@@ -56,14 +76,14 @@ public class StaticTravelData implements TravelData, Serializable {
     @Override
     public Tensor getLambdaAbsoluteAtTime(int time) {
         GlobalAssert.that(timeClip.isInside(RealScalar.of(time)));
-        return lambdaAbsolute.get(time / timeIntervalLength).copy();
+        return lambdaAbsolute.slice(time / timeIntervalLength, 1);
     }
 
     /** Returns the absolute number of requests. Lambda(k,i,j) is the number of requests that lead from virtual
      * station i to j in timeInterval k. */
     @Override
     public Tensor getLambdaAbsolute() {
-        return lambdaAbsolute.copy();
+        return lambdaAbsolute.toTensor(1);
     }
 
     /** Returns the request rates in the timeInterval where time is in. Lambda(i,j) is the request rate from virtual
@@ -71,67 +91,63 @@ public class StaticTravelData implements TravelData, Serializable {
     @Override
     public Tensor getLambdaRateAtTime(int time) {
         GlobalAssert.that(timeClip.isInside(RealScalar.of(time)));
-        return lambdaAbsolute.get(time / timeIntervalLength).divide(RealScalar.of(timeIntervalLength));
+        return lambdaAbsolute.slice(time / timeIntervalLength, 1.0 / timeIntervalLength);
     }
 
     /** Returns the absolute rebalancing {@link Tensor}. Alpha(k,i,j) is the number of vehicles to rebalance from virtual
      * station i to j at timeInterval k. */
     @Override
     public Tensor getAlphaAbsolute() {
-        return alphaAbsolute.copy();
+        return alphaAbsolute.toTensor(1);
     }
 
     /** Returns the absolute rebalancing {@link Tensor} in the timeInterval that time is in. Alpha(i,j) is the number of vehicles to rebalance from virtual
      * station i to j in that certain timeInterval. */
     @Override
     public Tensor getAlphaAbsoluteAtTime(int time) {
-        timeClip.requireInside(RealScalar.of(time));
-        return alphaAbsolute.get(time / timeIntervalLength).copy();
+        return alphaAbsolute.slice(getTimeStep(time), 1);
     }
 
     /** Returns the rebalancing rate {@link Tensor}. Alpha(k,i,j) is the vehicles rate to rebalance from virtual
      * station i to j at timeInterval k. */
     @Override
     public Tensor getAlphaRate() {
-        return alphaAbsolute.divide(RealScalar.of(timeIntervalLength));
+        return alphaAbsolute.toTensor(1.0 / timeIntervalLength);
     }
 
     /** Returns the rebalancing rate {@link Tensor} in the timeInterval that time is in. Alpha(i,j) is the vehicles rate to rebalance from virtual
      * station i to j in that certain timeInterval. */
     @Override
     public Tensor getAlphaRateAtTime(int time) {
-        timeClip.requireInside(RealScalar.of(time));
-        return alphaAbsolute.get(time / timeIntervalLength).divide(RealScalar.of(timeIntervalLength));
+        return alphaAbsolute.slice(getTimeStep(time), 1.0 / timeIntervalLength);
     }
 
     /** Returns the absolute number of customer drives {@link Tensor}. F(k,i,j) represents the number of customer drives to do from virtual station i to j at
      * timeInterval k */
     @Override
     public Tensor getFAbsolute() {
-        return fAbsolute.copy();
+        return fAbsolute.toTensor(1);
     }
 
     /** Returns the absolute number of customer drives {@link Tensor} in the timeInterval that time is in. F(i,j) represents the number of customer drives to do
      * from virtual station i to j at the specific timeInterval */
     @Override
     public Tensor getFAbsoluteAtTime(int time) {
-        timeClip.requireInside(RealScalar.of(time));
-        return fAbsolute.get(time / timeIntervalLength).copy();
+        return fAbsolute.slice(getTimeStep(time), 1);
     }
 
     /** Returns the customer drive rates {@link Tensor}. F(k,i,j) represents customer drive rates to do from virtual station i to j at
      * timeInterval k */
     @Override
     public Tensor getFRate() {
-        return fAbsolute.divide(RealScalar.of(timeIntervalLength));
+        return fAbsolute.toTensor(1.0 / timeIntervalLength);
     }
 
     /** Returns the customer drive rates {@link Tensor} in the timeInterval that time is in. F(i,j) represents the customer drive rates to do
      * from virtual station i to j at the specific timeInterval */
     @Override
     public Tensor getFRateAtTime(int time) {
-        timeClip.requireInside(RealScalar.of(time));
-        return fAbsolute.get(time / timeIntervalLength).divide(RealScalar.of(timeIntervalLength));
+        return fAbsolute.slice(getTimeStep(time), 1.0 / timeIntervalLength);
     }
 
     /** Returns the lower bound of the initial vehicle distribution. */
@@ -144,7 +160,28 @@ public class StaticTravelData implements TravelData, Serializable {
      * station i to j in timeInterval k. */
     @Override
     public Tensor getLambdaRate() {
-        return lambdaAbsolute.divide(RealScalar.of(timeIntervalLength));
+        return lambdaAbsolute.toTensor(1.0 / timeIntervalLength);
+    }
+
+    @Override
+    public int getTimeStep(int time) {
+        timeClip.requireInside(RealScalar.of(time));
+        return time / timeIntervalLength;
+    }
+
+    @Override
+    public double lambda(int k, int i, int j) {
+        return lambdaAbsolute.get(k, i, j);
+    }
+
+    @Override
+    public double alpha(int k, int i, int j) {
+        return alphaAbsolute.get(k, i, j);
+    }
+
+    @Override
+    public double f(int k, int i, int j) {
+        return fAbsolute.get(k, i, j);
     }
 
     @Override
@@ -178,12 +215,17 @@ public class StaticTravelData implements TravelData, Serializable {
     /** Perform consistency checks after completion of constructor operations. */
     @Override
     public void checkConsistency() {
-        GlobalAssert.that(lambdaAbsolute.flatten(-1).map(Scalar.class::cast).allMatch(Sign::isPositiveOrZero));
-        Chop._06.close(lambdaAbsolute, Round.of(lambdaAbsolute)); // make sure lambdaAbsolute is integer valued
-        GlobalAssert.that(Dimensions.of(lambdaAbsolute).equals(Dimensions.of(alphaAbsolute)));
-        GlobalAssert.that(Dimensions.of(lambdaAbsolute).equals(Dimensions.of(fAbsolute)));
-        GlobalAssert.that(Dimensions.of(lambdaAbsolute).get(1).equals(Dimensions.of(lambdaAbsolute).get(2)));
-        GlobalAssert.that(Dimensions.of(lambdaAbsolute).get(1).equals(Dimensions.of(v0).get(0)));
+        int nodes = lambdaAbsolute.nodes();
+        for (int k = 0; k < lambdaAbsolute.timeSteps(); ++k)
+            for (int i = 0; i < nodes; ++i)
+                for (int j = 0; j < nodes; ++j) {
+                    double value = lambdaAbsolute.get(k, i, j);
+                    GlobalAssert.that(0 <= value);
+                    GlobalAssert.that(Math.abs(value - Math.round(value)) <= 1e-6); // make sure lambdaAbsolute is integer valued
+                }
+        GlobalAssert.that(alphaAbsolute.timeSteps() == lambdaAbsolute.timeSteps() && alphaAbsolute.nodes() == nodes);
+        GlobalAssert.that(fAbsolute.timeSteps() == lambdaAbsolute.timeSteps() && fAbsolute.nodes() == nodes);
+        GlobalAssert.that(Dimensions.of(v0).get(0).equals(nodes));
     }
 
     /** Checking if the virtualNetworkID's are identical
@@ -194,4 +236,33 @@ public class StaticTravelData implements TravelData, Serializable {
         GlobalAssert.that(endTime % timeIntervalLength == 0);
         GlobalAssert.that(virtualNetworkID == this.virtualNetworkID);
     }
-}
\ No newline at end of file
+
+    private void writeObject(ObjectOutputStream objectOutputStream) throws IOException {
+        ObjectOutputStream.PutField putField = objectOutputStream.putFields();
+        putField.put("endTime", endTime);
+        putField.put("timeIntervalLength", timeIntervalLength);
+        putField.put("timeSteps", timeSteps);
+        putField.put("virtualNetworkID", virtualNetworkID);
+        putField.put("alphaAbsolute", alphaAbsolute.toTensor(1));
+        putField.put("fAbsolute", fAbsolute.toTensor(1));
+        putField.put("lambdaAbsolute", lambdaAbsolute.toTensor(1));
+        putField.put("lpName", lpName);
+        putField.put("timeClip", timeClip);
+        putField.put("v0", v0);
+        objectOutputStream.writeFields();
+    }
+
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField getField = objectInputStream.readFields();
+        endTime = getField.get("endTime", 0);
+        timeIntervalLength = getField.get("timeIntervalLength", 0);
+        timeSteps = getField.get("timeSteps", 0);
+        virtualNetworkID = getField.get("virtualNetworkID", 0L);
+        alphaAbsolute = OdArray.of((Tensor) getField.get("alphaAbsolute", null));
+        fAbsolute = OdArray.of((Tensor) getField.get("fAbsolute", null));
+        lambdaAbsolute = OdArray.of((Tensor) getField.get("lambdaAbsolute", null));
+        lpName = (String) getField.get("lpName", null);
+        timeClip = (Clip) getField.get("timeClip", null);
+        v0 = (Tensor) getField.get("v0", null);
+    }
+}
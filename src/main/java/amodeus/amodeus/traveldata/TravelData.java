@@ -56,6 +56,18 @@ public interface TravelData {
      * station i to j in timeInterval k. */
     Tensor getLambdaRate();
 
+    /** Returns the index k of the timeInterval that time is in. */
+    int getTimeStep(int time);
+
+    /** Returns the absolute number of requests from virtual station i to j in timeInterval k without allocating a {@link Tensor}. */
+    double lambda(int k, int i, int j);
+
+    /** Returns the absolute number of vehicles to rebalance from virtual station i to j in timeInterval k without allocating a {@link Tensor}. */
+    double alpha(int k, int i, int j);
+
+    /** Returns the absolute number of customer drives from virtual station i to j in timeInterval k without allocating a {@link Tensor}. */
+    double f(int k, int i, int j);
+
     long getVirtualNetworkID();
 
     /** Returns the number of timeIntervals the day is split in. */
@@ -0,0 +1,180 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.auction;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** Auction algorithm with epsilon-scaling by Bertsekas for the assignment problem of a
+ * {@link SparseCostMatrix}. The result has the same cost as the solution of the Hungarian algorithm for the
+ * dense matrix, in which the pairs that are not contained have the sentinel cost, up to the tolerance
+ * (rows + cols) * eps of the final scaling phase. However, rows and columns that the Hungarian algorithm would
+ * match at the sentinel cost remain unassigned.
+ *
+ * The rectangular problem with partial assignments is solved as a symmetric problem of dimension rows + cols:
+ * every row i is a bidder, which may also choose a private object that stands for "row i unassigned" at half of
+ * the sentinel cost. Every column j is an object that may also be taken by a private bidder that stands for
+ * "column j unassigned" at half of the sentinel cost. The private bidder of column j may take the private object
+ * of row i at zero cost if the pair (i, j) is contained. The symmetric problem has a perfect matching, for
+ * instance all rows and columns unassigned, and its optimal cost differs from the optimal cost of the
+ * dense problem by a constant. For the symmetric problem, the forward auction terminates without reverse
+ * iterations, which were found to slow down the convergence on problems of vehicles and requests.
+ *
+ * The prices of the objects may be seeded with the prices of a previous solution, see {@link AuctionWarmstartState},
+ * all scaling phases are executed nevertheless. The instance is used for a single execution. */
+public class AuctionAlgorithm {
+    /** factor by which eps is reduced in every scaling phase */
+    private static final double SCALING = 6.0;
+    /** bound on the deviation of the cost from the optimal cost relative to the largest cost */
+    private static final double RELATIVE_TOLERANCE = 1e-7;
+    private static final int UNASSIGNED = -1;
+
+    private final int rows;
+    private final int cols;
+    /** number of bidders and number of objects */
+    private final int dim;
+    /** edges of bidders in compressed rows, benefit = -cost */
+    private final int[] bidderStart;
+    private final int[] bidderObject;
+    private final double[] bidderBenefit;
+    /** prices of the objects: cols columns followed by the private objects of the rows */
+    private final double[] price;
+    private final int[] objectOfBidder;
+    private final int[] bidderOfObject;
+    /** largest absolute benefit, at least 1 */
+    private final double maxBenefit;
+    private final double epsFinal;
+
+    /** @param sparseCostMatrix */
+    public AuctionAlgorithm(SparseCostMatrix sparseCostMatrix) {
+        this(sparseCostMatrix, null);
+    }
+
+    /** @param sparseCostMatrix
+     * @param priceSeed of length cols + rows with the prices of the columns followed by the prices of the rows
+     *            being unassigned, or null to start with zero prices */
+    public AuctionAlgorithm(SparseCostMatrix sparseCostMatrix, double[] priceSeed) {
+        rows = sparseCostMatrix.rows;
+        cols = sparseCostMatrix.cols;
+        dim = rows + cols;
+        double unassigned = -0.5 * sparseCostMatrix.sentinel;
+        int entries = sparseCostMatrix.size();
+
+        /** bidder i < rows is row i, bidder rows + j is column j unassigned,
+         * object j < cols is column j, object cols + i is row i unassigned */
+        bidderStart = new int[dim + 1];
+        for (int i = 0; i < rows; ++i)
+            bidderStart[i + 1] = sparseCostMatrix.rowStart[i + 1] - sparseCostMatrix.rowStart[i] + 1;
+        for (int position = 0; position < entries; ++position)
+            ++bidderStart[rows + sparseCostMatrix.colIndex[position] + 1];
+        for (int j = 0; j < cols; ++j)
+            ++bidderStart[rows + j + 1];
+        for (int bidder = 0; bidder < dim; ++bidder)
+            bidderStart[bidder + 1] += bidderStart[bidder];
+        bidderObject = new int[bidderStart[dim]];
+        bidderBenefit = new double[bidderStart[dim]];
+        int[] next = Arrays.copyOf(bidderStart, dim);
+        for (int i = 0; i < rows; ++i) {
+            for (int position = sparseCostMatrix.rowStart[i]; position < sparseCostMatrix.rowStart[i + 1]; ++position) {
+                int j = sparseCostMatrix.colIndex[position];
+                add(next, i, j, -sparseCostMatrix.cost[position]);
+                add(next, rows + j, cols + i, 0.0);
+            }
+            add(next, i, cols + i, unassigned);
+        }
+        for (int j = 0; j < cols; ++j)
+            add(next, rows + j, j, unassigned);
+
+        maxBenefit = Math.max(1.0, Arrays.stream(bidderBenefit).map(Math::abs).max().orElse(0.0));
+        epsFinal = maxBenefit * RELATIVE_TOLERANCE / Math.max(1, dim);
+        price = Objects.isNull(priceSeed) ? new double[dim] : priceSeed.clone();
+        GlobalAssert.that(price.length == dim);
+        objectOfBidder = new int[dim];
+        bidderOfObject = new int[dim];
+    }
+
+    private void add(int[] next, int bidder, int object, double benefit) {
+        int edge = next[bidder]++;
+        bidderObject[edge] = object;
+        bidderBenefit[edge] = benefit;
+    }
+
+    /** @return matching of row i to column result[i], or -1 if row i remains unassigned */
+    public int[] execute() {
+        double eps = maxBenefit / SCALING;
+        while (true) {
+            phase(Math.max(eps, epsFinal));
+            if (eps <= epsFinal)
+                break;
+            eps /= SCALING;
+        }
+        int[] result = new int[rows];
+        for (int i = 0; i < rows; ++i)
+            result[i] = objectOfBidder[i] < cols ? objectOfBidder[i] : UNASSIGNED;
+        return result;
+    }
+
+    /** @return prices of the columns followed by the prices of the rows being unassigned, after {@link #execute()} */
+    public double[] getPrices() {
+        return price.clone();
+    }
+
+    /** assigns all bidders such that every bidder is assigned to an object whose value is within eps of the best value */
+    private void phase(double eps) {
+        Arrays.fill(objectOfBidder, UNASSIGNED);
+        Arrays.fill(bidderOfObject, UNASSIGNED);
+        IntStack bidders = new IntStack(dim);
+        for (int bidder = dim - 1; 0 <= bidder; --bidder)
+            bidders.push(bidder);
+        while (0 < bidders.size)
+            bid(bidders.pop(), eps, bidders);
+    }
+
+    /** bidder raises the price of the object with the best value, the previous owner of the object is unassigned */
+    private void bid(int bidder, double eps, IntStack bidders) {
+        int bestObject = UNASSIGNED;
+        double best = Double.NEGATIVE_INFINITY;
+        double second = Double.NEGATIVE_INFINITY;
+        for (int edge = bidderStart[bidder]; edge < bidderStart[bidder + 1]; ++edge) {
+            double value = bidderBenefit[edge] - price[bidderObject[edge]];
+            if (best < value) {
+                second = best;
+                best = value;
+                bestObject = bidderObject[edge];
+            } else if (second < value)
+                second = value;
+        }
+        /** without alternative, the price is raised by a bound on the differences of benefits */
+        if (second == Double.NEGATIVE_INFINITY)
+            second = best - 2 * maxBenefit;
+        price[bestObject] += best - second + eps;
+        int previous = bidderOfObject[bestObject];
+        bidderOfObject[bestObject] = bidder;
+        objectOfBidder[bidder] = bestObject;
+        if (previous != UNASSIGNED) {
+            objectOfBidder[previous] = UNASSIGNED;
+            bidders.push(previous);
+        }
+    }
+
+    /** stack of indices that grows as required */
+    private static class IntStack {
+        private int[] array;
+        private int size = 0;
+
+        private IntStack(int capacity) {
+            array = new int[Math.max(capacity, 1)];
+        }
+
+        private void push(int value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, 2 * size);
+            array[size++] = value;
+        }
+
+        private int pop() {
+            return array[--size];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.auction;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** {@link AuctionWarmstartState} stores the prices of the previous execution of the {@link AuctionAlgorithm}
+ * of a single matcher. The prices are stored by the identity of the row objects, e.g. vehicles, and column
+ * objects, e.g. requests, such that the rows and columns of consecutive problems may be added, removed or
+ * reordered. New rows and columns start with price zero.
+ *
+ * Every matcher should own a separate instance, the instance is thread-safe.
+ *
+ * @param <X> type of rows
+ * @param <Y> type of columns */
+public class AuctionWarmstartState<X, Y> {
+    private Map<Y, Double> colPrices = new HashMap<>();
+    private Map<X, Double> rowPrices = new HashMap<>();
+
+    /** @param sparseCostMatrix
+     * @param rows objects associated to the rows of sparseCostMatrix
+     * @param cols objects associated to the columns of sparseCostMatrix
+     * @return matching of row i to column result[i], or -1 */
+    public synchronized int[] matching(SparseCostMatrix sparseCostMatrix, List<X> rows, List<Y> cols) {
+        GlobalAssert.that(sparseCostMatrix.rows() == rows.size() && sparseCostMatrix.cols() == cols.size());
+        double[] priceSeed = new double[cols.size() + rows.size()];
+        for (int j = 0; j < cols.size(); ++j)
+            priceSeed[j] = colPrices.getOrDefault(cols.get(j), 0.0);
+        for (int i = 0; i < rows.size(); ++i)
+            priceSeed[cols.size() + i] = rowPrices.getOrDefault(rows.get(i), 0.0);
+        AuctionAlgorithm auctionAlgorithm = new AuctionAlgorithm(sparseCostMatrix, priceSeed);
+        int[] result = auctionAlgorithm.execute();
+
+        double[] prices = auctionAlgorithm.getPrices();
+        colPrices = new HashMap<>();
+        for (int j = 0; j < cols.size(); ++j)
+            colPrices.put(cols.get(j), prices[j]);
+        rowPrices = new HashMap<>();
+        for (int i = 0; i < rows.size(); ++i)
+            rowPrices.put(rows.get(i), prices[cols.size() + i]);
+        return result;
+    }
+
+    /** discards the previous prices */
+    public synchronized void clear() {
+        colPrices = new HashMap<>();
+        rowPrices = new HashMap<>();
+    }
+}
@@ -0,0 +1,107 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.auction;
+
+import java.util.Arrays;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** Cost matrix of an assignment problem in compressed sparse rows: the columns of the entries of row i are
+ * colIndex[rowStart[i]] ... colIndex[rowStart[i + 1] - 1] and their costs are at the same positions of cost.
+ *
+ * The pairs of a row and a column that are not contained in the matrix have the cost sentinel, which has to
+ * be at least as large as every contained cost. The instance is immutable. */
+public class SparseCostMatrix {
+    /** @param costMatrix dense of dimension rows x columns
+     * @param sentinel the entries of costMatrix that are at least sentinel are not contained
+     * @return sparse matrix with the entries of costMatrix that are smaller than sentinel */
+    public static SparseCostMatrix of(double[][] costMatrix, double sentinel) {
+        int rows = costMatrix.length;
+        int cols = rows == 0 ? 0 : costMatrix[0].length;
+        int[] rowStart = new int[rows + 1];
+        for (int i = 0; i < rows; ++i)
+            rowStart[i + 1] = rowStart[i] + (int) Arrays.stream(costMatrix[i]).filter(value -> value < sentinel).count();
+        int[] colIndex = new int[rowStart[rows]];
+        double[] cost = new double[rowStart[rows]];
+        int position = 0;
+        for (int i = 0; i < rows; ++i)
+            for (int j = 0; j < cols; ++j)
+                if (costMatrix[i][j] < sentinel) {
+                    colIndex[position] = j;
+                    cost[position++] = costMatrix[i][j];
+                }
+        return new SparseCostMatrix(cols, rowStart, colIndex, cost, sentinel);
+    }
+
+    // ---
+    /* package */ final int rows;
+    /* package */ final int cols;
+    /* package */ final int[] rowStart;
+    /* package */ final int[] colIndex;
+    /* package */ final double[] cost;
+    /* package */ final double sentinel;
+
+    /** @param cols number of columns
+     * @param rowStart of length rows + 1, non-decreasing, with rowStart[0] == 0
+     * @param colIndex of the entries, distinct in every row
+     * @param cost of the entries, finite
+     * @param sentinel cost of the pairs that are not contained, finite and at least as large as every cost */
+    public SparseCostMatrix(int cols, int[] rowStart, int[] colIndex, double[] cost, double sentinel) {
+        rows = rowStart.length - 1;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.colIndex = colIndex;
+        this.cost = cost;
+        this.sentinel = sentinel;
+        GlobalAssert.that(0 <= rows && rowStart[0] == 0 && rowStart[rows] == colIndex.length && colIndex.length == cost.length);
+        GlobalAssert.that(Double.isFinite(sentinel));
+        int[] rowOfCol = new int[cols];
+        Arrays.fill(rowOfCol, -1);
+        for (int i = 0; i < rows; ++i) {
+            GlobalAssert.that(rowStart[i] <= rowStart[i + 1]);
+            for (int position = rowStart[i]; position < rowStart[i + 1]; ++position) {
+                int j = colIndex[position];
+                GlobalAssert.that(0 <= j && j < cols && rowOfCol[j] != i);
+                GlobalAssert.that(Double.isFinite(cost[position]) && cost[position] <= sentinel);
+                rowOfCol[j] = i;
+            }
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /** @return number of contained entries */
+    public int size() {
+        return cost.length;
+    }
+
+    public double sentinel() {
+        return sentinel;
+    }
+
+    /** @param i
+     * @param j
+     * @return cost of the pair of row i and column j, or the sentinel if the pair is not contained */
+    public double cost(int i, int j) {
+        for (int position = rowStart[i]; position < rowStart[i + 1]; ++position)
+            if (colIndex[position] == j)
+                return cost[position];
+        return sentinel;
+    }
+
+    /** @return dense cost matrix of dimension rows x columns with the sentinel for the pairs that are not contained */
+    public double[][] toDense() {
+        double[][] costMatrix = new double[rows][cols];
+        for (int i = 0; i < rows; ++i) {
+            Arrays.fill(costMatrix[i], sentinel);
+            for (int position = rowStart[i]; position < rowStart[i + 1]; ++position)
+                costMatrix[i][colIndex[position]] = cost[position];
+        }
+        return costMatrix;
+    }
+}
@@ -18,6 +18,13 @@ public class FastHungarianAlgorithm {
         eq = new EqGraph(costMatrix, eps);
     }
 
+    /** @param costMatrix
+     * @param eps
+     * @param warmstarter with initial labels and matching for costMatrix */
+    public FastHungarianAlgorithm(double[][] costMatrix, double eps, Warmstarter warmstarter) {
+        eq = new EqGraph(costMatrix, eps, warmstarter);
+    }
+
     public FastHungarianAlgorithm(double[][] costMatrix) {
         this(costMatrix, StaticHelper.EPS_DEFAULT);
     }
@@ -1,6 +1,9 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.util.hungarian;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 import ch.ethz.idsc.tensor.Tensors;
 import ch.ethz.idsc.tensor.io.HomeDirectory;
 import ch.ethz.idsc.tensor.io.Put;
@@ -12,10 +15,27 @@ public enum HungarianAlgorithmWrap {
         return matching(distancematrix, StaticHelper.EPS_DEFAULT);
     }
 
+    /** @param distancematrix
+     * @param rows objects associated to the rows of distancematrix
+     * @param cols objects associated to the columns of distancematrix
+     * @param warmstartState solution of the previous call of the same matcher, is updated with the new solution
+     * @return matching of row i to column result[i], or -1 */
+    public static <X, Y> int[] matching(double[][] distancematrix, List<X> rows, List<Y> cols, WarmstartState<X, Y> warmstartState) {
+        return warmstartState.matching(distancematrix, rows, cols);
+    }
+
+    /* package */ static int[] matching(double[][] distancematrix, Warmstarter warmstarter) {
+        return execute(distancematrix, () -> new FastHungarianAlgorithm(distancematrix, StaticHelper.EPS_DEFAULT, warmstarter));
+    }
+
     // since this method is private, eps is always equal to StaticHelper.EPS_DEFAULT
     private static int[] matching(double[][] distancematrix, double eps) {
+        return execute(distancematrix, () -> new FastHungarianAlgorithm(distancematrix, eps));
+    }
+
+    private static int[] execute(double[][] distancematrix, Supplier<FastHungarianAlgorithm> supplier) {
         try {
-            FastHungarianAlgorithm fastHungarianAlgorithm = new FastHungarianAlgorithm(distancematrix, eps);
+            FastHungarianAlgorithm fastHungarianAlgorithm = supplier.get();
             return fastHungarianAlgorithm.execute();
         } catch (Exception exception) {
             try {
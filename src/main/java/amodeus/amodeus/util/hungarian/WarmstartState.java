@@ -0,0 +1,64 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.hungarian;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import amodeus.amodeus.util.math.GlobalAssert;
+
+/** {@link WarmstartState} stores the solution of the previous execution of the Hungarian algorithm of a
+ * single matcher. The column labels and the matching are stored by the identity of the row objects,
+ * e.g. vehicles, and column objects, e.g. requests, such that the rows and columns of consecutive
+ * problems may be added, removed or reordered.
+ *
+ * Every matcher should own a separate instance, the instance is thread-safe.
+ *
+ * @param <X> type of rows
+ * @param <Y> type of columns */
+public class WarmstartState<X, Y> {
+    private Map<Y, Double> yLabels = new HashMap<>();
+    private Map<X, Y> matching = new HashMap<>();
+
+    /** @param costMatrix
+     * @param rows objects associated to the rows of costMatrix
+     * @param cols objects associated to the columns of costMatrix
+     * @return matching of row i to column result[i], or -1 */
+    public synchronized int[] matching(double[][] costMatrix, List<X> rows, List<Y> cols) {
+        GlobalAssert.that(costMatrix.length == rows.size() && costMatrix[0].length == cols.size());
+        Map<Y, Integer> indexOfCol = new HashMap<>();
+        double[] yLabelSeed = new double[cols.size()];
+        for (int y = 0; y < cols.size(); ++y) {
+            indexOfCol.put(cols.get(y), y);
+            yLabelSeed[y] = yLabels.getOrDefault(cols.get(y), 0.0);
+        }
+        int[] newMatching = new int[rows.size()];
+        Arrays.fill(newMatching, -1);
+        for (int x = 0; x < rows.size(); ++x) {
+            Y col = matching.get(rows.get(x));
+            if (Objects.nonNull(col))
+                newMatching[x] = indexOfCol.getOrDefault(col, -1);
+        }
+        Warmstarter warmstarter = new Warmstarter(costMatrix, yLabelSeed, newMatching, StaticHelper.EPS_DEFAULT);
+        int[] result = HungarianAlgorithmWrap.matching(costMatrix, warmstarter);
+
+        /** the labels of the warmstarter are updated in place by the algorithm */
+        double[] yLabel = warmstarter.getYLabels();
+        yLabels = new HashMap<>();
+        for (int y = 0; y < cols.size(); ++y)
+            yLabels.put(cols.get(y), yLabel[y]);
+        matching = new HashMap<>();
+        for (int x = 0; x < rows.size(); ++x)
+            if (0 <= result[x])
+                matching.put(rows.get(x), cols.get(result[x]));
+        return result;
+    }
+
+    /** discards the previous solution */
+    public synchronized void clear() {
+        yLabels = new HashMap<>();
+        matching = new HashMap<>();
+    }
+}
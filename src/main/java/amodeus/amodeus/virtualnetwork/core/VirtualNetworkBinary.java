@@ -0,0 +1,110 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.virtualnetwork.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.ethz.idsc.tensor.Tensor;
+import ch.ethz.idsc.tensor.Tensors;
+
+/** Binary format of a {@link VirtualNetwork} that does not depend on Java serialization:
+ *
+ * magic number, version, virtual network id,
+ * node table: number of nodes, for each node its id and centroid coordinates,
+ * element table: number of elements, for each element its name and the index of its node,
+ * edge list: number of links, for each link its id, from and to node index and distance.
+ *
+ * The coordinates are stored as doubles. */
+/* package */ enum VirtualNetworkBinary {
+    ;
+    /** "AMVN" */
+    public static final int MAGIC = 0x414D564E;
+    public static final int VERSION = 1;
+
+    public static <T> void write(DataOutput dataOutput, VirtualNetwork<T> virtualNetwork) throws IOException {
+        dataOutput.writeInt(MAGIC);
+        dataOutput.writeInt(VERSION);
+        dataOutput.writeLong(virtualNetwork.getvNetworkID());
+        /** node table */
+        dataOutput.writeInt(virtualNetwork.getvNodesCount());
+        for (int index = 0; index < virtualNetwork.getvNodesCount(); ++index) {
+            VirtualNode<T> virtualNode = virtualNetwork.getVirtualNode(index);
+            dataOutput.writeUTF(virtualNode.getId());
+            Tensor coord = virtualNode.getCoord();
+            dataOutput.writeInt(coord.length());
+            for (int dimension = 0; dimension < coord.length(); ++dimension)
+                dataOutput.writeDouble(coord.Get(dimension).number().doubleValue());
+        }
+        /** element table */
+        dataOutput.writeInt(virtualNetwork.getVirtualNodes().stream().mapToInt(virtualNode -> virtualNode.getLinkIDsforSerialization().size()).sum());
+        for (int index = 0; index < virtualNetwork.getvNodesCount(); ++index)
+            for (String name : virtualNetwork.getVirtualNode(index).getLinkIDsforSerialization()) {
+                dataOutput.writeUTF(name);
+                dataOutput.writeInt(index);
+            }
+        /** edge list */
+        dataOutput.writeInt(virtualNetwork.getvLinksCount());
+        for (int index = 0; index < virtualNetwork.getvLinksCount(); ++index) {
+            VirtualLink<T> virtualLink = virtualNetwork.getVirtualLink(index);
+            dataOutput.writeUTF(virtualLink.getId());
+            dataOutput.writeInt(virtualLink.getFrom().getIndex());
+            dataOutput.writeInt(virtualLink.getTo().getIndex());
+            dataOutput.writeDouble(virtualLink.getDistance());
+        }
+    }
+
+    /** @param dataInput positioned after the magic number
+     * @param map from the name to the element
+     * @return virtual network with all references to elements of map
+     * @throws IOException if the version is not supported or an element is not in map */
+    public static <T> VirtualNetworkImpl<T> read(DataInput dataInput, Map<String, T> map) throws IOException {
+        int version = dataInput.readInt();
+        if (version != VERSION)
+            throw new IOException("unsupported virtual network version " + version);
+        VirtualNetworkImpl<T> virtualNetwork = new VirtualNetworkImpl<>(dataInput.readLong());
+        /** node table */
+        int nodes = dataInput.readInt();
+        List<String> ids = new ArrayList<>(nodes);
+        List<Tensor> coords = new ArrayList<>(nodes);
+        for (int index = 0; index < nodes; ++index) {
+            ids.add(dataInput.readUTF());
+            double[] coord = new double[dataInput.readInt()];
+            for (int dimension = 0; dimension < coord.length; ++dimension)
+                coord[dimension] = dataInput.readDouble();
+            coords.add(Tensors.vectorDouble(coord));
+        }
+        /** element table */
+        List<Map<String, T>> elements = new ArrayList<>(nodes);
+        for (int index = 0; index < nodes; ++index)
+            elements.add(new LinkedHashMap<>());
+        Map<T, String> names = new HashMap<>();
+        int count = dataInput.readInt();
+        for (int index = 0; index < count; ++index) {
+            String name = dataInput.readUTF();
+            T element = map.get(name);
+            if (Objects.isNull(element))
+                throw new IOException("element of virtual network not found: " + name);
+            elements.get(dataInput.readInt()).put(name, element);
+            names.put(element, name);
+        }
+        for (int index = 0; index < nodes; ++index)
+            virtualNetwork.addVirtualNode(new VirtualNode<>(index, ids.get(index), elements.get(index), coords.get(index)));
+        /** edge list */
+        int links = dataInput.readInt();
+        for (int index = 0; index < links; ++index) {
+            String id = dataInput.readUTF();
+            VirtualNode<T> from = virtualNetwork.getVirtualNode(dataInput.readInt());
+            VirtualNode<T> to = virtualNetwork.getVirtualNode(dataInput.readInt());
+            virtualNetwork.addVirtualLink(id, from, to, dataInput.readDouble());
+        }
+        virtualNetwork.fillVNodeMapRAWVERYPRIVATE(names);
+        return virtualNetwork;
+    }
+}
@@ -0,0 +1,24 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.virtualnetwork.core;
+
+import java.io.File;
+
+/** converts a {@link VirtualNetwork} saved with Java serialization by {@link VirtualNetworkIO#toByte(File, VirtualNetwork)}
+ * to the binary format of {@link VirtualNetworkIO#toBinary(File, VirtualNetwork)}
+ * 
+ * usage: VirtualNetworkConverter virtualNetwork virtualNetwork.bin */
+public enum VirtualNetworkConverter {
+    ;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("usage: " + VirtualNetworkConverter.class.getSimpleName() + " <serialized input> <binary output>");
+            System.exit(1);
+        }
+        File inputFile = new File(args[0]);
+        File outputFile = new File(args[1]);
+        long time = System.currentTimeMillis();
+        VirtualNetworkIO.convert(inputFile, outputFile);
+        System.out.println(String.format("converted %d bytes to %d bytes in %d ms", inputFile.length(), outputFile.length(), System.currentTimeMillis() - time));
+    }
+}
@@ -5,10 +5,12 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.zip.DataFormatException;
 
 import amodeus.amodeus.analysis.Analysis;
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 
@@ -16,6 +18,8 @@ import amodeus.amodeus.options.ScenarioOptions;
 
 public enum VirtualNetworkGet {
     ;
+    /** the {@link VirtualNode} of a {@link Link} is looked up by {@link Id#index()} */
+    private static final ToIntFunction<Link> INDEX_OF = link -> link.getId().index();
 
     /** @param network
      * @throws IOException, FileNotFoundException
@@ -24,7 +28,7 @@ public enum VirtualNetworkGet {
     public static VirtualNetwork<Link> readFile(Network network, File path) throws IOException, ClassNotFoundException, DataFormatException {
         if (!path.exists())
             throw new FileNotFoundException(path.toString());
-        return VirtualNetworkIO.fromByte(mapByIdString(network), path);
+        return VirtualNetworkIO.fromByte(mapByIdString(network), path, INDEX_OF);
     }
 
     /** @param network
@@ -34,7 +38,7 @@ public enum VirtualNetworkGet {
         final File virtualnetworkFile = new File(scenarioOptions.getVirtualNetworkDirectoryName(), scenarioOptions.getVirtualNetworkName());
         System.out.println("reading network from" + virtualnetworkFile.getAbsoluteFile());
         try {
-            return VirtualNetworkIO.fromByte(mapByIdString(network), virtualnetworkFile);
+            return VirtualNetworkIO.fromByte(mapByIdString(network), virtualnetworkFile, INDEX_OF);
         } catch (Exception e) {
             e.printStackTrace();
             System.out.println("cannot load default " + virtualnetworkFile);
@@ -50,7 +54,7 @@ public enum VirtualNetworkGet {
         final File virtualnetworkFile = new File(virtualnetworkFolder, scenarioOptions.getVirtualNetworkName());
         System.out.println("reading virtual network from" + virtualnetworkFile.getAbsoluteFile());
         try {
-            return VirtualNetworkIO.fromByte(mapByIdString(network), virtualnetworkFile);
+            return VirtualNetworkIO.fromByte(mapByIdString(network), virtualnetworkFile, INDEX_OF);
         } catch (Exception e) {
             System.out.println("cannot load from output directory, reading default... " + virtualnetworkFile);
             return readDefault(network, scenarioOptions);
@@ -1,9 +1,17 @@
 /* amodeus - Copyright (c) 2018, ETH Zurich, Institute for Dynamic Systems and Control */
 package amodeus.amodeus.virtualnetwork.core;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
 import java.util.zip.DataFormatException;
 
 import ch.ethz.idsc.tensor.io.Export;
@@ -12,7 +20,7 @@ import ch.ethz.idsc.tensor.io.Import;
 public enum VirtualNetworkIO {
     ;
 
-    /** @param file to save at
+    /** @param file to save at with Java serialization, the binary format of {@link #toBinary(File, VirtualNetwork)} loads faster
      * @param virtualNetwork to save
      * @throws IOException */
     public static <T> void toByte(File file, VirtualNetwork<T> virtualNetwork) throws IOException {
@@ -20,18 +28,73 @@ public enum VirtualNetworkIO {
         Export.object(file, virtualNetwork);
     }
 
+    /** @param file to save at in the binary format of {@link VirtualNetworkBinary}
+     * @param virtualNetwork to save
+     * @throws IOException */
+    public static <T> void toBinary(File file, VirtualNetwork<T> virtualNetwork) throws IOException {
+        virtualNetwork.checkConsistency();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            VirtualNetworkBinary.write(dataOutputStream, virtualNetwork);
+        }
+    }
+
     /** @param map map with serialization info that s a @param T element to a unique String name
-     * @param file where virtualNetwork is stored
+     * @param file where virtualNetwork is stored, in the binary format or with Java serialization
      * @return
      * @throws ClassNotFoundException
      * @throws DataFormatException
      * @throws IOException */
     public static <T> VirtualNetwork<T> fromByte(Map<String, T> map, File file)//
             throws ClassNotFoundException, DataFormatException, IOException {
-        VirtualNetwork<T> virtualNetwork = Import.object(file);
-        virtualNetwork.fillSerializationInfo(map);
+        return fromByte(map, file, null);
+    }
+
+    /** @param map map with serialization info that s a @param T element to a unique String name
+     * @param file where virtualNetwork is stored, in the binary format or with Java serialization
+     * @param indexOf non-negative unique index of the elements, e.g. {@link org.matsim.api.core.v01.Id#index()} of links,
+     *            to look up the {@link VirtualNode} of an element in an array, or null
+     * @return
+     * @throws ClassNotFoundException
+     * @throws DataFormatException
+     * @throws IOException */
+    public static <T> VirtualNetwork<T> fromByte(Map<String, T> map, File file, ToIntFunction<T> indexOf)//
+            throws ClassNotFoundException, DataFormatException, IOException {
+        VirtualNetwork<T> virtualNetwork;
+        if (isBinary(file))
+            try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                dataInputStream.readInt(); // magic
+                virtualNetwork = VirtualNetworkBinary.read(dataInputStream, map);
+            }
+        else {
+            virtualNetwork = Import.object(file);
+            virtualNetwork.fillSerializationInfo(map);
+        }
         virtualNetwork.checkConsistency();
+        if (Objects.nonNull(indexOf) && virtualNetwork instanceof VirtualNetworkImpl)
+            ((VirtualNetworkImpl<T>) virtualNetwork).indexElements(indexOf);
         return virtualNetwork;
     }
 
+    /** converts a virtual network saved with {@link #toByte(File, VirtualNetwork)} to the binary format,
+     * the elements of the virtual network are not required
+     * 
+     * @param inputFile
+     * @param outputFile
+     * @throws ClassNotFoundException
+     * @throws DataFormatException
+     * @throws IOException */
+    public static void convert(File inputFile, File outputFile) throws ClassNotFoundException, DataFormatException, IOException {
+        VirtualNetwork<?> virtualNetwork = Import.object(inputFile);
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+            VirtualNetworkBinary.write(dataOutputStream, virtualNetwork);
+        }
+    }
+
+    private static boolean isBinary(File file) throws IOException {
+        if (file.length() < Integer.BYTES)
+            return false;
+        try (DataInputStream dataInputStream = new DataInputStream(new FileInputStream(file))) {
+            return dataInputStream.readInt() == VirtualNetworkBinary.MAGIC;
+        }
+    }
 }
@@ -4,6 +4,7 @@ package amodeus.amodeus.virtualnetwork.core;
 import java.awt.Point;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -11,11 +12,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
+import org.matsim.api.core.v01.Id;
+
 import amodeus.amodeus.util.math.GlobalAssert;
 
 /* package */ class VirtualNetworkImpl<T> implements VirtualNetwork<T>, Serializable {
+    /** fixed such that serialized virtual networks remain readable */
+    private static final long serialVersionUID = 2070141407024028646L;
 
     private final long virtualNetworkID; // to ensure that other objects dependent on virtualNetwork are derived of that particular network
     private final Map<Integer, VirtualNode<T>> virtualNodes = new LinkedHashMap<>();
@@ -25,9 +31,17 @@ import amodeus.amodeus.util.math.GlobalAssert;
     // is stored but only used to create references LINK
     private final Map<String, VirtualNode<T>> networkElementsSerializable = new LinkedHashMap<>();
     private final Map<Point, VirtualLink<T>> virtualLinkPairs = new LinkedHashMap<>();
+    /** optional array-backed lookup of the virtual node of an element, see {@link #indexElements(ToIntFunction)} */
+    private transient ToIntFunction<T> indexOf;
+    private transient int[] vNodeIndexOf;
+    private transient List<VirtualNode<T>> vNodesByIndex;
 
     public VirtualNetworkImpl() {
-        virtualNetworkID = System.currentTimeMillis();
+        this(System.currentTimeMillis());
+    }
+
+    /* package */ VirtualNetworkImpl(long virtualNetworkID) {
+        this.virtualNetworkID = virtualNetworkID;
     }
 
     @Override
@@ -53,6 +67,12 @@ import amodeus.amodeus.util.math.GlobalAssert;
     @Override
     public final VirtualNode<T> getVirtualNode(T element) {
         GlobalAssert.that(Objects.nonNull(element));
+        if (Objects.nonNull(vNodeIndexOf)) {
+            int index = indexOf.applyAsInt(element);
+            if (0 <= index && index < vNodeIndexOf.length && 0 <= vNodeIndexOf[index])
+                return vNodesByIndex.get(vNodeIndexOf[index]);
+            throw new IllegalStateException("Element not found in VirtualNetwork: " + element.toString());
+        }
         if (!networkElements.containsKey(element)) {
             throw new IllegalStateException("Element not found in VirtualNetwork: " + element.toString());
         }
@@ -132,6 +152,20 @@ import amodeus.amodeus.util.math.GlobalAssert;
         virtualNodes.values().forEach(v -> v.setLinksAfterSerialization2(map));
     }
 
+    /** enables the lookup of {@link #getVirtualNode(Object)} in an array indexed by the non-negative
+     * and unique indices of the elements, e.g. {@link Id#index()} of links
+     * 
+     * @param indexOf */
+    /* package */ void indexElements(ToIntFunction<T> indexOf) {
+        int size = networkElements.keySet().stream().mapToInt(indexOf).max().orElse(-1) + 1;
+        int[] vNodeIndexOf = new int[size];
+        Arrays.fill(vNodeIndexOf, -1);
+        networkElements.forEach((element, virtualNode) -> vNodeIndexOf[indexOf.applyAsInt(element)] = virtualNode.getIndex());
+        vNodesByIndex = new ArrayList<>(virtualNodes.values());
+        this.indexOf = indexOf;
+        this.vNodeIndexOf = vNodeIndexOf;
+    }
+
     protected void fillVNodeMapRAWVERYPRIVATE(Map<T, String> map) {
         GlobalAssert.that(!networkElements.isEmpty());
         networkElements.forEach((element, vNode) -> networkElementsSerializable.put(map.get(element), vNode));
@@ -19,6 +19,8 @@ import ch.ethz.idsc.tensor.Tensor;
  * 
  * @param <T> */
 public class VirtualNode<T> implements Serializable {
+    /** fixed such that serialized virtual networks remain readable */
+    private static final long serialVersionUID = -8317566577740447402L;
     /** index is counting from 0,1,... index is used to assign entries in vectors and matrices */
     private final int index;
     /** id is only used for debugging */
@@ -51,6 +53,10 @@ public class VirtualNode<T> implements Serializable {
         this.links = linkIDsforSerialization.stream().map(map::get).map(Objects::requireNonNull).collect(Collectors.toSet());
     }
 
+    /* package */ Set<String> getLinkIDsforSerialization() {
+        return Collections.unmodifiableSet(linkIDsforSerialization);
+    }
+
     public Set<T> getLinks() {
         return Collections.unmodifiableSet(links);
     }
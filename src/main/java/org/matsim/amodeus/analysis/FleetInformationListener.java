@@ -1,6 +1,6 @@
 package org.matsim.amodeus.analysis;
 
-import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.amodeus.components.generator.AmodeusIdClassifier;
 import org.matsim.api.core.v01.events.ActivityStartEvent;
 import org.matsim.api.core.v01.events.LinkEnterEvent;
 import org.matsim.api.core.v01.events.PersonDepartureEvent;
@@ -11,13 +11,17 @@ import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonDepartureEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonEntersVehicleEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonLeavesVehicleEventHandler;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.controler.events.BeforeMobsimEvent;
 import org.matsim.core.controler.listener.BeforeMobsimListener;
+import org.matsim.vehicles.Vehicle;
 
 public class FleetInformationListener implements BeforeMobsimListener, ActivityStartEventHandler, PersonDepartureEventHandler, PersonEntersVehicleEventHandler,
         PersonLeavesVehicleEventHandler, LinkEnterEventHandler {
     private final LinkFinder linkFinder;
     private final PassengerTracker passengers = new PassengerTracker();
+    private final AmodeusIdClassifier<Person> persons = new AmodeusIdClassifier<>();
+    private final AmodeusIdClassifier<Vehicle> vehicles = new AmodeusIdClassifier<>();
     private final String mode;
 
     private FleetInformation data;
@@ -45,8 +49,8 @@ public class FleetInformationListener implements BeforeMobsimListener, ActivityS
 
     @Override
     public void handleEvent(ActivityStartEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getPersonId())) {
-            String vehicleMode = AmodeusIdentifiers.getMode(event.getPersonId());
+        if (persons.isValid(event.getPersonId())) {
+            String vehicleMode = persons.getMode(event.getPersonId());
 
             if (mode.equals(vehicleMode)) {
                 data.numberOfVehicles++;
@@ -56,9 +60,9 @@ public class FleetInformationListener implements BeforeMobsimListener, ActivityS
 
     @Override
     public void handleEvent(PersonEntersVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
-                String vehicleMode = AmodeusIdentifiers.getMode(event.getVehicleId());
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
+                String vehicleMode = vehicles.getMode(event.getVehicleId());
 
                 if (mode.equals(vehicleMode)) {
                     passengers.addPassenger(event.getVehicleId(), event.getPersonId());
@@ -69,9 +73,9 @@ public class FleetInformationListener implements BeforeMobsimListener, ActivityS
 
     @Override
     public void handleEvent(PersonLeavesVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
-                String vehicleMode = AmodeusIdentifiers.getMode(event.getVehicleId());
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
+                String vehicleMode = vehicles.getMode(event.getVehicleId());
 
                 if (mode.equals(vehicleMode)) {
                     passengers.removePassenger(event.getVehicleId(), event.getPersonId());
@@ -82,8 +86,8 @@ public class FleetInformationListener implements BeforeMobsimListener, ActivityS
 
     @Override
     public void handleEvent(LinkEnterEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
-            String vehicleMode = AmodeusIdentifiers.getMode(event.getVehicleId());
+        if (vehicles.isValid(event.getVehicleId())) {
+            String vehicleMode = vehicles.getMode(event.getVehicleId());
 
             if (mode.equals(vehicleMode)) {
                 double linkLength = linkFinder.getDistance(event.getLinkId());
@@ -8,7 +8,7 @@ import java.util.Map;
 
 import org.matsim.amodeus.analysis.LinkFinder;
 import org.matsim.amodeus.analysis.PassengerTracker;
-import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.amodeus.components.generator.AmodeusIdClassifier;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.events.LinkEnterEvent;
 import org.matsim.api.core.v01.events.PersonArrivalEvent;
@@ -21,10 +21,13 @@ import org.matsim.api.core.v01.events.handler.PersonDepartureEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonEntersVehicleEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonLeavesVehicleEventHandler;
 import org.matsim.api.core.v01.population.Person;
+import org.matsim.vehicles.Vehicle;
 
 public class PassengerAnalysisListener
         implements PersonDepartureEventHandler, PersonArrivalEventHandler, LinkEnterEventHandler, PersonEntersVehicleEventHandler, PersonLeavesVehicleEventHandler {
     private final LinkFinder linkFinder;
+    private final AmodeusIdClassifier<Person> persons = new AmodeusIdClassifier<>();
+    private final AmodeusIdClassifier<Vehicle> vehicles = new AmodeusIdClassifier<>();
     private final Collection<String> modes;
     private final PassengerTracker passengers = new PassengerTracker();
 
@@ -38,7 +41,7 @@ public class PassengerAnalysisListener
 
     @Override
     public void handleEvent(PersonDepartureEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
+        if (!persons.isValid(event.getPersonId())) {
             if (modes.contains(event.getLegMode())) {
                 PassengerRideItem ride = new PassengerRideItem();
                 rides.add(ride);
@@ -56,7 +59,7 @@ public class PassengerAnalysisListener
 
     @Override
     public void handleEvent(LinkEnterEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (vehicles.isValid(event.getVehicleId())) {
             double distance = linkFinder.getDistance(event.getLinkId());
 
             for (Id<Person> passengerId : passengers.getPassengerIds(event.getVehicleId())) {
@@ -73,8 +76,8 @@ public class PassengerAnalysisListener
 
     @Override
     public void handleEvent(PersonEntersVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
                 PassengerRideItem ride = currentRides.get(event.getPersonId());
 
                 if (ride == null) {
@@ -91,8 +94,8 @@ public class PassengerAnalysisListener
 
     @Override
     public void handleEvent(PersonLeavesVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
                 passengers.removePassenger(event.getVehicleId(), event.getPersonId());
             }
         }
@@ -100,7 +103,7 @@ public class PassengerAnalysisListener
 
     @Override
     public void handleEvent(PersonArrivalEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
+        if (!persons.isValid(event.getPersonId())) {
             PassengerRideItem ride = currentRides.remove(event.getPersonId());
 
             if (ride != null) {
@@ -7,7 +7,7 @@ import java.util.Map;
 
 import org.matsim.amodeus.analysis.LinkFinder;
 import org.matsim.amodeus.analysis.PassengerTracker;
-import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.amodeus.components.generator.AmodeusIdClassifier;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.events.ActivityEndEvent;
 import org.matsim.api.core.v01.events.ActivityStartEvent;
@@ -23,12 +23,15 @@ import org.matsim.api.core.v01.events.handler.PersonArrivalEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonDepartureEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonEntersVehicleEventHandler;
 import org.matsim.api.core.v01.events.handler.PersonLeavesVehicleEventHandler;
+import org.matsim.api.core.v01.population.Person;
 import org.matsim.vehicles.Vehicle;
 
 public class VehicleAnalysisListener implements PersonDepartureEventHandler, PersonArrivalEventHandler, ActivityStartEventHandler, ActivityEndEventHandler, LinkEnterEventHandler,
         PersonEntersVehicleEventHandler, PersonLeavesVehicleEventHandler {
     private final LinkFinder linkFinder;
     private final PassengerTracker passengers = new PassengerTracker();
+    private final AmodeusIdClassifier<Person> persons = new AmodeusIdClassifier<>();
+    private final AmodeusIdClassifier<Vehicle> vehicles = new AmodeusIdClassifier<>();
 
     private final List<VehicleMovementItem> movements = new LinkedList<>();
     private final List<VehicleActivityItem> activities = new LinkedList<>();
@@ -42,8 +45,8 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(PersonDepartureEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getPersonId())) {
-            String mode = AmodeusIdentifiers.getMode(event.getPersonId());
+        if (persons.isValid(event.getPersonId())) {
+            String mode = persons.getMode(event.getPersonId());
             Id<Vehicle> vehicleId = Id.createVehicleId(event.getPersonId());
 
             VehicleMovementItem movement = new VehicleMovementItem();
@@ -61,7 +64,7 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(LinkEnterEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (vehicles.isValid(event.getVehicleId())) {
             VehicleMovementItem movement = currentMovements.get(event.getVehicleId());
 
             if (movement == null) {
@@ -74,8 +77,8 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(PersonEntersVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
                 passengers.addPassenger(event.getVehicleId(), event.getPersonId());
             }
         }
@@ -83,8 +86,8 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(PersonLeavesVehicleEvent event) {
-        if (!AmodeusIdentifiers.isValid(event.getPersonId())) {
-            if (AmodeusIdentifiers.isValid(event.getVehicleId())) {
+        if (!persons.isValid(event.getPersonId())) {
+            if (vehicles.isValid(event.getVehicleId())) {
                 passengers.removePassenger(event.getVehicleId(), event.getPersonId());
             }
         }
@@ -92,7 +95,7 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(PersonArrivalEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getPersonId())) {
+        if (persons.isValid(event.getPersonId())) {
             Id<Vehicle> vehicleId = Id.createVehicleId(event.getPersonId());
 
             VehicleMovementItem movement = currentMovements.remove(vehicleId);
@@ -110,8 +113,8 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(ActivityStartEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getPersonId())) {
-            String mode = AmodeusIdentifiers.getMode(event.getPersonId());
+        if (persons.isValid(event.getPersonId())) {
+            String mode = persons.getMode(event.getPersonId());
             Id<Vehicle> vehicleId = Id.createVehicleId(event.getPersonId());
 
             VehicleActivityItem activity = new VehicleActivityItem();
@@ -131,8 +134,8 @@ public class VehicleAnalysisListener implements PersonDepartureEventHandler, Per
 
     @Override
     public void handleEvent(ActivityEndEvent event) {
-        if (AmodeusIdentifiers.isValid(event.getPersonId())) {
-            String mode = AmodeusIdentifiers.getMode(event.getPersonId());
+        if (persons.isValid(event.getPersonId())) {
+            String mode = persons.getMode(event.getPersonId());
             Id<Vehicle> vehicleId = Id.createVehicleId(event.getPersonId());
 
             VehicleActivityItem activity = currentActivities.remove(vehicleId);
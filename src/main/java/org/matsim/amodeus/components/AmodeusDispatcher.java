@@ -13,6 +13,11 @@ public interface AmodeusDispatcher {
 
     void addVehicle(DvrpVehicle vehicle);
 
+    /** called once after the last time step of the simulation */
+    default void onSimulationEnd() {
+        // ---
+    }
+
     interface AVDispatcherFactory {
         AmodeusDispatcher createDispatcher(ModalProviders.InstanceGetter inject);
     }
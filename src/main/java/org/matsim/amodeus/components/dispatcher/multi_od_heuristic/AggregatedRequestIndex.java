@@ -0,0 +1,147 @@
+package org.matsim.amodeus.components.dispatcher.multi_od_heuristic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matsim.amodeus.components.dispatcher.multi_od_heuristic.aggregation.AggregatedRequest;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+
+/** Index of the open {@link AggregatedRequest}s in a 4-dimensional grid over the coordinates of the origin
+ * and of the destination of the master request. A request can only be aggregated with a master request of
+ * which both the origin and the destination are within the distance threshold of the
+ * {@link FactorTravelTimeEstimator}, hence only the grid cells in this neighborhood are searched.
+ *
+ * {@link #findAggregateRequest(PassengerRequest)} yields the same result as a linear scan over the aggregates
+ * in the order in which they were added. Removed aggregates are deleted lazily from the cells. */
+/* package */ class AggregatedRequestIndex {
+    /** maximum number of cells along each axis, such that the key of a cell fits in a long */
+    private static final int MAX_CELLS = 256;
+
+    private static class Entry {
+        private final AggregatedRequest aggregate;
+        private final long sequence;
+        private boolean removed = false;
+
+        private Entry(AggregatedRequest aggregate, long sequence) {
+            this.aggregate = aggregate;
+            this.sequence = sequence;
+        }
+    }
+
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cellsX;
+    private final int cellsY;
+    private final double radius;
+
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final Map<AggregatedRequest, Entry> entries = new IdentityHashMap<>();
+    private long sequence = 0;
+
+    /** @param bounds minx, miny, maxx, maxy as provided by NetworkUtils.getBoundingBox
+     * @param estimator */
+    public AggregatedRequestIndex(double[] bounds, FactorTravelTimeEstimator estimator) {
+        minX = bounds[0];
+        minY = bounds[1];
+        double extent = Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]);
+        /** a small margin compensates rounding in the distance computation, the exact check is done by
+         * {@link AggregatedRequest#accept(PassengerRequest)} */
+        radius = estimator.getDistanceThreshold() * (1 + 1e-9) + 1e-6;
+        double size = Math.max(radius, extent / MAX_CELLS);
+        /** an infinite threshold results in a single cell */
+        cellSize = 0 < size ? size : 1.0;
+        cellsX = cells(bounds[2] - bounds[0]);
+        cellsY = cells(bounds[3] - bounds[1]);
+    }
+
+    private int cells(double length) {
+        return (int) Math.min(MAX_CELLS, Math.max(1, Math.ceil(length / cellSize)));
+    }
+
+    public void add(AggregatedRequest aggregate) {
+        Entry entry = new Entry(aggregate, sequence++);
+        Entry previous = entries.put(aggregate, entry);
+        if (previous != null)
+            previous.removed = true;
+        PassengerRequest master = aggregate.getMasterRequest();
+        Coord origin = master.getFromLink().getCoord();
+        Coord destination = master.getToLink().getCoord();
+        long key = key(cellX(origin.getX()), cellY(origin.getY()), cellX(destination.getX()), cellY(destination.getY()));
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+    }
+
+    /** @param aggregate may be null or not contained in the index */
+    public void remove(AggregatedRequest aggregate) {
+        Entry entry = entries.remove(aggregate);
+        if (entry != null)
+            entry.removed = true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** @param request
+     * @return aggregate with minimal cost that accepts request, among aggregates with equal cost the one that was
+     *         added first, or null if no aggregate accepts request */
+    public AggregatedRequest findAggregateRequest(PassengerRequest request) {
+        Coord origin = request.getFromLink().getCoord();
+        Coord destination = request.getToLink().getCoord();
+        int oxMin = cellX(origin.getX() - radius);
+        int oxMax = cellX(origin.getX() + radius);
+        int oyMin = cellY(origin.getY() - radius);
+        int oyMax = cellY(origin.getY() + radius);
+        int dxMin = cellX(destination.getX() - radius);
+        int dxMax = cellX(destination.getX() + radius);
+        int dyMin = cellY(destination.getY() - radius);
+        int dyMax = cellY(destination.getY() + radius);
+
+        Entry bestEntry = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+
+        for (int ox = oxMin; ox <= oxMax; ++ox)
+            for (int oy = oyMin; oy <= oyMax; ++oy)
+                for (int dx = dxMin; dx <= dxMax; ++dx)
+                    for (int dy = dyMin; dy <= dyMax; ++dy) {
+                        long key = key(ox, oy, dx, dy);
+                        List<Entry> cell = cells.get(key);
+                        if (cell == null)
+                            continue;
+                        cell.removeIf(entry -> entry.removed);
+                        if (cell.isEmpty()) {
+                            cells.remove(key);
+                            continue;
+                        }
+                        for (Entry entry : cell) {
+                            Double cost = entry.aggregate.accept(request);
+                            if (cost != null && (cost < bestCost || bestEntry != null && cost == bestCost && entry.sequence < bestEntry.sequence)) {
+                                bestCost = cost;
+                                bestEntry = entry;
+                            }
+                        }
+                    }
+
+        return bestEntry == null ? null : bestEntry.aggregate;
+    }
+
+    private int cellX(double x) {
+        return clip((int) Math.floor((x - minX) / cellSize), cellsX);
+    }
+
+    private int cellY(double y) {
+        return clip((int) Math.floor((y - minY) / cellSize), cellsY);
+    }
+
+    private static int clip(int cell, int cells) {
+        return Math.min(Math.max(cell, 0), cells - 1);
+    }
+
+    private long key(int ox, int oy, int dx, int dy) {
+        return ((((long) ox * cellsY + oy) * cellsX + dx) * cellsY) + dy;
+    }
+}
@@ -4,6 +4,9 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.core.utils.geometry.CoordUtils;
 
 public class FactorTravelTimeEstimator implements TravelTimeEstimator {
+    /** estimated speed in [m/s], i.e. 30 km/h */
+    private static final double SPEED = 30.0 / 3.6;
+
     private final double threshold;
 
     public FactorTravelTimeEstimator(double threshold) {
@@ -17,4 +20,9 @@ public class FactorTravelTimeEstimator implements TravelTimeEstimator {
     public double getTravelTimeThreshold() {
         return threshold;
     }
+
+    /** @return Euclidean distance in [m] of which the estimated travel time equals the threshold */
+    public double getDistanceThreshold() {
+        return threshold * SPEED;
+    }
 }
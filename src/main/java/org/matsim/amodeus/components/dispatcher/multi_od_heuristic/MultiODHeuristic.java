@@ -1,8 +1,6 @@
 package org.matsim.amodeus.components.dispatcher.multi_od_heuristic;
 
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 import org.matsim.amodeus.components.AmodeusDispatcher;
@@ -12,6 +10,7 @@ import org.matsim.amodeus.components.dispatcher.multi_od_heuristic.aggregation.A
 import org.matsim.amodeus.components.dispatcher.multi_od_heuristic.aggregation.AggregationEvent;
 import org.matsim.amodeus.components.dispatcher.single_heuristic.ModeChangeEvent;
 import org.matsim.amodeus.components.dispatcher.single_heuristic.SingleHeuristicDispatcher;
+import org.matsim.amodeus.components.dispatcher.utils.IndexedFIFOQueue;
 import org.matsim.amodeus.config.AmodeusModeConfig;
 import org.matsim.amodeus.config.modal.DispatcherConfig;
 import org.matsim.amodeus.dvrp.schedule.AmodeusStayTask;
@@ -39,9 +38,9 @@ public class MultiODHeuristic implements AmodeusDispatcher {
     final private double replanningInterval;
     final private long numberOfSeats;
 
-    final private List<DvrpVehicle> availableVehicles = new LinkedList<>();
-    final private List<AggregatedRequest> pendingRequests = new LinkedList<>();
-    final private List<AggregatedRequest> assignableRequests = new LinkedList<>();
+    final private IndexedFIFOQueue<DvrpVehicle> availableVehicles = new IndexedFIFOQueue<>();
+    final private IndexedFIFOQueue<AggregatedRequest> pendingRequests = new IndexedFIFOQueue<>();
+    final private AggregatedRequestIndex assignableRequests;
 
     final private QuadTree<DvrpVehicle> availableVehiclesTree;
     final private QuadTree<AggregatedRequest> pendingRequestsTree;
@@ -69,6 +68,7 @@ public class MultiODHeuristic implements AmodeusDispatcher {
 
         availableVehiclesTree = new QuadTree<>(bounds[0], bounds[1], bounds[2], bounds[3]);
         pendingRequestsTree = new QuadTree<>(bounds[0], bounds[1], bounds[2], bounds[3]);
+        assignableRequests = new AggregatedRequestIndex(bounds, estimator);
     }
 
     @Override
@@ -161,29 +161,15 @@ public class MultiODHeuristic implements AmodeusDispatcher {
     }
 
     private AggregatedRequest findAggregateRequest(PassengerRequest request) {
-        AggregatedRequest bestAggregate = null;
-        double bestCost = Double.POSITIVE_INFINITY;
-
-        for (AggregatedRequest candidate : assignableRequests) {
-            if (candidate == null)
-                throw new IllegalStateException();
-            Double cost = candidate.accept(request);
-
-            if (cost != null && cost < bestCost) {
-                bestCost = cost;
-                bestAggregate = candidate;
-            }
-        }
-
-        return bestAggregate;
+        return assignableRequests.findAggregateRequest(request);
     }
 
     private AggregatedRequest findRequest() {
-        return pendingRequests.get(0);
+        return pendingRequests.peek();
     }
 
     private DvrpVehicle findVehicle() {
-        return availableVehicles.get(0);
+        return availableVehicles.peek();
     }
 
     private DvrpVehicle findClosestVehicle(Link link) {
@@ -1,14 +1,14 @@
 package org.matsim.amodeus.components.dispatcher.single_heuristic;
 
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 import org.matsim.amodeus.components.AmodeusDispatcher;
 import org.matsim.amodeus.components.AmodeusRouter;
 import org.matsim.amodeus.components.dispatcher.AVVehicleAssignmentEvent;
+import org.matsim.amodeus.components.dispatcher.utils.IndexedFIFOQueue;
 import org.matsim.amodeus.components.dispatcher.utils.SingleRideAppender;
+import org.matsim.amodeus.components.dispatcher.utils.UniformGrid;
 import org.matsim.amodeus.config.AmodeusModeConfig;
 import org.matsim.amodeus.dvrp.schedule.AmodeusStayTask;
 import org.matsim.amodeus.dvrp.schedule.AmodeusTaskType;
@@ -22,7 +22,6 @@ import org.matsim.contrib.dvrp.schedule.Task;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.TravelTime;
-import org.matsim.core.utils.collections.QuadTree;
 
 public class SingleHeuristicDispatcher implements AmodeusDispatcher {
     public final static String TYPE = "SingleHeuristic";
@@ -35,11 +34,11 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
     final private EventsManager eventsManager;
     final private double replanningInterval;
 
-    final private List<DvrpVehicle> availableVehicles = new LinkedList<>();
-    final private List<PassengerRequest> pendingRequests = new LinkedList<>();
+    final private IndexedFIFOQueue<DvrpVehicle> availableVehicles = new IndexedFIFOQueue<>();
+    final private IndexedFIFOQueue<PassengerRequest> pendingRequests = new IndexedFIFOQueue<>();
 
-    final private QuadTree<DvrpVehicle> availableVehiclesTree;
-    final private QuadTree<PassengerRequest> pendingRequestsTree;
+    final private UniformGrid<DvrpVehicle> availableVehiclesGrid;
+    final private UniformGrid<PassengerRequest> pendingRequestsGrid;
 
     final private Map<DvrpVehicle, Link> vehicleLinks = new HashMap<>();
     final private Map<PassengerRequest, Link> requestLinks = new HashMap<>();
@@ -58,8 +57,8 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
 
         double[] bounds = NetworkUtils.getBoundingBox(network.getNodes().values()); // minx, miny, maxx, maxy
 
-        availableVehiclesTree = new QuadTree<>(bounds[0], bounds[1], bounds[2], bounds[3]);
-        pendingRequestsTree = new QuadTree<>(bounds[0], bounds[1], bounds[2], bounds[3]);
+        availableVehiclesGrid = new UniformGrid<>(bounds, network.getNodes().size());
+        pendingRequestsGrid = new UniformGrid<>(bounds, network.getNodes().size());
     }
 
     @Override
@@ -122,27 +121,27 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
 
     private void addRequest(PassengerRequest request, Link link) {
         pendingRequests.add(request);
-        pendingRequestsTree.put(link.getCoord().getX(), link.getCoord().getY(), request);
+        pendingRequestsGrid.put(link.getCoord().getX(), link.getCoord().getY(), request);
         requestLinks.put(request, link);
         // reoptimize = true;
     }
 
     private PassengerRequest findRequest() {
-        return pendingRequests.get(0);
+        return pendingRequests.peek();
     }
 
     private DvrpVehicle findVehicle() {
-        return availableVehicles.get(0);
+        return availableVehicles.peek();
     }
 
     private DvrpVehicle findClosestVehicle(Link link) {
         Coord coord = link.getCoord();
-        return availableVehiclesTree.getClosest(coord.getX(), coord.getY());
+        return availableVehiclesGrid.getClosest(coord.getX(), coord.getY());
     }
 
     private PassengerRequest findClosestRequest(Link link) {
         Coord coord = link.getCoord();
-        return pendingRequestsTree.getClosest(coord.getX(), coord.getY());
+        return pendingRequestsGrid.getClosest(coord.getX(), coord.getY());
     }
 
     @Override
@@ -153,7 +152,7 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
 
     private void addVehicle(DvrpVehicle vehicle, Link link) {
         availableVehicles.add(vehicle);
-        availableVehiclesTree.put(link.getCoord().getX(), link.getCoord().getY(), vehicle);
+        availableVehiclesGrid.put(link.getCoord().getX(), link.getCoord().getY(), vehicle);
         vehicleLinks.put(vehicle, link);
         // reoptimize = true;
     }
@@ -164,8 +163,8 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
         }
 
         availableVehicles.remove(vehicle);
-        Coord coord = vehicleLinks.remove(vehicle).getCoord();
-        availableVehiclesTree.remove(coord.getX(), coord.getY(), vehicle);
+        vehicleLinks.remove(vehicle);
+        availableVehiclesGrid.remove(vehicle);
     }
 
     private void removeRequest(PassengerRequest request) {
@@ -174,8 +173,8 @@ public class SingleHeuristicDispatcher implements AmodeusDispatcher {
         }
 
         pendingRequests.remove(request);
-        Coord coord = requestLinks.remove(request).getCoord();
-        pendingRequestsTree.remove(coord.getX(), coord.getY(), request);
+        requestLinks.remove(request);
+        pendingRequestsGrid.remove(request);
     }
 
     static public class Factory implements AVDispatcherFactory {
@@ -0,0 +1,87 @@
+package org.matsim.amodeus.components.dispatcher.utils;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/** First-in first-out queue backed by an array, in which every element can be removed in constant time:
+ * the position of each element in the array is stored, removal only clears the slot, and cleared slots are
+ * skipped at the head of the queue and compacted when the array is full.
+ *
+ * Elements are compared by identity and are contained at most once, adding an element that is already
+ * contained moves it to the tail of the queue. Instances are not thread-safe.
+ *
+ * @param <T> */
+public class IndexedFIFOQueue<T> {
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private Object[] slots = new Object[16];
+    private int head = 0;
+    private int tail = 0;
+
+    /** appends element to the tail of the queue
+     *
+     * @param element non-null */
+    public void add(T element) {
+        remove(element);
+        if (tail == slots.length)
+            compact();
+        positions.put(element, tail);
+        slots[tail++] = element;
+    }
+
+    /** @param element
+     * @return whether element was contained in the queue */
+    public boolean remove(Object element) {
+        Integer position = positions.remove(element);
+        if (position == null)
+            return false;
+        slots[position] = null;
+        return true;
+    }
+
+    public boolean contains(Object element) {
+        return positions.containsKey(element);
+    }
+
+    /** @return element at the head of the queue, or null if the queue is empty */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        while (head < tail && slots[head] == null)
+            ++head;
+        return head < tail ? (T) slots[head] : null;
+    }
+
+    /** @return element at the head of the queue which is removed, or null if the queue is empty */
+    public T poll() {
+        T element = peek();
+        if (element != null)
+            remove(element);
+        return element;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    /** moves the elements to the front of the array, which is doubled in size if more than half of it is in use */
+    private void compact() {
+        Object[] array = positions.size() * 2 < slots.length ? slots : new Object[slots.length * 2];
+        int size = 0;
+        for (int position = head; position < tail; ++position)
+            if (slots[position] != null) {
+                @SuppressWarnings("unchecked")
+                T element = (T) slots[position];
+                array[size] = element;
+                positions.put(element, size++);
+            }
+        if (array == slots)
+            Arrays.fill(slots, size, tail, null);
+        slots = array;
+        head = 0;
+        tail = size;
+    }
+}
@@ -0,0 +1,200 @@
+package org.matsim.amodeus.components.dispatcher.utils;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matsim.api.core.v01.Coord;
+
+/** Spatial index of points in a uniform grid over a bounding box, as a replacement of QuadTree for frequently
+ * changing sets such as available vehicles and pending requests.
+ *
+ * The values are compared by identity and are contained at most once. The position of each value in its cell
+ * is stored, such that values are removed in constant time without their coordinates. Values outside of the
+ * bounding box are supported but are always searched linearly. Instances are not thread-safe.
+ *
+ * @param <T> */
+public class UniformGrid<T> {
+    /** average number of values per cell for which the resolution is chosen */
+    private static final int VALUES_PER_CELL = 4;
+    /** maximum number of cells along each axis */
+    private static final int MAX_CELLS = 1024;
+    private static final int SPARSE_CELLS_PER_VALUE = 16;
+
+    private static class Entry<T> {
+        private final double x;
+        private final double y;
+        private final T value;
+        private final int cell;
+        private int position;
+        private int index;
+
+        private Entry(double x, double y, T value, int cell) {
+            this.x = x;
+            this.y = y;
+            this.value = value;
+            this.cell = cell;
+        }
+    }
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double cellSize;
+    private final int cellsX;
+    private final int cellsY;
+    /** cell with index cellsX * cellsY contains the values outside of the bounding box */
+    private final List<List<Entry<T>>> cells;
+    private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+    /** all entries in an order that only depends on the sequence of operations, for sparse grids */
+    private final List<Entry<T>> all = new ArrayList<>();
+
+    /** @param bounds minx, miny, maxx, maxy as provided by NetworkUtils.getBoundingBox
+     * @param expectedSize number of values that determines the resolution of the grid, for instance the number of
+     *            nodes of the network */
+    public UniformGrid(double[] bounds, int expectedSize) {
+        minX = bounds[0];
+        minY = bounds[1];
+        maxX = bounds[2];
+        maxY = bounds[3];
+        double width = Math.max(maxX - minX, 0);
+        double height = Math.max(maxY - minY, 0);
+        double cellCount = Math.max(1.0, (double) expectedSize / VALUES_PER_CELL);
+        double size = Math.sqrt(width * height / cellCount);
+        size = Math.max(size, Math.max(width, height) / MAX_CELLS);
+        cellSize = 0 < size ? size : 1.0;
+        cellsX = (int) Math.min(MAX_CELLS, Math.max(1, Math.ceil(width / cellSize)));
+        cellsY = (int) Math.min(MAX_CELLS, Math.max(1, Math.ceil(height / cellSize)));
+        cells = new ArrayList<>(cellsX * cellsY + 1);
+        for (int cell = 0; cell <= cellsX * cellsY; ++cell)
+            cells.add(new ArrayList<>());
+    }
+
+    /** @param bounds minx, miny, maxx, maxy
+     * @param coords of the values
+     * @return grid with a resolution chosen for the number of values, that contains all values of coords */
+    public static <T> UniformGrid<T> of(double[] bounds, Map<T, Coord> coords) {
+        UniformGrid<T> uniformGrid = new UniformGrid<>(bounds, coords.size());
+        coords.forEach((value, coord) -> uniformGrid.put(coord.getX(), coord.getY(), value));
+        return uniformGrid;
+    }
+
+    /** inserts value at the given location, a value that is already contained is moved
+     *
+     * @param x
+     * @param y
+     * @param value non-null */
+    public void put(double x, double y, T value) {
+        remove(value);
+        boolean inside = minX <= x && x <= maxX && minY <= y && y <= maxY;
+        int cell = inside ? cellX(x) * cellsY + cellY(y) : cellsX * cellsY;
+        Entry<T> entry = new Entry<>(x, y, value, cell);
+        List<Entry<T>> list = cells.get(cell);
+        entry.position = list.size();
+        list.add(entry);
+        entry.index = all.size();
+        all.add(entry);
+        entries.put(value, entry);
+    }
+
+    /** @param value
+     * @return whether value was contained */
+    public boolean remove(Object value) {
+        Entry<T> entry = entries.remove(value);
+        if (entry == null)
+            return false;
+        List<Entry<T>> list = cells.get(entry.cell);
+        Entry<T> last = list.remove(list.size() - 1);
+        if (last != entry) {
+            last.position = entry.position;
+            list.set(entry.position, last);
+        }
+        last = all.remove(all.size() - 1);
+        if (last != entry) {
+            last.index = entry.index;
+            all.set(entry.index, last);
+        }
+        return true;
+    }
+
+    public boolean contains(Object value) {
+        return entries.containsKey(value);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** @param x
+     * @param y
+     * @return value with minimal Euclidean distance to (x, y), or null if the grid is empty */
+    public T getClosest(double x, double y) {
+        if (entries.isEmpty())
+            return null;
+        /** if most cells are empty, a linear search is faster than the search in rings of cells */
+        if (all.size() * SPARSE_CELLS_PER_VALUE < cellsX * cellsY)
+            return closest(all, x, y, null).value;
+        Entry<T> best = closest(cells.get(cellsX * cellsY), x, y, null);
+        int cx = cellX(x);
+        int cy = cellY(y);
+        int rings = Math.max(Math.max(cx, cellsX - 1 - cx), Math.max(cy, cellsY - 1 - cy));
+        for (int ring = 0; ring <= rings; ++ring) {
+            int x0 = cx - ring;
+            int x1 = cx + ring;
+            int y0 = cy - ring;
+            int y1 = cy + ring;
+            for (int i = Math.max(x0, 0); i <= Math.min(x1, cellsX - 1); ++i)
+                if (i == x0 || i == x1)
+                    for (int j = Math.max(y0, 0); j <= Math.min(y1, cellsY - 1); ++j)
+                        best = closest(cells.get(i * cellsY + j), x, y, best);
+                else {
+                    if (0 <= y0)
+                        best = closest(cells.get(i * cellsY + y0), x, y, best);
+                    if (y1 < cellsY)
+                        best = closest(cells.get(i * cellsY + y1), x, y, best);
+                }
+            /** values in cells beyond the current ring are at least as far as the border of the ring */
+            double escape = Double.POSITIVE_INFINITY;
+            if (0 < x0)
+                escape = Math.min(escape, x - (minX + x0 * cellSize));
+            if (x1 < cellsX - 1)
+                escape = Math.min(escape, minX + (x1 + 1) * cellSize - x);
+            if (0 < y0)
+                escape = Math.min(escape, y - (minY + y0 * cellSize));
+            if (y1 < cellsY - 1)
+                escape = Math.min(escape, minY + (y1 + 1) * cellSize - y);
+            if (best != null && distance(best, x, y) <= escape * escape)
+                break;
+        }
+        return best.value;
+    }
+
+    /** @return entry of list or best with minimal distance to (x, y), best if there is a tie */
+    private static <T> Entry<T> closest(List<Entry<T>> list, double x, double y, Entry<T> best) {
+        double bestDistance = best == null ? Double.POSITIVE_INFINITY : distance(best, x, y);
+        for (Entry<T> entry : list) {
+            double distance = distance(entry, x, y);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    private static double distance(Entry<?> entry, double x, double y) {
+        double dx = entry.x - x;
+        double dy = entry.y - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int cellX(double x) {
+        return Math.min(Math.max((int) Math.floor((x - minX) / cellSize), 0), cellsX - 1);
+    }
+
+    private int cellY(double y) {
+        return Math.min(Math.max((int) Math.floor((y - minY) / cellSize), 0), cellsY - 1);
+    }
+}
@@ -0,0 +1,59 @@
+package org.matsim.amodeus.components.generator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.matsim.api.core.v01.Id;
+
+/** Classifies ids with {@link AmodeusIdentifiers} and stores the result by {@link Id#index()}, such that the
+ * string of each id is parsed only once. The modes are interned. Use one instance per type of id, e.g. one for
+ * person ids and one for vehicle ids, since the indices of different types of ids overlap.
+ *
+ * Instances are not thread-safe. */
+public class AmodeusIdClassifier<T> {
+    private final BitSet classified = new BitSet();
+    private final BitSet valid = new BitSet();
+    private final Map<String, String> internedModes = new HashMap<>();
+    /** mode by index, null for ids that are not valid or do not specify a mode */
+    private String[] modes = new String[16];
+
+    /** classifies the id in advance, for instance for the vehicles of a fleet
+     *
+     * @param id */
+    public void register(Id<T> id) {
+        int index = id.index();
+        if (!classified.get(index)) {
+            String string = id.toString();
+            if (AmodeusIdentifiers.isValid(string)) {
+                valid.set(index);
+                String[] segments = string.split(":");
+                if (segments.length == 3) {
+                    if (modes.length <= index)
+                        modes = Arrays.copyOf(modes, Math.max(index + 1, 2 * modes.length));
+                    modes[index] = internedModes.computeIfAbsent(segments[1], mode -> mode);
+                }
+            }
+            classified.set(index);
+        }
+    }
+
+    /** @param id
+     * @return equivalent to {@link AmodeusIdentifiers#isValid(Id)} */
+    public boolean isValid(Id<T> id) {
+        register(id);
+        return valid.get(id.index());
+    }
+
+    /** @param id
+     * @return equivalent to {@link AmodeusIdentifiers#getMode(Id)}
+     * @throws IllegalStateException if id is not a valid AMoDeus vehicle */
+    public String getMode(Id<T> id) {
+        register(id);
+        int index = id.index();
+        if (index < modes.length && modes[index] != null)
+            return modes[index];
+        throw new IllegalStateException("Not a valid AMoDeus vehicle: " + id);
+    }
+}
@@ -86,7 +86,7 @@ public class VirtualNetworkModeModule extends AbstractDvrpModeModule {
                 VirtualNetwork<Link> virtualNetwork = scenarioOptions.getVirtualNetworkCreator().create(network, population, scenarioOptions, numberOfVehicles, //
                         (int) config.qsim().getEndTime().seconds());
 
-                VirtualNetworkIO.toByte(virtualNetworkFile, virtualNetwork);
+                VirtualNetworkIO.toBinary(virtualNetworkFile, virtualNetwork);
             }
 
             logger.info(String.format("Loading VirtualNetwork for operator '%s' from '%s'", modeConfig.getMode(), virtualNetworkFile));
@@ -3,7 +3,7 @@ package org.matsim.amodeus.waiting_time;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.amodeus.components.generator.AmodeusIdClassifier;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.events.PersonDepartureEvent;
 import org.matsim.api.core.v01.events.PersonEntersVehicleEvent;
@@ -13,6 +13,7 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.controler.events.AfterMobsimEvent;
 import org.matsim.core.controler.listener.AfterMobsimListener;
+import org.matsim.vehicles.Vehicle;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -21,6 +22,8 @@ import com.google.inject.Singleton;
 public class WaitingTimeListener implements PersonDepartureEventHandler, PersonEntersVehicleEventHandler, AfterMobsimListener {
     private final WaitingTimeCollector collector;
     private final String mode;
+    private final AmodeusIdClassifier<Person> persons = new AmodeusIdClassifier<>();
+    private final AmodeusIdClassifier<Vehicle> vehicles = new AmodeusIdClassifier<>();
 
     private final Map<Id<Person>, PersonDepartureEvent> departureEvents = new HashMap<>();
 
@@ -39,8 +42,8 @@ public class WaitingTimeListener implements PersonDepartureEventHandler, PersonE
 
     @Override
     public void handleEvent(PersonEntersVehicleEvent enterEvent) {
-        if (AmodeusIdentifiers.isValid(enterEvent.getVehicleId())) {
-            if (!AmodeusIdentifiers.isValid(enterEvent.getPersonId())) {
+        if (vehicles.isValid(enterEvent.getVehicleId())) {
+            if (!persons.isValid(enterEvent.getPersonId())) {
                 if (collector != null) {
                     PersonDepartureEvent departureEvent = departureEvents.remove(enterEvent.getPersonId());
 
@@ -0,0 +1,84 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import amodeus.amodeus.analysis.element.AnalysisElement;
+import amodeus.amodeus.analysis.element.MergeableAnalysisElement;
+import amodeus.amodeus.net.SimulationObject;
+import amodeus.amodeus.net.StorageSupplier;
+import junit.framework.TestCase;
+
+public class RegistrationPipelineTest extends TestCase {
+    private static class TimeStorageSupplier extends StorageSupplier {
+        TimeStorageSupplier(int size) {
+            super(size, Arrays.asList(10, 20));
+        }
+
+        @Override
+        public SimulationObject getSimulationObject(int index) {
+            SimulationObject simulationObject = new SimulationObject();
+            simulationObject.now = 10 * (index + 1);
+            return simulationObject;
+        }
+    }
+
+    private static class TimeElement implements MergeableAnalysisElement<TimeElement> {
+        private final List<Long> times = new ArrayList<>();
+
+        @Override
+        public void register(SimulationObject simulationObject) {
+            times.add(simulationObject.now);
+        }
+
+        @Override
+        public TimeElement split() {
+            return new TimeElement();
+        }
+
+        @Override
+        public void merge(TimeElement partial) {
+            times.addAll(partial.times);
+        }
+    }
+
+    private static void check(int size, int numberOfThreads) throws Exception {
+        TimeElement mergeable = new TimeElement();
+        List<Long> sequential = new ArrayList<>();
+        AnalysisElement analysisElement = simulationObject -> sequential.add(simulationObject.now);
+        new RegistrationPipeline(new TimeStorageSupplier(size), Arrays.asList(mergeable, analysisElement), numberOfThreads).run();
+        assertEquals(size, mergeable.times.size());
+        assertEquals(mergeable.times, sequential);
+        for (int index = 0; index < size; ++index)
+            assertEquals(10L * (index + 1), (long) sequential.get(index));
+    }
+
+    public void testSequential() throws Exception {
+        check(100, 1);
+    }
+
+    public void testParallel() throws Exception {
+        check(0, 4);
+        check(1, 4);
+        check(1000, 4);
+    }
+
+    public void testFailure() {
+        StorageSupplier storageSupplier = new TimeStorageSupplier(100) {
+            @Override
+            public SimulationObject getSimulationObject(int index) {
+                if (index == 50)
+                    throw new IllegalStateException();
+                return super.getSimulationObject(index);
+            }
+        };
+        try {
+            new RegistrationPipeline(storageSupplier, Arrays.asList(new TimeElement()), 3).run();
+            fail();
+        } catch (Exception exception) {
+            assertTrue(exception instanceof IllegalStateException);
+        }
+    }
+}
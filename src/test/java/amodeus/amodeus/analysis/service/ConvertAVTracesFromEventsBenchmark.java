@@ -0,0 +1,126 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis.service;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.matsim.amodeus.analysis.LinkFinder;
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisListener;
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisWriter;
+import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.ActivityEndEvent;
+import org.matsim.api.core.v01.events.ActivityStartEvent;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.PersonArrivalEvent;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.events.PersonEntersVehicleEvent;
+import org.matsim.api.core.v01.events.PersonLeavesVehicleEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.events.algorithms.EventWriterXML;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.vehicles.Vehicle;
+
+/** compares {@link VehicleTraceTable} with {@link VehicleAnalysisListener} on a synthetic events file
+ * with respect to throughput and retained heap, and checks that both produce identical files
+ *
+ * arguments: number of vehicles (default 2000), number of trips per vehicle (default 100) */
+/* package */ enum ConvertAVTracesFromEventsBenchmark {
+    ;
+    private static final int LINKS = 1000;
+
+    /* package */ static Network network() {
+        Network network = NetworkUtils.createNetwork();
+        Node[] nodes = new Node[LINKS];
+        for (int index = 0; index < LINKS; ++index)
+            nodes[index] = NetworkUtils.createAndAddNode(network, Id.createNodeId(index), new Coord(100 * index, 0));
+        for (int index = 0; index < LINKS; ++index)
+            NetworkUtils.createAndAddLink(network, Id.createLinkId(index), nodes[index], nodes[(index + 1) % LINKS], 100, 10, 1000, 1);
+        return network;
+    }
+
+    /* package */ static void writeEvents(File file, int vehicles, int trips) {
+        Random random = new Random(1);
+        EventWriterXML eventWriterXML = new EventWriterXML(file.getPath());
+        for (int vehicle = 0; vehicle < vehicles; ++vehicle) {
+            Id<Person> driver = Id.createPersonId(AmodeusIdentifiers.createVehicleId("av", vehicle));
+            Id<Vehicle> vehicleId = Id.createVehicleId(driver);
+            int link = random.nextInt(LINKS);
+            double time = 0;
+            for (int trip = 0; trip < trips; ++trip) {
+                eventWriterXML.handleEvent(new ActivityEndEvent(time, driver, Id.createLinkId(link), null, "AVStay"));
+                eventWriterXML.handleEvent(new PersonDepartureEvent(time, driver, Id.createLinkId(link), "av"));
+                boolean occupied = random.nextBoolean();
+                Id<Person> passenger = Id.createPersonId("passenger_" + vehicle + "_" + trip);
+                if (occupied)
+                    eventWriterXML.handleEvent(new PersonEntersVehicleEvent(time, passenger, vehicleId));
+                for (int count = random.nextInt(20); 0 < count; --count) {
+                    link = (link + 1) % LINKS;
+                    time += 10;
+                    eventWriterXML.handleEvent(new LinkEnterEvent(time, vehicleId, Id.createLinkId(link)));
+                }
+                eventWriterXML.handleEvent(new PersonArrivalEvent(time, driver, Id.createLinkId(link), "av"));
+                if (occupied)
+                    eventWriterXML.handleEvent(new PersonLeavesVehicleEvent(time, passenger, vehicleId));
+                eventWriterXML.handleEvent(new ActivityStartEvent(time, driver, Id.createLinkId(link), null, "AVStay"));
+                time += 60;
+            }
+        }
+        eventWriterXML.closeFile();
+    }
+
+    private static long usedHeap() {
+        for (int count = 0; count < 3; ++count)
+            System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int vehicles = 0 < args.length ? Integer.parseInt(args[0]) : 2000;
+        int trips = 1 < args.length ? Integer.parseInt(args[1]) : 100;
+        File directory = Files.createTempDirectory("benchmark").toFile();
+        File events = new File(directory, "events.xml.gz");
+        Network network = network();
+        writeEvents(events, vehicles, trips);
+        System.out.println(String.format("events file %d bytes, %d vehicles, %d trips each", events.length(), vehicles, trips));
+
+        {
+            long heap = usedHeap();
+            long nanos = System.nanoTime();
+            VehicleAnalysisListener vehicleAnalysisListener = new VehicleAnalysisListener(new LinkFinder(network));
+            EventsManager eventsManager = EventsUtils.createEventsManager();
+            eventsManager.addHandler(vehicleAnalysisListener);
+            new MatsimEventsReader(eventsManager).readFile(events.getPath());
+            double seconds = (System.nanoTime() - nanos) * 1e-9;
+            System.out.println(String.format("listener: %6.2f s, retained %6.1f MB", seconds, (usedHeap() - heap) * 1e-6));
+            new VehicleAnalysisWriter(vehicleAnalysisListener).writeMovements(new File(directory, "movements_listener.csv"));
+            new VehicleAnalysisWriter(vehicleAnalysisListener).writeActivities(new File(directory, "activities_listener.csv"));
+        }
+        {
+            long heap = usedHeap();
+            long nanos = System.nanoTime();
+            VehicleTraceTable vehicleTraceTable = ConvertAVTracesFromEvents.read(network, events.getPath());
+            double seconds = (System.nanoTime() - nanos) * 1e-9;
+            System.out.println(String.format("table:    %6.2f s, retained %6.1f MB", seconds, (usedHeap() - heap) * 1e-6));
+            vehicleTraceTable.writeMovements(new File(directory, "movements_table.csv"));
+            vehicleTraceTable.writeActivities(new File(directory, "activities_table.csv"));
+        }
+        for (String name : new String[] { "movements", "activities" })
+            System.out.println(name + " identical: " + Arrays.equals( //
+                    Files.readAllBytes(new File(directory, name + "_listener.csv").toPath()), //
+                    Files.readAllBytes(new File(directory, name + "_table.csv").toPath())));
+        for (File file : directory.listFiles())
+            file.delete();
+        directory.delete();
+    }
+}
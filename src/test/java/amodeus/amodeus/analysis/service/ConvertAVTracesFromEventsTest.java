@@ -0,0 +1,88 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.analysis.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.matsim.amodeus.analysis.LinkFinder;
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisListener;
+import org.matsim.amodeus.analysis.vehicles.VehicleAnalysisWriter;
+import org.matsim.amodeus.components.generator.AmodeusIdentifiers;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.events.PersonEntersVehicleEvent;
+import org.matsim.api.core.v01.events.PersonLeavesVehicleEvent;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.vehicles.Vehicle;
+
+import junit.framework.TestCase;
+
+public class ConvertAVTracesFromEventsTest extends TestCase {
+    /** the files written from the {@link VehicleTraceTable} are identical to the files of the {@link VehicleAnalysisListener} */
+    public void testSameFiles() throws IOException {
+        File directory = Files.createTempDirectory("traces").toFile();
+        try {
+            File events = new File(directory, "events.xml.gz");
+            Network network = ConvertAVTracesFromEventsBenchmark.network();
+            ConvertAVTracesFromEventsBenchmark.writeEvents(events, 20, 10);
+
+            VehicleAnalysisListener vehicleAnalysisListener = new VehicleAnalysisListener(new LinkFinder(network));
+            EventsManager eventsManager = EventsUtils.createEventsManager();
+            eventsManager.addHandler(vehicleAnalysisListener);
+            new MatsimEventsReader(eventsManager).readFile(events.getPath());
+            new VehicleAnalysisWriter(vehicleAnalysisListener).writeMovements(new File(directory, "movements_listener.csv"));
+            new VehicleAnalysisWriter(vehicleAnalysisListener).writeActivities(new File(directory, "activities_listener.csv"));
+
+            ConvertAVTracesFromEvents.write(network, //
+                    new File(directory, "movements_table.csv").getPath(), //
+                    new File(directory, "activities_table.csv").getPath(), events.getPath());
+
+            for (String name : new String[] { "movements", "activities" }) {
+                byte[] expected = Files.readAllBytes(new File(directory, name + "_listener.csv").toPath());
+                assertTrue(1 < new String(expected).split("\n").length);
+                assertTrue(Arrays.equals(expected, Files.readAllBytes(new File(directory, name + "_table.csv").toPath())));
+            }
+        } finally {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    public void testPassengerIdentity() {
+        Network network = ConvertAVTracesFromEventsBenchmark.network();
+        Id<Person> driver = Id.createPersonId(AmodeusIdentifiers.createVehicleId("av", 0));
+        Id<Vehicle> vehicleId = Id.createVehicleId(driver);
+        Id<Person> passenger = Id.createPersonId("passenger_a");
+        VehicleTraceTable vehicleTraceTable = new VehicleTraceTable(network);
+        vehicleTraceTable.handleEvent(new PersonDepartureEvent(0.0, driver, Id.createLinkId(0), "av"));
+        vehicleTraceTable.handleEvent(new PersonEntersVehicleEvent(0.0, passenger, vehicleId));
+        /** the same passenger cannot enter twice */
+        try {
+            vehicleTraceTable.handleEvent(new PersonEntersVehicleEvent(0.0, passenger, vehicleId));
+            fail();
+        } catch (IllegalStateException illegalStateException) {
+            // ---
+        }
+        /** a passenger that did not enter cannot leave, even if the vehicle is occupied */
+        try {
+            vehicleTraceTable.handleEvent(new PersonLeavesVehicleEvent(10.0, Id.createPersonId("passenger_b"), vehicleId));
+            fail();
+        } catch (IllegalStateException illegalStateException) {
+            // ---
+        }
+        vehicleTraceTable.handleEvent(new PersonLeavesVehicleEvent(10.0, passenger, vehicleId));
+        try {
+            vehicleTraceTable.handleEvent(new PersonLeavesVehicleEvent(10.0, passenger, vehicleId));
+            fail();
+        } catch (IllegalStateException illegalStateException) {
+            // ---
+        }
+    }
+}
@@ -25,7 +25,7 @@ import amodeus.amodeus.dispatcher.shared.SharedCourse;
 import amodeus.amodeus.dispatcher.shared.SharedCourseAccess;
 import amodeus.amodeus.util.math.GlobalAssert;
 
-/* package */ enum StaticRoboTaxiCreator {
+public enum StaticRoboTaxiCreator {
     ;
 
     private static final int seats = 100; // just a large number as we are not testing capacity with that
@@ -36,7 +36,7 @@ import amodeus.amodeus.util.math.GlobalAssert;
     /** @param divertableLink
      * @param vehicleLinkin if null the link from Divertable link is taken
      * @return */
-    /* package */ static RoboTaxi createStayingRoboTaxi(Link divertableLink, Link vehicleLinkin) {
+    public static RoboTaxi createStayingRoboTaxi(Link divertableLink, Link vehicleLinkin) {
         Link vehicleLink = vehicleLinkin == null ? divertableLink : vehicleLinkin;
         RoboTaxi roboTaxi = createRoboTaxi(divertableLink, vehicleLink);
         setFirstTaskStay(roboTaxi, vehicleLink);
@@ -49,6 +49,13 @@ import amodeus.amodeus.util.math.GlobalAssert;
         schedule.nextTask();
     }
 
+    /** @return staying {@link RoboTaxi} on @param divertableLink with the pickup and dropoff of @param avRequest in its menu */
+    public static RoboTaxi createSharedRoboTaxi(Link divertableLink, PassengerRequest avRequest) {
+        RoboTaxi roboTaxi = createStayingRoboTaxi(divertableLink, null);
+        roboTaxi.addPassengerRequestToMenu(avRequest);
+        return roboTaxi;
+    }
+
     /* package */ static RoboTaxi createPickUpRoboTaxi(Link pickup) {
         RoboTaxi roboTaxi = createRoboTaxi(pickup, pickup);
         setFirstPickupTask(roboTaxi);
@@ -0,0 +1,91 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.shared.highcap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+import org.matsim.core.router.DijkstraFactory;
+
+import amodeus.amodeus.ArtificialScenarioCreator;
+import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.dispatcher.core.StaticRoboTaxiCreator;
+import amodeus.amodeus.routing.EasyMinTimePathCalculator;
+import junit.framework.TestCase;
+
+public class AdvancedRTVGeneratorTest extends TestCase {
+    private static final int CAPACITY = 3;
+
+    /** the RTV graph generated with several threads equals the sequentially generated graph, edge by edge */
+    public void testThreadsIndependent() {
+        ArtificialScenarioCreator s = new ArtificialScenarioCreator();
+        List<PassengerRequest> requests = Arrays.asList(s.avRequest1, s.avRequest2, s.avRequest3, s.avRequest4, s.avRequest5, s.avRequest6, s.avRequest7);
+        List<RoboTaxi> roboTaxis = new ArrayList<>();
+        for (Link link : Arrays.asList(s.linkUp, s.linkRight, s.linkDown, s.linkLeft, s.linkDepotIn, s.linkDepotOut, s.linkUp, s.linkDown))
+            roboTaxis.add(StaticRoboTaxiCreator.createStayingRoboTaxi(link, null));
+        Set<Set<PassengerRequest>> rvEdges = new HashSet<>();
+        for (PassengerRequest a : requests)
+            for (PassengerRequest b : requests)
+                if (a != b)
+                    rvEdges.add(new HashSet<>(Arrays.asList(a, b)));
+
+        TravelTimeComputation sequentialTtc = new TravelTimeComputation( //
+                EasyMinTimePathCalculator.prepPathCalculator(s.network, new DijkstraFactory()), 1000);
+        TravelTimeComputation concurrentTtc = new TravelTimeComputation( //
+                () -> EasyMinTimePathCalculator.prepPathCalculator(s.network, new DijkstraFactory()), 1000, 4);
+        Map<PassengerRequest, RequestKeyInfo> sequentialInfos = new HashMap<>();
+        Map<PassengerRequest, RequestKeyInfo> concurrentInfos = new HashMap<>();
+        for (PassengerRequest avRequest : requests) {
+            sequentialInfos.put(avRequest, new RequestKeyInfo(avRequest, 60.0, 60.0, sequentialTtc));
+            concurrentInfos.put(avRequest, new RequestKeyInfo(avRequest, 60.0, 60.0, concurrentTtc));
+        }
+
+        AdvancedRTVGenerator sequential = new AdvancedRTVGenerator(CAPACITY, 5.0, 5.0, 1);
+        AdvancedRTVGenerator concurrent = new AdvancedRTVGenerator(CAPACITY, 5.0, 5.0, 4);
+        Set<PassengerRequest> added = new HashSet<>(requests);
+        Set<PassengerRequest> removed = new HashSet<>();
+        List<TripWithVehicle> lastAssignment = new ArrayList<>();
+        try {
+            /** the second step uses the feasible requests of the first step and the last assignment */
+            for (double now : new double[] { 0.0, 10.0 }) {
+                List<TripWithVehicle> expected = sequential.generateRTV(roboTaxis, added, removed, now, sequentialInfos, rvEdges, sequentialTtc, lastAssignment, 30.0);
+                List<TripWithVehicle> actual = concurrent.generateRTV(roboTaxis, added, removed, now, concurrentInfos, rvEdges, concurrentTtc, lastAssignment, 30.0);
+                assertFalse(expected.isEmpty());
+                assertEquals(expected.size(), actual.size());
+                for (int index = 0; index < expected.size(); ++index)
+                    assertSameEdge(expected.get(index), actual.get(index));
+                lastAssignment = Collections.singletonList(expected.get(expected.size() - 1));
+                added = new HashSet<>();
+                removed = Collections.singleton(s.avRequest7);
+            }
+        } finally {
+            concurrent.shutdown();
+        }
+    }
+
+    private static void assertSameEdge(TripWithVehicle expected, TripWithVehicle actual) {
+        assertSame(expected.getRoboTaxi(), actual.getRoboTaxi());
+        assertEquals(expected.getTrip(), actual.getTrip());
+        assertEquals(expected.getTotalDelay(), actual.getTotalDelay(), 0.0);
+        assertEquals(Objects.isNull(expected.getRoute()), Objects.isNull(actual.getRoute()));
+        if (Objects.nonNull(expected.getRoute())) {
+            assertEquals(expected.getRoute().size(), actual.getRoute().size());
+            for (int index = 0; index < expected.getRoute().size(); ++index) {
+                StopInRoute stop = expected.getRoute().get(index);
+                StopInRoute other = actual.getRoute().get(index);
+                assertEquals(stop.getTime(), other.getTime(), 0.0);
+                assertSame(stop.getStopLink(), other.getStopLink());
+                assertSame(stop.getStopType(), other.getStopType());
+                assertSame(stop.getavRequest(), other.getavRequest());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.shared.highcap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.router.DijkstraFactory;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+
+import amodeus.amodeus.ArtificialScenarioCreator;
+import amodeus.amodeus.routing.EasyMinTimePathCalculator;
+import junit.framework.TestCase;
+
+public class TravelTimeComputationTest extends TestCase {
+    public void testSequential() {
+        ArtificialScenarioCreator s = new ArtificialScenarioCreator();
+        TravelTimeComputation ttc = new TravelTimeComputation(EasyMinTimePathCalculator.prepPathCalculator(s.network, new DijkstraFactory()), 2);
+        assertEquals(ttc.of(s.linkUp, s.linkRight, 0.0, true), 10.0, 1e-9);
+        assertEquals(1, ttc.getMapSize());
+        ttc.of(s.linkRight, s.linkDown, 0.0, true);
+        ttc.of(s.linkDown, s.linkLeft, 0.0, true);
+        /** the least recently used from link is evicted */
+        assertEquals(2, ttc.getMapSize());
+        ttc.removeEntry(s.linkDown);
+        assertEquals(1, ttc.getMapSize());
+        ttc.clearDataMap();
+        assertEquals(0, ttc.getMapSize());
+    }
+
+    /** several threads query, store and remove entries of a small striped cache, every query returns the
+     * travel time of a fresh shortest path computation and the size limit of the stripes holds */
+    public void testConcurrent() throws Exception {
+        ArtificialScenarioCreator s = new ArtificialScenarioCreator();
+        List<Link> links = new ArrayList<>(s.network.getLinks().values());
+        LeastCostPathCalculator calculator = EasyMinTimePathCalculator.prepPathCalculator(s.network, new DijkstraFactory());
+        double[][] expected = new double[links.size()][links.size()];
+        for (int i = 0; i < links.size(); ++i)
+            for (int j = 0; j < links.size(); ++j)
+                expected[i][j] = calculator.calcLeastCostPath(links.get(i).getFromNode(), links.get(j).getToNode(), 0.0, null, null).travelTime;
+
+        int sizeLimit = 4;
+        int numberOfStripes = 2;
+        TravelTimeComputation ttc = new TravelTimeComputation( //
+                () -> EasyMinTimePathCalculator.prepPathCalculator(s.network, new DijkstraFactory()), sizeLimit, numberOfStripes);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; ++thread) {
+                Random random = new Random(thread);
+                futures.add(executorService.submit(() -> {
+                    int mismatches = 0;
+                    for (int count = 0; count < 2000; ++count) {
+                        int i = random.nextInt(links.size());
+                        int j = random.nextInt(links.size());
+                        if (random.nextInt(20) == 0)
+                            ttc.removeEntry(links.get(i));
+                        else if (ttc.of(links.get(i), links.get(j), 0.0, random.nextBoolean()) != expected[i][j])
+                            ++mismatches;
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> future : futures)
+                assertEquals(0, (int) future.get());
+        } finally {
+            executorService.shutdown();
+        }
+        assertTrue(ttc.getMapSize() <= sizeLimit);
+    }
+}
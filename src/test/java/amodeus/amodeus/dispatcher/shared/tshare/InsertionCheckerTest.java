@@ -0,0 +1,72 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.shared.tshare;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+import org.matsim.core.router.DijkstraFactory;
+
+import amodeus.amodeus.ArtificialScenarioCreator;
+import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.dispatcher.core.StaticRoboTaxiCreator;
+import amodeus.amodeus.routing.CachedNetworkTimeDistance;
+import amodeus.amodeus.routing.EasyMinDistPathCalculator;
+import amodeus.amodeus.routing.EasyMinTimePathCalculator;
+import amodeus.amodeus.routing.TimeDistanceProperty;
+import amodeus.amodeus.util.math.SI;
+import ch.ethz.idsc.tensor.Scalar;
+import ch.ethz.idsc.tensor.qty.Quantity;
+import junit.framework.TestCase;
+
+public class InsertionCheckerTest extends TestCase {
+    private static final Scalar PICKUP_DELAY_MAX = Quantity.of(15, SI.SECOND);
+    private static final Scalar DRPOFF_DELAY_MAX = Quantity.of(30, SI.SECOND);
+
+    private static List<InsertionChecker> insertionCheckers(ForkJoinPool forkJoinPool, Network network, //
+            List<RoboTaxi> roboTaxis, PassengerRequest request) {
+        CachedNetworkTimeDistance distance = new CachedNetworkTimeDistance( //
+                () -> EasyMinDistPathCalculator.prepPathCalculator(network, new DijkstraFactory()), 100.0, TimeDistanceProperty.INSTANCE);
+        CachedNetworkTimeDistance travelTime = new CachedNetworkTimeDistance( //
+                () -> EasyMinTimePathCalculator.prepPathCalculator(network, new DijkstraFactory()), 100.0, TimeDistanceProperty.INSTANCE);
+        return InsertionChecker.of(forkJoinPool, distance, travelTime, roboTaxis, request, PICKUP_DELAY_MAX, DRPOFF_DELAY_MAX, 0.0);
+    }
+
+    public void testConcurrentEqualsSequential() {
+        ArtificialScenarioCreator artificialScenarioCreator = new ArtificialScenarioCreator();
+        List<Link> links = new ArrayList<>(artificialScenarioCreator.network.getLinks().values());
+        List<PassengerRequest> requests = Arrays.asList(artificialScenarioCreator.avRequest1, artificialScenarioCreator.avRequest2, //
+                artificialScenarioCreator.avRequest3, artificialScenarioCreator.avRequest4, artificialScenarioCreator.avRequest5, //
+                artificialScenarioCreator.avRequest6);
+        List<RoboTaxi> roboTaxis = new ArrayList<>();
+        for (int index = 0; index < 36; ++index)
+            roboTaxis.add(StaticRoboTaxiCreator.createSharedRoboTaxi(links.get(index % links.size()), requests.get(index / links.size())));
+
+        List<InsertionChecker> sequential = //
+                insertionCheckers(null, artificialScenarioCreator.network, roboTaxis, artificialScenarioCreator.avRequest7);
+        List<InsertionChecker> concurrent;
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        try {
+            concurrent = insertionCheckers(forkJoinPool, artificialScenarioCreator.network, roboTaxis, artificialScenarioCreator.avRequest7);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        assertEquals(roboTaxis.size(), sequential.size());
+        assertEquals(roboTaxis.size(), concurrent.size());
+        int feasible = 0;
+        for (int index = 0; index < roboTaxis.size(); ++index) {
+            assertEquals(sequential.get(index).getAddDistance(), concurrent.get(index).getAddDistance());
+            if (Objects.nonNull(sequential.get(index).getAddDistance()))
+                ++feasible;
+        }
+        /** the time windows allow some but not all insertions */
+        assertTrue(0 < feasible);
+        assertTrue(feasible < roboTaxis.size());
+    }
+}
@@ -0,0 +1,107 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+import amodeus.amodeus.util.auction.SparseCostMatrix;
+import junit.framework.TestCase;
+
+public class GlobalBipartiteCostMatrixTest extends TestCase {
+    private static Coord[] coords(int count, Random random) {
+        Coord[] coords = new Coord[count];
+        for (int index = 0; index < count; ++index)
+            coords[index] = new Coord(10000 * random.nextDouble(), 10000 * random.nextDouble());
+        return coords;
+    }
+
+    public void testParallel() {
+        Random random = new Random(1);
+        Coord[] rows = coords(50, random);
+        Coord[] cols = coords(70, random);
+        GlobalBipartiteCostMatrix.EntryCost entryCost = (i, j) -> CoordUtils.calcEuclideanDistance(rows[i], cols[j]) + i;
+        double[][] sequential = GlobalBipartiteCostMatrix.costMatrix(rows, cols, entryCost, null, 0);
+        double[][] parallel = GlobalBipartiteCostMatrix.costMatrix(rows, cols, entryCost, new ForkJoinPool(4), 0);
+        for (int i = 0; i < rows.length; ++i)
+            for (int j = 0; j < cols.length; ++j) {
+                assertEquals(entryCost.between(i, j), sequential[i][j]);
+                assertEquals(sequential[i][j], parallel[i][j]);
+            }
+    }
+
+    public void testCandidates() {
+        Random random = new Random(2);
+        Coord[] rows = coords(60, random);
+        Coord[] cols = coords(40, random);
+        GlobalBipartiteCostMatrix.EntryCost entryCost = (i, j) -> CoordUtils.calcEuclideanDistance(rows[i], cols[j]);
+        int candidates = 5;
+        double[][] costMatrix = GlobalBipartiteCostMatrix.costMatrix(rows, cols, entryCost, new ForkJoinPool(3), candidates);
+        double max = 0;
+        int evaluated = 0;
+        for (int i = 0; i < rows.length; ++i) {
+            int closer = 0;
+            for (int j = 0; j < cols.length; ++j)
+                if (costMatrix[i][j] == entryCost.between(i, j)) {
+                    max = Math.max(max, costMatrix[i][j]);
+                    ++evaluated;
+                    ++closer;
+                }
+            assertTrue(candidates <= closer);
+        }
+        assertTrue(evaluated < rows.length * cols.length);
+        double sentinel = GlobalBipartiteCostMatrix.SENTINEL_FACTOR * max;
+        for (int i = 0; i < rows.length; ++i)
+            for (int j = 0; j < cols.length; ++j) {
+                assertTrue(costMatrix[i][j] == entryCost.between(i, j) || costMatrix[i][j] == sentinel);
+                /** the closest candidates of every row are evaluated */
+                int closer = 0;
+                for (int k = 0; k < cols.length; ++k)
+                    if (entryCost.between(i, k) < entryCost.between(i, j))
+                        ++closer;
+                if (closer < candidates)
+                    assertEquals(entryCost.between(i, j), costMatrix[i][j]);
+            }
+        /** the closest candidates of every column are evaluated */
+        for (int j = 0; j < cols.length; ++j)
+            for (int i = 0; i < rows.length; ++i) {
+                int closer = 0;
+                for (int k = 0; k < rows.length; ++k)
+                    if (entryCost.between(k, j) < entryCost.between(i, j))
+                        ++closer;
+                if (closer < candidates)
+                    assertEquals(entryCost.between(i, j), costMatrix[i][j]);
+            }
+    }
+
+    public void testSparse() {
+        Random random = new Random(3);
+        Coord[] rows = coords(30, random);
+        Coord[] cols = coords(45, random);
+        GlobalBipartiteCostMatrix.EntryCost entryCost = (i, j) -> i == j ? Double.POSITIVE_INFINITY : CoordUtils.calcEuclideanDistance(rows[i], cols[j]);
+        SparseCostMatrix sparseCostMatrix = GlobalBipartiteCostMatrix.sparseCostMatrix(rows, cols, entryCost, new ForkJoinPool(2), 4);
+        double[][] costMatrix = GlobalBipartiteCostMatrix.costMatrix(rows, cols, entryCost, null, 4);
+        assertTrue(sparseCostMatrix.size() < rows.length * cols.length);
+        for (int i = 0; i < rows.length; ++i)
+            for (int j = 0; j < cols.length; ++j)
+                assertEquals(costMatrix[i][j], sparseCostMatrix.cost(i, j));
+        /** pairs with infinite cost are not contained */
+        for (int i = 0; i < rows.length; ++i)
+            assertEquals(sparseCostMatrix.sentinel(), sparseCostMatrix.cost(i, i));
+        /** all pairs with finite cost are contained without candidates */
+        assertEquals(rows.length * cols.length - rows.length, GlobalBipartiteCostMatrix.sparseCostMatrix(rows, cols, entryCost, null, 0).size());
+    }
+
+    public void testFewValues() {
+        Coord[] coords = { new Coord(0, 0), new Coord(0, 0) };
+        /** ties are broken by the index, hence the entry (1, 1) is not evaluated */
+        double[][] costMatrix = GlobalBipartiteCostMatrix.costMatrix(coords, coords, (i, j) -> i + 1, null, 1);
+        assertEquals(1.0, costMatrix[0][0]);
+        assertEquals(1.0, costMatrix[0][1]);
+        assertEquals(2.0, costMatrix[1][0]);
+        assertEquals(GlobalBipartiteCostMatrix.SENTINEL_FACTOR * 2.0, costMatrix[1][1]);
+        assertEquals(0, GlobalBipartiteCostMatrix.costMatrix(new Coord[0], coords, (i, j) -> 0, null, 1).length);
+    }
+}
@@ -0,0 +1,109 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.matsim.amodeus.dvrp.request.AmodeusRequest;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+/** measures the updates of the exact {@link WeberMaintainer} and of the candidate search, and the duration of
+ * the former brute force update at the full history, on a grid network
+ *
+ * arguments: grid size (default 160, i.e. about 100k links), history (default 1000), candidates (default 64) */
+/* package */ enum WeberMaintainerBenchmark {
+    ;
+    private static Network network(int size) {
+        Network network = NetworkUtils.createNetwork();
+        Node[][] nodes = new Node[size][size];
+        for (int x = 0; x < size; ++x)
+            for (int y = 0; y < size; ++y)
+                nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(100 * x, 100 * y));
+        for (int x = 0; x < size; ++x)
+            for (int y = 0; y < size; ++y) {
+                if (x + 1 < size) {
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_e"), nodes[x][y], nodes[x + 1][y], 100, 14, 1000, 1);
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_w"), nodes[x + 1][y], nodes[x][y], 100, 14, 1000, 1);
+                }
+                if (y + 1 < size) {
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_n"), nodes[x][y], nodes[x][y + 1], 100, 14, 1000, 1);
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_s"), nodes[x][y + 1], nodes[x][y], 100, 14, 1000, 1);
+                }
+            }
+        return network;
+    }
+
+    /** the discrete Weber function as formerly evaluated for every link */
+    private static double weber(Link link, List<Link> pastLinks) {
+        return pastLinks.stream().map(Link::getCoord).mapToDouble(coord -> CoordUtils.calcEuclideanDistance(link.getCoord(), coord)).sum();
+    }
+
+    private static double weber(Link link, List<AmodeusRequest> requests, Link start) {
+        double sum = CoordUtils.calcEuclideanDistance(link.getCoord(), start.getCoord());
+        for (AmodeusRequest request : requests)
+            sum += CoordUtils.calcEuclideanDistance(link.getCoord(), request.getFromLink().getCoord());
+        return sum;
+    }
+
+    public static void main(String[] args) {
+        int size = 0 < args.length ? Integer.parseInt(args[0]) : 160;
+        int history = 1 < args.length ? Integer.parseInt(args[1]) : 1000;
+        int candidates = 2 < args.length ? Integer.parseInt(args[2]) : 64;
+        Network network = network(size);
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        Random random = new Random(1);
+        /** past links concentrated around a hot spot */
+        Coord hotSpot = new Coord(100 * size * random.nextDouble(), 100 * size * random.nextDouble());
+        List<AmodeusRequest> requests = new ArrayList<>();
+        for (int index = 0; index < history; ++index) {
+            Coord coord = new Coord(hotSpot.getX() + 1500 * random.nextGaussian(), hotSpot.getY() + 1500 * random.nextGaussian());
+            Link link = NetworkUtils.getNearestLink(network, coord);
+            requests.add(new AmodeusRequest(Id.create(index, Request.class), null, link, link, index, "av", null));
+        }
+        Link start = links.get(random.nextInt(links.size()));
+        System.out.println(links.size() + " links, history " + history);
+
+        long nanos = System.nanoTime();
+        WeberLinks weberLinks = WeberLinks.of(network);
+        System.out.println(String.format("%-20s %10.1f ms", "weber links", (System.nanoTime() - nanos) * 1e-6));
+
+        nanos = System.nanoTime();
+        WeberMaintainer exact = new WeberMaintainer(start, weberLinks, 0);
+        requests.forEach(exact::update);
+        double exactMillis = (System.nanoTime() - nanos) * 1e-6;
+        System.out.println(String.format("%-20s %10.1f ms %10.3f ms/update", "exact", exactMillis, exactMillis / history));
+
+        nanos = System.nanoTime();
+        WeberMaintainer pruned = new WeberMaintainer(start, weberLinks, candidates);
+        requests.forEach(pruned::update);
+        double prunedMillis = (System.nanoTime() - nanos) * 1e-6;
+        System.out.println(String.format("%-20s %10.1f ms %10.3f ms/update", "candidates " + candidates, prunedMillis, prunedMillis / history));
+
+        /** one update of the former brute force at the full history */
+        List<Link> pastLinks = new ArrayList<>();
+        pastLinks.add(start);
+        requests.forEach(request -> pastLinks.add(request.getFromLink()));
+        nanos = System.nanoTime();
+        /** as in the former findMin, the Weber function is evaluated once for every link */
+        Map<Double, Set<Link>> distMap = links.stream().collect(Collectors.groupingBy(link -> weber(link, pastLinks), Collectors.toSet()));
+        Link bruteForce = distMap.entrySet().stream().min(Comparator.comparingDouble(Entry::getKey)).get().getValue().iterator().next();
+        System.out.println(String.format("%-20s %10.1f ms/update", "brute force", (System.nanoTime() - nanos) * 1e-6));
+
+        double optimum = weber(bruteForce, pastLinks);
+        System.out.println("relative gap exact:      " + (weber(exact.getAnyMinimizer(), requests, start) / optimum - 1));
+        System.out.println("relative gap candidates: " + (weber(pruned.getAnyMinimizer(), requests, start) / optimum - 1));
+    }
+}
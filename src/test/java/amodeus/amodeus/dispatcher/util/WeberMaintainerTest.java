@@ -0,0 +1,211 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.dispatcher.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.matsim.amodeus.dvrp.request.AmodeusRequest;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+import junit.framework.TestCase;
+
+public class WeberMaintainerTest extends TestCase {
+    /** network with random nodes, each node is connected to the next node */
+    private static Network network(String prefix, Coord[] coords) {
+        Network network = NetworkUtils.createNetwork();
+        Node[] nodes = new Node[coords.length];
+        for (int index = 0; index < coords.length; ++index)
+            nodes[index] = NetworkUtils.createAndAddNode(network, Id.createNodeId(prefix + index), coords[index]);
+        for (int index = 0; index + 1 < coords.length; ++index) {
+            NetworkUtils.createAndAddLink(network, Id.createLinkId(prefix + index + "f"), nodes[index], nodes[index + 1], 100, 10, 1000, 1);
+            NetworkUtils.createAndAddLink(network, Id.createLinkId(prefix + index + "b"), nodes[index + 1], nodes[index], 100, 10, 1000, 1);
+        }
+        return network;
+    }
+
+    private static Coord[] scattered(Random random, int size) {
+        Coord[] coords = new Coord[size];
+        for (int index = 0; index < size; ++index)
+            coords[index] = new Coord(5000 * random.nextDouble(), 3000 * random.nextDouble());
+        return coords;
+    }
+
+    /** nodes on the line from (0, 0) in direction (dx, dy) with random spacing */
+    private static Coord[] line(Random random, int size, double dx, double dy) {
+        Coord[] coords = new Coord[size];
+        double position = 0;
+        for (int index = 0; index < size; ++index) {
+            coords[index] = new Coord(position * dx, position * dy);
+            position += 10 + 200 * random.nextDouble();
+        }
+        return coords;
+    }
+
+    private static double weber(Link link, List<Link> pastLinks) {
+        return pastLinks.stream().mapToDouble(pastLink -> CoordUtils.calcEuclideanDistance(link.getCoord(), pastLink.getCoord())).sum();
+    }
+
+    /** the exact minimizers agree with a brute force minimization over all links after every update */
+    public void testExactAgainstBruteForce() {
+        Random random = new Random(1);
+        Network network = network("weber", scattered(random, 200));
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        WeberLinks weberLinks = WeberLinks.of(network);
+        Link start = links.get(random.nextInt(links.size()));
+        WeberMaintainer weberMaintainer = new WeberMaintainer(start, weberLinks, 0);
+        List<Link> pastLinks = new ArrayList<>();
+        pastLinks.add(start);
+        for (int index = 0; index < 60; ++index) {
+            Link link = links.get(random.nextInt(links.size()));
+            AmodeusRequest request = new AmodeusRequest(Id.create("weber" + index, Request.class), null, link, link, index, "av", null);
+            weberMaintainer.update(request);
+            /** a request is considered only once */
+            weberMaintainer.update(request);
+            pastLinks.add(link);
+            double min = links.stream().mapToDouble(l -> weber(l, pastLinks)).min().getAsDouble();
+            assertEquals(min, weber(weberMaintainer.getAnyMinimizer(), pastLinks), min * 1e-12);
+            assertEquals(min, weber(weberMaintainer.getClosestMinimizer(link), pastLinks), min * 1e-12);
+        }
+    }
+
+    /** network with a short link centered at every coordinate */
+    private static Network points(String prefix, List<Coord> coords) {
+        Network network = NetworkUtils.createNetwork();
+        for (int index = 0; index < coords.size(); ++index) {
+            Coord coord = coords.get(index);
+            Node from = NetworkUtils.createAndAddNode(network, Id.createNodeId(prefix + index + "f"), new Coord(coord.getX() - 0.5, coord.getY()));
+            Node to = NetworkUtils.createAndAddNode(network, Id.createNodeId(prefix + index + "t"), new Coord(coord.getX() + 0.5, coord.getY()));
+            NetworkUtils.createAndAddLink(network, Id.createLinkId(prefix + index), from, to, 1, 10, 1000, 1);
+        }
+        return network;
+    }
+
+    /** the candidate search on a history clustered around two hot spots finds minimizers with a Weber value
+     * within 0.1% of the brute force minimum after every update */
+    public void testCandidatesAgainstBruteForce() {
+        Random random = new Random(6);
+        Network network = network("candidates", scattered(random, 400));
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        WeberLinks weberLinks = WeberLinks.of(network);
+        Link start = links.get(random.nextInt(links.size()));
+        WeberMaintainer weberMaintainer = new WeberMaintainer(start, weberLinks, 16);
+        List<Link> pastLinks = new ArrayList<>();
+        pastLinks.add(start);
+        Coord[] hotSpots = { new Coord(1500, 1000), new Coord(3500, 2000) };
+        for (int index = 0; index < 100; ++index) {
+            Coord hotSpot = hotSpots[random.nextInt(3) == 0 ? 1 : 0];
+            int[] nearest = weberLinks.nearest(hotSpot.getX() + 400 * random.nextGaussian(), hotSpot.getY() + 400 * random.nextGaussian(), 1);
+            Link link = weberLinks.links[nearest[0]];
+            weberMaintainer.update(new AmodeusRequest(Id.create("candidates" + index, Request.class), null, link, link, index, "av", null));
+            pastLinks.add(link);
+            double min = links.stream().mapToDouble(l -> weber(l, pastLinks)).min().getAsDouble();
+            double value = weber(weberMaintainer.getAnyMinimizer(), pastLinks);
+            assertTrue(min * (1 - 1e-12) <= value);
+            assertTrue(value <= min * 1.001);
+        }
+    }
+
+    /** the Weiszfeld iteration converges to the center of points that are symmetric about the center,
+     * where the link at the center is the minimizer */
+    public void testWeiszfeldSymmetric() {
+        List<Coord> coords = new ArrayList<>();
+        coords.add(new Coord(2000, 1000));
+        for (int index = 0; index < 8; ++index) {
+            double angle = index * Math.PI / 4;
+            double radius = index % 2 == 0 ? 1000 : 600;
+            coords.add(new Coord(2000 + radius * Math.cos(angle), 1000 + radius * Math.sin(angle)));
+        }
+        Network network = points("symmetric", coords);
+        WeberLinks weberLinks = WeberLinks.of(network);
+        Link center = network.getLinks().get(Id.createLinkId("symmetric0"));
+        WeberMaintainer weberMaintainer = new WeberMaintainer(network.getLinks().get(Id.createLinkId("symmetric1")), weberLinks, 2);
+        /** every point is in the history three times, including the initial link */
+        for (int round = 0; round < 3; ++round)
+            for (int index = round == 0 ? 2 : 1; index < coords.size(); ++index) {
+                Link link = network.getLinks().get(Id.createLinkId("symmetric" + index));
+                weberMaintainer.update(new AmodeusRequest(Id.create("symmetric" + round + "_" + index, Request.class), null, link, link, index, "av", null));
+            }
+        /** the iteration stops at steps below 1 [m], i.e., close to but not exactly at the median */
+        assertEquals(0, CoordUtils.calcEuclideanDistance(weberMaintainer.getMedian(), center.getCoord()), 5);
+        assertEquals(center, weberMaintainer.getAnyMinimizer());
+    }
+
+    private static void assertNearest(WeberLinks weberLinks, double px, double py, int count) {
+        int[] nearest = weberLinks.nearest(px, py, count);
+        assertEquals(Math.min(count, weberLinks.size()), nearest.length);
+        assertEquals(nearest.length, Arrays.stream(nearest).distinct().count());
+        for (int index = 1; index < nearest.length; ++index)
+            assertTrue(nearest[index - 1] < nearest[index]);
+        double[] expected = new double[weberLinks.size()];
+        for (int index = 0; index < expected.length; ++index)
+            expected[index] = Math.hypot(weberLinks.x[index] - px, weberLinks.y[index] - py);
+        Arrays.sort(expected);
+        double[] actual = Arrays.stream(nearest).mapToDouble(index -> Math.hypot(weberLinks.x[index] - px, weberLinks.y[index] - py)).sorted().toArray();
+        for (int index = 0; index < actual.length; ++index)
+            assertEquals(expected[index], actual[index], 0.0);
+    }
+
+    private static void assertNearest(Network network, Random random) {
+        WeberLinks weberLinks = WeberLinks.of(network);
+        double[] bounds = NetworkUtils.getBoundingBox(network.getNodes().values());
+        for (int query = 0; query < 100; ++query) {
+            /** query points inside and around the bounding box */
+            double px = bounds[0] - 500 + (bounds[2] - bounds[0] + 1000) * random.nextDouble();
+            double py = bounds[1] - 500 + (bounds[3] - bounds[1] + 1000) * random.nextDouble();
+            for (int count : new int[] { 1, 2, 7, 32, weberLinks.size(), weberLinks.size() + 5 })
+                assertNearest(weberLinks, px, py, count);
+        }
+        /** query points at the links */
+        for (int index = 0; index < weberLinks.size(); index += 7)
+            assertNearest(weberLinks, weberLinks.x[index], weberLinks.y[index], 5);
+    }
+
+    public void testNearestScattered() {
+        Random random = new Random(2);
+        assertNearest(network("scattered", scattered(random, 300)), random);
+    }
+
+    public void testNearestOnLine() {
+        Random random = new Random(3);
+        assertNearest(network("horizontal", line(random, 150, 1, 0)), random);
+        assertNearest(network("vertical", line(random, 150, 0, 1)), random);
+        assertNearest(network("diagonal", line(random, 150, 0.6, 0.8)), random);
+    }
+
+    /** with 800 links in a square of 1000 [m] the cells are 100 [m] wide. The only link in the cell of the query point
+     * is at the opposite corner of the cell, while a closer link is two cells away. */
+    public void testNearestBeyondNeighbourCells() {
+        Random random = new Random(5);
+        Network network = NetworkUtils.createNetwork();
+        List<Coord> coords = new ArrayList<>();
+        coords.add(new Coord(0, 0));
+        coords.add(new Coord(1000, 1000));
+        while (coords.size() < 798)
+            coords.add(new Coord(1000 * random.nextDouble(), random.nextBoolean() ? 150 * random.nextDouble() : 1000 - 150 * random.nextDouble()));
+        coords.add(new Coord(599, 599));
+        coords.add(new Coord(389, 501));
+        for (int index = 0; index < coords.size(); ++index) {
+            Coord coord = coords.get(index);
+            Node from = NetworkUtils.createAndAddNode(network, Id.createNodeId("cells" + index + "f"), new Coord(coord.getX() - 0.5, coord.getY()));
+            Node to = NetworkUtils.createAndAddNode(network, Id.createNodeId("cells" + index + "t"), new Coord(coord.getX() + 0.5, coord.getY()));
+            NetworkUtils.createAndAddLink(network, Id.createLinkId("cells" + index), from, to, 1, 10, 1000, 1);
+        }
+        WeberLinks weberLinks = WeberLinks.of(network);
+        assertNearest(weberLinks, 501, 501, 1);
+        assertNearest(weberLinks, 501, 501, 2);
+    }
+
+    public void testNearestSingleLink() {
+        Random random = new Random(4);
+        assertNearest(network("single", scattered(random, 2)), random);
+    }
+}
@@ -0,0 +1,88 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.util.Random;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+
+import junit.framework.TestCase;
+
+public class BinnedLSDataTravelTimeTest extends TestCase {
+    private static final int BIN_SIZE = 600;
+    private static final int LINKS = 12;
+    /** float precision of the binned travel times */
+    private static final double TOLERANCE = 1e-6;
+
+    private static Network network() {
+        Network network = NetworkUtils.createNetwork();
+        Node[] nodes = new Node[LINKS + 1];
+        for (int index = 0; index <= LINKS; ++index) {
+            nodes[index] = NetworkUtils.createNode(Id.createNodeId("binned" + index), new Coord(100 * index, 0));
+            network.addNode(nodes[index]);
+        }
+        for (int index = 0; index < LINKS; ++index)
+            network.addLink(NetworkUtils.createLink(Id.createLinkId("binned" + index), nodes[index], nodes[index + 1], network, 50 + 10 * index, 5 + index, 1000, 1));
+        return network;
+    }
+
+    /** links with an index divisible by 3 have no recordings, the first recording of the others is after time 0 */
+    private static LinkSpeedDataTable table(Network network, Random random) {
+        LinkSpeedDataContainer lsData = new LinkSpeedDataContainer();
+        for (int index = 0; index < LINKS; ++index)
+            if (index % 3 != 0)
+                for (int count = 0; count < 10; ++count)
+                    lsData.addData(Id.createLinkId("binned" + index), BIN_SIZE * (1 + random.nextInt(50)), random.nextInt(30) + 0.5);
+        return LinkSpeedDataTable.of(lsData);
+    }
+
+    private static void assertTravelTime(double expected, double actual) {
+        assertEquals(expected, actual, expected * TOLERANCE);
+    }
+
+    public void testEqualsUnbinned() {
+        Network network = network();
+        LinkSpeedDataTable linkSpeedDataTable = table(network, new Random(1));
+        LSDataTravelTime lsDataTravelTime = new LSDataTravelTime(linkSpeedDataTable);
+        BinnedLSDataTravelTime binnedLSDataTravelTime = new BinnedLSDataTravelTime(network, linkSpeedDataTable, BIN_SIZE);
+        for (Link link : network.getLinks().values())
+            for (int time = 0; time < linkSpeedDataTable.getLatestTime() + 5 * BIN_SIZE; time += 50)
+                for (double offset : new double[] { 0.0, 0.25 })
+                    assertTravelTime( //
+                            lsDataTravelTime.getLinkTravelTime(link, time + offset, null, null), //
+                            binnedLSDataTravelTime.getLinkTravelTime(link, time + offset, null, null));
+    }
+
+    public void testFreeSpeed() {
+        Network network = network();
+        LinkSpeedDataTable linkSpeedDataTable = table(network, new Random(2));
+        BinnedLSDataTravelTime binnedLSDataTravelTime = new BinnedLSDataTravelTime(network, linkSpeedDataTable, BIN_SIZE);
+        for (Link link : network.getLinks().values()) {
+            double freeSpeedTravelTime = link.getLength() / link.getFreespeed();
+            /** bins before the first recording */
+            assertTravelTime(freeSpeedTravelTime, binnedLSDataTravelTime.getLinkTravelTime(link, 0.0, null, null));
+            assertTravelTime(freeSpeedTravelTime, binnedLSDataTravelTime.getLinkTravelTime(link, BIN_SIZE - 1, null, null));
+            /** links without recordings */
+            if (Double.isNaN(linkSpeedDataTable.getSpeedFloor(link, linkSpeedDataTable.getLatestTime())))
+                for (int time = 0; time < linkSpeedDataTable.getLatestTime() + 5 * BIN_SIZE; time += BIN_SIZE / 2)
+                    assertTravelTime(freeSpeedTravelTime, binnedLSDataTravelTime.getLinkTravelTime(link, time, null, null));
+        }
+    }
+
+    /** links that are not part of the network are looked up in the table */
+    public void testLinkOutsideNetwork() {
+        Network network = network();
+        Node from = NetworkUtils.createNode(Id.createNodeId("binnedOutsideFrom"), new Coord(0, 100));
+        Node to = NetworkUtils.createNode(Id.createNodeId("binnedOutsideTo"), new Coord(100, 100));
+        Link link = NetworkUtils.createLink(Id.createLinkId("binnedOutside"), from, to, network, 100, 10, 1000, 1);
+        LinkSpeedDataContainer lsData = new LinkSpeedDataContainer();
+        lsData.addData(link.getId(), BIN_SIZE, 4.0);
+        BinnedLSDataTravelTime binnedLSDataTravelTime = new BinnedLSDataTravelTime(network, LinkSpeedDataTable.of(lsData), BIN_SIZE);
+        assertEquals(10.0, binnedLSDataTravelTime.getLinkTravelTime(link, 0.0, null, null), 0.0);
+        assertEquals(25.0, binnedLSDataTravelTime.getLinkTravelTime(link, 2 * BIN_SIZE, null, null), 0.0);
+    }
+}
@@ -0,0 +1,61 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Random;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+import junit.framework.TestCase;
+
+public class LinkSpeedDataTableTest extends TestCase {
+    private static LinkSpeedDataContainer create(Random random) {
+        LinkSpeedDataContainer lsData = new LinkSpeedDataContainer();
+        for (int link = 0; link < 20; ++link) {
+            Id<Link> linkId = Id.createLinkId("table" + link);
+            if (link % 3 != 0)
+                for (int count = 0; count < 10; ++count)
+                    lsData.addData(linkId, 600 * random.nextInt(100), random.nextInt(30) + 0.5);
+        }
+        return lsData;
+    }
+
+    private static void assertIdentical(LinkSpeedDataContainer lsData, LinkSpeedDataTable linkSpeedDataTable) {
+        for (int link = 0; link < 20; ++link) {
+            Id<Link> linkId = Id.createLinkId("table" + link);
+            LinkSpeedTimeSeries timeSeries = lsData.get(linkId);
+            for (int time = 0; time < 60000; time += 250)
+                if (timeSeries == null || time < Collections.min(timeSeries.getRecordedTimes()))
+                    assertTrue(Double.isNaN(linkSpeedDataTable.getSpeedFloor(linkId, time)));
+                else
+                    assertEquals(timeSeries.getSpeedsFloor(time), linkSpeedDataTable.getSpeedFloor(linkId, time), 0.0);
+        }
+    }
+
+    public void testFloor() {
+        LinkSpeedDataContainer lsData = create(new Random(1));
+        LinkSpeedDataTable linkSpeedDataTable = LinkSpeedDataTable.of(lsData);
+        assertEquals(lsData.getLinkMap().values().stream().mapToInt(timeSeries -> timeSeries.getRecordedTimes().size()).sum(), linkSpeedDataTable.size());
+        assertIdentical(lsData, linkSpeedDataTable);
+        assertIdentical(lsData, LinkSpeedDataTable.of(linkSpeedDataTable.toContainer()));
+    }
+
+    public void testMapped() throws Exception {
+        LinkSpeedDataContainer lsData = create(new Random(2));
+        File file = File.createTempFile("linkSpeedData", ".bin");
+        try {
+            LinkSpeedUtils.writeLinkSpeedTable(file, LinkSpeedDataTable.of(lsData));
+            assertIdentical(lsData, LinkSpeedUtils.loadLinkSpeedTable(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testEmpty() {
+        LinkSpeedDataTable linkSpeedDataTable = LinkSpeedDataTable.of(new LinkSpeedDataContainer());
+        assertEquals(0, linkSpeedDataTable.size());
+        assertTrue(Double.isNaN(linkSpeedDataTable.getSpeedFloor(Id.createLinkId("table0"), 0)));
+    }
+}
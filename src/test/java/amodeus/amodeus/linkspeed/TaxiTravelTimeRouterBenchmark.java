@@ -0,0 +1,113 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.linkspeed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.matsim.amodeus.plpc.DefaultParallelLeastCostPathCalculator;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.DijkstraFactory;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+
+/** compares route queries of {@link TaxiTravelTimeRouter} with {@link LSDataTravelTime} and with
+ * {@link BinnedLSDataTravelTime} on a synthetic grid network with link speeds recorded every 10 minutes
+ *
+ * arguments: grid size (default 60), number of queries (default 2000) */
+/* package */ enum TaxiTravelTimeRouterBenchmark {
+    ;
+    private static final int BIN_SIZE = 600;
+    private static final int END_TIME = 30 * 3600;
+
+    private static Network network(int size) {
+        Network network = NetworkUtils.createNetwork();
+        Node[][] nodes = new Node[size][size];
+        for (int x = 0; x < size; ++x)
+            for (int y = 0; y < size; ++y)
+                nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(100 * x, 100 * y));
+        for (int x = 0; x < size; ++x)
+            for (int y = 0; y < size; ++y) {
+                if (x + 1 < size) {
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_e"), nodes[x][y], nodes[x + 1][y], 100, 14, 1000, 1);
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_w"), nodes[x + 1][y], nodes[x][y], 100, 14, 1000, 1);
+                }
+                if (y + 1 < size) {
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_n"), nodes[x][y], nodes[x][y + 1], 100, 14, 1000, 1);
+                    NetworkUtils.createAndAddLink(network, Id.createLinkId(x + "_" + y + "_s"), nodes[x][y + 1], nodes[x][y], 100, 14, 1000, 1);
+                }
+            }
+        return network;
+    }
+
+    private static LinkSpeedDataContainer lsData(Network network, Random random) {
+        LinkSpeedDataContainer lsData = new LinkSpeedDataContainer();
+        for (Link link : network.getLinks().values())
+            /** about half of the links have recordings, the others use the free speed */
+            if (random.nextBoolean())
+                for (int time = 0; time < END_TIME; time += BIN_SIZE)
+                    lsData.addData(link, time, 2 + 12 * random.nextDouble());
+        return lsData;
+    }
+
+    private static double[] run(String name, Network network, TravelTime travelTime, List<Node[]> queries, List<Double> times) throws Exception {
+        double[] result = new double[queries.size()];
+        try (TaxiTravelTimeRouter taxiTravelTimeRouter = new TaxiTravelTimeRouter(DefaultParallelLeastCostPathCalculator.create(1, //
+                new DijkstraFactory(), network, new OnlyTimeDependentTravelDisutility(travelTime), travelTime))) {
+            long nanos = System.nanoTime();
+            for (int index = 0; index < queries.size(); ++index) {
+                Node[] query = queries.get(index);
+                Path path = taxiTravelTimeRouter.calcLeastCostPath(query[0], query[1], times.get(index), null, null).get();
+                result[index] = path.travelTime;
+            }
+            System.out.println(String.format("%-24s %8.1f ms for %d queries", name, (System.nanoTime() - nanos) * 1e-6, queries.size()));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int size = 0 < args.length ? Integer.parseInt(args[0]) : 60;
+        int count = 1 < args.length ? Integer.parseInt(args[1]) : 2000;
+        Random random = new Random(1);
+        Network network = network(size);
+        LinkSpeedDataContainer lsData = lsData(network, random);
+        List<Node> nodes = new ArrayList<>(network.getNodes().values());
+        List<Node[]> queries = new ArrayList<>();
+        List<Double> times = new ArrayList<>();
+        for (int index = 0; index < count; ++index) {
+            queries.add(new Node[] { nodes.get(random.nextInt(nodes.size())), nodes.get(random.nextInt(nodes.size())) });
+            times.add((double) random.nextInt(END_TIME));
+        }
+
+        long nanos = System.nanoTime();
+        LinkSpeedDataTable linkSpeedDataTable = LinkSpeedDataTable.of(lsData);
+        BinnedLSDataTravelTime binnedLSDataTravelTime = new BinnedLSDataTravelTime(network, linkSpeedDataTable, BIN_SIZE);
+        System.out.println(String.format("%-24s %8.1f ms for %d links", "table construction", (System.nanoTime() - nanos) * 1e-6, network.getLinks().size()));
+
+        /** lookup in the {@link LinkSpeedTimeSeries} as formerly done by {@link LSDataTravelTime} */
+        TravelTime treeMap = (link, time, person, vehicle) -> {
+            double speed = link.getFreespeed();
+            LinkSpeedTimeSeries timeSeries = lsData.get(link);
+            if (Objects.nonNull(timeSeries))
+                speed = timeSeries.getSpeedsFloor((int) time);
+            return link.getLength() / speed;
+        };
+
+        /** warm up */
+        run("warm up", network, treeMap, queries, times);
+        run("TreeMap", network, treeMap, queries, times);
+        double[] exact = run(LSDataTravelTime.class.getSimpleName(), network, new LSDataTravelTime(linkSpeedDataTable), queries, times);
+        double[] binned = run(BinnedLSDataTravelTime.class.getSimpleName(), network, binnedLSDataTravelTime, queries, times);
+        double maxDeviation = 0;
+        for (int index = 0; index < count; ++index)
+            maxDeviation = Math.max(maxDeviation, Math.abs(exact[index] - binned[index]) / Math.max(1, exact[index]));
+        System.out.println("max relative deviation of path travel times: " + maxDeviation);
+    }
+}
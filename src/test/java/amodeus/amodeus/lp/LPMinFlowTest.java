@@ -6,6 +6,8 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -24,8 +26,12 @@ import amodeus.amodeus.options.ScenarioOptionsBase;
 import amodeus.amodeus.prep.VirtualNetworkCreator;
 import amodeus.amodeus.util.io.Locate;
 import amodeus.amodeus.virtualnetwork.core.VirtualNetwork;
+import ch.ethz.idsc.tensor.RealScalar;
+import ch.ethz.idsc.tensor.Tensor;
 import ch.ethz.idsc.tensor.Tensors;
 import ch.ethz.idsc.tensor.alg.Array;
+import ch.ethz.idsc.tensor.red.Total;
+import ch.ethz.idsc.tensor.sca.Sign;
 
 public class LPMinFlowTest {
     private static VirtualNetwork<Link> virtualNetwork2;
@@ -82,6 +88,38 @@ public class LPMinFlowTest {
         assertEquals(virtualNetwork3incomplete.getvNodesCount(), 3);
     }
 
+    @Test
+    public void testNetworkSimplex() {
+        /** the network simplex attains the cost of the solution of GLPK */
+        Random random = new Random(1);
+        for (VirtualNetwork<Link> virtualNetwork : Arrays.asList(virtualNetwork2, virtualNetwork3, virtualNetwork3incomplete)) {
+            int nvNodes = virtualNetwork.getvNodesCount();
+            Tensor gamma_ij = LPUtils.getEuclideanTravelTimeBetweenVSCenters(virtualNetwork, LPUtils.AVERAGE_VEL);
+            LPMinFlow glpk = new LPMinFlow(virtualNetwork);
+            glpk.initiateLP();
+            LPMinFlow networkSimplex = new LPMinFlow(virtualNetwork, true);
+            networkSimplex.initiateLP();
+            for (int trial = 0; trial < 20; ++trial) {
+                Tensor minFlow = Tensors.vector(i -> RealScalar.of(random.nextInt(9) - 5), nvNodes);
+                if (Sign.isPositive(Total.of(minFlow).Get()))
+                    continue;
+                glpk.solveLP(true, minFlow);
+                networkSimplex.solveLP(true, minFlow);
+                assertEquals(cost(gamma_ij, glpk.getAlphaAbsolute_ij()), cost(gamma_ij, networkSimplex.getAlphaAbsolute_ij()), 1e-6);
+            }
+            glpk.closeLP();
+            networkSimplex.closeLP();
+        }
+    }
+
+    private static double cost(Tensor gamma_ij, Tensor alphaAbsolute_ij) {
+        double sum = 0;
+        for (int i = 0; i < gamma_ij.length(); ++i)
+            for (int j = 0; j < gamma_ij.length(); ++j)
+                sum += gamma_ij.Get(i, j).number().doubleValue() * alphaAbsolute_ij.Get(i, j).number().doubleValue();
+        return sum;
+    }
+
     @Test
     public void testLPMinFlow2Nodes() {
         // init LPMinFlow
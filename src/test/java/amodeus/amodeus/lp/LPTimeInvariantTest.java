@@ -7,6 +7,7 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Random;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -30,7 +31,9 @@ import amodeus.amodeus.util.io.MultiFileTools;
 import amodeus.amodeus.util.math.GlobalAssert;
 import amodeus.amodeus.virtualnetwork.core.VirtualNetwork;
 import ch.ethz.idsc.tensor.RealScalar;
+import ch.ethz.idsc.tensor.Tensor;
 import ch.ethz.idsc.tensor.Tensors;
+import ch.ethz.idsc.tensor.alg.Array;
 
 public class LPTimeInvariantTest {
     private static VirtualNetwork<Link> virtualNetwork2;
@@ -84,6 +87,31 @@ public class LPTimeInvariantTest {
         assertEquals(virtualNetwork3.getvNodesCount(), 3);
     }
 
+    @Test
+    public void testNetworkSimplex() {
+        /** the network simplex attains the cost of the solution of GLPK in every time step */
+        Random random = new Random(1);
+        Tensor lambdaAbsolute_ij = Array.of(list -> list.get(1).equals(list.get(2)) ? RealScalar.ZERO : RealScalar.of(random.nextInt(10)), 4, 3, 3);
+        LPTimeInvariant glpk = new LPTimeInvariant(virtualNetwork3, lambdaAbsolute_ij, 100, endTime);
+        glpk.initiateLP();
+        glpk.solveLP(true);
+        LPTimeInvariant networkSimplex = new LPTimeInvariant(virtualNetwork3, lambdaAbsolute_ij, 100, endTime, true);
+        networkSimplex.initiateLP();
+        networkSimplex.solveLP(true);
+        Tensor gamma_ij = LPUtils.getEuclideanTravelTimeBetweenVSCenters(virtualNetwork3, LPUtils.AVERAGE_VEL);
+        for (int k = 0; k < 4; ++k) {
+            double costGlpk = 0;
+            double costNetworkSimplex = 0;
+            for (int i = 0; i < 3; ++i)
+                for (int j = 0; j < 3; ++j) {
+                    double gamma = gamma_ij.Get(i, j).number().doubleValue();
+                    costGlpk += gamma * glpk.getAlphaAbsolute_ij().Get(k, i, j).number().doubleValue();
+                    costNetworkSimplex += gamma * networkSimplex.getAlphaAbsolute_ij().Get(k, i, j).number().doubleValue();
+                }
+            assertEquals(costGlpk, costNetworkSimplex, 1e-6);
+        }
+    }
+
     @Test
     public void testLP2Nodes() {
         // init LP time-invariant
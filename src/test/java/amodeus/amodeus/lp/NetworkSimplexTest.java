@@ -0,0 +1,196 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.lp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class NetworkSimplexTest {
+    /** instance of a min cost flow problem with integral costs */
+    private static class Instance {
+        final int nodes;
+        final int[] source;
+        final int[] target;
+        final long[] capacity;
+        final double[] cost;
+
+        Instance(int nodes, int arcs, double uncapacitated, Random random) {
+            this.nodes = nodes;
+            source = new int[arcs];
+            target = new int[arcs];
+            capacity = new long[arcs];
+            cost = new double[arcs];
+            for (int e = 0; e < arcs; ++e) {
+                source[e] = random.nextInt(nodes);
+                target[e] = random.nextInt(nodes);
+                capacity[e] = random.nextDouble() < uncapacitated ? NetworkSimplex.INFINITE : random.nextInt(6);
+                cost[e] = random.nextInt(20);
+            }
+        }
+
+        long[] supply(long total, Random random) {
+            long[] supply = new long[nodes];
+            for (int unit = 0; unit < total; ++unit) {
+                ++supply[random.nextInt(nodes)];
+                --supply[random.nextInt(nodes)];
+            }
+            return supply;
+        }
+
+        double cost(long[] flow) {
+            double sum = 0;
+            for (int e = 0; e < flow.length; ++e)
+                sum += cost[e] * flow[e];
+            return sum;
+        }
+
+        void assertFeasible(long[] flow, long[] supply) {
+            long[] balance = new long[nodes];
+            for (int e = 0; e < flow.length; ++e) {
+                assertTrue(0 <= flow[e] && flow[e] <= capacity[e]);
+                balance[source[e]] += flow[e];
+                balance[target[e]] -= flow[e];
+            }
+            assertTrue(Arrays.equals(supply, balance));
+        }
+
+        /** @return optimal cost by successive shortest paths with Bellman-Ford, or NaN if infeasible */
+        double reference(long[] supply) {
+            int s = nodes;
+            int t = nodes + 1;
+            int arcs = source.length;
+            int residualArcs = 2 * (arcs + nodes);
+            int[] from = new int[residualArcs];
+            int[] to = new int[residualArcs];
+            long[] residual = new long[residualArcs];
+            double[] weight = new double[residualArcs];
+            for (int e = 0; e < arcs; ++e)
+                set(from, to, residual, weight, 2 * e, source[e], target[e], capacity[e], cost[e]);
+            for (int v = 0; v < nodes; ++v)
+                if (0 <= supply[v])
+                    set(from, to, residual, weight, 2 * (arcs + v), s, v, supply[v], 0);
+                else
+                    set(from, to, residual, weight, 2 * (arcs + v), v, t, -supply[v], 0);
+            long required = Arrays.stream(supply).filter(value -> 0 < value).sum();
+            double sum = 0;
+            while (0 < required) {
+                double[] distance = new double[nodes + 2];
+                int[] pred = new int[nodes + 2];
+                Arrays.fill(distance, Double.POSITIVE_INFINITY);
+                Arrays.fill(pred, -1);
+                distance[s] = 0;
+                for (int round = 0; round < nodes + 2; ++round)
+                    for (int a = 0; a < residualArcs; ++a)
+                        if (0 < residual[a] && distance[from[a]] + weight[a] < distance[to[a]]) {
+                            distance[to[a]] = distance[from[a]] + weight[a];
+                            pred[to[a]] = a;
+                        }
+                if (pred[t] < 0)
+                    return Double.NaN;
+                long delta = required;
+                for (int v = t; v != s; v = from[pred[v]])
+                    delta = Math.min(delta, residual[pred[v]]);
+                for (int v = t; v != s; v = from[pred[v]]) {
+                    residual[pred[v]] -= delta;
+                    residual[pred[v] ^ 1] += delta;
+                }
+                sum += delta * distance[t];
+                required -= delta;
+            }
+            return sum;
+        }
+
+        private static void set(int[] from, int[] to, long[] residual, double[] weight, int a, int u, int v, long capacity, double cost) {
+            from[a] = u;
+            to[a] = v;
+            residual[a] = capacity == NetworkSimplex.INFINITE ? Long.MAX_VALUE / 4 : capacity;
+            weight[a] = cost;
+            from[a + 1] = v;
+            to[a + 1] = u;
+            weight[a + 1] = -cost;
+        }
+
+        NetworkSimplex networkSimplex() {
+            return new NetworkSimplex(nodes, source, target, capacity, cost);
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(1);
+        int feasible = 0;
+        for (int trial = 0; trial < 200; ++trial) {
+            Instance instance = new Instance(2 + random.nextInt(12), random.nextInt(40), 0.3, random);
+            long[] supply = instance.supply(random.nextInt(15), random);
+            double reference = instance.reference(supply);
+            try {
+                long[] flow = instance.networkSimplex().solve(supply);
+                instance.assertFeasible(flow, supply);
+                assertEquals(reference, instance.cost(flow), 1e-9);
+                ++feasible;
+            } catch (RuntimeException runtimeException) {
+                assertTrue(Double.isNaN(reference));
+            }
+        }
+        assertTrue(50 < feasible);
+    }
+
+    @Test
+    public void testWarmStart() {
+        Random random = new Random(2);
+        Instance instance = new Instance(30, 200, 0.8, random);
+        NetworkSimplex networkSimplex = instance.networkSimplex();
+        long[] supply = instance.supply(20, random);
+        for (int step = 0; step < 50; ++step) {
+            /** few units are displaced between consecutive problems */
+            long[] change = instance.supply(random.nextInt(4), random);
+            for (int v = 0; v < supply.length; ++v)
+                supply[v] += change[v];
+            double reference = instance.reference(supply);
+            try {
+                long[] flow = networkSimplex.solve(supply);
+                instance.assertFeasible(flow, supply);
+                assertEquals(reference, instance.cost(flow), 1e-9);
+                assertEquals(reference, networkSimplex.getCost(), 1e-9);
+            } catch (RuntimeException runtimeException) {
+                assertTrue(Double.isNaN(reference));
+            }
+        }
+    }
+
+    @Test
+    public void testTransportation() {
+        /** two origins with 2 and 1 units, two destinations with 2 free spots each */
+        int[] source = { 0, 0, 1, 1, 2, 3 };
+        int[] target = { 2, 3, 2, 3, 4, 4 };
+        long[] capacity = { NetworkSimplex.INFINITE, NetworkSimplex.INFINITE, NetworkSimplex.INFINITE, NetworkSimplex.INFINITE, 2, 2 };
+        double[] cost = { 1, 3, 1, 2, 0, 0 };
+        long[] flow = new NetworkSimplex(5, source, target, capacity, cost).solve(new long[] { 2, 1, 0, 0, -3 });
+        assertTrue(Arrays.equals(new long[] { 2, 0, 0, 1, 2, 1 }, flow));
+    }
+
+    @Test
+    public void testInfeasible() {
+        NetworkSimplex networkSimplex = new NetworkSimplex(2, new int[] { 0 }, new int[] { 1 }, new long[] { 1 }, new double[] { 1 });
+        assertTrue(Arrays.equals(new long[] { 1 }, networkSimplex.solve(new long[] { 1, -1 })));
+        try {
+            networkSimplex.solve(new long[] { 2, -2 });
+            fail();
+        } catch (Exception exception) {
+            // ---
+        }
+        /** the instance recovers from the infeasible problem */
+        assertTrue(Arrays.equals(new long[] { 0 }, networkSimplex.solve(new long[] { 0, 0 })));
+        try {
+            networkSimplex.solve(new long[] { -1, 1 });
+            fail();
+        } catch (Exception exception) {
+            // ---
+        }
+    }
+}
@@ -4,6 +4,7 @@ package amodeus.amodeus.lp;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.function.BiFunction;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -46,8 +47,39 @@ public class RedistributionTests2 {
         Assert.assertEquals(0, (int) solution.get("o2").get("d2"));
     }
 
+    @Test
+    public void testNetworkSimplex() {
+        /** the network simplex attains the cost of the solution of GLPK */
+        for (int trial = 0; trial < 20; ++trial) {
+            Map<String, Integer> agentsToGo = new HashMap<>();
+            for (int i = 1; i <= 1 + random.nextInt(8); ++i)
+                agentsToGo.put("o" + i, random.nextInt(4));
+            int totalUnits = agentsToGo.values().stream().mapToInt(i -> i).sum();
+            Map<String, Integer> freeSpaces = new HashMap<>();
+            for (int i = 1; i <= 1 + random.nextInt(8); ++i)
+                freeSpaces.put("d" + i, random.nextInt(4));
+            freeSpaces.merge("d1", totalUnits, Integer::sum);
+            Map<String, Double> costs = new HashMap<>();
+            BiFunction<String, String, Double> costFunction = (o, d) -> costs.computeIfAbsent(o + d, key -> (double) random.nextInt(100));
+            Map<String, Map<String, Integer>> glpk = //
+                    new RedistributionProblemSolver<>(agentsToGo, freeSpaces, costFunction, s -> s, false, "").returnSolution();
+            Map<String, Map<String, Integer>> networkSimplex = //
+                    new RedistributionProblemSolver<>(agentsToGo, freeSpaces, costFunction, s -> s, false, "", true).returnSolution();
+            Assert.assertEquals(cost(glpk, costFunction), cost(networkSimplex, costFunction), 1e-9);
+            for (String origin : agentsToGo.keySet())
+                Assert.assertEquals((int) agentsToGo.get(origin), networkSimplex.get(origin).values().stream().mapToInt(i -> i).sum());
+            for (String destination : freeSpaces.keySet())
+                Assert.assertTrue(networkSimplex.values().stream().mapToInt(map -> map.get(destination)).sum() <= freeSpaces.get(destination));
+        }
+    }
+
     /** helper functions */
 
+    private static double cost(Map<String, Map<String, Integer>> solution, BiFunction<String, String, Double> costFunction) {
+        return solution.entrySet().stream().flatMap(entry -> entry.getValue().entrySet().stream() //
+                .map(flow -> costFunction.apply(entry.getKey(), flow.getKey()) * flow.getValue())).mapToDouble(Double::doubleValue).sum();
+    }
+
     private static double distance(String i1, String i2) {
         return random.nextDouble();
     }
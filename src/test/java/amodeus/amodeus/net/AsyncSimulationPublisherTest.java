@@ -0,0 +1,63 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import amodeus.amodeus.net.AsyncSimulationPublisher.BackPressure;
+import junit.framework.TestCase;
+
+public class AsyncSimulationPublisherTest extends TestCase {
+    public void testBlock() {
+        List<Object> list = new ArrayList<>();
+        AsyncSimulationPublisher asyncSimulationPublisher = new AsyncSimulationPublisher(list::add, 2, BackPressure.BLOCK);
+        for (int count = 0; count < 100; ++count)
+            asyncSimulationPublisher.handle(count);
+        asyncSimulationPublisher.close();
+        assertEquals(100, list.size());
+        for (int count = 0; count < 100; ++count)
+            assertEquals(count, list.get(count));
+        assertEquals(100, asyncSimulationPublisher.getPublished());
+        assertEquals(0, asyncSimulationPublisher.getDropped());
+        assertTrue(asyncSimulationPublisher.getMaxQueueDepth() <= 2);
+    }
+
+    public void testDropOldest() throws InterruptedException {
+        CountDownLatch countDownLatch = new CountDownLatch(1);
+        List<Object> list = new ArrayList<>();
+        AsyncSimulationPublisher asyncSimulationPublisher = new AsyncSimulationPublisher(object -> {
+            try {
+                countDownLatch.await();
+            } catch (InterruptedException interruptedException) {
+                throw new RuntimeException(interruptedException);
+            }
+            list.add(object);
+        }, 3, BackPressure.DROP_OLDEST);
+        asyncSimulationPublisher.handle(-1);
+        while (0 < asyncSimulationPublisher.getQueueDepth())
+            Thread.sleep(1);
+        // the background thread waits in the delegate with object -1
+        for (int count = 0; count < 10; ++count)
+            asyncSimulationPublisher.handle(count);
+        countDownLatch.countDown();
+        asyncSimulationPublisher.close();
+        assertEquals(4, list.size());
+        assertEquals(-1, list.get(0));
+        assertEquals(9, list.get(3));
+        assertEquals(7, asyncSimulationPublisher.getDropped());
+    }
+
+    public void testFailure() {
+        AsyncSimulationPublisher asyncSimulationPublisher = new AsyncSimulationPublisher(object -> {
+            throw new IllegalArgumentException();
+        }, 2, BackPressure.SAMPLE);
+        asyncSimulationPublisher.handle(1);
+        try {
+            asyncSimulationPublisher.close();
+            fail();
+        } catch (IllegalArgumentException illegalArgumentException) {
+            // ---
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.net;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.apache.commons.io.FileUtils;
+
+import amodeus.amodeus.dispatcher.core.RequestStatus;
+import amodeus.amodeus.dispatcher.core.RoboTaxiStatus;
+import junit.framework.TestCase;
+
+public class SimulationObjectRecorderTest extends TestCase {
+    private static final File OUTPUT = new File("test_output_recorder");
+
+    private static SimulationObject simulationObject(int iteration, long now) {
+        SimulationObject simulationObject = new SimulationObject();
+        simulationObject.iteration = iteration;
+        simulationObject.now = now;
+        simulationObject.infoLine = "info " + now;
+        simulationObject.total_matchedRequests = (int) now / 10;
+        RequestContainer requestContainer = new RequestContainer();
+        requestContainer.requestIndex = 3;
+        requestContainer.fromLinkIndex = 4;
+        requestContainer.toLinkIndex = 5;
+        requestContainer.submissionTime = now - 0.5;
+        requestContainer.requestStatus = EnumSet.of(RequestStatus.ASSIGNED, RequestStatus.PICKUPDRIVE);
+        requestContainer.associatedVehicle = 7;
+        simulationObject.requests.add(requestContainer);
+        VehicleContainer vehicleContainer = new VehicleContainer();
+        vehicleContainer.vehicleIndex = 7;
+        vehicleContainer.linkTrace = new int[] { 1, 2, (int) now };
+        vehicleContainer.statii = new RoboTaxiStatus[] { RoboTaxiStatus.DRIVETOCUSTOMER, RoboTaxiStatus.STAY };
+        vehicleContainer.destinationLinkIndex = 4;
+        simulationObject.vehicles = Arrays.asList(vehicleContainer);
+        simulationObject.serializable = "dispatcher " + now;
+        return simulationObject;
+    }
+
+    private static void check(StorageSupplier storageSupplier, int size) throws Exception {
+        assertEquals(size, storageSupplier.size());
+        assertEquals(10, storageSupplier.getIntervalEstimate());
+        for (int index = size - 1; 0 <= index; --index) {
+            long now = 10 * (index + 1);
+            SimulationObject simulationObject = storageSupplier.getSimulationObject(index);
+            assertEquals(now, simulationObject.now);
+            assertEquals("info " + now, simulationObject.infoLine);
+            assertEquals(now / 10, simulationObject.total_matchedRequests);
+            RequestContainer requestContainer = simulationObject.requests.get(0);
+            assertEquals(now - 0.5, requestContainer.submissionTime);
+            assertEquals(EnumSet.of(RequestStatus.ASSIGNED, RequestStatus.PICKUPDRIVE), requestContainer.requestStatus);
+            assertEquals(7, requestContainer.associatedVehicle);
+            VehicleContainer vehicleContainer = simulationObject.vehicles.get(0);
+            assertTrue(Arrays.equals(new int[] { 1, 2, (int) now }, vehicleContainer.linkTrace));
+            assertTrue(Arrays.equals(new RoboTaxiStatus[] { RoboTaxiStatus.DRIVETOCUSTOMER, RoboTaxiStatus.STAY }, vehicleContainer.statii));
+            assertEquals("dispatcher " + now, simulationObject.serializable);
+        }
+    }
+
+    public void testRoundTrip() throws Exception {
+        OUTPUT.mkdir();
+        try {
+            StorageUtils storageUtils = new StorageUtils(OUTPUT);
+            try (SimulationObjectRecorder simulationObjectRecorder = new SimulationObjectRecorder(storageUtils)) {
+                for (int count = 1; count <= 100; ++count)
+                    simulationObjectRecorder.handle(simulationObject(0, 10 * count));
+                for (int count = 1; count <= 20; ++count)
+                    simulationObjectRecorder.handle(simulationObject(1, 10 * count));
+            }
+            assertEquals(2, storageUtils.getAvailableIterations().size());
+            check(storageUtils.getAvailableIterations().get(0).storageSupplier(), 100);
+            check(storageUtils.getFirstAvailableStorageSupplier(), 20);
+        } finally {
+            FileUtils.deleteDirectory(OUTPUT);
+        }
+    }
+
+    public void testMissingIndex() throws Exception {
+        OUTPUT.mkdir();
+        try {
+            StorageUtils storageUtils = new StorageUtils(OUTPUT);
+            try (SimulationObjectRecorder simulationObjectRecorder = new SimulationObjectRecorder(storageUtils)) {
+                for (int count = 1; count <= 30; ++count)
+                    simulationObjectRecorder.handle(simulationObject(0, 10 * count));
+            }
+            File file = storageUtils.getRecordingFileOf(0);
+            // remove the index and a part of the last record as if the simulation was aborted
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.seek(randomAccessFile.length() - Long.BYTES - Integer.BYTES);
+                long indexOffset = randomAccessFile.readLong();
+                randomAccessFile.setLength(indexOffset - 3);
+            }
+            check(new MappedStorageSupplier(file), 29);
+        } finally {
+            FileUtils.deleteDirectory(OUTPUT);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.parking.strategies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+
+import amodeus.amodeus.dispatcher.core.RoboTaxi;
+import amodeus.amodeus.dispatcher.core.StaticRoboTaxiCreator;
+import amodeus.amodeus.parking.capacities.ParkingCapacity;
+
+public class DirectedDiffusionHelperTest {
+    private static Network network() {
+        Network network = NetworkUtils.createNetwork();
+        Node[] nodes = new Node[6];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = NetworkUtils.createNode(Id.createNodeId("diffusion" + i), new Coord(100 * i, 0));
+            network.addNode(nodes[i]);
+        }
+        for (int i = 0; i + 1 < nodes.length; ++i) {
+            network.addLink(NetworkUtils.createLink(Id.createLinkId("diffusion" + i + "f"), nodes[i], nodes[i + 1], network, 100, 10, 1000, 1));
+            network.addLink(NetworkUtils.createLink(Id.createLinkId("diffusion" + i + "b"), nodes[i + 1], nodes[i], network, 100, 10, 1000, 1));
+        }
+        return network;
+    }
+
+    /** without free spaces among the degree 1 and degree 2 neighbors, the destination is a random degree 2
+     * neighbor, even though a link further away has a free space */
+    @Test
+    public void testRandomNeighborFallback() {
+        Network network = network();
+        Link location = network.getLinks().get(Id.createLinkId("diffusion1f"));
+        Id<Link> freeLinkId = Id.createLinkId("diffusion4f");
+        ParkingCapacity parkingCapacity = new ParkingCapacity() {
+            @Override
+            public long getSpatialCapacity(Id<Link> id) {
+                return id.equals(freeLinkId) ? 1 : 0;
+            }
+
+            @Override
+            public Collection<Id<Link>> getAvailableLinks() {
+                return Collections.singleton(freeLinkId);
+            }
+        };
+        Set<Link> deg2Neighbors = new HashSet<>();
+        for (String id : Arrays.asList("diffusion3f", "diffusion2b", "diffusion0b"))
+            deg2Neighbors.add(network.getLinks().get(Id.createLinkId(id)));
+
+        Set<Link> destinations = new HashSet<>();
+        for (int seed = 0; seed < 20; ++seed) {
+            RoboTaxi roboTaxi = StaticRoboTaxiCreator.createStayingRoboTaxi(location, null);
+            ParkingOccupancy<RoboTaxi> parkingOccupancy = new ParkingOccupancy<>( //
+                    parkingCapacity, network, RoboTaxi::getDivertableLocation, rt -> null);
+            List<RoboTaxi> staying = new ArrayList<>();
+            staying.add(roboTaxi);
+            parkingOccupancy.update(staying, new ArrayList<>());
+            Link destination = new DirectedDiffusionHelper(parkingOccupancy, new Random(seed)).getDestinationLink(roboTaxi);
+            Assert.assertTrue(deg2Neighbors.contains(destination));
+            destinations.add(destination);
+        }
+        Assert.assertEquals(deg2Neighbors, destinations);
+    }
+}
@@ -0,0 +1,107 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.parking.strategies;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+
+import amodeus.amodeus.parking.capacities.ParkingCapacityConstant;
+
+/** compares the incrementally updated {@link ParkingOccupancy} with the occupancy that is counted from
+ * all vehicles in every step */
+public class ParkingOccupancyTest {
+    private static final long CAPACITY = 2;
+
+    private static Network network() {
+        Network network = NetworkUtils.createNetwork();
+        Node[] nodes = new Node[5];
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = NetworkUtils.createNode(Id.createNodeId("parking" + i), new Coord(100 * i, 0));
+            network.addNode(nodes[i]);
+        }
+        for (int i = 0; i + 1 < nodes.length; ++i) {
+            network.addLink(NetworkUtils.createLink(Id.createLinkId("parking" + i + "f"), nodes[i], nodes[i + 1], network, 100, 10, 1000, 1));
+            network.addLink(NetworkUtils.createLink(Id.createLinkId("parking" + i + "b"), nodes[i + 1], nodes[i], network, 100, 10, 1000, 1));
+        }
+        return network;
+    }
+
+    @Test
+    public void testRandomSteps() {
+        Random random = new Random(1);
+        Network network = network();
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        Map<String, Link> stayLinks = new HashMap<>();
+        Map<String, Link> rebalanceLinks = new HashMap<>();
+        ParkingOccupancy<String> parkingOccupancy = new ParkingOccupancy<>( //
+                new ParkingCapacityConstant(network, CAPACITY), network, stayLinks::get, rebalanceLinks::get);
+        for (int step = 0; step < 200; ++step) {
+            /** few vehicles start or end to stay or rebalance between consecutive steps */
+            for (int change = 0; change < 3; ++change) {
+                String vehicle = "vehicle" + random.nextInt(30);
+                stayLinks.remove(vehicle);
+                rebalanceLinks.remove(vehicle);
+                int state = random.nextInt(3);
+                if (state == 1)
+                    stayLinks.put(vehicle, links.get(random.nextInt(links.size())));
+                if (state == 2)
+                    rebalanceLinks.put(vehicle, links.get(random.nextInt(links.size())));
+            }
+            parkingOccupancy.update(new ArrayList<>(stayLinks.keySet()), new ArrayList<>(rebalanceLinks.keySet()));
+
+            Map<Link, Integer> freeSpaces = parkingOccupancy.getFreeSpaces();
+            Map<Link, Set<String>> taxisToGo = parkingOccupancy.getTaxisToGo(stayLinks.keySet());
+            for (Link link : links) {
+                long stay = stayLinks.values().stream().filter(link::equals).count();
+                long rebalance = rebalanceLinks.values().stream().filter(link::equals).count();
+                long expected = Math.max(0, CAPACITY - stay - rebalance);
+                Assert.assertEquals(expected, parkingOccupancy.getFreeSpaces(link));
+                Assert.assertEquals(expected, (long) freeSpaces.getOrDefault(link, 0));
+                if (CAPACITY < stay) {
+                    Assert.assertEquals(stay - CAPACITY, taxisToGo.get(link).size());
+                    taxisToGo.get(link).forEach(vehicle -> Assert.assertEquals(link, stayLinks.get(vehicle)));
+                } else
+                    Assert.assertFalse(taxisToGo.containsKey(link));
+            }
+        }
+    }
+
+    @Test
+    public void testMoveTo() {
+        Network network = network();
+        Link link = network.getLinks().get(Id.createLinkId("parking0f"));
+        Link destination = network.getLinks().get(Id.createLinkId("parking3b"));
+        Map<String, Link> stayLinks = new HashMap<>();
+        ParkingOccupancy<String> parkingOccupancy = new ParkingOccupancy<>( //
+                new ParkingCapacityConstant(network, CAPACITY), network, stayLinks::get, vehicle -> destination);
+        for (int index = 0; index < 3; ++index)
+            stayLinks.put("vehicle" + index, link);
+        parkingOccupancy.update(stayLinks.keySet(), new ArrayList<>());
+        Assert.assertEquals(1, parkingOccupancy.getTaxisToGo(stayLinks.keySet()).get(link).size());
+        Assert.assertEquals(0, parkingOccupancy.getFreeSpaces(link));
+
+        /** the moved vehicle is counted at the destination until it appears as rebalancing */
+        String vehicle = parkingOccupancy.getTaxisToGo(stayLinks.keySet()).get(link).iterator().next();
+        parkingOccupancy.moveTo(vehicle, destination);
+        Assert.assertTrue(parkingOccupancy.getTaxisToGo(stayLinks.keySet()).isEmpty());
+        Assert.assertEquals(CAPACITY - 1, parkingOccupancy.getFreeSpaces(destination));
+        stayLinks.remove(vehicle);
+        List<String> rebalancing = new ArrayList<>();
+        rebalancing.add(vehicle);
+        parkingOccupancy.update(stayLinks.keySet(), rebalancing);
+        Assert.assertEquals(CAPACITY - 1, parkingOccupancy.getFreeSpaces(destination));
+        Assert.assertEquals(0, parkingOccupancy.getFreeSpaces(link));
+    }
+}
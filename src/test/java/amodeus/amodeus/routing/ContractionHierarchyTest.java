@@ -0,0 +1,101 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+
+import junit.framework.TestCase;
+
+public class ContractionHierarchyTest extends TestCase {
+    private static final TravelTime TRAVEL_TIME = (link, time, person, vehicle) -> link.getLength() / link.getFreespeed();
+
+    /* package */ static Network grid(int size, Random random) {
+        Network network = NetworkUtils.createNetwork();
+        Node[][] nodes = new Node[size][size];
+        for (int i = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j) {
+                nodes[i][j] = NetworkUtils.createNode(Id.createNodeId(i + "_" + j), new Coord(100 * i, 100 * j));
+                network.addNode(nodes[i][j]);
+            }
+        int count = 0;
+        for (int i = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j)
+                for (int[] delta : new int[][] { { 1, 0 }, { 0, 1 } })
+                    if (i + delta[0] < size && j + delta[1] < size) {
+                        Node a = nodes[i][j];
+                        Node b = nodes[i + delta[0]][j + delta[1]];
+                        network.addLink(NetworkUtils.createLink(Id.createLinkId("" + count++), a, b, network, 50 + random.nextInt(200), 5 + random.nextInt(20), 1000, 1));
+                        network.addLink(NetworkUtils.createLink(Id.createLinkId("" + count++), b, a, network, 50 + random.nextInt(200), 5 + random.nextInt(20), 1000, 1));
+                    }
+        return network;
+    }
+
+    public void testAgainstDijkstra() {
+        Random random = new Random(3);
+        Network network = grid(15, random);
+        NetworkGraph graph = new NetworkGraph(network);
+        MultiTargetTimeDistance dijkstra = new MultiTargetTimeDistance(graph, new OnlyTimeDependentTravelDisutilityFixed(TRAVEL_TIME), TRAVEL_TIME);
+        ContractionHierarchy contractionHierarchy = ContractionHierarchy.create(graph, link -> TRAVEL_TIME.getLinkTravelTime(link, 0.0, null, null));
+        ContractionHierarchyPathCalculator calculator = new ContractionHierarchyPathCalculator( //
+                time -> contractionHierarchy, graph.numNodes(), new OnlyTimeDependentTravelDisutilityFixed(TRAVEL_TIME), TRAVEL_TIME);
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        for (int count = 0; count < 200; ++count) {
+            Link from = links.get(random.nextInt(links.size()));
+            Link to = links.get(random.nextInt(links.size()));
+            Path path = calculator.calcLeastCostPath(from.getFromNode(), to.getToNode(), 0.0, null, null);
+            assertEquals(path.links.isEmpty() ? from.getFromNode() : path.links.get(0).getFromNode(), from.getFromNode());
+            assertEquals(path.nodes.get(path.nodes.size() - 1), to.getToNode());
+            double expected = dijkstra.travelTime(from, to, 0.0).number().doubleValue();
+            assertEquals(path.travelTime, expected, 1e-6);
+        }
+    }
+
+    public void testCustomize() {
+        Random random = new Random(5);
+        Network network = grid(8, random);
+        NetworkGraph graph = new NetworkGraph(network);
+        ContractionHierarchy contractionHierarchy = ContractionHierarchy.create(graph, Link::getLength);
+        ContractionHierarchy customized = contractionHierarchy.customize(link -> TRAVEL_TIME.getLinkTravelTime(link, 0.0, null, null));
+        assertTrue(Arrays.equals(contractionHierarchy.order(), customized.order()));
+        /** queries on the customized hierarchy are shortest with respect to the new metric */
+        MultiTargetTimeDistance dijkstra = new MultiTargetTimeDistance(graph, new OnlyTimeDependentTravelDisutilityFixed(TRAVEL_TIME), TRAVEL_TIME);
+        ContractionHierarchyPathCalculator calculator = new ContractionHierarchyPathCalculator( //
+                time -> customized, graph.numNodes(), new OnlyTimeDependentTravelDisutilityFixed(TRAVEL_TIME), TRAVEL_TIME);
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        for (int count = 0; count < 200; ++count) {
+            Link from = links.get(random.nextInt(links.size()));
+            Link to = links.get(random.nextInt(links.size()));
+            Path path = calculator.calcLeastCostPath(from.getFromNode(), to.getToNode(), 0.0, null, null);
+            assertEquals(path.nodes.get(path.nodes.size() - 1), to.getToNode());
+            double expected = dijkstra.travelTime(from, to, 0.0).number().doubleValue();
+            assertEquals(path.travelTime, expected, 1e-6);
+        }
+    }
+
+    public void testIO() throws IOException {
+        Network network = grid(6, new Random(7));
+        NetworkGraph graph = new NetworkGraph(network);
+        ContractionHierarchy contractionHierarchy = ContractionHierarchy.create(graph, Link::getLength);
+        File file = File.createTempFile("hierarchy", ".bin");
+        try {
+            ContractionHierarchyIO.toFile(file, contractionHierarchy);
+            int[] order = ContractionHierarchyIO.orderFromFile(file, new NetworkGraph(network));
+            assertTrue(Arrays.equals(order, contractionHierarchy.order()));
+        } finally {
+            file.delete();
+        }
+    }
+}
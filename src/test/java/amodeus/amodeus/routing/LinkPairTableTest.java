@@ -0,0 +1,47 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class LinkPairTableTest extends TestCase {
+    public void testKey() {
+        assertEquals(LinkPairTable.key(0, 0), 0L);
+        assertFalse(LinkPairTable.key(1, 2) == LinkPairTable.key(2, 1));
+        assertEquals(LinkPairTable.key(Integer.MAX_VALUE, Integer.MAX_VALUE) >>> 32, Integer.MAX_VALUE);
+    }
+
+    public void testInsertRemove() {
+        LinkPairTable linkPairTable = new LinkPairTable(2, 4);
+        int slot = linkPairTable.insert(LinkPairTable.key(3, 4));
+        linkPairTable.set(slot, 0, 1.5);
+        linkPairTable.set(slot, 1, 2.5);
+        assertEquals(linkPairTable.size(), 1);
+        assertEquals(linkPairTable.insert(LinkPairTable.key(3, 4)), slot);
+        assertEquals(linkPairTable.value(linkPairTable.slotOf(LinkPairTable.key(3, 4)), 1), 2.5);
+        assertEquals(linkPairTable.slotOf(LinkPairTable.key(4, 3)), -1);
+        assertTrue(linkPairTable.remove(LinkPairTable.key(3, 4)));
+        assertFalse(linkPairTable.remove(LinkPairTable.key(3, 4)));
+        assertEquals(linkPairTable.size(), 0);
+    }
+
+    public void testRandom() {
+        Random random = new Random(7);
+        LinkPairTable linkPairTable = new LinkPairTable(1, 16);
+        Map<Long, Double> map = new HashMap<>();
+        for (int count = 0; count < 100000; ++count) {
+            long key = LinkPairTable.key(random.nextInt(200), random.nextInt(200));
+            if (random.nextBoolean()) {
+                double value = random.nextDouble();
+                linkPairTable.set(linkPairTable.insert(key), 0, value);
+                map.put(key, value);
+            } else
+                assertEquals(linkPairTable.remove(key), map.remove(key) != null);
+        }
+        assertEquals(linkPairTable.size(), map.size());
+        map.forEach((key, value) -> assertEquals(linkPairTable.value(linkPairTable.slotOf(key), 0), value));
+    }
+}
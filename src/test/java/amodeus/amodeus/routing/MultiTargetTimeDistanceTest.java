@@ -0,0 +1,96 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.router.DijkstraFactory;
+
+import amodeus.amodeus.ArtificialScenarioCreator;
+import amodeus.amodeus.util.math.SI;
+import ch.ethz.idsc.tensor.Scalar;
+import ch.ethz.idsc.tensor.qty.Quantity;
+import junit.framework.TestCase;
+
+public class MultiTargetTimeDistanceTest extends TestCase {
+    public void testSimple() {
+        ArtificialScenarioCreator artificialScenarioCreator = new ArtificialScenarioCreator();
+        MultiTargetTimeDistance multiTarget = EasyMinTimePathCalculator.prepMultiTarget(artificialScenarioCreator.network);
+        assertEquals(multiTarget.travelTime(artificialScenarioCreator.linkUp, artificialScenarioCreator.linkRight, 0.0), Quantity.of(10.0, SI.SECOND));
+        assertEquals(multiTarget.distance(artificialScenarioCreator.linkUp, artificialScenarioCreator.linkRight, 0.0), Quantity.of(200.0, SI.METER));
+        assertEquals(multiTarget.travelTime(artificialScenarioCreator.linkUp, artificialScenarioCreator.linkUp, 100.0), Quantity.of(5.0, SI.SECOND));
+    }
+
+    public void testAgainstPointQueries() {
+        ArtificialScenarioCreator artificialScenarioCreator = new ArtificialScenarioCreator();
+        List<Link> links = new ArrayList<>(artificialScenarioCreator.network.getLinks().values());
+        CachedNetworkTimeDistance pointQueries = new CachedNetworkTimeDistance( //
+                EasyMinTimePathCalculator.prepPathCalculator(artificialScenarioCreator.network, new DijkstraFactory()), 100.0, TimeDistanceProperty.INSTANCE);
+        MultiTargetTimeDistance multiTarget = EasyMinTimePathCalculator.prepMultiTarget(artificialScenarioCreator.network);
+        Map<Link, Map<Link, Scalar>> matrix = multiTarget.travelTimes(links, links, 0.0);
+        assertEquals(matrix.size(), links.size());
+        for (Link from : links)
+            for (Link to : links) {
+                assertEquals(matrix.get(from).get(to), pointQueries.travelTime(from, to, 0.0));
+                assertEquals(multiTarget.distance(from, to, 0.0), pointQueries.distance(from, to, 0.0));
+            }
+        assertTrue(0 < pointQueries.getCache().getHits());
+    }
+
+    public void testDistanceFunctionRows() throws Exception {
+        ArtificialScenarioCreator artificialScenarioCreator = new ArtificialScenarioCreator();
+        Link[] links = artificialScenarioCreator.network.getLinks().values().toArray(new Link[0]);
+        DistanceFunction distanceFunction = new NetworkMinTimeDistanceFunction(artificialScenarioCreator.network, new DijkstraFactory());
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<double[]>> futures = new ArrayList<>();
+            for (Link from : links)
+                futures.add(executorService.submit(() -> distanceFunction.getDistances(from, links)));
+            for (int i = 0; i < links.length; ++i) {
+                double[] row = futures.get(i).get();
+                assertEquals(links.length, row.length);
+                for (int j = 0; j < links.length; ++j)
+                    assertEquals(distanceFunction.getDistance(links[i], links[j]), row[j]);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    public void testConcurrentPointQueries() throws Exception {
+        /** the number of pairs exceeds the initial capacity of the cache, such that the cache grows concurrently */
+        Network network = ContractionHierarchyTest.grid(6, new Random(5));
+        List<Link> links = new ArrayList<>(network.getLinks().values());
+        CachedNetworkTimeDistance sequential = new CachedNetworkTimeDistance( //
+                EasyMinDistPathCalculator.prepPathCalculator(network, new DijkstraFactory()), 100.0, TimeDistanceProperty.INSTANCE);
+        CachedNetworkTimeDistance concurrent = new CachedNetworkTimeDistance( //
+                () -> EasyMinDistPathCalculator.prepPathCalculator(network, new DijkstraFactory()), 100.0, TimeDistanceProperty.INSTANCE);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Scalar>> futures = new ArrayList<>();
+            for (int count = 0; count < 2; ++count)
+                for (Link from : links)
+                    for (Link to : links)
+                        futures.add(executorService.submit(() -> concurrent.distance(from, to, 0.0)));
+            int index = 0;
+            for (int count = 0; count < 2; ++count)
+                for (Link from : links)
+                    for (Link to : links)
+                        assertEquals(sequential.distance(from, to, 0.0), futures.get(index++).get());
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertEquals(links.size() * links.size(), concurrent.getCache().size());
+        assertEquals(sequential.getCache().size(), concurrent.getCache().size());
+        for (Link from : links)
+            for (Link to : links)
+                assertEquals(sequential.distance(from, to, 0.0), concurrent.distance(from, to, 0.0));
+    }
+}
@@ -0,0 +1,37 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.traveldata;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class SparseOdArrayTest extends TestCase {
+    public void testIdenticalToDense() {
+        Random random = new Random(3);
+        int timeSteps = 4;
+        int nodes = 7;
+        double[] values = new double[timeSteps * nodes * nodes];
+        for (int index = 0; index < values.length; ++index)
+            if (random.nextInt(5) == 0)
+                values[index] = random.nextInt(10) + 1;
+        OdArray dense = new DenseOdArray(values, timeSteps, nodes);
+        SparseOdArray sparse = new SparseOdArray(values, timeSteps, nodes);
+        assertTrue(sparse.nonZeros() < values.length / 2);
+        for (int k = 0; k < timeSteps; ++k)
+            for (int i = 0; i < nodes; ++i)
+                for (int j = 0; j < nodes; ++j)
+                    assertEquals(dense.get(k, i, j), sparse.get(k, i, j));
+    }
+
+    public void testPreferable() {
+        int timeSteps = 2;
+        int nodes = 10;
+        double[] values = new double[timeSteps * nodes * nodes];
+        assertTrue(SparseOdArray.isPreferable(values, timeSteps, nodes));
+        values[3] = 1;
+        assertTrue(SparseOdArray.isPreferable(values, timeSteps, nodes));
+        for (int index = 0; index < values.length; ++index)
+            values[index] = 1;
+        assertFalse(SparseOdArray.isPreferable(values, timeSteps, nodes));
+    }
+}
@@ -0,0 +1,81 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.auction;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import amodeus.amodeus.util.hungarian.FastHungarianAlgorithm;
+
+/** compares duration and cost of the {@link AuctionAlgorithm} and the Hungarian algorithm on random instances of
+ * vehicles and requests in a square of 10km, where every vehicle and every request keeps the pairs to its
+ * closest partners and the sentinel is 10 times the largest cost
+ *
+ * arguments: vehicles (default 2000), requests (default 2000), candidates (default 20), hungarian (default true) */
+/* package */ enum AuctionAlgorithmBenchmark {
+    ;
+    private static double[][] points(int count, Random random) {
+        double[][] points = new double[count][2];
+        for (double[] point : points) {
+            point[0] = 10000 * random.nextDouble();
+            point[1] = 10000 * random.nextDouble();
+        }
+        return points;
+    }
+
+    /** @return indices of the count points closest to point */
+    private static int[] closest(double[][] points, double[] point, int count) {
+        return IntStream.range(0, points.length).boxed() //
+                .sorted((a, b) -> Double.compare(distance(points[a], point), distance(points[b], point))) //
+                .limit(count).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double distance(double[] a, double[] b) {
+        return Math.hypot(a[0] - b[0], a[1] - b[1]);
+    }
+
+    private static double cost(SparseCostMatrix sparseCostMatrix, int[] matching) {
+        double sum = 0;
+        int matched = 0;
+        for (int i = 0; i < matching.length; ++i)
+            if (0 <= matching[i]) {
+                sum += sparseCostMatrix.cost(i, matching[i]);
+                ++matched;
+            }
+        return sum + (Math.min(sparseCostMatrix.rows(), sparseCostMatrix.cols()) - matched) * sparseCostMatrix.sentinel();
+    }
+
+    public static void main(String[] args) {
+        int vehicles = 0 < args.length ? Integer.parseInt(args[0]) : 2000;
+        int requests = 1 < args.length ? Integer.parseInt(args[1]) : 2000;
+        int candidates = 2 < args.length ? Integer.parseInt(args[2]) : 20;
+        boolean hungarian = 3 < args.length ? Boolean.parseBoolean(args[3]) : true;
+        Random random = new Random(1);
+        double[][] rows = points(vehicles, random);
+        double[][] cols = points(requests, random);
+        double[][] costMatrix = new double[vehicles][requests];
+        for (double[] row : costMatrix)
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        double max = 0;
+        for (int i = 0; i < vehicles; ++i)
+            for (int j : closest(cols, rows[i], candidates))
+                max = Math.max(max, costMatrix[i][j] = distance(rows[i], cols[j]));
+        for (int j = 0; j < requests; ++j)
+            for (int i : closest(rows, cols[j], candidates))
+                max = Math.max(max, costMatrix[i][j] = distance(rows[i], cols[j]));
+        double sentinel = 10 * Math.max(max, 1.0);
+        SparseCostMatrix sparseCostMatrix = SparseCostMatrix.of(costMatrix, sentinel);
+        System.out.println(vehicles + " x " + requests + ", " + sparseCostMatrix.size() + " entries");
+
+        long nanos = System.nanoTime();
+        int[] auction = new AuctionAlgorithm(sparseCostMatrix).execute();
+        System.out.println(String.format("%-12s %10.1f ms cost %.3f", "auction", (System.nanoTime() - nanos) * 1e-6, cost(sparseCostMatrix, auction)));
+
+        if (hungarian) {
+            double[][] dense = sparseCostMatrix.toDense();
+            nanos = System.nanoTime();
+            int[] matching = new FastHungarianAlgorithm(dense).execute();
+            System.out.println(String.format("%-12s %10.1f ms cost %.3f", "hungarian", (System.nanoTime() - nanos) * 1e-6, cost(sparseCostMatrix, matching)));
+        }
+    }
+}
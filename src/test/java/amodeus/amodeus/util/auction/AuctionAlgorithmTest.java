@@ -0,0 +1,121 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.auction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import amodeus.amodeus.util.hungarian.FastHungarianAlgorithm;
+import junit.framework.TestCase;
+
+/** compares the cost of the {@link AuctionAlgorithm} with the optimal cost of the Hungarian algorithm on random
+ * instances, the tolerance of the auction is 1e-7 of the largest cost */
+public class AuctionAlgorithmTest extends TestCase {
+    /** @return cost of matching in the dense matrix, the unassigned rows are matched to unassigned columns at the sentinel cost */
+    private static double cost(SparseCostMatrix sparseCostMatrix, int[] matching) {
+        double sum = 0;
+        Set<Integer> cols = new HashSet<>();
+        for (int i = 0; i < matching.length; ++i)
+            if (0 <= matching[i]) {
+                assertTrue(cols.add(matching[i]));
+                sum += sparseCostMatrix.cost(i, matching[i]);
+            }
+        return sum + (Math.min(sparseCostMatrix.rows(), sparseCostMatrix.cols()) - cols.size()) * sparseCostMatrix.sentinel();
+    }
+
+    private static double hungarian(SparseCostMatrix sparseCostMatrix) {
+        return cost(sparseCostMatrix, new FastHungarianAlgorithm(sparseCostMatrix.toDense()).execute());
+    }
+
+    /** @param density fraction of the pairs that are contained */
+    private static SparseCostMatrix random(int rows, int cols, double density, Random random) {
+        double[][] costMatrix = new double[rows][cols];
+        for (int i = 0; i < rows; ++i)
+            for (int j = 0; j < cols; ++j)
+                costMatrix[i][j] = random.nextDouble() < density ? 100 * random.nextDouble() : Double.POSITIVE_INFINITY;
+        return SparseCostMatrix.of(costMatrix, 1000.0);
+    }
+
+    public void testDense() {
+        Random random = new Random(1);
+        for (int[] shape : new int[][] { { 1, 1 }, { 1, 7 }, { 7, 1 }, { 20, 20 }, { 15, 40 }, { 40, 15 }, { 60, 60 } }) {
+            SparseCostMatrix sparseCostMatrix = random(shape[0], shape[1], 1.0, random);
+            int[] matching = new AuctionAlgorithm(sparseCostMatrix).execute();
+            assertEquals(Math.min(shape[0], shape[1]), matching.length - (int) Arrays.stream(matching).filter(j -> j < 0).count());
+            assertEquals(hungarian(sparseCostMatrix), cost(sparseCostMatrix, matching), 1e-4);
+        }
+    }
+
+    public void testSparse() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 40; ++trial) {
+            int rows = 1 + random.nextInt(50);
+            int cols = 1 + random.nextInt(50);
+            SparseCostMatrix sparseCostMatrix = random(rows, cols, 0.02 + 0.2 * random.nextDouble(), random);
+            assertEquals(hungarian(sparseCostMatrix), cost(sparseCostMatrix, new AuctionAlgorithm(sparseCostMatrix).execute()), 1e-4);
+        }
+    }
+
+    public void testIntegerTies() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 20; ++trial) {
+            double[][] costMatrix = new double[30][25];
+            for (double[] row : costMatrix)
+                for (int j = 0; j < row.length; ++j)
+                    row[j] = random.nextInt(4);
+            SparseCostMatrix sparseCostMatrix = SparseCostMatrix.of(costMatrix, 10.0);
+            assertEquals(hungarian(sparseCostMatrix), cost(sparseCostMatrix, new AuctionAlgorithm(sparseCostMatrix).execute()), 1e-6);
+        }
+    }
+
+    public void testUnassigned() {
+        /** row 1 has no entries and column 1 is contained in no row */
+        SparseCostMatrix sparseCostMatrix = new SparseCostMatrix(2, new int[] { 0, 1, 1 }, new int[] { 0 }, new double[] { 3.0 }, 10.0);
+        int[] matching = new AuctionAlgorithm(sparseCostMatrix).execute();
+        assertEquals(0, matching[0]);
+        assertEquals(-1, matching[1]);
+        assertEquals(0, new AuctionAlgorithm(new SparseCostMatrix(0, new int[] { 0 }, new int[0], new double[0], 1.0)).execute().length);
+    }
+
+    public void testWarmstartSequence() {
+        Random random = new Random(4);
+        AuctionWarmstartState<Integer, Integer> warmstartState = new AuctionWarmstartState<>();
+        double[][] position = new double[120][2];
+        for (double[] vector : position) {
+            vector[0] = random.nextDouble();
+            vector[1] = random.nextDouble();
+        }
+        List<Integer> rows = new ArrayList<>();
+        List<Integer> cols = new ArrayList<>();
+        for (int step = 0; step < 60; ++step) {
+            /** few rows and columns change between consecutive steps */
+            if (rows.size() < 10 || random.nextBoolean())
+                rows.add(random.nextInt(60));
+            else
+                rows.remove(random.nextInt(rows.size()));
+            if (cols.size() < 10 || random.nextBoolean())
+                cols.add(60 + random.nextInt(60));
+            else
+                cols.remove(random.nextInt(cols.size()));
+            List<Integer> orderedRows = new ArrayList<>(new HashSet<>(rows));
+            List<Integer> orderedCols = new ArrayList<>(new HashSet<>(cols));
+            /** only pairs within a radius are contained */
+            double[][] costMatrix = new double[orderedRows.size()][orderedCols.size()];
+            for (int x = 0; x < orderedRows.size(); ++x)
+                for (int y = 0; y < orderedCols.size(); ++y) {
+                    double[] a = position[orderedRows.get(x)];
+                    double[] b = position[orderedCols.get(y)];
+                    costMatrix[x][y] = Math.hypot(a[0] - b[0], a[1] - b[1]);
+                }
+            SparseCostMatrix sparseCostMatrix = SparseCostMatrix.of(costMatrix, 0.4);
+            int[] warm = warmstartState.matching(sparseCostMatrix, orderedRows, orderedCols);
+            assertEquals(hungarian(sparseCostMatrix), cost(sparseCostMatrix, warm), 1e-6);
+            /** vehicles move between steps */
+            for (int index = 0; index < 60; ++index)
+                position[index][0] += 0.01 * random.nextGaussian();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.util.hungarian;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class WarmstartStateTest extends TestCase {
+    private static double cost(double[][] costMatrix, int[] matching) {
+        double sum = 0;
+        Set<Integer> cols = new HashSet<>();
+        for (int x = 0; x < matching.length; ++x)
+            if (0 <= matching[x]) {
+                assertTrue(cols.add(matching[x]));
+                sum += costMatrix[x][matching[x]];
+            }
+        assertEquals(Math.min(costMatrix.length, costMatrix[0].length), cols.size());
+        return sum;
+    }
+
+    public void testWarmstarter() {
+        double[][] costMatrix = { { 3, 1, 2 }, { 2, 4, 6 } };
+        Warmstarter warmstarter = new Warmstarter(costMatrix, new int[] { 1, 0 });
+        assertTrue(warmstarter.isValidLabeling());
+        assertEquals(1, warmstarter.getXMatch()[0]);
+        assertEquals(0, warmstarter.getXMatch()[1]);
+    }
+
+    public void testSequence() {
+        Random random = new Random(3);
+        WarmstartState<Integer, Integer> warmstartState = new WarmstartState<>();
+        double[][] position = new double[60][2];
+        for (double[] vector : position) {
+            vector[0] = random.nextDouble();
+            vector[1] = random.nextDouble();
+        }
+        List<Integer> rows = new ArrayList<>();
+        List<Integer> cols = new ArrayList<>();
+        for (int step = 0; step < 40; ++step) {
+            /** few rows and columns change between consecutive steps */
+            if (rows.isEmpty() || random.nextBoolean())
+                rows.add(random.nextInt(30));
+            else
+                rows.remove(random.nextInt(rows.size()));
+            if (cols.isEmpty() || random.nextBoolean())
+                cols.add(30 + random.nextInt(30));
+            else
+                cols.remove(random.nextInt(cols.size()));
+            List<Integer> orderedRows = new ArrayList<>(new HashSet<>(rows));
+            List<Integer> orderedCols = new ArrayList<>(new HashSet<>(cols));
+            if (orderedRows.isEmpty() || orderedCols.isEmpty())
+                continue;
+            double[][] costMatrix = new double[orderedRows.size()][orderedCols.size()];
+            for (int x = 0; x < orderedRows.size(); ++x)
+                for (int y = 0; y < orderedCols.size(); ++y) {
+                    double[] a = position[orderedRows.get(x)];
+                    double[] b = position[orderedCols.get(y)];
+                    costMatrix[x][y] = Math.hypot(a[0] - b[0], a[1] - b[1]);
+                }
+            int[] cold = new FastHungarianAlgorithm(costMatrix).execute();
+            int[] warm = HungarianAlgorithmWrap.matching(costMatrix, orderedRows, orderedCols, warmstartState);
+            assertEquals(cost(costMatrix, cold), cost(costMatrix, warm), 1e-9);
+            /** vehicles move between steps */
+            for (int index = 0; index < 30; ++index)
+                position[index][0] += 0.01 * random.nextGaussian();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/* amodeus - Copyright (c) 2019, ETH Zurich, Institute for Dynamic Systems and Control */
+package amodeus.amodeus.virtualnetwork.core;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ch.ethz.idsc.tensor.Tensors;
+import junit.framework.TestCase;
+
+public class VirtualNetworkBinaryTest extends TestCase {
+    private static final int NODES = 3;
+    private static final int ELEMENTS = 10;
+
+    public void testRoundTrip() throws Exception {
+        Map<String, Integer> map = new HashMap<>();
+        Map<Integer, String> names = new HashMap<>();
+        VirtualNetworkImpl<Integer> virtualNetwork = new VirtualNetworkImpl<>();
+        for (int index = 0; index < NODES; ++index) {
+            Map<String, Integer> elements = new LinkedHashMap<>();
+            for (int element = index; element < ELEMENTS; element += NODES) {
+                elements.put("element" + element, element);
+                map.put("element" + element, element);
+                names.put(element, "element" + element);
+            }
+            virtualNetwork.addVirtualNode(new VirtualNode<>(index, "vNode" + index, elements, Tensors.vectorDouble(index, 2.5 * index)));
+        }
+        virtualNetwork.addVirtualLink("vLink0", virtualNetwork.getVirtualNode(0), virtualNetwork.getVirtualNode(1), 1.5);
+        virtualNetwork.addVirtualLink("vLink1", virtualNetwork.getVirtualNode(2), virtualNetwork.getVirtualNode(0), 3.5);
+        virtualNetwork.fillVNodeMapRAWVERYPRIVATE(names);
+
+        File file = File.createTempFile("virtualNetwork", ".bin");
+        try {
+            VirtualNetworkIO.toBinary(file, virtualNetwork);
+            VirtualNetwork<Integer> loaded = VirtualNetworkIO.fromByte(map, file, Integer::intValue);
+            assertEquals(virtualNetwork.getvNetworkID(), loaded.getvNetworkID());
+            assertEquals(NODES, loaded.getvNodesCount());
+            assertEquals(2, loaded.getvLinksCount());
+            for (int index = 0; index < NODES; ++index) {
+                assertEquals(virtualNetwork.getVirtualNode(index).getId(), loaded.getVirtualNode(index).getId());
+                assertEquals(virtualNetwork.getVirtualNode(index).getCoord(), loaded.getVirtualNode(index).getCoord());
+                assertEquals(virtualNetwork.getVirtualNode(index).getLinks(), loaded.getVirtualNode(index).getLinks());
+            }
+            for (int element = 0; element < ELEMENTS; ++element)
+                assertEquals(element % NODES, loaded.getVirtualNode(Integer.valueOf(element)).getIndex());
+            VirtualLink<Integer> virtualLink = loaded.getVirtualLink(loaded.getVirtualNode(2), loaded.getVirtualNode(0));
+            assertEquals("vLink1", virtualLink.getId());
+            assertEquals(3.5, virtualLink.getDistance());
+            try {
+                loaded.getVirtualNode(Integer.valueOf(ELEMENTS));
+                fail();
+            } catch (IllegalStateException illegalStateException) {
+                // ---
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
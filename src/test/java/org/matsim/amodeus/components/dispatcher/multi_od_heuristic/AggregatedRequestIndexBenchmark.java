@@ -0,0 +1,121 @@
+package org.matsim.amodeus.components.dispatcher.multi_od_heuristic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.matsim.amodeus.components.dispatcher.multi_od_heuristic.aggregation.AggregatedRequest;
+import org.matsim.amodeus.dvrp.request.AmodeusRequest;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerRequest;
+import org.matsim.core.network.NetworkUtils;
+
+/** measures the throughput of the aggregation of requests in {@link MultiODHeuristic} with a linear scan over
+ * the open aggregates, as formerly done, and with {@link AggregatedRequestIndex}, and checks that both yield the
+ * same aggregates
+ *
+ * arguments: numbers of pending requests (default 1000 10000 50000) */
+/* package */ enum AggregatedRequestIndexBenchmark {
+    ;
+    private static final double SIDE = 40000.0;
+    private static final double THRESHOLD = 120.0;
+    private static final long SEATS = 4;
+    private static final int HOT_SPOTS = 20;
+    private static final double SPREAD = 2000.0;
+
+    private static List<PassengerRequest> requests(int count, Random random) {
+        Network network = NetworkUtils.createNetwork();
+        /** origins and destinations are scattered around hot spots, such that requests can be aggregated */
+        Coord[] hotSpots = new Coord[HOT_SPOTS];
+        for (int index = 0; index < hotSpots.length; ++index)
+            hotSpots[index] = new Coord(SIDE * random.nextDouble(), SIDE * random.nextDouble());
+        Node[] nodes = new Node[2 * count];
+        for (int index = 0; index < nodes.length; ++index) {
+            Coord hotSpot = hotSpots[random.nextInt(hotSpots.length)];
+            double x = Math.min(Math.max(hotSpot.getX() + SPREAD * random.nextGaussian(), 0), SIDE);
+            double y = Math.min(Math.max(hotSpot.getY() + SPREAD * random.nextGaussian(), 0), SIDE);
+            nodes[index] = NetworkUtils.createAndAddNode(network, Id.createNodeId(index), new Coord(x, y));
+        }
+        List<PassengerRequest> requests = new ArrayList<>(count);
+        for (int index = 0; index < count; ++index) {
+            Link fromLink = NetworkUtils.createAndAddLink(network, Id.createLinkId("f" + index), nodes[2 * index], nodes[2 * index], 0, 10, 1000, 1);
+            Link toLink = NetworkUtils.createAndAddLink(network, Id.createLinkId("t" + index), nodes[2 * index + 1], nodes[2 * index + 1], 0, 10, 1000, 1);
+            requests.add(new AmodeusRequest(Id.create(index, Request.class), null, fromLink, toLink, index, "av", null));
+        }
+        return requests;
+    }
+
+    /** @return index of the master request of the aggregate of each request */
+    private static int[] linear(List<PassengerRequest> requests, FactorTravelTimeEstimator estimator) {
+        List<AggregatedRequest> aggregates = new ArrayList<>();
+        int[] result = new int[requests.size()];
+        for (int index = 0; index < requests.size(); ++index) {
+            PassengerRequest request = requests.get(index);
+            AggregatedRequest bestAggregate = null;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (AggregatedRequest candidate : aggregates) {
+                Double cost = candidate.accept(request);
+                if (cost != null && cost < bestCost) {
+                    bestCost = cost;
+                    bestAggregate = candidate;
+                }
+            }
+            if (bestAggregate == null) {
+                bestAggregate = new AggregatedRequest(request, estimator, SEATS);
+                aggregates.add(bestAggregate);
+            } else
+                bestAggregate.addSlaveRequest(request);
+            result[index] = (int) bestAggregate.getMasterRequest().getSubmissionTime();
+        }
+        return result;
+    }
+
+    private static int[] indexed(List<PassengerRequest> requests, FactorTravelTimeEstimator estimator) {
+        AggregatedRequestIndex aggregates = new AggregatedRequestIndex(new double[] { 0, 0, SIDE, SIDE }, estimator);
+        int[] result = new int[requests.size()];
+        for (int index = 0; index < requests.size(); ++index) {
+            PassengerRequest request = requests.get(index);
+            AggregatedRequest bestAggregate = aggregates.findAggregateRequest(request);
+            if (bestAggregate == null) {
+                bestAggregate = new AggregatedRequest(request, estimator, SEATS);
+                aggregates.add(bestAggregate);
+            } else
+                bestAggregate.addSlaveRequest(request);
+            result[index] = (int) bestAggregate.getMasterRequest().getSubmissionTime();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int[] counts = args.length == 0 ? new int[] { 1000, 10000, 50000 } : new int[args.length];
+        for (int index = 0; index < args.length; ++index)
+            counts[index] = Integer.parseInt(args[index]);
+        FactorTravelTimeEstimator estimator = new FactorTravelTimeEstimator(THRESHOLD);
+        /** warm up */
+        List<PassengerRequest> warmUp = requests(2000, new Random(0));
+        linear(warmUp, estimator);
+        indexed(warmUp, estimator);
+        for (int count : counts) {
+            List<PassengerRequest> requests = requests(count, new Random(1));
+            long nanos = System.nanoTime();
+            int[] linear = linear(requests, estimator);
+            double linearMillis = (System.nanoTime() - nanos) * 1e-6;
+            nanos = System.nanoTime();
+            int[] indexed = indexed(requests, estimator);
+            double indexedMillis = (System.nanoTime() - nanos) * 1e-6;
+            long aggregates = IntStream.range(0, count).filter(index -> linear[index] == index).count();
+            int mismatches = 0;
+            for (int index = 0; index < count; ++index)
+                if (linear[index] != indexed[index])
+                    ++mismatches;
+            System.out.println(String.format("%6d requests, %6d aggregates: linear %9.1f ms %10.0f req/s, indexed %7.1f ms %10.0f req/s, %d mismatches", //
+                    count, aggregates, linearMillis, count / linearMillis * 1e3, indexedMillis, count / indexedMillis * 1e3, mismatches));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.matsim.amodeus.components.dispatcher.single_heuristic;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.matsim.amodeus.components.dispatcher.utils.IndexedFIFOQueue;
+import org.matsim.amodeus.components.dispatcher.utils.UniformGrid;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.core.utils.collections.QuadTree;
+
+/** compares the matching loop of {@link SingleHeuristicDispatcher} with {@link LinkedList}s and {@link QuadTree}s,
+ * as formerly done, with the loop on {@link IndexedFIFOQueue}s and {@link UniformGrid}s
+ *
+ * in every step, a number of requests is submitted and vehicles become available, then the requests are matched
+ * in OVERSUPPLY or UNDERSUPPLY mode as by the dispatcher
+ *
+ * arguments: number of open requests and idle vehicles (default 2000 20000), number of steps (default 200) */
+/* package */ enum SingleHeuristicStructuresBenchmark {
+    ;
+    private static final double SIDE = 20000.0;
+    private static final double[] BOUNDS = { 0, 0, SIDE, SIDE };
+    private static final int ARRIVALS = 50;
+
+    private interface Structures {
+        void addVehicle(Object vehicle, Coord coord);
+
+        void addRequest(Object request, Coord coord);
+
+        int vehicles();
+
+        int requests();
+
+        Object firstVehicle();
+
+        Object firstRequest();
+
+        Object closestVehicle(Coord coord);
+
+        Object closestRequest(Coord coord);
+
+        void removeVehicle(Object vehicle);
+
+        void removeRequest(Object request);
+    }
+
+    private static class Former implements Structures {
+        final List<Object> availableVehicles = new LinkedList<>();
+        final List<Object> pendingRequests = new LinkedList<>();
+        final QuadTree<Object> availableVehiclesTree = new QuadTree<>(BOUNDS[0], BOUNDS[1], BOUNDS[2], BOUNDS[3]);
+        final QuadTree<Object> pendingRequestsTree = new QuadTree<>(BOUNDS[0], BOUNDS[1], BOUNDS[2], BOUNDS[3]);
+        final Map<Object, Coord> coords = new HashMap<>();
+
+        @Override // from Structures
+        public void addVehicle(Object vehicle, Coord coord) {
+            availableVehicles.add(vehicle);
+            availableVehiclesTree.put(coord.getX(), coord.getY(), vehicle);
+            coords.put(vehicle, coord);
+        }
+
+        @Override // from Structures
+        public void addRequest(Object request, Coord coord) {
+            pendingRequests.add(request);
+            pendingRequestsTree.put(coord.getX(), coord.getY(), request);
+            coords.put(request, coord);
+        }
+
+        @Override // from Structures
+        public int vehicles() {
+            return availableVehicles.size();
+        }
+
+        @Override // from Structures
+        public int requests() {
+            return pendingRequests.size();
+        }
+
+        @Override // from Structures
+        public Object firstVehicle() {
+            return availableVehicles.get(0);
+        }
+
+        @Override // from Structures
+        public Object firstRequest() {
+            return pendingRequests.get(0);
+        }
+
+        @Override // from Structures
+        public Object closestVehicle(Coord coord) {
+            return availableVehiclesTree.getClosest(coord.getX(), coord.getY());
+        }
+
+        @Override // from Structures
+        public Object closestRequest(Coord coord) {
+            return pendingRequestsTree.getClosest(coord.getX(), coord.getY());
+        }
+
+        @Override // from Structures
+        public void removeVehicle(Object vehicle) {
+            if (!availableVehicles.contains(vehicle))
+                throw new IllegalStateException();
+            availableVehicles.remove(vehicle);
+            Coord coord = coords.remove(vehicle);
+            availableVehiclesTree.remove(coord.getX(), coord.getY(), vehicle);
+        }
+
+        @Override // from Structures
+        public void removeRequest(Object request) {
+            if (!pendingRequests.contains(request))
+                throw new IllegalStateException();
+            pendingRequests.remove(request);
+            Coord coord = coords.remove(request);
+            pendingRequestsTree.remove(coord.getX(), coord.getY(), request);
+        }
+    }
+
+    private static class Indexed implements Structures {
+        final IndexedFIFOQueue<Object> availableVehicles = new IndexedFIFOQueue<>();
+        final IndexedFIFOQueue<Object> pendingRequests = new IndexedFIFOQueue<>();
+        final UniformGrid<Object> availableVehiclesGrid;
+        final UniformGrid<Object> pendingRequestsGrid;
+
+        Indexed(int expectedSize) {
+            availableVehiclesGrid = new UniformGrid<>(BOUNDS, expectedSize);
+            pendingRequestsGrid = new UniformGrid<>(BOUNDS, expectedSize);
+        }
+
+        @Override // from Structures
+        public void addVehicle(Object vehicle, Coord coord) {
+            availableVehicles.add(vehicle);
+            availableVehiclesGrid.put(coord.getX(), coord.getY(), vehicle);
+        }
+
+        @Override // from Structures
+        public void addRequest(Object request, Coord coord) {
+            pendingRequests.add(request);
+            pendingRequestsGrid.put(coord.getX(), coord.getY(), request);
+        }
+
+        @Override // from Structures
+        public int vehicles() {
+            return availableVehicles.size();
+        }
+
+        @Override // from Structures
+        public int requests() {
+            return pendingRequests.size();
+        }
+
+        @Override // from Structures
+        public Object firstVehicle() {
+            return availableVehicles.peek();
+        }
+
+        @Override // from Structures
+        public Object firstRequest() {
+            return pendingRequests.peek();
+        }
+
+        @Override // from Structures
+        public Object closestVehicle(Coord coord) {
+            return availableVehiclesGrid.getClosest(coord.getX(), coord.getY());
+        }
+
+        @Override // from Structures
+        public Object closestRequest(Coord coord) {
+            return pendingRequestsGrid.getClosest(coord.getX(), coord.getY());
+        }
+
+        @Override // from Structures
+        public void removeVehicle(Object vehicle) {
+            if (!availableVehicles.contains(vehicle))
+                throw new IllegalStateException();
+            availableVehicles.remove(vehicle);
+            availableVehiclesGrid.remove(vehicle);
+        }
+
+        @Override // from Structures
+        public void removeRequest(Object request) {
+            if (!pendingRequests.contains(request))
+                throw new IllegalStateException();
+            pendingRequests.remove(request);
+            pendingRequestsGrid.remove(request);
+        }
+    }
+
+    private static Coord random(Random random) {
+        return new Coord(SIDE * random.nextDouble(), SIDE * random.nextDouble());
+    }
+
+    /** @return checksum of the sequence of matches */
+    private static long run(String name, Structures structures, int requests, int vehicles, int steps) {
+        Random random = new Random(1);
+        Map<Object, Coord> coords = new HashMap<>();
+        long checksum = 0;
+        int id = 0;
+        for (int index = 0; index < requests; ++index) {
+            Integer request = id++;
+            coords.put(request, random(random));
+            structures.addRequest(request, coords.get(request));
+        }
+        for (int index = 0; index < vehicles; ++index) {
+            Integer vehicle = id++;
+            coords.put(vehicle, random(random));
+            structures.addVehicle(vehicle, coords.get(vehicle));
+        }
+        int matches = 0;
+        long nanos = System.nanoTime();
+        for (int step = 0; step < steps; ++step) {
+            boolean oversupply = structures.vehicles() > structures.requests();
+            /** the matching loop of the dispatcher, limited to a number of matches per step */
+            for (int count = 0; count < ARRIVALS && 0 < structures.requests() && 0 < structures.vehicles(); ++count) {
+                Object request;
+                Object vehicle;
+                if (oversupply) {
+                    request = structures.firstRequest();
+                    vehicle = structures.closestVehicle(coords.get(request));
+                } else {
+                    vehicle = structures.firstVehicle();
+                    request = structures.closestRequest(coords.get(vehicle));
+                }
+                structures.removeRequest(request);
+                structures.removeVehicle(vehicle);
+                checksum = 31 * checksum + (Integer) request * 65537L + (Integer) vehicle;
+                ++matches;
+                /** the vehicle becomes available at the destination of the request */
+                coords.put(vehicle, random(random));
+                structures.addVehicle(vehicle, coords.get(vehicle));
+            }
+            for (int index = 0; index < ARRIVALS; ++index) {
+                Integer request = id++;
+                coords.put(request, random(random));
+                structures.addRequest(request, coords.get(request));
+            }
+        }
+        System.out.println(String.format("%-8s %6d requests %6d vehicles: %8.1f ms for %d matches", //
+                name, requests, vehicles, (System.nanoTime() - nanos) * 1e-6, matches));
+        return checksum;
+    }
+
+    public static void main(String[] args) {
+        int size = 0 < args.length ? Integer.parseInt(args[0]) : 2000;
+        int other = 1 < args.length ? Integer.parseInt(args[1]) : 20000;
+        int steps = 2 < args.length ? Integer.parseInt(args[2]) : 200;
+        /** warm up */
+        run("warm up", new Former(), 1000, 100, steps);
+        run("warm up", new Indexed(1000), 1000, 100, steps);
+        /** undersupply and oversupply */
+        for (int[] counts : new int[][] { { other, size }, { size, other } }) {
+            long former = run("former", new Former(), counts[0], counts[1], steps);
+            long indexed = run("indexed", new Indexed(Math.max(counts[0], counts[1])), counts[0], counts[1], steps);
+            System.out.println("identical matches: " + (former == indexed));
+        }
+    }
+}
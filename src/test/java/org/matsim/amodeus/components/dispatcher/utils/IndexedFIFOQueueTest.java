@@ -0,0 +1,50 @@
+package org.matsim.amodeus.components.dispatcher.utils;
+
+import java.util.LinkedList;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class IndexedFIFOQueueTest extends TestCase {
+    public void testSimple() {
+        IndexedFIFOQueue<String> queue = new IndexedFIFOQueue<>();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        queue.add("a");
+        queue.add("b");
+        queue.add("c");
+        assertTrue(queue.remove("b"));
+        assertFalse(queue.remove("b"));
+        queue.add("a");
+        assertEquals(2, queue.size());
+        assertEquals("c", queue.poll());
+        assertEquals("a", queue.poll());
+        assertNull(queue.poll());
+    }
+
+    public void testRandom() {
+        Random random = new Random(3);
+        IndexedFIFOQueue<Integer> queue = new IndexedFIFOQueue<>();
+        LinkedList<Integer> list = new LinkedList<>();
+        Integer[] elements = new Integer[200];
+        for (int index = 0; index < elements.length; ++index)
+            elements[index] = Integer.valueOf(index);
+        for (int step = 0; step < 100000; ++step) {
+            Integer element = elements[random.nextInt(elements.length)];
+            switch (random.nextInt(3)) {
+            case 0:
+                list.remove(element);
+                list.add(element);
+                queue.add(element);
+                break;
+            case 1:
+                assertEquals(list.remove(element), queue.remove(element));
+                break;
+            default:
+                assertEquals(list.poll(), queue.poll());
+            }
+            assertEquals(list.size(), queue.size());
+            assertEquals(list.peek(), queue.peek());
+        }
+    }
+}
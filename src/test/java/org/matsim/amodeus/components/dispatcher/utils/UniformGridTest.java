@@ -0,0 +1,67 @@
+package org.matsim.amodeus.components.dispatcher.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.matsim.api.core.v01.Coord;
+
+import junit.framework.TestCase;
+
+public class UniformGridTest extends TestCase {
+    private static double distance(Coord coord, double x, double y) {
+        return Math.hypot(coord.getX() - x, coord.getY() - y);
+    }
+
+    public void testEmpty() {
+        UniformGrid<String> uniformGrid = new UniformGrid<>(new double[] { 0, 0, 10, 10 }, 100);
+        assertNull(uniformGrid.getClosest(5, 5));
+        uniformGrid.put(1, 1, "a");
+        assertTrue(uniformGrid.remove("a"));
+        assertFalse(uniformGrid.remove("a"));
+        assertNull(uniformGrid.getClosest(5, 5));
+    }
+
+    public void testRandom() {
+        Random random = new Random(7);
+        for (int expectedSize : new int[] { 1, 10, 1000 }) {
+            UniformGrid<Integer> uniformGrid = new UniformGrid<>(new double[] { 0, 0, 1000, 500 }, expectedSize);
+            Map<Integer, Coord> coords = new HashMap<>();
+            List<Integer> values = new ArrayList<>();
+            for (int index = 0; index < 300; ++index)
+                values.add(Integer.valueOf(index));
+            for (int step = 0; step < 20000; ++step) {
+                Integer value = values.get(random.nextInt(values.size()));
+                if (random.nextBoolean()) {
+                    /** some values are outside of the bounding box */
+                    Coord coord = new Coord(1100 * random.nextDouble() - 50, 600 * random.nextDouble() - 50);
+                    uniformGrid.put(coord.getX(), coord.getY(), value);
+                    coords.put(value, coord);
+                } else
+                    assertEquals(coords.remove(value) != null, uniformGrid.remove(value));
+                assertEquals(coords.size(), uniformGrid.size());
+                double x = 1200 * random.nextDouble() - 100;
+                double y = 700 * random.nextDouble() - 100;
+                Integer closest = uniformGrid.getClosest(x, y);
+                if (coords.isEmpty())
+                    assertNull(closest);
+                else {
+                    double minimum = coords.values().stream().mapToDouble(coord -> distance(coord, x, y)).min().getAsDouble();
+                    assertEquals(minimum, distance(coords.get(closest), x, y), 1e-9);
+                }
+            }
+        }
+    }
+
+    public void testOf() {
+        Map<String, Coord> coords = new HashMap<>();
+        coords.put("a", new Coord(0, 0));
+        coords.put("b", new Coord(10, 10));
+        UniformGrid<String> uniformGrid = UniformGrid.of(new double[] { 0, 0, 10, 10 }, coords);
+        assertEquals(2, uniformGrid.size());
+        assertEquals("a", uniformGrid.getClosest(1, 2));
+        assertEquals("b", uniformGrid.getClosest(9, 8));
+    }
+}
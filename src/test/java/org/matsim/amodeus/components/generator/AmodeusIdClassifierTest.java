@@ -0,0 +1,35 @@
+package org.matsim.amodeus.components.generator;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.population.Person;
+
+import junit.framework.TestCase;
+
+public class AmodeusIdClassifierTest extends TestCase {
+    public void testSimple() {
+        AmodeusIdClassifier<Person> classifier = new AmodeusIdClassifier<>();
+        for (int count = 0; count < 100; ++count) {
+            Id<Person> vehicle = Id.create("amodeus:av:" + count, Person.class);
+            Id<Person> person = Id.create("person" + count, Person.class);
+            assertTrue(classifier.isValid(vehicle));
+            assertEquals("av", classifier.getMode(vehicle));
+            assertFalse(classifier.isValid(person));
+            assertEquals(AmodeusIdentifiers.isValid(person), classifier.isValid(person));
+        }
+        assertTrue(classifier.getMode(Id.create("amodeus:av:3", Person.class)) == classifier.getMode(Id.create("amodeus:av:4", Person.class)));
+    }
+
+    public void testFail() {
+        AmodeusIdClassifier<Person> classifier = new AmodeusIdClassifier<>();
+        for (String string : new String[] { "person", "amodeus:av" }) {
+            Id<Person> id = Id.create(string, Person.class);
+            try {
+                classifier.getMode(id);
+                fail();
+            } catch (IllegalStateException illegalStateException) {
+                // ---
+            }
+        }
+        assertTrue(classifier.isValid(Id.create("amodeus:av", Person.class)));
+    }
+}